@@ -0,0 +1,150 @@
+package com.example.netequip.benchmark;
+
+import com.example.netequip.dto.employee.EmployeeResponseDTO;
+import com.example.netequip.entity.DevicePort;
+import com.example.netequip.entity.Employee;
+import com.example.netequip.entity.Equipment;
+import com.example.netequip.entity.EquipmentType;
+import com.example.netequip.entity.IpAddress;
+import com.example.netequip.entity.Location;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Данные бенчмарков, близкие по размеру к рабочим: коммутатор доступа с 48 портами,
+ * связанными типом, ответственным и расположением, и технические параметры из нескольких
+ * десятков ключей с вложенными объектами и списками
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Equipment> equipment(int count, int paramKeys) {
+        EquipmentType type = new EquipmentType(1L, 0L, "Коммутатор", "Cisco", "Catalyst 9300-48P", 48,
+                "Ethernet", "L2/L3", "Коммутатор доступа с PoE+");
+        Employee employee = new Employee(1L, 0L, "Иванов Иван Иванович", "Ведущий инженер", "ivanov@example.com");
+        Location rack = new Location(1L, null, Location.Level.RACK, "Стойка 12",
+                "/г.-москва,ул.-ленина,д.-5/корпус-b/этаж-3/стойка-12/", 4, 0);
+        String params = technicalParamsJson(paramKeys);
+
+        List<Equipment> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Equipment equipment = new Equipment();
+            equipment.setId((long) i);
+            equipment.setType(type);
+            equipment.setEmployee(employee);
+            equipment.setName("SW-MSK-B3-" + i);
+            equipment.setSerialNumber(String.format("FOC%08d", i));
+            equipment.setMacAddress(mac(i));
+            equipment.setIpAddress(ipv4(i));
+            equipment.setAddress("г. Москва, ул. Ленина, д. 5, корп. B, эт. 3, стойка 12");
+            equipment.setLocation(rack);
+            equipment.setLocationPath(rack.getPath());
+            equipment.setStatus("Active");
+            equipment.setDateAdded(LocalDate.of(2023, 3, 15));
+            equipment.setDateUpdated(LocalDate.of(2025, 9, 1));
+            equipment.setTechnicalParams(params);
+            equipment.setPortsCount(48);
+            equipment.setIpAddressesCount(2);
+            equipment.setMaintenanceCount(12);
+            result.add(equipment);
+        }
+        return result;
+    }
+
+    static List<DevicePort> ports(Equipment equipment, Equipment peer, int count) {
+        List<DevicePort> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            DevicePort port = new DevicePort();
+            port.setId((long) i);
+            port.setEquipment(equipment);
+            port.setPortNumber(i);
+            port.setPortType(i > count - 4 ? "SFP+" : "Ethernet");
+            port.setStatus(i % 3 == 0 ? "Inactive" : "Active");
+            port.setSpeed(i > count - 4 ? "10G" : "1G");
+            port.setDescription("Gi1/0/" + i);
+            if (i % 2 == 0) {
+                DevicePort peerPort = new DevicePort();
+                peerPort.setId(10_000L + i);
+                peerPort.setEquipment(peer);
+                peerPort.setPortNumber(i);
+                port.setConnectedToEquipment(peer);
+                port.setConnectedToPort(peerPort);
+            }
+            result.add(port);
+        }
+        return result;
+    }
+
+    static List<IpAddress> ipAddresses(Equipment equipment, int count) {
+        List<IpAddress> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add(new IpAddress((long) i, 0L, equipment, ipv4(i), "255.255.255.0", "10.20.0.1",
+                    i == 1 ? "Management" : "LAN", i == 1, LocalDate.of(2024, 1, 10)));
+        }
+        return result;
+    }
+
+    /**
+     * Сотрудники с повторяющимися фамилиями, именами и должностями, как в реальном справочнике
+     */
+    static List<EmployeeResponseDTO> employees(int count) {
+        String[] lastNames = {"Иванов", "Петров", "Сидоров", "Смирнов", "Кузнецов", "Попов", "Васильев",
+                "Соколов", "Михайлов", "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев",
+                "Семёнов", "Егоров", "Павлов", "Козлов", "Степанов"};
+        String[] firstNames = {"Иван", "Пётр", "Сергей", "Алексей", "Андрей", "Дмитрий", "Михаил", "Олег",
+                "Николай", "Владимир", "Евгений", "Павел", "Роман", "Игорь", "Артём", "Максим",
+                "Константин", "Юрий", "Григорий", "Виктор"};
+        String[] positions = {"Инженер", "Ведущий инженер", "Сетевой администратор", "Техник",
+                "Системный администратор", "Начальник отдела", "Специалист поддержки", "Монтажник"};
+
+        List<EmployeeResponseDTO> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String lastName = lastNames[i % lastNames.length];
+            String firstName = firstNames[(i / lastNames.length) % firstNames.length];
+            String patronymic = firstNames[(i / (lastNames.length * firstNames.length)) % firstNames.length] + "ович";
+            result.add(new EmployeeResponseDTO((long) i, lastName + " " + firstName + " " + patronymic,
+                    positions[i % positions.length], "employee" + i + "@example.com"));
+        }
+        return result;
+    }
+
+    static Map<String, Object> technicalParams(int keys) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("firmware", "17.9.4a");
+        params.put("uptimeDays", 412);
+        params.put("poeBudgetWatts", 740.5);
+        params.put("stackable", true);
+        params.put("vlans", List.of(10, 20, 30, 100, 200, 999));
+        params.put("snmp", Map.of("version", "v3", "community", "netops", "port", 161));
+        for (int i = params.size(); i < keys; i++) {
+            params.put("param" + i, i % 2 == 0 ? "value-" + i : i * 10);
+        }
+        return params;
+    }
+
+    static String mac(int i) {
+        return String.format("00:1A:2B:%02X:%02X:%02X", (i >> 16) & 0xFF, (i >> 8) & 0xFF, i & 0xFF);
+    }
+
+    static String ipv4(int i) {
+        return "10.20." + ((i >> 8) & 0xFF) + "." + (i & 0xFF);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static String technicalParamsJson(int keys) {
+        try {
+            return new ObjectMapper().writeValueAsString(technicalParams(keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.netequip.benchmark;
+
+import com.example.netequip.service.EmployeeSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время одного запроса автодополнения по индексу сотрудников
+ * Цель — меньше миллисекунды на справочнике в десятки тысяч записей. Запрос из двух букв,
+ * совпадающий почти с каждой записью, в неё не укладывается: ранжируются все совпадения
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeSearchBenchmark {
+
+    @Param({"1000", "20000"})
+    private int employees;
+
+    // Точное слово, префикс, подстрока, опечатка, два слова, две буквы внутри почти каждой фамилии
+    @Param({"иванов", "петр", "ерге", "смиронв", "козлов инж", "ов"})
+    private String query;
+
+    private EmployeeSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new EmployeeSearchIndex(null, null);
+        BenchmarkData.employees(employees).forEach(index::index);
+    }
+
+    @Benchmark
+    public List<?> search() {
+        return index.search(query, 20);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.netequip.benchmark;
+
+import com.example.netequip.entity.DevicePort;
+import com.example.netequip.entity.Equipment;
+import com.example.netequip.entity.IpAddress;
+import com.example.netequip.mapper.DevicePortMapper;
+import com.example.netequip.mapper.DevicePortMapperImpl;
+import com.example.netequip.mapper.EquipmentMapper;
+import com.example.netequip.mapper.EquipmentMapperImpl;
+import com.example.netequip.mapper.IpAddressMapper;
+import com.example.netequip.mapper.IpAddressMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость MapStruct-мапперов на размерах списков эндпоинтов
+ * Результат — время на весь список; делением на rows получается цена одной строки
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int rows;
+
+    private final EquipmentMapper equipmentMapper = new EquipmentMapperImpl();
+    private final DevicePortMapper devicePortMapper = new DevicePortMapperImpl();
+    private final IpAddressMapper ipAddressMapper = new IpAddressMapperImpl();
+
+    private List<Equipment> equipment;
+    private List<DevicePort> ports;
+    private List<IpAddress> ipAddresses;
+
+    @Setup
+    public void setup() {
+        equipment = BenchmarkData.equipment(rows, 32);
+        Equipment peer = BenchmarkData.equipment(1, 0).getFirst();
+        ports = BenchmarkData.ports(equipment.getFirst(), peer, rows);
+        ipAddresses = BenchmarkData.ipAddresses(equipment.getFirst(), rows);
+    }
+
+    @Benchmark
+    public void equipmentToListDTO(Blackhole blackhole) {
+        for (Equipment entity : equipment) {
+            blackhole.consume(equipmentMapper.toListDTO(entity));
+        }
+    }
+
+    @Benchmark
+    public void equipmentToResponseDTO(Blackhole blackhole) {
+        for (Equipment entity : equipment) {
+            blackhole.consume(equipmentMapper.toResponseDTO(entity));
+        }
+    }
+
+    @Benchmark
+    public void devicePortToResponseDTO(Blackhole blackhole) {
+        for (DevicePort entity : ports) {
+            blackhole.consume(devicePortMapper.toResponseDTO(entity));
+        }
+    }
+
+    @Benchmark
+    public void ipAddressToResponseDTO(Blackhole blackhole) {
+        for (IpAddress entity : ipAddresses) {
+            blackhole.consume(ipAddressMapper.toResponseDTO(entity));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.netequip.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование technicalParams: Map → JSON при записи и JSON → Map при каждом чтении
+ * parse/serialize повторяют код EquipmentService (ObjectMapper и TypeReference на вызов),
+ * варианты с Reader/Writer — заранее подготовленные объекты для сравнения
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TechnicalParamsBenchmark {
+
+    @Param({"8", "32", "128"})
+    private int keys;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader reader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {});
+    private final ObjectWriter writer = objectMapper.writerFor(new TypeReference<Map<String, Object>>() {});
+
+    private Map<String, Object> params;
+    private String json;
+
+    @Setup
+    public void setup() throws Exception {
+        params = BenchmarkData.technicalParams(keys);
+        json = objectMapper.writeValueAsString(params);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(params);
+    }
+
+    @Benchmark
+    public Map<String, Object> parse() throws Exception {
+        return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+    }
+
+    @Benchmark
+    public String serializeWithWriter() throws Exception {
+        return writer.writeValueAsString(params);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseWithReader() throws Exception {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public Map<String, Object> roundTrip() throws Exception {
+        return objectMapper.readValue(objectMapper.writeValueAsString(params),
+                new TypeReference<Map<String, Object>>() {});
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.netequip.benchmark;
+
+import com.example.netequip.dto.equipment.CreateEquipmentDTO;
+import com.example.netequip.dto.ipaddress.CreateIpAddressDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation входных DTO: полная проверка объекта и отдельные поля с регулярными
+ * выражениями (MAC, IPv4, IPv6). Неверные значения проверяются отдельно: на них
+ * дополнительно строится сообщение об ошибке
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+
+    private CreateEquipmentDTO equipment;
+    private CreateEquipmentDTO invalidEquipment;
+    private CreateIpAddressDTO ipv4;
+    private CreateIpAddressDTO ipv6;
+
+    @Setup
+    public void setup() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+
+        equipment = new CreateEquipmentDTO();
+        equipment.setTypeId(1L);
+        equipment.setEmployeeId(1L);
+        equipment.setName("SW-MSK-B3-12");
+        equipment.setSerialNumber("FOC00000012");
+        equipment.setMacAddress("00:1A:2B:3C:4D:5E");
+        equipment.setIpAddress("10.20.30.40");
+        equipment.setAddress("г. Москва, ул. Ленина, д. 5, корп. B, эт. 3, стойка 12");
+        equipment.setStatus("Active");
+        equipment.setDateAdded(LocalDate.of(2024, 1, 10));
+        equipment.setTechnicalParams(BenchmarkData.technicalParams(32));
+
+        invalidEquipment = new CreateEquipmentDTO();
+        invalidEquipment.setTypeId(1L);
+        invalidEquipment.setName("SW-MSK-B3-12");
+        invalidEquipment.setMacAddress("00:1A:2B:3C:4D:ZZ");
+        invalidEquipment.setIpAddress("10.20.300.40");
+        invalidEquipment.setStatus("Unknown");
+
+        ipv4 = new CreateIpAddressDTO();
+        ipv4.setEquipmentId(1L);
+        ipv4.setIpAddress("192.168.100.254");
+        ipv4.setSubnetMask("255.255.255.0");
+        ipv4.setNetworkType("LAN");
+
+        ipv6 = new CreateIpAddressDTO();
+        ipv6.setEquipmentId(1L);
+        ipv6.setIpAddress("2001:0db8:85a3:0000:0000:8a2e:0370:7334");
+        ipv6.setNetworkType("LAN");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateEquipmentDTO>> equipmentValid() {
+        return validator.validate(equipment);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateEquipmentDTO>> equipmentInvalid() {
+        return validator.validate(invalidEquipment);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateEquipmentDTO>> macAddress() {
+        return validator.validateProperty(equipment, "macAddress");
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateEquipmentDTO>> equipmentIpv4() {
+        return validator.validateProperty(equipment, "ipAddress");
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateIpAddressDTO>> ipAddressIpv4() {
+        return validator.validate(ipv4);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateIpAddressDTO>> ipAddressIpv6() {
+        return validator.validate(ipv6);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.netequip.cache;
+
+import com.example.netequip.entity.Employee;
+import com.example.netequip.entity.EquipmentType;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate для справочных сущностей (типы оборудования, сотрудники)
+ * и кэш запросов поиска по уникальному ключу. Хранилище — Caffeine через JCache внутри процесса;
+ * регионы создаются здесь с ограничением размера и временем жизни записи, регион отметок
+ * изменения таблиц не ограничивается: по нему Hibernate отбрасывает устаревшие результаты запросов
+ */
+@Configuration
+@ConditionalOnProperty(name = "netequip.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    /**
+     * Регионы сущностей
+     */
+    public static final List<String> ENTITY_REGIONS = List.of(EquipmentType.CACHE_REGION, Employee.CACHE_REGION);
+
+    /**
+     * Регион результатов запросов
+     */
+    public static final String QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${netequip.cache.entity.max-entries:10000}") long entityMaxEntries,
+            @Value("${netequip.cache.entity.ttl:PT1H}") Duration entityTtl,
+            @Value("${netequip.cache.query.max-entries:10000}") long queryMaxEntries,
+            @Value("${netequip.cache.query.ttl:PT10M}") Duration queryTtl) {
+        // Собственный провайдер на контекст: менеджеры разных контекстов не делят регионы
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, configuration(OptionalLong.of(entityMaxEntries), entityTtl));
+        }
+        cacheManager.createCache(QUERY_REGION, configuration(OptionalLong.of(queryMaxEntries), queryTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuration(OptionalLong.empty(), null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Неописанный здесь регион — ошибка конфигурации, а не неограниченный кэш по умолчанию
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static CaffeineConfiguration<Object, Object> configuration(OptionalLong maxEntries, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setTypes(Object.class, Object.class);
+        // Hibernate кладёт в кэш неизменяемые разобранные записи, копировать их не нужно
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(maxEntries);
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.dto.changelog.ChangeFeedDTO;
+import com.example.netequip.service.ChangeLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST контроллер ленты изменений для инкрементальной синхронизации
+ * Базовый путь: /api/changes
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+@Tag(name = "Changes", description = "Лента изменений всех сущностей")
+public class ChangeLogController {
+
+    private final ChangeLogService changeLogService;
+
+    /**
+     * Изменения после токена
+     * GET /api/changes?since=0&limit=500
+     */
+    @GetMapping
+    @Operation(summary = "Получить изменения после токена",
+            description = "Возвращает изменения по возрастанию токена и nextToken для следующего запроса. " +
+                    "При resyncRequired=true клиенту нужна полная синхронизация")
+    public ResponseEntity<ChangeFeedDTO> getChanges(
+            @Parameter(description = "Последний полученный токен (0 — с начала)")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Максимальное количество изменений (1-1000)")
+            @RequestParam(defaultValue = "500") int limit) {
+        log.debug("REST запрос на получение изменений после токена {}", since);
+        ChangeFeedDTO feed = changeLogService.getChanges(since, limit);
+        return ResponseEntity.ok(feed);
+    }
+
+    /**
+     * Текущий последний токен
+     * GET /api/changes/head
+     */
+    @GetMapping("/head")
+    @Operation(summary = "Получить текущий токен",
+            description = "Запомните токен перед полной выгрузкой и читайте ленту с него")
+    public ResponseEntity<Map<String, Long>> getHeadToken() {
+        log.debug("REST запрос на получение текущего токена изменений");
+        return ResponseEntity.ok(Map.of("token", changeLogService.getHeadToken()));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.netequip.controller;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag для списков и прочих GET-ответов API
+ * Сильный ETag считается по телу ответа, совпавший If-None-Match превращается в 304 без тела.
+ * Одиночные документы ставят собственный ETag по версиям, фильтр его не заменяет;
+ * потоковые ответы (NDJSON, SSE) фильтр не буферизует
+ */
+@Configuration
+public class ConditionalRequestConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
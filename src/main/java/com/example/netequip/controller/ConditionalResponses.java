@@ -0,0 +1,41 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.dto.versioning.VersionedDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Условные ответы для одиночных документов
+ * ETag сверяется запросом версий до загрузки и маппинга документа; без If-None-Match
+ * запрос версий не выполняется, а ETag берётся из загруженных сущностей
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Проверка If-None-Match; при совпадении ответ уже переведён в 304
+     *
+     * @param request текущий запрос
+     * @param currentTag запрос текущего ETag
+     * @return true, если тело отдавать не нужно
+     */
+    static boolean notModified(WebRequest request, Supplier<String> currentTag) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(currentTag.get());
+    }
+
+    /**
+     * Ответ 200 с ETag и Last-Modified документа
+     */
+    static <T> ResponseEntity<T> ok(VersionedDTO<T> versioned) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(versioned.eTag());
+        if (versioned.lastModified() != null) {
+            response.lastModified(versioned.lastModified());
+        }
+        return response.body(versioned.body());
+    }
+}
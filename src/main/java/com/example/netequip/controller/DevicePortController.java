@@ -1,9 +1,18 @@
 package com.example.netequip.controller;
 
 import com.example.netequip.dto.deviceport.CreateDevicePortDTO;
+import com.example.netequip.dto.deviceport.DevicePortBatchResolveRequestDTO;
+import com.example.netequip.dto.deviceport.DevicePortBatchResolveResponseDTO;
 import com.example.netequip.dto.deviceport.DevicePortResponseDTO;
+import com.example.netequip.dto.deviceport.PortStatusBulkRequestDTO;
+import com.example.netequip.dto.deviceport.PortStatusBulkResponseDTO;
+import com.example.netequip.dto.deviceport.PortStatusHistoryDTO;
+import com.example.netequip.dto.deviceport.PortStatusIngestionStatsDTO;
+import com.example.netequip.dto.deviceport.PortTimeInStateDTO;
 import com.example.netequip.dto.deviceport.UpdateDevicePortDTO;
 import com.example.netequip.service.DevicePortService;
+import com.example.netequip.service.PortStatusHistoryService;
+import com.example.netequip.service.PortStatusIngestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,11 +21,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST контроллер для управления портами сетевого оборудования
@@ -32,6 +48,9 @@ public class DevicePortController {
     private static final Logger log = LoggerFactory.getLogger(DevicePortController.class);
 
     private final DevicePortService devicePortService;
+    private final NdjsonResponseFactory ndjsonResponseFactory;
+    private final PortStatusIngestionService portStatusIngestionService;
+    private final PortStatusHistoryService portStatusHistoryService;
 
     /**
      * Получение всех портов
@@ -46,6 +65,33 @@ public class DevicePortController {
         return ResponseEntity.ok(ports);
     }
 
+    /**
+     * Потоковая выгрузка всех портов в формате NDJSON (один JSON-объект на строку)
+     * GET /api/device-ports/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить все порты потоком (NDJSON)",
+            description = "Записи пишутся в ответ по мере чтения из БД, без построения полного списка в памяти")
+    public ResponseEntity<StreamingResponseBody> streamAllDevicePorts() {
+        log.debug("REST запрос на потоковую выгрузку всех портов");
+        return ndjsonResponseFactory.<DevicePortResponseDTO>stream(devicePortService::streamAll);
+    }
+
+    /**
+     * Получение всех портов с выбранными полями
+     * GET /api/device-ports?fields=id,portNumber,status
+     */
+    @GetMapping(params = "fields")
+    @Operation(summary = "Получить все порты с выбранными полями",
+            description = "Возвращает только перечисленные поля; JOIN выполняется лишь для полей связанных сущностей")
+    public ResponseEntity<List<Map<String, Object>>> getAllDevicePortsFields(
+            @Parameter(description = "Поля через запятую")
+            @RequestParam List<String> fields) {
+        log.debug("REST запрос на получение всех портов с полями: {}", fields);
+        List<Map<String, Object>> ports = devicePortService.getAll(fields);
+        return ResponseEntity.ok(ports);
+    }
+
     /**
      * Получение порта по ID
      * GET /api/device-ports/{id}
@@ -54,10 +100,14 @@ public class DevicePortController {
     @Operation(summary = "Получить порт по ID")
     public ResponseEntity<DevicePortResponseDTO> getDevicePortById(
             @Parameter(description = "ID порта")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
         log.debug("REST запрос на получение порта с ID: {}", id);
-        DevicePortResponseDTO port = devicePortService.getById(id);
-        return ResponseEntity.ok(port);
+        // 304 по запросу версий, без загрузки документа
+        if (ConditionalResponses.notModified(request, () -> devicePortService.getETag(id))) {
+            return null;
+        }
+        return ConditionalResponses.ok(devicePortService.getVersionedById(id));
     }
 
     /**
@@ -84,10 +134,11 @@ public class DevicePortController {
     public ResponseEntity<DevicePortResponseDTO> updateDevicePort(
             @Parameter(description = "ID порта")
             @PathVariable Long id,
-            @Valid @RequestBody UpdateDevicePortDTO dto) {
+            @Valid @RequestBody UpdateDevicePortDTO dto,
+            @Parameter(description = "ETag из предыдущего ответа: обновление только если порт не изменён")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST запрос на обновление порта с ID: {}", id);
-        DevicePortResponseDTO updated = devicePortService.update(id, dto);
-        return ResponseEntity.ok(updated);
+        return ConditionalResponses.ok(devicePortService.update(id, dto, ifMatch));
     }
 
     /**
@@ -119,6 +170,82 @@ public class DevicePortController {
         return ResponseEntity.ok(ports);
     }
 
+    /**
+     * Пакетный поиск портов по ID и по оборудованию
+     * POST /api/device-ports/resolve
+     */
+    @PostMapping("/resolve")
+    @Operation(summary = "Пакетный поиск портов",
+            description = "Один запрос вместо множества GET по ID или оборудованию; возвращает найденное и промахи")
+    public ResponseEntity<DevicePortBatchResolveResponseDTO> resolvePorts(
+            @Valid @RequestBody DevicePortBatchResolveRequestDTO request) {
+        log.debug("REST запрос на пакетный поиск портов");
+        DevicePortBatchResolveResponseDTO result = devicePortService.resolve(request);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Приём пакета статусов портов от систем опроса
+     * POST /api/device-ports/status/bulk
+     */
+    @PostMapping("/status/bulk")
+    @Operation(summary = "Принять пакет статусов портов",
+            description = "Статусы буферизуются и применяются асинхронно; повторные статусы одного порта " +
+                    "сливаются, в БД записываются только реальные изменения. При заполненном буфере — 503")
+    public ResponseEntity<PortStatusBulkResponseDTO> submitStatuses(
+            @Valid @RequestBody PortStatusBulkRequestDTO request) {
+        log.debug("REST запрос на приём {} статусов портов", request.getUpdates().size());
+        PortStatusBulkResponseDTO result = portStatusIngestionService.submit(request.getUpdates());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+    }
+
+    /**
+     * Статистика приёма статусов портов
+     * GET /api/device-ports/status/bulk/stats
+     */
+    @GetMapping("/status/bulk/stats")
+    @Operation(summary = "Статистика приёма статусов портов",
+            description = "Размер буфера, доля слитых наблюдений и длительность выгрузок")
+    public ResponseEntity<PortStatusIngestionStatsDTO> getStatusIngestionStats() {
+        return ResponseEntity.ok(portStatusIngestionService.getStats());
+    }
+
+    /**
+     * История переходов статуса порта
+     * GET /api/device-ports/{id}/status-history?from=2024-01-01T00:00:00&to=2024-01-08T00:00:00
+     */
+    @GetMapping("/{id}/status-history")
+    @Operation(summary = "Получить историю статуса порта",
+            description = "Статус на начало периода и все переходы внутри него. По умолчанию — последние 7 дней")
+    public ResponseEntity<PortStatusHistoryDTO> getStatusHistory(
+            @Parameter(description = "ID порта")
+            @PathVariable Long id,
+            @Parameter(description = "Начало периода (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Конец периода (ISO date-time), по умолчанию — сейчас")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("REST запрос на получение истории статуса порта ID: {}", id);
+        return ResponseEntity.ok(portStatusHistoryService.getTransitions(id, from, to));
+    }
+
+    /**
+     * Время пребывания порта в каждом статусе
+     * GET /api/device-ports/{id}/status-history/time-in-state
+     */
+    @GetMapping("/{id}/status-history/time-in-state")
+    @Operation(summary = "Получить время порта в каждом статусе",
+            description = "Секунды в каждом статусе за период и количество переходов. По умолчанию — последние 7 дней")
+    public ResponseEntity<PortTimeInStateDTO> getTimeInState(
+            @Parameter(description = "ID порта")
+            @PathVariable Long id,
+            @Parameter(description = "Начало периода (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Конец периода (ISO date-time), по умолчанию — сейчас")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("REST запрос на получение времени в статусах порта ID: {}", id);
+        return ResponseEntity.ok(portStatusHistoryService.getTimeInState(id, from, to));
+    }
+
     /**
      * Получение порта по номеру на оборудовании
      * GET /api/device-ports/equipment/{equipmentId}/port/{portNumber}
@@ -2,6 +2,7 @@ package com.example.netequip.controller;
 
 import com.example.netequip.dto.employee.CreateEmployeeDTO;
 import com.example.netequip.dto.employee.EmployeeResponseDTO;
+import com.example.netequip.dto.employee.EmployeeWorkloadDTO;
 import com.example.netequip.dto.employee.UpdateEmployeeDTO;
 import com.example.netequip.service.EmployeeService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,10 +11,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -27,7 +32,10 @@ import java.util.List;
 @Tag(name = "Employees", description = "API для управления сотрудниками")
 public class EmployeeController {
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final EmployeeService employeeService;
+    private final NdjsonResponseFactory ndjsonResponseFactory;
 
     /**
      * Получение всех сотрудников
@@ -42,6 +50,18 @@ public class EmployeeController {
         return ResponseEntity.ok(employees);
     }
 
+    /**
+     * Потоковая выгрузка всех сотрудников в формате NDJSON (один JSON-объект на строку)
+     * GET /api/employees/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить всех сотрудников потоком (NDJSON)",
+            description = "Записи пишутся в ответ по мере чтения из БД, без построения полного списка в памяти")
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+        log.debug("REST запрос на потоковую выгрузку всех сотрудников");
+        return ndjsonResponseFactory.<EmployeeResponseDTO>stream(employeeService::streamAll);
+    }
+
     /**
      * Получение сотрудника по ID
      * GET /api/employees/{id}
@@ -99,17 +119,22 @@ public class EmployeeController {
     }
 
     /**
-     * Поиск сотрудников по имени (частичное совпадение)
-     * GET /api/employees/search?name=...
+     * Ранжированный поиск сотрудников (автодополнение)
+     * GET /api/employees/search?q=...&limit=...
      */
     @GetMapping("/search")
-    @Operation(summary = "Поиск сотрудников по имени",
-            description = "Поиск по частичному совпадению имени (без учёта регистра)")
-    public ResponseEntity<List<EmployeeResponseDTO>> searchByName(
-            @Parameter(description = "Часть имени для поиска")
-            @RequestParam String name) {
-        log.debug("REST запрос на поиск сотрудников по имени: {}", name);
-        List<EmployeeResponseDTO> employees = employeeService.searchByName(name);
+    @Operation(summary = "Поиск сотрудников",
+            description = "Ранжированный поиск по имени, email и должности: префикс, подстрока и опечатки")
+    public ResponseEntity<List<EmployeeResponseDTO>> search(
+            @Parameter(description = "Строка поиска")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Строка поиска (устаревший параметр, аналог q)")
+            @RequestParam(required = false) String name,
+            @Parameter(description = "Максимальное количество результатов (1-100, по умолчанию 20)")
+            @RequestParam(defaultValue = "20") int limit) {
+        String query = q != null ? q : name;
+        log.debug("REST запрос на поиск сотрудников: {}", query);
+        List<EmployeeResponseDTO> employees = employeeService.search(query, Math.clamp(limit, 1, MAX_SEARCH_LIMIT));
         return ResponseEntity.ok(employees);
     }
 
@@ -180,4 +205,24 @@ public class EmployeeController {
         long count = employeeService.count();
         return ResponseEntity.ok(count);
     }
+
+    /**
+     * Нагрузка всех сотрудников за период
+     * GET /api/employees/workload?start=...&end=...
+     */
+    @GetMapping("/workload")
+    @Operation(summary = "Получить нагрузку сотрудников",
+            description = "Для каждого сотрудника: количество закреплённого оборудования, " +
+                    "количество и стоимость обслуживаний за период (по умолчанию последние 30 дней)")
+    public ResponseEntity<List<EmployeeWorkloadDTO>> getWorkload(
+            @Parameter(description = "Начало периода (ISO DateTime)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "Конец периода (ISO DateTime)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        LocalDateTime periodEnd = end != null ? end : LocalDateTime.now();
+        LocalDateTime periodStart = start != null ? start : periodEnd.minusDays(30);
+        log.debug("REST запрос на получение нагрузки сотрудников: {} - {}", periodStart, periodEnd);
+        List<EmployeeWorkloadDTO> workload = employeeService.getWorkload(periodStart, periodEnd);
+        return ResponseEntity.ok(workload);
+    }
 }
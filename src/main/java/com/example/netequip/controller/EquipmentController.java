@@ -1,9 +1,15 @@
 package com.example.netequip.controller;
 
 import com.example.netequip.dto.equipment.CreateEquipmentDTO;
+import com.example.netequip.dto.equipment.DeviceFullViewDTO;
+import com.example.netequip.dto.equipment.EquipmentBatchResolveRequestDTO;
+import com.example.netequip.dto.equipment.EquipmentBatchResolveResponseDTO;
 import com.example.netequip.dto.equipment.EquipmentListDTO;
 import com.example.netequip.dto.equipment.EquipmentResponseDTO;
+import com.example.netequip.dto.equipment.MacResolveRequestDTO;
+import com.example.netequip.dto.equipment.MacResolveResponseDTO;
 import com.example.netequip.dto.equipment.UpdateEquipmentDTO;
+import com.example.netequip.service.DeviceViewService;
 import com.example.netequip.service.EquipmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,12 +18,17 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST контроллер для управления сетевым оборудованием
@@ -32,6 +43,8 @@ import java.util.List;
 public class EquipmentController {
 
     private final EquipmentService equipmentService;
+    private final NdjsonResponseFactory ndjsonResponseFactory;
+    private final DeviceViewService deviceViewService;
 
     /**
      * Получение всего оборудования (краткая информация)
@@ -46,6 +59,33 @@ public class EquipmentController {
         return ResponseEntity.ok(equipment);
     }
 
+    /**
+     * Потоковая выгрузка всего оборудования в формате NDJSON (один JSON-объект на строку)
+     * GET /api/equipment/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить всё оборудование потоком (NDJSON)",
+            description = "Записи пишутся в ответ по мере чтения из БД, без построения полного списка в памяти")
+    public ResponseEntity<StreamingResponseBody> streamAllEquipment() {
+        log.debug("REST запрос на потоковую выгрузку всего оборудования");
+        return ndjsonResponseFactory.<EquipmentListDTO>stream(equipmentService::streamAll);
+    }
+
+    /**
+     * Получение всех оборудования с выбранными полями
+     * GET /api/equipment?fields=id,name,status,ipAddress
+     */
+    @GetMapping(params = "fields")
+    @Operation(summary = "Получить всё оборудование с выбранными полями",
+            description = "Возвращает только перечисленные поля; JOIN выполняется лишь для полей связанных сущностей")
+    public ResponseEntity<List<Map<String, Object>>> getAllEquipmentFields(
+            @Parameter(description = "Поля через запятую")
+            @RequestParam List<String> fields) {
+        log.debug("REST запрос на получение всех оборудования с полями: {}", fields);
+        List<Map<String, Object>> equipment = equipmentService.getAll(fields);
+        return ResponseEntity.ok(equipment);
+    }
+
     /**
      * Получение оборудования по ID (полная информация)
      * GET /api/equipment/{id}
@@ -55,10 +95,14 @@ public class EquipmentController {
             description = "Возвращает полную информацию об оборудовании включая статистику")
     public ResponseEntity<EquipmentResponseDTO> getEquipmentById(
             @Parameter(description = "ID оборудования")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
         log.debug("REST запрос на получение оборудования с ID: {}", id);
-        EquipmentResponseDTO equipment = equipmentService.getById(id);
-        return ResponseEntity.ok(equipment);
+        // 304 по запросу версий, без загрузки документа
+        if (ConditionalResponses.notModified(request, () -> equipmentService.getETag(id))) {
+            return null;
+        }
+        return ConditionalResponses.ok(equipmentService.getVersionedById(id));
     }
 
     /**
@@ -84,10 +128,11 @@ public class EquipmentController {
     public ResponseEntity<EquipmentResponseDTO> updateEquipment(
             @Parameter(description = "ID оборудования")
             @PathVariable Long id,
-            @Valid @RequestBody UpdateEquipmentDTO dto) {
+            @Valid @RequestBody UpdateEquipmentDTO dto,
+            @Parameter(description = "ETag из предыдущего ответа: обновление только если оборудование не изменилось")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST запрос на обновление оборудования с ID: {}", id);
-        EquipmentResponseDTO updated = equipmentService.update(id, dto);
-        return ResponseEntity.ok(updated);
+        return ConditionalResponses.ok(equipmentService.update(id, dto, ifMatch));
     }
 
     /**
@@ -119,6 +164,27 @@ public class EquipmentController {
         return ResponseEntity.ok(equipment);
     }
 
+    /**
+     * Полное представление устройства одним запросом
+     * GET /api/equipment/{id}/full?include=ports,ips,maintenance,connections&maintenanceLimit=5
+     */
+    @GetMapping("/{id}/full")
+    @Operation(summary = "Получить полное представление устройства",
+            description = "Оборудование, порты с подключениями, IP-адреса, последние обслуживания и входящие " +
+                    "подключения в одном документе. Параметр include ограничивает набор разделов")
+    public ResponseEntity<DeviceFullViewDTO> getFullView(
+            @Parameter(description = "ID оборудования")
+            @PathVariable Long id,
+            @Parameter(description = "Разделы: ports, ips, maintenance, connections (по умолчанию все)")
+            @RequestParam(required = false) List<String> include,
+            @Parameter(description = "Количество последних обслуживаний (1-50)")
+            @RequestParam(defaultValue = "5") int maintenanceLimit) {
+        log.debug("REST запрос на полное представление оборудования ID: {}", id);
+        DeviceFullViewDTO view = deviceViewService.getFullView(
+                id, DeviceViewService.Section.parse(include), maintenanceLimit);
+        return ResponseEntity.ok(view);
+    }
+
     /**
      * Поиск оборудования по MAC-адресу
      * GET /api/equipment/mac/{macAddress}
@@ -133,6 +199,34 @@ public class EquipmentController {
         return ResponseEntity.ok(equipment);
     }
 
+    /**
+     * Пакетный поиск оборудования по ID, серийным номерам, MAC- и IP-адресам
+     * POST /api/equipment/resolve
+     */
+    @PostMapping("/resolve")
+    @Operation(summary = "Пакетный поиск оборудования",
+            description = "Один запрос вместо множества GET /serial, /mac, /ip; возвращает найденное и промахи")
+    public ResponseEntity<EquipmentBatchResolveResponseDTO> resolveEquipment(
+            @Valid @RequestBody EquipmentBatchResolveRequestDTO request) {
+        log.debug("REST запрос на пакетный поиск оборудования");
+        EquipmentBatchResolveResponseDTO result = equipmentService.resolve(request);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Массовое сопоставление MAC-адресов с оборудованием (ARP/CAM-таблицы)
+     * POST /api/equipment/mac/resolve
+     */
+    @PostMapping("/mac/resolve")
+    @Operation(summary = "Сопоставить MAC-адреса с оборудованием",
+            description = "Возвращает ID оборудования для каждого MAC-адреса без обращения к БД")
+    public ResponseEntity<MacResolveResponseDTO> resolveMacAddresses(
+            @Valid @RequestBody MacResolveRequestDTO request) {
+        log.debug("REST запрос на сопоставление {} MAC-адресов", request.getMacAddresses().size());
+        MacResolveResponseDTO result = equipmentService.resolveMacAddresses(request.getMacAddresses());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Поиск оборудования по IP-адресу
      * GET /api/equipment/ip/{ipAddress}
@@ -11,8 +11,10 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -28,6 +30,7 @@ import java.util.List;
 public class EquipmentTypeController {
 
     private final EquipmentTypeService equipmentTypeService;
+    private final NdjsonResponseFactory ndjsonResponseFactory;
 
     /**
      * Получение всех типов оборудования
@@ -42,6 +45,18 @@ public class EquipmentTypeController {
         return ResponseEntity.ok(types);
     }
 
+    /**
+     * Потоковая выгрузка всех типов оборудования в формате NDJSON (один JSON-объект на строку)
+     * GET /api/equipment-types/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить все типы оборудования потоком (NDJSON)",
+            description = "Записи пишутся в ответ по мере чтения из БД, без построения полного списка в памяти")
+    public ResponseEntity<StreamingResponseBody> streamAllEquipmentTypes() {
+        log.debug("REST запрос на потоковую выгрузку всех типов оборудования");
+        return ndjsonResponseFactory.<EquipmentTypeResponseDTO>stream(equipmentTypeService::streamAll);
+    }
+
     /**
      * Получение типа оборудования по ID
      * GET /api/equipment-types/{id}
@@ -1,6 +1,8 @@
 package com.example.netequip.controller;
 
 import com.example.netequip.dto.ipaddress.CreateIpAddressDTO;
+import com.example.netequip.dto.ipaddress.IpAddressBatchResolveRequestDTO;
+import com.example.netequip.dto.ipaddress.IpAddressBatchResolveResponseDTO;
 import com.example.netequip.dto.ipaddress.IpAddressResponseDTO;
 import com.example.netequip.dto.ipaddress.UpdateIpAddressDTO;
 import com.example.netequip.service.IpAddressService;
@@ -10,11 +12,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST контроллер для управления IP-адресами оборудования
@@ -28,6 +35,7 @@ import java.util.List;
 public class IpAddressController {
 
     private final IpAddressService ipAddressService;
+    private final NdjsonResponseFactory ndjsonResponseFactory;
 
     /**
      * Получение всех IP-адресов
@@ -42,6 +50,33 @@ public class IpAddressController {
         return ResponseEntity.ok(ipAddresses);
     }
 
+    /**
+     * Потоковая выгрузка всех IP-адресов в формате NDJSON (один JSON-объект на строку)
+     * GET /api/ip-addresses/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить все IP-адреса потоком (NDJSON)",
+            description = "Записи пишутся в ответ по мере чтения из БД, без построения полного списка в памяти")
+    public ResponseEntity<StreamingResponseBody> streamAllIpAddresses() {
+        log.debug("REST запрос на потоковую выгрузку всех IP-адресов");
+        return ndjsonResponseFactory.<IpAddressResponseDTO>stream(ipAddressService::streamAll);
+    }
+
+    /**
+     * Получение всех IP-адресов с выбранными полями
+     * GET /api/ip-addresses?fields=id,ipAddress,equipmentId
+     */
+    @GetMapping(params = "fields")
+    @Operation(summary = "Получить все IP-адреса с выбранными полями",
+            description = "Возвращает только перечисленные поля; JOIN выполняется лишь для полей связанных сущностей")
+    public ResponseEntity<List<Map<String, Object>>> getAllIpAddressesFields(
+            @Parameter(description = "Поля через запятую")
+            @RequestParam List<String> fields) {
+        log.debug("REST запрос на получение всех IP-адресов с полями: {}", fields);
+        List<Map<String, Object>> ipAddresses = ipAddressService.getAll(fields);
+        return ResponseEntity.ok(ipAddresses);
+    }
+
     /**
      * Получение IP-адреса по ID
      * GET /api/ip-addresses/{id}
@@ -50,10 +85,14 @@ public class IpAddressController {
     @Operation(summary = "Получить IP-адрес по ID")
     public ResponseEntity<IpAddressResponseDTO> getIpAddressById(
             @Parameter(description = "ID IP-адреса")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
         log.debug("REST запрос на получение IP-адреса с ID: {}", id);
-        IpAddressResponseDTO ipAddress = ipAddressService.getById(id);
-        return ResponseEntity.ok(ipAddress);
+        // 304 по запросу версий, без загрузки документа
+        if (ConditionalResponses.notModified(request, () -> ipAddressService.getETag(id))) {
+            return null;
+        }
+        return ConditionalResponses.ok(ipAddressService.getVersionedById(id));
     }
 
     /**
@@ -79,10 +118,11 @@ public class IpAddressController {
     public ResponseEntity<IpAddressResponseDTO> updateIpAddress(
             @Parameter(description = "ID IP-адреса")
             @PathVariable Long id,
-            @Valid @RequestBody UpdateIpAddressDTO dto) {
+            @Valid @RequestBody UpdateIpAddressDTO dto,
+            @Parameter(description = "ETag из предыдущего ответа: обновление только если IP-адрес не изменён")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("REST запрос на обновление IP-адреса с ID: {}", id);
-        IpAddressResponseDTO updated = ipAddressService.update(id, dto);
-        return ResponseEntity.ok(updated);
+        return ConditionalResponses.ok(ipAddressService.update(id, dto, ifMatch));
     }
 
     /**
@@ -144,6 +184,20 @@ public class IpAddressController {
         return ResponseEntity.ok(ipAddress);
     }
 
+    /**
+     * Пакетный поиск IP-адресов по ID и значениям
+     * POST /api/ip-addresses/resolve
+     */
+    @PostMapping("/resolve")
+    @Operation(summary = "Пакетный поиск IP-адресов",
+            description = "Один запрос вместо множества GET /search; возвращает найденное и промахи")
+    public ResponseEntity<IpAddressBatchResolveResponseDTO> resolveIpAddresses(
+            @Valid @RequestBody IpAddressBatchResolveRequestDTO request) {
+        log.debug("REST запрос на пакетный поиск IP-адресов");
+        IpAddressBatchResolveResponseDTO result = ipAddressService.resolve(request);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Получение IP-адресов по типу сети
      * GET /api/ip-addresses/network-type/{networkType}
@@ -0,0 +1,118 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.dto.equipment.EquipmentListDTO;
+import com.example.netequip.dto.location.LocationDTO;
+import com.example.netequip.dto.location.LocationPortCapacityDTO;
+import com.example.netequip.entity.Location;
+import com.example.netequip.service.EquipmentService;
+import com.example.netequip.service.LocationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST контроллер иерархии расположения оборудования
+ * Базовый путь: /api/locations
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/locations")
+@RequiredArgsConstructor
+@Tag(name = "Locations", description = "Иерархия расположения: площадка, корпус, этаж, помещение, стойка")
+public class LocationController {
+
+    private final LocationService locationService;
+    private final EquipmentService equipmentService;
+
+    /**
+     * Площадки (корневые узлы) или узлы заданного уровня
+     * GET /api/locations
+     * GET /api/locations?level=BUILDING
+     */
+    @GetMapping
+    @Operation(summary = "Получить площадки или узлы уровня",
+            description = "Без параметров возвращает площадки; с level — все узлы уровня " +
+                    "(SITE, BUILDING, FLOOR, ROOM, RACK)")
+    public ResponseEntity<List<LocationDTO>> getLocations(
+            @Parameter(description = "Уровень иерархии")
+            @RequestParam(required = false) Location.Level level) {
+        log.debug("REST запрос на получение расположений, уровень: {}", level);
+        List<LocationDTO> locations = level != null
+                ? locationService.getByLevel(level)
+                : locationService.getRoots();
+        return ResponseEntity.ok(locations);
+    }
+
+    /**
+     * Узел по ID
+     * GET /api/locations/{id}
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Получить узел расположения",
+            description = "Возвращает узел со счётчиком оборудования во всём поддереве")
+    public ResponseEntity<LocationDTO> getById(
+            @Parameter(description = "ID узла")
+            @PathVariable Long id) {
+        log.debug("REST запрос на получение расположения ID: {}", id);
+        return ResponseEntity.ok(locationService.getById(id));
+    }
+
+    /**
+     * Дочерние узлы
+     * GET /api/locations/{id}/children
+     */
+    @GetMapping("/{id}/children")
+    @Operation(summary = "Получить дочерние узлы")
+    public ResponseEntity<List<LocationDTO>> getChildren(
+            @Parameter(description = "ID узла")
+            @PathVariable Long id) {
+        log.debug("REST запрос на получение дочерних расположений ID: {}", id);
+        return ResponseEntity.ok(locationService.getChildren(id));
+    }
+
+    /**
+     * Оборудование в поддереве узла
+     * GET /api/locations/{id}/equipment
+     */
+    @GetMapping("/{id}/equipment")
+    @Operation(summary = "Получить оборудование узла",
+            description = "Оборудование узла и всех вложенных узлов (например, всё в корпусе)")
+    public ResponseEntity<List<EquipmentListDTO>> getEquipment(
+            @Parameter(description = "ID узла")
+            @PathVariable Long id) {
+        log.debug("REST запрос на получение оборудования расположения ID: {}", id);
+        return ResponseEntity.ok(equipmentService.getByLocation(id));
+    }
+
+    /**
+     * Ёмкость портов по площадкам
+     * GET /api/locations/port-capacity
+     */
+    @GetMapping("/port-capacity")
+    @Operation(summary = "Получить ёмкость портов по площадкам",
+            description = "Всего и свободных портов по сети с разбивкой по площадкам")
+    public ResponseEntity<LocationPortCapacityDTO> getPortCapacity() {
+        log.debug("REST запрос на получение ёмкости портов по площадкам");
+        return ResponseEntity.ok(locationService.getPortCapacity(null));
+    }
+
+    /**
+     * Ёмкость портов узла
+     * GET /api/locations/{id}/port-capacity
+     */
+    @GetMapping("/{id}/port-capacity")
+    @Operation(summary = "Получить ёмкость портов узла",
+            description = "Всего и свободных портов в поддереве узла с разбивкой по дочерним узлам")
+    public ResponseEntity<LocationPortCapacityDTO> getPortCapacity(
+            @Parameter(description = "ID узла")
+            @PathVariable Long id) {
+        log.debug("REST запрос на получение ёмкости портов расположения ID: {}", id);
+        return ResponseEntity.ok(locationService.getPortCapacity(id));
+    }
+}
@@ -12,8 +12,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -31,6 +33,7 @@ import java.util.List;
 public class MaintenanceHistoryController {
 
     private final MaintenanceHistoryService maintenanceHistoryService;
+    private final NdjsonResponseFactory ndjsonResponseFactory;
 
     /**
      * Получение всех записей об обслуживании
@@ -45,6 +48,18 @@ public class MaintenanceHistoryController {
         return ResponseEntity.ok(history);
     }
 
+    /**
+     * Потоковая выгрузка всех записей об обслуживании в формате NDJSON (один JSON-объект на строку)
+     * GET /api/maintenance-history/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить все записи об обслуживании потоком (NDJSON)",
+            description = "Записи пишутся в ответ по мере чтения из БД, без построения полного списка в памяти")
+    public ResponseEntity<StreamingResponseBody> streamAllMaintenanceHistory() {
+        log.debug("REST запрос на потоковую выгрузку всех записей об обслуживании");
+        return ndjsonResponseFactory.<MaintenanceHistoryResponseDTO>stream(maintenanceHistoryService::streamAll);
+    }
+
     /**
      * Получение записи об обслуживании по ID
      * GET /api/maintenance-history/{id}
@@ -0,0 +1,47 @@
+package com.example.netequip.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.function.Consumer;
+
+/**
+ * Формирование потоковых ответов application/x-ndjson
+ * Каждая запись сериализуется и пишется в ответ сразу, по одному JSON-объекту на строку
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonResponseFactory {
+
+    private final JsonMapper jsonMapper;
+
+    /**
+     * @param producer источник записей: получает приёмник и передаёт в него записи по одной
+     * @return потоковый ответ
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<T>> producer) {
+        // Без flush после каждой записи: буферизацию ответа оставляем контейнеру
+        // Разделитель корневых значений пустой: по умолчанию генератор ставит пробел перед каждой следующей записью
+        ObjectWriter writer = jsonMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = writer.createGenerator(out)) {
+                producer.accept(record -> {
+                    writer.writeValue(generator, record);
+                    generator.writeRaw('\n');
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.service.StatusEventBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * REST контроллер потока событий изменения статуса (Server-Sent Events)
+ * Базовый путь: /api/events
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Поток событий изменения статуса оборудования и портов")
+public class StatusEventController {
+
+    private final StatusEventBroadcaster statusEventBroadcaster;
+
+    /**
+     * Подписка на изменения статуса
+     * GET /api/events/status?entity=device_port&status=Down&equipmentId=5
+     */
+    @GetMapping(value = "/status", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Подписаться на изменения статуса",
+            description = "События приходят только после коммита. Несколько изменений одной сущности " +
+                    "между отправками сливаются в последнее; при переполнении буфера приходит событие overflow " +
+                    "с количеством пропущенных — клиенту стоит перечитать состояние")
+    public SseEmitter subscribe(
+            @Parameter(description = "Тип сущности: equipment, device_port")
+            @RequestParam(name = "entity", required = false) List<String> entityTypes,
+            @Parameter(description = "Статусы")
+            @RequestParam(name = "status", required = false) List<String> statuses,
+            @Parameter(description = "ID типов оборудования")
+            @RequestParam(name = "typeId", required = false) List<Long> typeIds,
+            @Parameter(description = "ID оборудования")
+            @RequestParam(name = "equipmentId", required = false) List<Long> equipmentIds) {
+        log.debug("REST запрос на подписку на события статуса");
+        return statusEventBroadcaster.subscribe(new StatusEventBroadcaster.Filter(
+                toSet(entityTypes), toSet(statuses), toSet(typeIds), toSet(equipmentIds)));
+    }
+
+    private static <T> Set<T> toSet(List<T> values) {
+        return values != null ? Set.copyOf(values) : Set.of();
+    }
+}
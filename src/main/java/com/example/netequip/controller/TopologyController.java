@@ -0,0 +1,41 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.dto.topology.TopologyReconcileRequestDTO;
+import com.example.netequip.dto.topology.TopologyReconcileResultDTO;
+import com.example.netequip.service.TopologyReconcileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST контроллер сверки топологии сети
+ * Базовый путь: /api/topology
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/topology")
+@RequiredArgsConstructor
+@Tag(name = "Topology", description = "Сверка подключений портов с обнаруженной топологией")
+public class TopologyController {
+
+    private final TopologyReconcileService topologyReconcileService;
+
+    /**
+     * Сверка с обнаруженными связями (LLDP/CDP)
+     * POST /api/topology/reconcile
+     */
+    @PostMapping("/reconcile")
+    @Operation(summary = "Сверить подключения портов с обнаруженными связями",
+            description = "Вычисляет добавленные, удалённые и несовпадающие связи и применяет их пакетно. " +
+                    "При dryRun=true только возвращает расхождения. Если задан equipmentIds, удаляются " +
+                    "только связи портов этого оборудования")
+    public ResponseEntity<TopologyReconcileResultDTO> reconcile(
+            @Valid @RequestBody TopologyReconcileRequestDTO request) {
+        log.debug("REST запрос на сверку топологии: {} связей", request.getLinks().size());
+        return ResponseEntity.ok(topologyReconcileService.reconcile(request));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.netequip.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничение числа потоков, одновременно держащих соединение с БД
+ * На виртуальных потоках запросов может быть тысячи, а соединений в пуле — десятки.
+ * Честный семафор ставит потоки в очередь FIFO до выдачи соединения пулом, поэтому
+ * ожидание распределяется по порядку поступления, а не обрывается тайм-аутом пула
+ * у случайных запросов. Разрешение возвращается при закрытии соединения
+ */
+@Slf4j
+public class AdmissionControlDataSource extends DelegatingDataSource {
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long timeoutMillis;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * @param target пул соединений
+     * @param name имя пула (тег метрик)
+     * @param maxConcurrency разрешений (не больше размера пула)
+     * @param timeoutMillis предельное ожидание в очереди
+     */
+    public AdmissionControlDataSource(DataSource target, String name, int maxConcurrency, long timeoutMillis) {
+        super(target);
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return admitted(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return admitted(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Потоков в очереди за соединением
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Выданных соединений
+     */
+    public int getInUse() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Суммарное время ожидания в очереди, с
+     */
+    public double getWaitSeconds() {
+        return waitNanos.sum() / 1e9;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void acquire() throws SQLException {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Ожидание соединения прервано", e);
+        }
+        waitNanos.add(System.nanoTime() - started);
+        if (!acquired) {
+            rejected.increment();
+            log.warn("Соединение не выдано за {} мс, в очереди {}", timeoutMillis, permits.getQueueLength());
+            throw new SQLTransientConnectionException(
+                    "Соединение с БД не выдано за " + timeoutMillis + " мс: все " + maxConcurrency + " заняты");
+        }
+        admitted.increment();
+    }
+
+    private Connection admitted(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
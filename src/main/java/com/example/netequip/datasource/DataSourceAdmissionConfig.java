@@ -0,0 +1,43 @@
+package com.example.netequip.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Ограничение параллельного доступа к пулу соединений (см. AdmissionControlDataSource)
+ * Включено по умолчанию; число разрешений по умолчанию равно размеру пула HikariCP
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "netequip.datasource.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceAdmissionConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                int maxConcurrency = environment.getProperty("netequip.datasource.admission.max-concurrency",
+                        Integer.class, pool.getMaximumPoolSize());
+                long timeoutMillis = environment.getProperty("netequip.datasource.admission.timeout-ms",
+                        Long.class, pool.getConnectionTimeout());
+                log.info("Доступ к пулу {}: не более {} соединений, ожидание в очереди до {} мс",
+                        beanName, maxConcurrency, timeoutMillis);
+                // Имя пула HikariCP назначает при первом соединении, если оно не задано явно
+                String name = pool.getPoolName() != null ? pool.getPoolName() : beanName;
+                return new AdmissionControlDataSource(pool, name, Math.min(maxConcurrency, pool.getMaximumPoolSize()),
+                        timeoutMillis);
+            }
+        };
+    }
+}
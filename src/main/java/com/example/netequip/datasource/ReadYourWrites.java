@@ -0,0 +1,78 @@
+package com.example.netequip.datasource;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Привязка чтения к основной БД после записи (read-your-writes)
+ * Запрос открывает область: если клиент недавно писал, чтение этой области идёт в основную БД.
+ * Первая пишущая транзакция области тоже переводит её чтение на основную БД и вызывает
+ * обработчик, который сообщает клиенту время записи для следующих запросов.
+ * Область наследуется потоками, созданными внутри запроса (параллельные разделы);
+ * после закрытия она не действует, даже если ссылка на неё осталась у потока из пула
+ */
+public final class ReadYourWrites {
+
+    private static final InheritableThreadLocal<Scope> CURRENT = new InheritableThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Область запроса
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Runnable onFirstWrite;
+        private final AtomicBoolean written = new AtomicBoolean();
+        private volatile boolean sticky;
+        private volatile boolean closed;
+
+        private Scope(boolean sticky, Runnable onFirstWrite) {
+            this.sticky = sticky;
+            this.onFirstWrite = onFirstWrite;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Открытие области
+     *
+     * @param sticky клиент недавно писал: чтение сразу идёт в основную БД
+     * @param onFirstWrite вызывается при первой пишущей транзакции области
+     * @return область; закрывается по окончании запроса
+     */
+    public static Scope open(boolean sticky, Runnable onFirstWrite) {
+        Scope scope = new Scope(sticky, onFirstWrite);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Чтение текущей области должно идти в основную БД
+     */
+    static boolean isSticky() {
+        Scope scope = CURRENT.get();
+        return scope != null && !scope.closed && scope.sticky;
+    }
+
+    /**
+     * Отметка пишущей транзакции в текущей области
+     */
+    static void written() {
+        Scope scope = CURRENT.get();
+        if (scope == null || scope.closed || !scope.written.compareAndSet(false, true)) {
+            return;
+        }
+        scope.sticky = true;
+        if (scope.onFirstWrite != null) {
+            scope.onFirstWrite.run();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.netequip.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Сессия клиента для read-your-writes
+ * После записи клиент получает cookie со временем записи; пока не прошло window-ms,
+ * его чтение идёт в основную БД. Состояние хранится у клиента, поэтому не зависит
+ * от того, какой экземпляр приложения обработает следующий запрос
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "netequip-last-write";
+
+    private final long windowMillis;
+
+    /**
+     * @param windowMillis сколько чтение клиента остаётся на основной БД после записи
+     */
+    public ReadYourWritesFilter(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long lastWrite = lastWrite(request);
+        boolean sticky = lastWrite > 0 && System.currentTimeMillis() - lastWrite < windowMillis;
+        try (ReadYourWrites.Scope ignored = ReadYourWrites.open(sticky, () -> remember(response))) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void remember(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE, String.valueOf(System.currentTimeMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+        response.addCookie(cookie);
+    }
+
+    private static long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
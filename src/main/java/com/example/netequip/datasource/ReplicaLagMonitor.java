@@ -0,0 +1,113 @@
+package com.example.netequip.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Контроль отставания реплики
+ * Приложение периодически пишет текущее время в replica_heartbeat основной БД и читает
+ * эту запись с реплики; отставание — возраст прочитанной отметки. Оно включает интервал
+ * отметок, поэтому порог должен быть больше интервала. Пока отставание не измерено,
+ * превышает порог или реплика недоступна, чтение идёт в основную БД
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final int HEARTBEAT_ID = 1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    private volatile long lagMillis = -1;
+    private volatile boolean usable;
+
+    /**
+     * @param primary основная БД
+     * @param replica реплика
+     * @param maxLagMillis допустимое отставание
+     */
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * Запись отметки в основную БД и замер отставания реплики
+     */
+    @Scheduled(fixedDelayString = "${netequip.datasource.replica.heartbeat-interval-ms:1000}")
+    public void refresh() {
+        beat();
+        check();
+    }
+
+    /**
+     * Реплика пригодна для чтения
+     */
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * Последнее измеренное отставание, мс (-1 — не измерено)
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?", now, HEARTBEAT_ID) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)", HEARTBEAT_ID, now);
+            }
+        } catch (DuplicateKeyException e) {
+            // Первую отметку одновременно вставил другой экземпляр приложения
+        } catch (DataAccessException e) {
+            log.warn("Отметка для контроля реплики не записана: {}", e.getMessage());
+        }
+    }
+
+    private void check() {
+        long lag;
+        try {
+            Long beatAt = replica.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = ?",
+                    Long.class, HEARTBEAT_ID);
+            lag = beatAt != null ? Math.max(0, System.currentTimeMillis() - beatAt) : -1;
+        } catch (EmptyResultDataAccessException e) {
+            lag = -1;
+        } catch (DataAccessException e) {
+            if (usable) {
+                log.warn("Реплика недоступна, чтение переведено на основную БД: {}", e.getMessage());
+            }
+            lagMillis = -1;
+            usable = false;
+            return;
+        }
+
+        boolean nowUsable = lag >= 0 && lag <= maxLagMillis;
+        if (nowUsable != usable) {
+            if (nowUsable) {
+                log.info("Отставание реплики {} мс, чтение возвращено на реплику", lag);
+            } else {
+                log.warn("Отставание реплики {} мс (порог {} мс), чтение переведено на основную БД",
+                        lag < 0 ? "не измерено" : lag, maxLagMillis);
+            }
+        }
+        lagMillis = lag;
+        usable = nowUsable;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.netequip.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Чтение с реплики (см. ReplicaRoutingDataSource)
+ * Основной пул настраивается как обычно (spring.datasource.*), пул реплики —
+ * netequip.datasource.replica.* и netequip.datasource.replica.hikari.*.
+ * Оба пула проходят через ограничение доступа (DataSourceAdmissionConfig)
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "netequip.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("netequip.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${netequip.datasource.replica.url}") String url,
+            @Value("${netequip.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${netequip.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource pool = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${netequip.datasource.replica.max-lag-ms:5000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMillis);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaLagMonitor lagMonitor) {
+        return new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+    }
+
+    /**
+     * Источник для JPA и JdbcTemplate: физическое соединение берётся при первом запросе
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        log.info("Чтение в readOnly-транзакциях направляется на реплику");
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${netequip.datasource.replica.read-your-writes-ms:5000}") long windowMillis) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(windowMillis));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.netequip.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Выбор БД для соединения: чтение в readOnly-транзакции — с реплики, остальное — с основной
+ * Чтение остаётся на основной БД, если реплика отстаёт больше порога (ReplicaLagMonitor)
+ * или клиент недавно писал (ReadYourWrites). Решение принимается при первом запросе
+ * транзакции, поэтому источник оборачивается в LazyConnectionDataSourceProxy: к этому моменту
+ * признак readOnly уже выставлен менеджером транзакций. Чтения, которым отставание недопустимо,
+ * закрепляются за основной БД через onPrimary
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Куда направлено соединение
+     */
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder lagFallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Выполнение чтения на основной БД независимо от признака readOnly
+     * Закрепление действует на соединения, взятые внутри action, поэтому вызывается
+     * до первого запроса транзакции; без реплики ни на что не влияет
+     *
+     * @param action чтение
+     * @return результат чтения
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean outer = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (outer == null) {
+                PRIMARY_PINNED.remove();
+            }
+        }
+    }
+
+    /**
+     * Чтений с реплики
+     */
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    /**
+     * Чтений на основной БД после записи клиента
+     */
+    public long getStickyReads() {
+        return stickyReads.sum();
+    }
+
+    /**
+     * Чтений на основной БД из-за отставания или недоступности реплики
+     */
+    public long getLagFallbacks() {
+        return lagFallbacks.sum();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.written();
+            }
+            return Route.PRIMARY;
+        }
+        if (PRIMARY_PINNED.get() != null) {
+            return Route.PRIMARY;
+        }
+        if (ReadYourWrites.isSticky()) {
+            stickyReads.increment();
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isUsable()) {
+            lagFallbacks.increment();
+            return Route.PRIMARY;
+        }
+        replicaReads.increment();
+        return Route.REPLICA;
+    }
+}
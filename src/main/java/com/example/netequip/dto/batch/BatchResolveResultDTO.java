@@ -0,0 +1,26 @@
+package com.example.netequip.dto.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Результат пакетного поиска по одному типу ключа
+ *
+ * @param <K> тип ключа
+ * @param <V> тип найденного значения
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResolveResultDTO<K, V> {
+
+    // Найденные записи по исходному ключу
+    private Map<K, V> found;
+
+    // Ключи, по которым ничего не найдено
+    private List<K> missing;
+}
@@ -0,0 +1,27 @@
+package com.example.netequip.dto.changelog;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Одно изменение в ленте /api/changes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDTO {
+
+    private Long token;
+    private String entityType;
+    private Long entityId;
+    private String operation;
+    private LocalDateTime changedAt;
+
+    // Состояние сущности после изменения (как в GET по ID); null для удаления
+    @JsonRawValue
+    private String payload;
+}
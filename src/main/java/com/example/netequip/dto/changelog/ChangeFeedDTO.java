@@ -0,0 +1,28 @@
+package com.example.netequip.dto.changelog;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Порция ленты изменений
+ * Используется в GET /api/changes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDTO {
+
+    private List<ChangeDTO> changes;
+
+    // Токен для следующего запроса (since)
+    private Long nextToken;
+
+    // Есть ли ещё изменения после nextToken
+    private boolean hasMore;
+
+    // Токен слишком старый: часть удалений уже вычищена, нужна полная синхронизация
+    private boolean resyncRequired;
+}
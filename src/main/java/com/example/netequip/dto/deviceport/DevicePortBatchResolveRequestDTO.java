@@ -0,0 +1,23 @@
+package com.example.netequip.dto.deviceport;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Запрос на пакетный поиск портов
+ * Используется в POST /api/device-ports/resolve
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DevicePortBatchResolveRequestDTO {
+
+    // ID портов
+    private List<Long> ids;
+
+    // ID оборудования, для которого нужны все порты
+    private List<Long> equipmentIds;
+}
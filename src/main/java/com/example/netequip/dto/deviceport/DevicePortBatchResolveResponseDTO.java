@@ -0,0 +1,21 @@
+package com.example.netequip.dto.deviceport;
+
+import com.example.netequip.dto.batch.BatchResolveResultDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат пакетного поиска портов
+ * В byEquipmentId промахом считается оборудование без портов (или несуществующее)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DevicePortBatchResolveResponseDTO {
+
+    private BatchResolveResultDTO<Long, DevicePortResponseDTO> byId;
+    private BatchResolveResultDTO<Long, List<DevicePortResponseDTO>> byEquipmentId;
+}
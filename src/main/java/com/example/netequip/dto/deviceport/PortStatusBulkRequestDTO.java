@@ -0,0 +1,22 @@
+package com.example.netequip.dto.deviceport;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Пакет наблюдений статуса портов
+ * Используется в POST /api/device-ports/status/bulk
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortStatusBulkRequestDTO {
+
+    @NotEmpty(message = "Список обновлений не должен быть пустым")
+    private List<@Valid PortStatusUpdateDTO> updates;
+}
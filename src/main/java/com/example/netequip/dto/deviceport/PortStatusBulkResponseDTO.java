@@ -0,0 +1,24 @@
+package com.example.netequip.dto.deviceport;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат приёма пакета статусов портов
+ * Статусы применяются асинхронно при ближайшей выгрузке буфера
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortStatusBulkResponseDTO {
+
+    // Принято наблюдений
+    private int accepted;
+
+    // Из них слито с уже ожидающими обновлениями тех же портов
+    private int coalesced;
+
+    // Портов в буфере после приёма пакета
+    private int backlog;
+}
@@ -0,0 +1,37 @@
+package com.example.netequip.dto.deviceport;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переходы статуса порта за период
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortStatusHistoryDTO {
+
+    private Long portId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    // Статус на начало периода (null, если история начинается позже)
+    private String initialStatus;
+
+    // Количество переходов за период
+    private int transitionCount;
+
+    private List<Transition> transitions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Transition {
+        private LocalDateTime at;
+        private String status;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.netequip.dto.deviceport;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Статистика приёма телеметрии статусов портов
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortStatusIngestionStatsDTO {
+
+    // Портов в буфере сейчас и ёмкость буфера
+    private int backlog;
+    private int bufferCapacity;
+
+    // Всего принято наблюдений и сколько из них слито в буфере
+    private long received;
+    private long coalesced;
+    private double coalesceRatio;
+
+    // Итог выгрузок: реальные изменения, совпавшие с текущим статусом, неизвестные порты
+    private long applied;
+    private long unchanged;
+    private long unknownPorts;
+    private long failedFlushes;
+
+    // Отброшенные наблюдения: отклонённые БД или исчерпавшие попытки, и не поместившиеся в буфер при возврате
+    private long deadLettered;
+    private long requeueDropped;
+
+    // Последняя выгрузка
+    private int lastFlushSize;
+    private long lastFlushMillis;
+    private long maxFlushMillis;
+    private LocalDateTime lastFlushAt;
+}
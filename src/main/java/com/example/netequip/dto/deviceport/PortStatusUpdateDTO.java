@@ -0,0 +1,24 @@
+package com.example.netequip.dto.deviceport;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Одно наблюдение статуса порта из телеметрии
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortStatusUpdateDTO {
+
+    @NotNull(message = "ID порта обязателен")
+    private Long portId;
+
+    @NotBlank(message = "Статус обязателен")
+    @Size(max = 20, message = "Статус не должен превышать 20 символов")
+    private String status;
+}
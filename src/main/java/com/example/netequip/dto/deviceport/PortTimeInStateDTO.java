@@ -0,0 +1,30 @@
+package com.example.netequip.dto.deviceport;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Время пребывания порта в каждом статусе за период
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortTimeInStateDTO {
+
+    private Long portId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    // Статус → секунды
+    private Map<String, Long> secondsByStatus;
+
+    // Секунды, для которых статус неизвестен (до первой записи истории)
+    private long unknownSeconds;
+
+    // Количество переходов за период
+    private int transitionCount;
+}
@@ -0,0 +1,28 @@
+package com.example.netequip.dto.employee;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO с агрегированной нагрузкой сотрудника
+ * Используется в GET /api/employees/workload
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeWorkloadDTO {
+
+    private Long employeeId;
+    private String fullName;
+    private String position;
+
+    // Закреплённое оборудование (на текущий момент)
+    private Long equipmentCount;
+
+    // Обслуживания за выбранный период
+    private Long maintenanceCount;
+    private BigDecimal maintenanceCost;
+}
@@ -0,0 +1,37 @@
+package com.example.netequip.dto.equipment;
+
+import com.example.netequip.dto.deviceport.DevicePortResponseDTO;
+import com.example.netequip.dto.ipaddress.IpAddressResponseDTO;
+import com.example.netequip.dto.maintenancehistory.MaintenanceHistoryResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Полное представление устройства для страницы оборудования
+ * Используется в GET /api/equipment/{id}/full
+ * Разделы, не запрошенные через include, равны null
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceFullViewDTO {
+
+    private EquipmentResponseDTO equipment;
+
+    // Порты устройства (по номеру) с информацией о подключениях
+    private List<DevicePortResponseDTO> ports;
+
+    private List<IpAddressResponseDTO> ipAddresses;
+
+    // Последние обслуживания, новые первые
+    private List<MaintenanceHistoryResponseDTO> latestMaintenance;
+
+    // Порты других устройств, подключённые к этому
+    private List<DevicePortResponseDTO> incomingConnections;
+
+    // Разделы, не собранные за отведённое время в параллельном режиме (null — собраны все)
+    private List<String> unavailableSections;
+}
@@ -0,0 +1,24 @@
+package com.example.netequip.dto.equipment;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Запрос на пакетный поиск оборудования
+ * Используется в POST /api/equipment/resolve
+ * Любой из списков можно не указывать; суммарное число ключей ограничено netequip.batch.max-keys
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquipmentBatchResolveRequestDTO {
+
+    private List<Long> ids;
+    private List<@Size(max = 100, message = "Серийный номер не должен превышать 100 символов") String> serialNumbers;
+    private List<String> macAddresses;
+    private List<@Size(max = 45, message = "IP-адрес не должен превышать 45 символов") String> ipAddresses;
+}
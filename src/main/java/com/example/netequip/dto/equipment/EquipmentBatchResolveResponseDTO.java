@@ -0,0 +1,21 @@
+package com.example.netequip.dto.equipment;
+
+import com.example.netequip.dto.batch.BatchResolveResultDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат пакетного поиска оборудования по каждому типу ключа
+ * Для не запрошенных типов ключей значение null
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquipmentBatchResolveResponseDTO {
+
+    private BatchResolveResultDTO<Long, EquipmentResponseDTO> byId;
+    private BatchResolveResultDTO<String, EquipmentResponseDTO> bySerialNumber;
+    private BatchResolveResultDTO<String, EquipmentResponseDTO> byMacAddress;
+    private BatchResolveResultDTO<String, EquipmentResponseDTO> byIpAddress;
+}
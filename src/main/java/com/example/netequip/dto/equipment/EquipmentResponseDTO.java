@@ -37,6 +37,10 @@ public class EquipmentResponseDTO {
     private String address;
     private String status;
 
+    // Расположение, полученное разбором адреса
+    private Long locationId;
+    private String locationPath;
+
     // Даты
     private LocalDate dateAdded;
     private LocalDate dateUpdated;
@@ -0,0 +1,23 @@
+package com.example.netequip.dto.equipment;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Запрос на сопоставление MAC-адресов с оборудованием
+ * Используется в POST /api/equipment/mac/resolve
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MacResolveRequestDTO {
+
+    @NotEmpty(message = "Список MAC-адресов не должен быть пустым")
+    @Size(max = 100000, message = "За один запрос можно сопоставить не более 100000 MAC-адресов")
+    private List<String> macAddresses;
+}
@@ -0,0 +1,26 @@
+package com.example.netequip.dto.equipment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Результат сопоставления MAC-адресов с оборудованием
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MacResolveResponseDTO {
+
+    // Исходная строка MAC-адреса → ID оборудования
+    private Map<String, Long> resolved;
+
+    // Корректные MAC-адреса, не привязанные ни к одному устройству
+    private List<String> unresolved;
+
+    // Строки, которые не удалось разобрать как MAC-адрес
+    private List<String> invalid;
+}
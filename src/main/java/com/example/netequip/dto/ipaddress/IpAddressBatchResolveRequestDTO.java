@@ -0,0 +1,21 @@
+package com.example.netequip.dto.ipaddress;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Запрос на пакетный поиск IP-адресов
+ * Используется в POST /api/ip-addresses/resolve
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IpAddressBatchResolveRequestDTO {
+
+    private List<Long> ids;
+    private List<@Size(max = 45, message = "IP-адрес не должен превышать 45 символов") String> ipAddresses;
+}
@@ -0,0 +1,18 @@
+package com.example.netequip.dto.ipaddress;
+
+import com.example.netequip.dto.batch.BatchResolveResultDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат пакетного поиска IP-адресов
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IpAddressBatchResolveResponseDTO {
+
+    private BatchResolveResultDTO<Long, IpAddressResponseDTO> byId;
+    private BatchResolveResultDTO<String, IpAddressResponseDTO> byIpAddress;
+}
@@ -0,0 +1,24 @@
+package com.example.netequip.dto.location;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Узел иерархии расположения
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationDTO {
+
+    private Long id;
+    private Long parentId;
+    private String level;
+    private String name;
+    private String path;
+    private int depth;
+
+    // Оборудование во всём поддереве
+    private int equipmentCount;
+}
@@ -0,0 +1,26 @@
+package com.example.netequip.dto.location;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ёмкость портов узла расположения с разбивкой по дочерним узлам
+ * Свободный порт — порт без подключения
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationPortCapacityDTO {
+
+    // Узел (null — вся сеть)
+    private LocationDTO location;
+
+    private long totalPorts;
+    private long freePorts;
+
+    // Разбивка по дочерним узлам (для всей сети — по площадкам)
+    private List<LocationPortCapacityDTO> children;
+}
@@ -0,0 +1,34 @@
+package com.example.netequip.dto.topology;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Обнаруженная связь (запись таблицы соседей LLDP/CDP)
+ * Порты задаются оборудованием и номером порта; направление связи не важно
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiscoveredLinkDTO {
+
+    @NotNull(message = "ID локального оборудования обязателен")
+    private Long localEquipmentId;
+
+    @NotNull(message = "Номер локального порта обязателен")
+    @Min(value = 1, message = "Номер порта должен быть больше 0")
+    @Max(value = 256, message = "Номер порта не должен превышать 256")
+    private Integer localPortNumber;
+
+    @NotNull(message = "ID соседнего оборудования обязателен")
+    private Long remoteEquipmentId;
+
+    @NotNull(message = "Номер соседнего порта обязателен")
+    @Min(value = 1, message = "Номер порта должен быть больше 0")
+    @Max(value = 256, message = "Номер порта не должен превышать 256")
+    private Integer remotePortNumber;
+}
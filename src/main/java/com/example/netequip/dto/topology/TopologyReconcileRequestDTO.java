@@ -0,0 +1,30 @@
+package com.example.netequip.dto.topology;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Запрос на сверку топологии с обнаруженными связями
+ * Используется в POST /api/topology/reconcile
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopologyReconcileRequestDTO {
+
+    // Полный набор обнаруженных связей в области сверки
+    @NotNull(message = "Список связей обязателен")
+    private List<@Valid DiscoveredLinkDTO> links;
+
+    // Оборудование, для которого набор полон: связи его портов, не вошедшие в набор, удаляются.
+    // Не задано — набор считается полным для всей сети
+    private List<Long> equipmentIds;
+
+    // Только вычислить расхождения, ничего не меняя
+    private boolean dryRun;
+}
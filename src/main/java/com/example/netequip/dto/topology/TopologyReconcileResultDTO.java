@@ -0,0 +1,66 @@
+package com.example.netequip.dto.topology;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат сверки топологии
+ * Счётчики полные, списки деталей ограничены netequip.topology.detail-limit
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopologyReconcileResultDTO {
+
+    private boolean dryRun;
+
+    // Уникальных обнаруженных связей
+    private int discovered;
+
+    // Связи, уже сохранённые
+    private int unchanged;
+
+    // Новые связи между свободными портами
+    private int added;
+
+    // Сохранённые связи, отсутствующие в наборе
+    private int removed;
+
+    // Порты, подключённые не к тому соседу
+    private int mismatched;
+
+    // Связи с неизвестным оборудованием или портом
+    private int unresolved;
+
+    // Связи, отклонённые как некорректные или противоречащие друг другу
+    private int rejected;
+
+    // Портов изменено (или будет изменено при dryRun)
+    private int portsUpdated;
+
+    private List<Link> addedLinks;
+    private List<Link> removedLinks;
+    private List<Mismatch> mismatches;
+    private List<DiscoveredLinkDTO> unresolvedLinks;
+    private List<DiscoveredLinkDTO> rejectedLinks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Link {
+        private Long portId;
+        private Long peerPortId;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mismatch {
+        private Long portId;
+        private Long currentPeerPortId;
+        private Long discoveredPeerPortId;
+    }
+}
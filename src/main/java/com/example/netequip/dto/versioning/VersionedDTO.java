@@ -0,0 +1,13 @@
+package com.example.netequip.dto.versioning;
+
+import java.time.Instant;
+
+/**
+ * Документ с версией для условных запросов
+ *
+ * @param body документ
+ * @param eTag сильный ETag документа
+ * @param lastModified время последнего изменения (null — неизвестно)
+ */
+public record VersionedDTO<T>(T body, String eTag, Instant lastModified) {
+}
@@ -0,0 +1,30 @@
+package com.example.netequip.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запуск сжатия журнала изменений
+ * purgedUpTo — наибольший токен удалённой записи об удалении: клиенты с токеном меньше
+ * могли пропустить удаление и должны выполнить полную синхронизацию
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "change_log_compaction")
+public class ChangeLogCompaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private LocalDateTime runAt;
+    private Integer removedSuperseded;
+    private Integer removedTombstones;
+    private Long purgedUpTo;
+}
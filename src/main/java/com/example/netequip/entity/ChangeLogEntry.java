@@ -0,0 +1,56 @@
+package com.example.netequip.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала изменений (transactional outbox)
+ * Пишется в той же транзакции, что и изменение сущности; id служит монотонным токеном ленты
+ * и выдаётся при коммите (см. ChangeLogWriter), поэтому растёт в порядке коммитов
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "change_log", indexes = {
+        @Index(name = "idx_change_log_entity", columnList = "entity_type, entity_id"),
+        @Index(name = "idx_change_log_changed_at", columnList = "changed_at")
+})
+public class ChangeLogEntry {
+    // Типы сущностей
+    public static final String EQUIPMENT = "equipment";
+    public static final String DEVICE_PORT = "device_port";
+    public static final String IP_ADDRESS = "ip_address";
+    public static final String MAINTENANCE_HISTORY = "maintenance_history";
+    public static final String EMPLOYEE = "employee";
+    public static final String EQUIPMENT_TYPE = "equipment_type";
+
+    // Операции
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String DELETED = "DELETED";
+
+    @Id
+    private Long id;
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType;
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    @Column(nullable = false, length = 16)
+    private String operation;
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    // Снимок DTO после изменения (null для удаления)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "JSON")
+    private String payload;
+}
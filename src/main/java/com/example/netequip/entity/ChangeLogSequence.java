@@ -0,0 +1,26 @@
+package com.example.netequip.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Последний выданный токен журнала изменений (одна строка)
+ * Токены выдаются при коммите под блокировкой этой строки, поэтому их порядок совпадает
+ * с порядком коммитов
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "change_log_sequence")
+public class ChangeLogSequence {
+
+    @Id
+    private Integer id;
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+}
@@ -5,17 +5,46 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Entity
-@Table(name = "device_port")
+@Table(name = "device_port", uniqueConstraints =
+        @UniqueConstraint(name = DevicePort.UK_EQUIPMENT_PORT, columnNames = {"equipment_id", "port_number"}))
+@NamedEntityGraph(name = DevicePort.WITH_EQUIPMENT_AND_PEER, attributeNodes = {
+        @NamedAttributeNode("equipment"),
+        @NamedAttributeNode("connectedToEquipment"),
+        @NamedAttributeNode("connectedToPort")
+})
+@NamedEntityGraph(name = DevicePort.WITH_PEER, attributeNodes = {
+        @NamedAttributeNode("connectedToEquipment"),
+        @NamedAttributeNode("connectedToPort")
+})
+@NamedEntityGraph(name = DevicePort.WITH_OWNER, attributeNodes = {
+        @NamedAttributeNode("equipment"),
+        @NamedAttributeNode("connectedToPort")
+})
 public class DevicePort {
+    public static final String UK_EQUIPMENT_PORT = "uk_device_port_equipment_port";
+
+    // Планы выборки документа порта: полный; порты известного устройства (оно уже в контексте);
+    // порты, подключённые к известному устройству (вместе с их владельцами)
+    public static final String WITH_EQUIPMENT_AND_PEER = "DevicePort.withEquipmentAndPeer";
+    public static final String WITH_PEER = "DevicePort.withPeer";
+    public static final String WITH_OWNER = "DevicePort.withOwner";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Версия для оптимистичной блокировки и ETag; массовые UPDATE статуса и подключений увеличивают её явно
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "equipment_id", nullable = false)
     private Equipment equipment;
@@ -5,17 +5,31 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Entity
-@Table(name = "employee")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
+@Table(name = "employee", uniqueConstraints =
+        @UniqueConstraint(name = Employee.UK_EMAIL, columnNames = "email"))
 public class Employee {
+    public static final String UK_EMAIL = "uk_employee_email";
+    public static final String CACHE_REGION = "employee";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Версия для оптимистичной блокировки
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
     private String fullName;
     private String position;
     private String email;
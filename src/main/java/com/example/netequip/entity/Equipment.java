@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -17,11 +18,32 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "equipment")
+@Table(name = "equipment", uniqueConstraints = {
+        @UniqueConstraint(name = Equipment.UK_SERIAL_NUMBER, columnNames = "serial_number"),
+        @UniqueConstraint(name = Equipment.UK_MAC_KEY, columnNames = "mac_key")
+}, indexes = {
+        @Index(name = "idx_equipment_location_path", columnList = "location_path")
+})
+@NamedEntityGraph(name = Equipment.WITH_TYPE_AND_EMPLOYEE, attributeNodes = {
+        @NamedAttributeNode("type"),
+        @NamedAttributeNode("employee")
+})
 public class Equipment {
+    public static final String UK_SERIAL_NUMBER = "uk_equipment_serial_number";
+    public static final String UK_MAC_KEY = "uk_equipment_mac_key";
+
+    // План выборки документа оборудования: тип и ответственный
+    public static final String WITH_TYPE_AND_EMPLOYEE = "Equipment.withTypeAndEmployee";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Версия для оптимистичной блокировки и ETag; счётчики ниже меняются без неё
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "type_id", nullable = false)
     private EquipmentType type;
@@ -31,12 +53,34 @@ public class Equipment {
     private String name;
     private String serialNumber;
     private String macAddress;
+    // 48-битный числовой ключ MAC-адреса (см. MacAddressUtils), по нему идёт поиск
+    @Column(name = "mac_key")
+    private Long macKey;
     private String ipAddress;
     private String address;
+    // Узел расположения, полученный разбором address (см. LocationService)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "location_id")
+    private Location location;
+    // Копия Location.path: выборка поддерева по индексу без JOIN
+    @Column(name = "location_path", length = Location.MAX_PATH_LENGTH)
+    private String locationPath;
     private String status;
     private LocalDate dateAdded;
     private LocalDate dateUpdated;
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "technical_params", columnDefinition = "JSON")
     private String technicalParams;
+
+    // Денормализованные счётчики связанных записей
+    // Меняются только атомарными UPDATE из EquipmentRepository, сверяются EquipmentCountersRepairJob
+    @Column(name = "ports_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int portsCount;
+    @Column(name = "ip_addresses_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int ipAddressesCount;
+    @Column(name = "maintenance_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int maintenanceCount;
 }
@@ -5,17 +5,31 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Entity
-@Table(name = "equipment_type")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EquipmentType.CACHE_REGION)
+@Table(name = "equipment_type", uniqueConstraints =
+        @UniqueConstraint(name = EquipmentType.UK_TYPE_NAME, columnNames = "type_name"))
 public class EquipmentType {
+    public static final String UK_TYPE_NAME = "uk_equipment_type_type_name";
+    public static final String CACHE_REGION = "equipment-type";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Версия для оптимистичной блокировки
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
     private String typeName;
     private String manufacturer;
     private String model;
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -13,11 +14,24 @@ import java.time.LocalDate;
 @Setter
 @Getter
 @Entity
-@Table(name = "ip_address")
+@Table(name = "ip_address", uniqueConstraints =
+        @UniqueConstraint(name = IpAddress.UK_IP_ADDRESS, columnNames = "ip_address"))
+@NamedEntityGraph(name = IpAddress.WITH_EQUIPMENT, attributeNodes = @NamedAttributeNode("equipment"))
 public class IpAddress {
+    public static final String UK_IP_ADDRESS = "uk_ip_address_ip_address";
+
+    // План выборки документа IP-адреса: оборудование
+    public static final String WITH_EQUIPMENT = "IpAddress.withEquipment";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Версия для оптимистичной блокировки
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "equipment_id", nullable = false)
     private Equipment equipment;
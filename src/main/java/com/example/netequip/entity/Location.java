@@ -0,0 +1,56 @@
+package com.example.netequip.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Узел иерархии расположения: площадка → корпус → этаж → помещение → стойка
+ * path — материализованный путь (/площадка/корпус/.../), поддерево выбирается
+ * индексным диапазоном path LIKE 'префикс%'. Узлы создаются разбором Equipment.address
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "location", uniqueConstraints = {
+        @UniqueConstraint(name = Location.UK_PATH, columnNames = "path")
+}, indexes = {
+        @Index(name = "idx_location_parent", columnList = "parent_id"),
+        @Index(name = "idx_location_level", columnList = "level")
+})
+public class Location {
+    public static final String UK_PATH = "uk_location_path";
+    public static final int MAX_NAME_LENGTH = 200;
+    public static final int MAX_PATH_LENGTH = 600;
+
+    public enum Level {
+        SITE, BUILDING, FLOOR, ROOM, RACK
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Location parent;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Level level;
+    @Column(nullable = false, length = MAX_NAME_LENGTH)
+    private String name;
+    @Column(nullable = false, length = MAX_PATH_LENGTH)
+    private String path;
+    @Column(nullable = false)
+    private int depth;
+
+    // Оборудование во всём поддереве узла
+    // Меняется только атомарными UPDATE из LocationRepository, сверяется EquipmentCountersRepairJob
+    @Column(name = "equipment_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int equipmentCount;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -16,10 +17,27 @@ import java.time.LocalDateTime;
 @Getter
 @Entity
 @Table(name = "maintenance_history")
+@NamedEntityGraph(name = MaintenanceHistory.WITH_EQUIPMENT_AND_PERFORMER, attributeNodes = {
+        @NamedAttributeNode("equipment"),
+        @NamedAttributeNode("performedBy")
+})
+@NamedEntityGraph(name = MaintenanceHistory.WITH_EQUIPMENT, attributeNodes = @NamedAttributeNode("equipment"))
+@NamedEntityGraph(name = MaintenanceHistory.WITH_PERFORMER, attributeNodes = @NamedAttributeNode("performedBy"))
 public class MaintenanceHistory {
+    // Планы выборки документа записи: полный; записи известного сотрудника; записи известного оборудования
+    public static final String WITH_EQUIPMENT_AND_PERFORMER = "MaintenanceHistory.withEquipmentAndPerformer";
+    public static final String WITH_EQUIPMENT = "MaintenanceHistory.withEquipment";
+    public static final String WITH_PERFORMER = "MaintenanceHistory.withPerformer";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // Версия для оптимистичной блокировки
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "equipment_id", nullable = false)
     private Equipment equipment;
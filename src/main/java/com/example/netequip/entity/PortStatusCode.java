@@ -0,0 +1,29 @@
+package com.example.netequip.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Словарь кодов статусов для истории портов
+ * Коды небольшие, поэтому в блоках истории статус занимает один байт
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "port_status_code", uniqueConstraints = {
+        @UniqueConstraint(name = PortStatusCode.UK_NAME, columnNames = "name")
+})
+public class PortStatusCode {
+    public static final String UK_NAME = "uk_port_status_code_name";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    @Column(nullable = false, length = 20)
+    private String name;
+}
@@ -0,0 +1,48 @@
+package com.example.netequip.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Блок истории статусов порта
+ * Переходы дописываются в data (см. StatusHistoryCodec) до заполнения блока, после чего
+ * блок закрывается и открывается следующий. Открытый блок у порта один — он хранит текущий статус
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "port_status_history_chunk", indexes = {
+        @Index(name = "idx_port_status_chunk_port", columnList = "port_id, first_at"),
+        @Index(name = "idx_port_status_chunk_open", columnList = "port_id, open_chunk"),
+        @Index(name = "idx_port_status_chunk_last", columnList = "last_at")
+})
+public class PortStatusHistoryChunk {
+    // Предельный размер содержимого блока в байтах
+    public static final int MAX_DATA_BYTES = 2048;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    // Без внешнего ключа: история переживает удаление порта и удаляется по сроку хранения
+    @Column(name = "port_id", nullable = false)
+    private Long portId;
+    // Время первого и последнего перехода, секунды Unix
+    @Column(name = "first_at", nullable = false)
+    private long firstAt;
+    @Column(name = "last_at", nullable = false)
+    private long lastAt;
+    // Код статуса после последнего перехода
+    @Column(name = "last_code", nullable = false)
+    private int lastCode;
+    @Column(nullable = false)
+    private int transitions;
+    @Column(name = "open_chunk", nullable = false)
+    private boolean open;
+    @Column(nullable = false, length = MAX_DATA_BYTES)
+    private byte[] data;
+}
@@ -0,0 +1,26 @@
+package com.example.netequip.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Отметка времени, которую приложение пишет в основную БД
+ * По её значению на реплике оценивается отставание репликации
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+
+    @Id
+    private Integer id;
+    // Время записи, мс от эпохи
+    @Column(name = "beat_at", nullable = false)
+    private Long beatAt;
+}
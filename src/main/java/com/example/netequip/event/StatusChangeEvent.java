@@ -0,0 +1,64 @@
+package com.example.netequip.event;
+
+import com.example.netequip.entity.ChangeLogEntry;
+import com.example.netequip.entity.DevicePort;
+import com.example.netequip.entity.Equipment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие изменения статуса или подключения оборудования/порта
+ * Несёт полное текущее состояние, поэтому при слиянии событий одной сущности
+ * подписчик теряет только промежуточные состояния, но не итоговое
+ *
+ * @param entityType тип сущности: equipment или device_port
+ * @param entityId ID оборудования или порта
+ * @param equipmentId ID оборудования (для порта — владельца)
+ * @param typeId ID типа оборудования
+ * @param status текущий статус
+ * @param connectedToPortId ID подключённого порта (только для портов)
+ * @param reason причина: STATUS_CHANGED, CONNECTED, DISCONNECTED
+ * @param occurredAt время изменения
+ */
+public record StatusChangeEvent(
+        String entityType,
+        Long entityId,
+        Long equipmentId,
+        Long typeId,
+        String status,
+        Long connectedToPortId,
+        String reason,
+        LocalDateTime occurredAt
+) {
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String CONNECTED = "CONNECTED";
+    public static final String DISCONNECTED = "DISCONNECTED";
+
+    /**
+     * Событие по текущему состоянию оборудования
+     */
+    public static StatusChangeEvent of(Equipment equipment, String reason) {
+        return new StatusChangeEvent(ChangeLogEntry.EQUIPMENT, equipment.getId(), equipment.getId(),
+                equipment.getType() != null ? equipment.getType().getId() : null,
+                equipment.getStatus(), null, reason, LocalDateTime.now());
+    }
+
+    /**
+     * Событие по текущему состоянию порта
+     */
+    public static StatusChangeEvent of(DevicePort port, String reason) {
+        Equipment equipment = port.getEquipment();
+        return new StatusChangeEvent(ChangeLogEntry.DEVICE_PORT, port.getId(), equipment.getId(),
+                equipment.getType() != null ? equipment.getType().getId() : null,
+                port.getStatus(),
+                port.getConnectedToPort() != null ? port.getConnectedToPort().getId() : null,
+                reason, LocalDateTime.now());
+    }
+
+    /**
+     * Ключ слияния: события одной сущности заменяют друг друга в очереди подписчика
+     */
+    public String coalesceKey() {
+        return entityType + ":" + entityId;
+    }
+}
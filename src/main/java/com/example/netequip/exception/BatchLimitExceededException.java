@@ -0,0 +1,11 @@
+package com.example.netequip.exception;
+
+/**
+ * Исключение выбрасывается когда пакетный запрос содержит больше ключей, чем разрешено
+ */
+public class BatchLimitExceededException extends RuntimeException {
+
+    public BatchLimitExceededException(int requested, int limit) {
+        super("Запрошено ключей: " + requested + ", допускается не более " + limit);
+    }
+}
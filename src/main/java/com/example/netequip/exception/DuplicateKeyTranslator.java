@@ -0,0 +1,117 @@
+package com.example.netequip.exception;
+
+import com.example.netequip.entity.DevicePort;
+import com.example.netequip.entity.Employee;
+import com.example.netequip.entity.Equipment;
+import com.example.netequip.entity.EquipmentType;
+import com.example.netequip.entity.IpAddress;
+import com.example.netequip.exception.deviceport.DuplicateDevicePortException;
+import com.example.netequip.exception.employee.DuplicateEmployeeEmailException;
+import com.example.netequip.exception.equipment.DuplicateEquipmentException;
+import com.example.netequip.exception.equiptype.DuplicateEquipmentTypeException;
+import com.example.netequip.exception.ipaddress.DuplicateIpAddressException;
+import com.example.netequip.util.MacAddressUtils;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Преобразование нарушений уникальных индексов БД в доменные Duplicate*Exception
+ * Позволяет не делать проверочный SELECT перед каждой вставкой: уникальность
+ * гарантирует сама БД, а клиент получает тот же ответ 409, что и раньше
+ */
+final class DuplicateKeyTranslator {
+
+    // MySQL: Duplicate entry 'value' for key 'table.constraint'
+    private static final Pattern MYSQL_DUPLICATE = Pattern.compile("Duplicate entry '(.*)' for key");
+    // H2: ... VALUES ( /* 1 */ 'value' )
+    private static final Pattern H2_DUPLICATE = Pattern.compile("VALUES \\( /\\* \\d+ \\*/ (.*) \\)");
+
+    private DuplicateKeyTranslator() {
+    }
+
+    /**
+     * @param ex исключение нарушения целостности
+     * @return доменное исключение дубликата или null, если нарушен не известный уникальный индекс
+     */
+    static RuntimeException translate(DataIntegrityViolationException ex) {
+        String message = sqlMessage(ex);
+        String constraint = constraintName(ex, message);
+        if (constraint == null) {
+            return null;
+        }
+        String value = duplicateValue(message);
+
+        if (constraint.contains(Equipment.UK_SERIAL_NUMBER)) {
+            return new DuplicateEquipmentException("серийным номером", value);
+        }
+        if (constraint.contains(Equipment.UK_MAC_KEY)) {
+            return new DuplicateEquipmentException("MAC-адресом", macValue(value));
+        }
+        if (constraint.contains(IpAddress.UK_IP_ADDRESS)) {
+            return new DuplicateIpAddressException(value);
+        }
+        if (constraint.contains(Employee.UK_EMAIL)) {
+            return new DuplicateEmployeeEmailException(value);
+        }
+        if (constraint.contains(EquipmentType.UK_TYPE_NAME)) {
+            return new DuplicateEquipmentTypeException(value);
+        }
+        if (constraint.contains(DevicePort.UK_EQUIPMENT_PORT)) {
+            // Значение составного ключа: 'equipmentId-portNumber' (MySQL) или 'equipmentId, portNumber' (H2)
+            String[] parts = value.split("[-,]\\s*");
+            if (parts.length == 2) {
+                try {
+                    return new DuplicateDevicePortException(Long.valueOf(parts[0].trim()),
+                            Integer.valueOf(parts[1].trim()));
+                } catch (NumberFormatException ignored) {
+                    // Формат значения не распознан — вернём общий конфликт ниже
+                }
+            }
+            return new DuplicateDevicePortException("Порт с таким номером уже существует на устройстве");
+        }
+        return null;
+    }
+
+    private static String macValue(String key) {
+        try {
+            return MacAddressUtils.format(Long.parseLong(key.trim()));
+        } catch (NumberFormatException e) {
+            return key;
+        }
+    }
+
+    private static String constraintName(DataIntegrityViolationException ex, String message) {
+        Throwable cause = ex;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+            cause = cause.getCause();
+        }
+        return message != null ? message.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String sqlMessage(DataIntegrityViolationException ex) {
+        Throwable root = ex.getMostSpecificCause();
+        return root != null ? root.getMessage() : ex.getMessage();
+    }
+
+    private static String duplicateValue(String message) {
+        if (message == null) {
+            return "?";
+        }
+        Matcher mysql = MYSQL_DUPLICATE.matcher(message);
+        if (mysql.find()) {
+            return mysql.group(1);
+        }
+        Matcher h2 = H2_DUPLICATE.matcher(message);
+        if (h2.find()) {
+            return h2.group(1).replace("'", "");
+        }
+        return "?";
+    }
+}
@@ -5,17 +5,22 @@ import com.example.netequip.exception.deviceport.DevicePortNotFoundException;
 import com.example.netequip.exception.deviceport.DuplicateDevicePortException;
 import com.example.netequip.exception.deviceport.InvalidPortConnectionException;
 import com.example.netequip.exception.deviceport.PortNotConnectedException;
+import com.example.netequip.exception.deviceport.PortStatusBacklogFullException;
 import com.example.netequip.exception.employee.DuplicateEmployeeEmailException;
 import com.example.netequip.exception.employee.EmployeeNotFoundException;
 import com.example.netequip.exception.equipment.DuplicateEquipmentException;
 import com.example.netequip.exception.equipment.EquipmentNotFoundException;
+import com.example.netequip.exception.equipment.InvalidMacAddressException;
 import com.example.netequip.exception.equiptype.DuplicateEquipmentTypeException;
 import com.example.netequip.exception.equiptype.EquipmentTypeNotFoundException;
 import com.example.netequip.exception.ipaddress.DuplicateIpAddressException;
 import com.example.netequip.exception.ipaddress.IpAddressNotFoundException;
 import com.example.netequip.exception.ipaddress.PrimaryIpAddressConflictException;
+import com.example.netequip.exception.location.LocationNotFoundException;
 import com.example.netequip.exception.maintenancehistory.MaintenanceHistoryNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -45,7 +50,8 @@ public class GlobalExceptionHandler {
             EmployeeNotFoundException.class,
             DevicePortNotFoundException.class,
             IpAddressNotFoundException.class,
-            MaintenanceHistoryNotFoundException.class
+            MaintenanceHistoryNotFoundException.class,
+            LocationNotFoundException.class
     })
     public ResponseEntity<ErrorResponse> handleNotFoundException(RuntimeException ex) {
         log.warn("Ресурс не найден: {}", ex.getMessage());
@@ -82,13 +88,73 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    /**
+     * Обработка нарушений ограничений БД
+     * Нарушение известного уникального индекса превращается в соответствующий Duplicate*Exception (409),
+     * прочие нарушения целостности также возвращают 409 CONFLICT
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        RuntimeException duplicate = DuplicateKeyTranslator.translate(ex);
+        if (duplicate != null) {
+            return handleDuplicateException(duplicate);
+        }
+
+        log.warn("Нарушение целостности данных: {}", ex.getMostSpecificCause().getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Нарушение ограничений целостности данных",
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Обработка конфликта версий: сущность изменена параллельной транзакцией
+     * Возвращает 409 CONFLICT
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.warn("Конфликт версий: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Ресурс изменён параллельным запросом, повторите запрос",
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Обработка несовпадения If-Match
+     * Возвращает 412 PRECONDITION FAILED
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex) {
+        log.warn("Условие запроса не выполнено: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(error);
+    }
+
     /**
      * Обработка исключений валидации
      * Возвращает 400 BAD REQUEST
      */
     @ExceptionHandler({
             InvalidPortConnectionException.class,
-            PrimaryIpAddressConflictException.class
+            PrimaryIpAddressConflictException.class,
+            InvalidMacAddressException.class,
+            BatchLimitExceededException.class,
+            InvalidRequestParameterException.class
     })
     public ResponseEntity<ErrorResponse> handleValidationException(RuntimeException ex) {
         log.warn("Ошибка валидации: {}", ex.getMessage());
@@ -126,6 +192,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    /**
+     * Обработка исключений перегрузки сервиса
+     * Возвращает 503 SERVICE UNAVAILABLE
+     */
+    @ExceptionHandler({
+            SubscriberLimitExceededException.class,
+            PortStatusBacklogFullException.class
+    })
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(RuntimeException ex) {
+        log.warn("Сервис перегружен: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     /**
      * Обработка всех остальных исключений
      * Возвращает 500 INTERNAL SERVER ERROR
@@ -0,0 +1,12 @@
+package com.example.netequip.exception;
+
+/**
+ * Исключение выбрасывается при некорректном значении параметра запроса
+ * (неизвестный раздел, поле и т.п.)
+ */
+public class InvalidRequestParameterException extends RuntimeException {
+
+    public InvalidRequestParameterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.netequip.exception;
+
+/**
+ * Исключение выбрасывается, если версия ресурса не совпала с переданной в If-Match
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.netequip.exception;
+
+/**
+ * Исключение выбрасывается когда достигнут лимит одновременных подписчиков потока событий
+ */
+public class SubscriberLimitExceededException extends RuntimeException {
+
+    public SubscriberLimitExceededException(int limit) {
+        super("Достигнут лимит подписчиков потока событий: " + limit);
+    }
+}
@@ -8,4 +8,8 @@ public class DuplicateDevicePortException extends RuntimeException {
     public DuplicateDevicePortException(Long equipmentId, Integer portNumber) {
         super("Порт №" + portNumber + " уже существует на устройстве с ID " + equipmentId);
     }
+
+    public DuplicateDevicePortException(String message) {
+        super(message);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.netequip.exception.deviceport;
+
+/**
+ * Исключение выбрасывается когда буфер приёма статусов портов заполнен
+ * Клиенту следует повторить запрос позже
+ */
+public class PortStatusBacklogFullException extends RuntimeException {
+
+    public PortStatusBacklogFullException(int backlog, int capacity) {
+        super("Буфер статусов портов заполнен: " + backlog + " из " + capacity + ", повторите запрос позже");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.netequip.exception.equipment;
+
+/**
+ * Исключение выбрасывается когда строку нельзя разобрать как MAC-адрес
+ */
+public class InvalidMacAddressException extends RuntimeException {
+
+    public InvalidMacAddressException(String macAddress) {
+        super("Некорректный MAC-адрес: " + macAddress);
+    }
+}
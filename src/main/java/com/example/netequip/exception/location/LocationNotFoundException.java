@@ -0,0 +1,11 @@
+package com.example.netequip.exception.location;
+
+/**
+ * Исключение выбрасывается когда узел расположения не найден
+ */
+public class LocationNotFoundException extends RuntimeException {
+
+    public LocationNotFoundException(Long id) {
+        super("Расположение с ID " + id + " не найдено");
+    }
+}
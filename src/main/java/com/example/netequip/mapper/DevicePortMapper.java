@@ -35,6 +35,7 @@ public interface DevicePortMapper {
     @Mapping(target = "equipment", ignore = true)
     @Mapping(target = "connectedToEquipment", ignore = true)
     @Mapping(target = "connectedToPort", ignore = true)
+    @Mapping(target = "version", ignore = true)
     DevicePort toEntity(CreateDevicePortDTO dto);
 
     /**
@@ -44,6 +45,7 @@ public interface DevicePortMapper {
     @Mapping(target = "equipment", ignore = true)
     @Mapping(target = "connectedToEquipment", ignore = true)
     @Mapping(target = "connectedToPort", ignore = true)
+    @Mapping(target = "version", ignore = true)
     DevicePort toEntity(UpdateDevicePortDTO dto);
 
     /**
@@ -53,5 +55,6 @@ public interface DevicePortMapper {
     @Mapping(target = "equipment", ignore = true)
     @Mapping(target = "connectedToEquipment", ignore = true)
     @Mapping(target = "connectedToPort", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(UpdateDevicePortDTO dto, @MappingTarget DevicePort entity);
 }
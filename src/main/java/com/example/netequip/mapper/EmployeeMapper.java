@@ -23,17 +23,20 @@ public interface EmployeeMapper {
      * Конвертация Create DTO → Entity
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Employee toEntity(CreateEmployeeDTO dto);
 
     /**
      * Конвертация Update DTO → Entity
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Employee toEntity(UpdateEmployeeDTO dto);
 
     /**
      * Обновление существующего Entity из Update DTO
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(UpdateEmployeeDTO dto, @MappingTarget Employee entity);
 }
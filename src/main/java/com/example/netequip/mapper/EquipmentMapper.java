@@ -25,10 +25,8 @@ public interface EquipmentMapper {
     @Mapping(source = "type.model", target = "model")
     @Mapping(source = "employee.id", target = "employeeId")
     @Mapping(source = "employee.fullName", target = "employeeFullName")
+    @Mapping(source = "location.id", target = "locationId")
     @Mapping(target = "technicalParams", ignore = true)      // ✅ ИГНОРИРОВАТЬ
-    @Mapping(target = "portsCount", ignore = true)
-    @Mapping(target = "ipAddressesCount", ignore = true)
-    @Mapping(target = "maintenanceCount", ignore = true)
     EquipmentResponseDTO toResponseDTO(Equipment entity);
 
     /**
@@ -40,7 +38,6 @@ public interface EquipmentMapper {
     @Mapping(source = "type.model", target = "model")
     @Mapping(source = "employee.id", target = "employeeId")            // ✅ ДОБАВИТЬ
     @Mapping(source = "employee.fullName", target = "employeeFullName") // ✅ ДОБАВИТЬ
-    @Mapping(target = "portsCount", ignore = true)  // Устанавливаем в Service
     EquipmentListDTO toListDTO(Equipment entity);
 
 
@@ -52,6 +49,13 @@ public interface EquipmentMapper {
     @Mapping(target = "type", ignore = true)
     @Mapping(target = "employee", ignore = true)
     @Mapping(target = "technicalParams", ignore = true)  // ✅ Игнорируем
+    @Mapping(target = "portsCount", ignore = true)
+    @Mapping(target = "ipAddressesCount", ignore = true)
+    @Mapping(target = "maintenanceCount", ignore = true)
+    @Mapping(target = "macKey", ignore = true)
+    @Mapping(target = "location", ignore = true)
+    @Mapping(target = "locationPath", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Equipment toEntity(CreateEquipmentDTO dto);
 
     /**
@@ -61,6 +65,13 @@ public interface EquipmentMapper {
     @Mapping(target = "type", ignore = true)
     @Mapping(target = "employee", ignore = true)
     @Mapping(target = "technicalParams", ignore = true)  // ✅ Игнорируем
+    @Mapping(target = "portsCount", ignore = true)
+    @Mapping(target = "ipAddressesCount", ignore = true)
+    @Mapping(target = "maintenanceCount", ignore = true)
+    @Mapping(target = "macKey", ignore = true)
+    @Mapping(target = "location", ignore = true)
+    @Mapping(target = "locationPath", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Equipment toEntity(UpdateEquipmentDTO dto);
 
     /**
@@ -71,5 +82,12 @@ public interface EquipmentMapper {
     @Mapping(target = "employee", ignore = true)
     @Mapping(target = "dateAdded", ignore = true)  // Дата добавления не меняется
     @Mapping(target = "technicalParams", ignore = true)  // ✅ Игнорируем
+    @Mapping(target = "portsCount", ignore = true)
+    @Mapping(target = "ipAddressesCount", ignore = true)
+    @Mapping(target = "maintenanceCount", ignore = true)
+    @Mapping(target = "macKey", ignore = true)
+    @Mapping(target = "location", ignore = true)
+    @Mapping(target = "locationPath", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(UpdateEquipmentDTO dto, @MappingTarget Equipment entity);
 }
@@ -26,6 +26,7 @@ public interface EquipmentTypeMapper {
      * Используется при создании нового типа оборудования
      */
     @Mapping(target = "id", ignore = true) // ID генерируется БД
+    @Mapping(target = "version", ignore = true)
     EquipmentType toEntity(CreateEquipmentTypeDTO dto);
 
     /**
@@ -33,6 +34,7 @@ public interface EquipmentTypeMapper {
      * Используется при обновлении существующего типа
      */
     @Mapping(target = "id", ignore = true) // ID не обновляется
+    @Mapping(target = "version", ignore = true)
     EquipmentType toEntity(UpdateEquipmentTypeDTO dto);
 
     /**
@@ -43,5 +45,6 @@ public interface EquipmentTypeMapper {
      * @param entity - существующий объект для обновления
      */
     @Mapping(target = "id", ignore = true) // ID не меняется
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(UpdateEquipmentTypeDTO dto, @MappingTarget EquipmentType entity);
 }
@@ -29,6 +29,7 @@ public interface IpAddressMapper {
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "equipment", ignore = true) // Устанавливаем в Service
+    @Mapping(target = "version", ignore = true)
     IpAddress toEntity(CreateIpAddressDTO dto);
 
     /**
@@ -36,6 +37,7 @@ public interface IpAddressMapper {
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "equipment", ignore = true) // Устанавливаем в Service
+    @Mapping(target = "version", ignore = true)
     IpAddress toEntity(UpdateIpAddressDTO dto);
 
     /**
@@ -43,6 +45,7 @@ public interface IpAddressMapper {
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "equipment", ignore = true) // Не меняем связь
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(UpdateIpAddressDTO dto, @MappingTarget IpAddress entity);
 
     /**
@@ -31,6 +31,7 @@ public interface MaintenanceHistoryMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "equipment", ignore = true)
     @Mapping(target = "performedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
     MaintenanceHistory toEntity(CreateMaintenanceHistoryDTO dto);
 
     /**
@@ -39,6 +40,7 @@ public interface MaintenanceHistoryMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "equipment", ignore = true)
     @Mapping(target = "performedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
     MaintenanceHistory toEntity(UpdateMaintenanceHistoryDTO dto);
 
     /**
@@ -47,5 +49,6 @@ public interface MaintenanceHistoryMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "equipment", ignore = true)
     @Mapping(target = "performedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(UpdateMaintenanceHistoryDTO dto, @MappingTarget MaintenanceHistory entity);
 }
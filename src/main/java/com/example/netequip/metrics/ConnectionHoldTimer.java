@@ -0,0 +1,26 @@
+package com.example.netequip.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Время, на которое сессия Hibernate забирает соединение из пула в текущем HTTP-запросе
+ * Экземпляр создаётся на каждую сессию; счётчики запроса запоминаются при получении
+ * соединения, так как сессия может быть закрыта в другом потоке
+ */
+public class ConnectionHoldTimer implements SessionEventListener {
+
+    private RequestQueryStats stats;
+    private long acquiredAt;
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        stats = RequestQueryStats.current();
+        acquiredAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionReleaseEnd() {
+        RequestQueryStats.connectionReleased(stats, System.nanoTime() - acquiredAt);
+        stats = null;
+    }
+}
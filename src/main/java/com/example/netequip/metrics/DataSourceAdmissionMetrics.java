@@ -0,0 +1,69 @@
+package com.example.netequip.metrics;
+
+import com.example.netequip.datasource.AdmissionControlDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Метрики очереди за соединением: ожидающие потоки, выданные соединения,
+ * суммарное время ожидания и отказы по тайм-ауту
+ */
+@Component
+public class DataSourceAdmissionMetrics implements MeterBinder {
+
+    private final ObjectProvider<DataSource> dataSources;
+
+    public DataSourceAdmissionMetrics(ObjectProvider<DataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        dataSources.orderedStream().forEach(dataSource -> {
+            AdmissionControlDataSource admission = unwrap(dataSource);
+            if (admission == null) {
+                return;
+            }
+            Gauge.builder("netequip.datasource.admission.waiting", admission, AdmissionControlDataSource::getWaiting)
+                    .description("Потоков в очереди за соединением")
+                    .tag("pool", admission.getName())
+                    .register(registry);
+            Gauge.builder("netequip.datasource.admission.in-use", admission, AdmissionControlDataSource::getInUse)
+                    .description("Выданных соединений")
+                    .tag("pool", admission.getName())
+                    .register(registry);
+            FunctionCounter.builder("netequip.datasource.admission.wait", admission,
+                            AdmissionControlDataSource::getWaitSeconds)
+                    .description("Суммарное ожидание в очереди")
+                    .tag("pool", admission.getName())
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("netequip.datasource.admission.rejected", admission,
+                            AdmissionControlDataSource::getRejected)
+                    .description("Отказов по тайм-ауту очереди")
+                    .tag("pool", admission.getName())
+                    .register(registry);
+        });
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static AdmissionControlDataSource unwrap(DataSource dataSource) {
+        if (dataSource instanceof AdmissionControlDataSource admission) {
+            return admission;
+        }
+        try {
+            return dataSource.isWrapperFor(AdmissionControlDataSource.class)
+                    ? dataSource.unwrap(AdmissionControlDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
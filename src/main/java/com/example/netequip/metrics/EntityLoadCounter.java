@@ -0,0 +1,17 @@
+package com.example.netequip.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Подсчёт сущностей, загруженных Hibernate в текущем HTTP-запросе
+ * (включая ленивые загрузки связей)
+ */
+public class EntityLoadCounter implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestQueryStats.entityLoaded();
+        return false;
+    }
+}
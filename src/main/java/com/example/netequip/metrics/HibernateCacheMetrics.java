@@ -0,0 +1,57 @@
+package com.example.netequip.metrics;
+
+import com.example.netequip.cache.HibernateCacheConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Доля попаданий в кэш второго уровня по регионам
+ * Счётчики попаданий и промахов публикует сам Hibernate (hibernate.second.level.cache.requests,
+ * hibernate.cache.query.requests), здесь — готовое отношение для панелей и оповещений
+ */
+@Component
+@ConditionalOnProperty(name = "netequip.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : HibernateCacheConfig.ENTITY_REGIONS) {
+            register(registry, region, s -> s.getDomainDataRegionStatistics(region));
+        }
+        register(registry, HibernateCacheConfig.QUERY_REGION,
+                s -> s.getQueryRegionStatistics(HibernateCacheConfig.QUERY_REGION));
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void register(MeterRegistry registry, String region,
+                          Function<Statistics, CacheRegionStatistics> regionStatistics) {
+        Gauge.builder("netequip.cache.hit.ratio", statistics, s -> hitRatio(regionStatistics.apply(s)))
+                .description("Доля попаданий в кэш второго уровня")
+                .tag("region", region)
+                .register(registry);
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        if (region == null) {
+            return Double.NaN;
+        }
+        long requests = region.getHitCount() + region.getMissCount();
+        return requests == 0 ? Double.NaN : (double) region.getHitCount() / requests;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.netequip.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Подключение счётчиков запросов, загрузок и удержания соединений к Hibernate
+ * Общая статистика Hibernate (hibernate.generate_statistics) публикуется в Micrometer автоматически
+ */
+@Configuration
+public class HibernateMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer requestQueryStatsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+            properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCounter());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, ConnectionHoldTimer.class.getName());
+        };
+    }
+}
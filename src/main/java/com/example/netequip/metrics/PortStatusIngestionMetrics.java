@@ -0,0 +1,50 @@
+package com.example.netequip.metrics;
+
+import com.example.netequip.dto.deviceport.PortStatusIngestionStatsDTO;
+import com.example.netequip.service.PortStatusIngestionService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Метрики приёма телеметрии статусов портов: заполнение буфера и итоги выгрузок
+ */
+@Component
+public class PortStatusIngestionMetrics implements MeterBinder {
+
+    private final PortStatusIngestionService ingestionService;
+
+    public PortStatusIngestionMetrics(PortStatusIngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("netequip.port-status.backlog", ingestionService, PortStatusIngestionService::getBacklog)
+                .description("Портов в буфере телеметрии")
+                .register(registry);
+        Gauge.builder("netequip.port-status.last-flush", ingestionService,
+                        service -> service.getStats().getLastFlushMillis())
+                .description("Длительность последней выгрузки, мс")
+                .baseUnit("milliseconds")
+                .register(registry);
+
+        counter(registry, "received", "Принято наблюдений", PortStatusIngestionStatsDTO::getReceived);
+        counter(registry, "coalesced", "Наблюдений, слитых в буфере", PortStatusIngestionStatsDTO::getCoalesced);
+        counter(registry, "applied", "Применено изменений статуса", PortStatusIngestionStatsDTO::getApplied);
+        counter(registry, "unchanged", "Наблюдений без изменения статуса", PortStatusIngestionStatsDTO::getUnchanged);
+        counter(registry, "failed-flushes", "Неудачных выгрузок", PortStatusIngestionStatsDTO::getFailedFlushes);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         ToDoubleFunction<PortStatusIngestionStatsDTO> value) {
+        FunctionCounter.builder("netequip.port-status." + name, ingestionService,
+                        service -> value.applyAsDouble(service.getStats()))
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.netequip.metrics;
+
+import com.example.netequip.datasource.ReplicaLagMonitor;
+import com.example.netequip.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Метрики чтения с реплики: отставание и число чтений по направлению
+ * (replica, primary после записи клиента, primary из-за отставания реплики)
+ */
+@Component
+public class ReplicaRoutingMetrics implements MeterBinder {
+
+    private final ObjectProvider<ReplicaRoutingDataSource> routing;
+    private final ObjectProvider<ReplicaLagMonitor> lagMonitor;
+
+    public ReplicaRoutingMetrics(ObjectProvider<ReplicaRoutingDataSource> routing,
+                                 ObjectProvider<ReplicaLagMonitor> lagMonitor) {
+        this.routing = routing;
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        lagMonitor.ifAvailable(monitor -> Gauge.builder("netequip.datasource.replica.lag", monitor,
+                        m -> m.getLagMillis() / 1000.0)
+                .description("Отставание реплики (отрицательное — не измерено)")
+                .baseUnit("seconds")
+                .register(registry));
+        routing.ifAvailable(dataSource -> {
+            reads(registry, dataSource, "replica", ReplicaRoutingDataSource::getReplicaReads);
+            reads(registry, dataSource, "sticky", ReplicaRoutingDataSource::getStickyReads);
+            reads(registry, dataSource, "lag-fallback", ReplicaRoutingDataSource::getLagFallbacks);
+        });
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static void reads(MeterRegistry registry, ReplicaRoutingDataSource dataSource, String route,
+                              ToLongFunction<ReplicaRoutingDataSource> count) {
+        FunctionCounter.builder("netequip.datasource.routing.reads", dataSource, ds -> count.applyAsLong(ds))
+                .description("Соединений для readOnly-транзакций по направлению")
+                .tag("route", route)
+                .register(registry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.netequip.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики SQL-запросов, загрузок сущностей и удержания соединений на HTTP-запрос
+ * netequip.request.sql.statements, netequip.request.entity.loads и netequip.request.connection.hold
+ * с тегами method/uri,
+ * где uri — шаблон маршрута (/api/equipment/{id}), чтобы число рядов не зависело от ID
+ */
+@Slf4j
+@Component
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    /**
+     * Атрибут запроса с итоговыми счётчиками (для тестов бюджета SQL-запросов)
+     */
+    public static final String STATS_ATTRIBUTE = RequestQueryStats.class.getName();
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestQueryMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.stop();
+            record(request, stats);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("netequip.request.sql.statements")
+                .description("SQL-запросов Hibernate на HTTP-запрос")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("netequip.request.entity.loads")
+                .description("Загруженных сущностей на HTTP-запрос")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getEntityLoads());
+        Timer.builder("netequip.request.connection.hold")
+                .description("Суммарное удержание соединений с БД на HTTP-запрос")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getConnectionHoldNanos(), TimeUnit.NANOSECONDS);
+
+        log.debug("{} {}: SQL-запросов {}, загружено сущностей {}, соединений {} на {} мс",
+                request.getMethod(), uri, stats.getStatements(), stats.getEntityLoads(),
+                stats.getConnections(), stats.getConnectionHoldNanos() / 1_000_000);
+    }
+}
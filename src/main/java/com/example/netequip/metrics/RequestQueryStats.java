@@ -0,0 +1,111 @@
+package com.example.netequip.metrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики SQL-запросов, загрузок сущностей и удержания соединений текущего HTTP-запроса
+ * Заполняются из Hibernate (SqlStatementCounter, EntityLoadCounter, ConnectionHoldTimer) в потоке
+ * запроса; вне запроса (планировщик, старт приложения) счёт не ведётся.
+ * Задачи, которые запрос запускает в других потоках, передают счётчики через propagate
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger entityLoads = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong connectionHoldNanos = new AtomicLong();
+
+    private RequestQueryStats() {
+    }
+
+    /**
+     * Начать счёт для текущего потока
+     */
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Завершить счёт для текущего потока
+     */
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Счётчики текущего запроса (null вне запроса)
+     */
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Задача, которая ведёт счёт в счётчики текущего запроса в любом потоке
+     *
+     * @param task задача
+     * @return обёртка задачи; сама задача, если счёт не ведётся
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            CURRENT.set(stats);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    static void statementExecuted() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements.incrementAndGet();
+        }
+    }
+
+    static void entityLoaded() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entityLoads.incrementAndGet();
+        }
+    }
+
+    static void connectionReleased(RequestQueryStats stats, long heldNanos) {
+        if (stats != null) {
+            stats.connections.incrementAndGet();
+            stats.connectionHoldNanos.addAndGet(heldNanos);
+        }
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public int getEntityLoads() {
+        return entityLoads.get();
+    }
+
+    /**
+     * Соединений, взятых Hibernate из пула
+     */
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Суммарное время удержания соединений, нс
+     */
+    public long getConnectionHoldNanos() {
+        return connectionHoldNanos.get();
+    }
+}
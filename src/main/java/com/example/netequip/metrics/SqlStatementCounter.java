@@ -0,0 +1,16 @@
+package com.example.netequip.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Подсчёт SQL-запросов, подготовленных Hibernate в текущем HTTP-запросе
+ * Запросы JdbcTemplate (TopologyRepository) сюда не попадают
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats.statementExecuted();
+        return sql;
+    }
+}
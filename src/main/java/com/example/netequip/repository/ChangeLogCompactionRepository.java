@@ -0,0 +1,14 @@
+package com.example.netequip.repository;
+
+import com.example.netequip.entity.ChangeLogCompaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeLogCompactionRepository extends JpaRepository<ChangeLogCompaction, Long> {
+
+    // Граница полной синхронизации: токены меньше неё могли пропустить удаления
+    @Query("SELECT COALESCE(MAX(c.purgedUpTo), 0) FROM ChangeLogCompaction c")
+    long findPurgeHorizon();
+}
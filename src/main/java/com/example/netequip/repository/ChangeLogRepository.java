@@ -0,0 +1,48 @@
+package com.example.netequip.repository;
+
+import com.example.netequip.entity.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    // Изменения после токена
+    List<ChangeLogEntry> findByIdGreaterThanOrderByIdAsc(Long since, Limit limit);
+
+    // Текущий последний токен
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM ChangeLogEntry c")
+    long findHeadToken();
+
+    // Удаление записей старше cutoff, для которых есть более поздняя запись той же сущности
+    // Без multi-table DELETE (его нет в H2); лишняя обёртка superseded материализуется
+    // и обходит запрет MySQL читать изменяемую таблицу в подзапросе
+    @Modifying
+    @Query(value = "DELETE FROM change_log WHERE id IN (" +
+            "SELECT id FROM (" +
+            "  SELECT c.id FROM change_log c " +
+            "  JOIN (SELECT entity_type, entity_id, MAX(id) AS max_id FROM change_log " +
+            "        GROUP BY entity_type, entity_id) latest " +
+            "  ON c.entity_type = latest.entity_type AND c.entity_id = latest.entity_id " +
+            "  WHERE c.changed_at < :cutoff AND c.id < latest.max_id" +
+            ") superseded)",
+            nativeQuery = true)
+    int deleteSuperseded(@Param("cutoff") LocalDateTime cutoff);
+
+    // Наибольший токен записи об удалении старше cutoff
+    @Query("SELECT MAX(c.id) FROM ChangeLogEntry c WHERE c.operation = :operation AND c.changedAt < :cutoff")
+    Long findMaxIdByOperationBefore(@Param("operation") String operation, @Param("cutoff") LocalDateTime cutoff);
+
+    // Удаление записей об удалении старше cutoff
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.operation = :operation AND c.changedAt < :cutoff AND c.id <= :maxId")
+    int deleteByOperationBefore(@Param("operation") String operation, @Param("cutoff") LocalDateTime cutoff,
+                                @Param("maxId") Long maxId);
+}
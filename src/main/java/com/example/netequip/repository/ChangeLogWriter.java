@@ -0,0 +1,110 @@
+package com.example.netequip.repository;
+
+import com.example.netequip.entity.ChangeLogEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Запись журнала изменений с токенами в порядке коммитов
+ * Строка change_log_sequence блокируется до конца транзакции, поэтому транзакция получает
+ * диапазон токенов только после коммита предыдущей: запись с токеном N видна клиентам,
+ * лишь когда видны все записи с меньшими токенами. Записи вставляются пакетом
+ */
+@Slf4j
+@Repository
+public class ChangeLogWriter {
+
+    private static final int SEQUENCE_ID = 1;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ChangeLogWriter(DataSource dataSource,
+                           @Value("${netequip.changes.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Выдача токенов и вставка записей
+     * Вызывать непосредственно перед коммитом: блокировка последовательности держится до его конца
+     *
+     * @param entries записи без id; id проставляются по порядку списка
+     */
+    @Transactional
+    public void append(List<ChangeLogEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        // Отложенные изменения сущностей пишутся до блокировки: ожидание чужих блокировок строк
+        // под ней задержало бы все коммиты и могло замкнуться во взаимную блокировку
+        entityManager.flush();
+
+        long id = allocate(entries.size()) - entries.size();
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                ChangeLogEntry entry = entries.get(i);
+                entry.setId(++id);
+                entityManager.persist(entry);
+                // Снимки не нужны после вставки — контекст не растёт на больших транзакциях
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entries.subList(i + 1 - batchSize, i + 1).forEach(entityManager::detach);
+                }
+            }
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    /**
+     * Создание строки последовательности с учётом уже выданных токенов
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initSequence() {
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM change_log_sequence", Integer.class);
+        if (rows != null && rows > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO change_log_sequence (id, last_id) " +
+                    "SELECT ?, COALESCE(MAX(id), 0) FROM change_log", SEQUENCE_ID);
+        } catch (DuplicateKeyException e) {
+            log.debug("Последовательность журнала изменений создана другим экземпляром");
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    /**
+     * @return последний токен выделенного диапазона
+     */
+    private long allocate(int count) {
+        if (jdbcTemplate.update("UPDATE change_log_sequence SET last_id = last_id + ? WHERE id = ?",
+                count, SEQUENCE_ID) == 0) {
+            throw new IllegalStateException("Последовательность журнала изменений не создана");
+        }
+        // Строка изменена этой транзакцией — чтение видит собственное значение, а не снимок
+        return jdbcTemplate.queryForObject("SELECT last_id FROM change_log_sequence WHERE id = ?",
+                Long.class, SEQUENCE_ID);
+    }
+}
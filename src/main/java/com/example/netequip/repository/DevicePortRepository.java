@@ -2,11 +2,14 @@ package com.example.netequip.repository;
 
 import com.example.netequip.entity.DevicePort;
 import com.example.netequip.entity.Equipment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,19 +20,47 @@ public interface DevicePortRepository extends JpaRepository<DevicePort, Long> {
     List<DevicePort> findByEquipment(Equipment equipment);
 
     // Получить порты устройства отсортированные по номеру
+    @EntityGraph(DevicePort.WITH_PEER)
     List<DevicePort> findByEquipmentOrderByPortNumberAsc(Equipment equipment);
 
+    // Порт вместе с устройством и подключёнными устройством и портом
+    @EntityGraph(DevicePort.WITH_EQUIPMENT_AND_PEER)
+    Optional<DevicePort> findWithEquipmentAndPeerById(Long id);
+
+    // Все порты вместе с устройствами и подключениями
+    @EntityGraph(DevicePort.WITH_EQUIPMENT_AND_PEER)
+    List<DevicePort> findAllWithEquipmentAndPeerBy();
+
+    // Пакетный поиск (оборудование и подключения подгружаются тем же запросом)
+    @EntityGraph(DevicePort.WITH_EQUIPMENT_AND_PEER)
+    List<DevicePort> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(DevicePort.WITH_EQUIPMENT_AND_PEER)
+    List<DevicePort> findByEquipmentIdInOrderByPortNumberAsc(Collection<Long> equipmentIds);
+
+    // Порты устройства вместе с подключёнными устройствами и портами
+    @EntityGraph(DevicePort.WITH_PEER)
+    List<DevicePort> findWithPeersByEquipmentOrderByPortNumberAsc(Equipment equipment);
+
+    // Порты других устройств, подключённые к данному, вместе с их владельцами
+    @EntityGraph(DevicePort.WITH_OWNER)
+    List<DevicePort> findWithOwnerByConnectedToEquipment(Equipment equipment);
+
     // Найти конкретный порт устройства
+    @EntityGraph(DevicePort.WITH_PEER)
     Optional<DevicePort> findByEquipmentAndPortNumber(Equipment equipment, Integer portNumber);
 
     // Получить порты по статусу
+    @EntityGraph(DevicePort.WITH_PEER)
     List<DevicePort> findByEquipmentAndStatus(Equipment equipment, String status);
 
     // Получить свободные порты устройства
+    @EntityGraph(DevicePort.WITH_PEER)
     @Query("SELECT p FROM DevicePort p WHERE p.equipment = :equipment AND p.connectedToEquipment IS NULL")
     List<DevicePort> findAvailablePortsByEquipment(@Param("equipment") Equipment equipment);
 
     // Получить занятые порты
+    @EntityGraph(DevicePort.WITH_PEER)
     @Query("SELECT p FROM DevicePort p WHERE p.equipment = :equipment AND p.connectedToEquipment IS NOT NULL")
     List<DevicePort> findOccupiedPortsByEquipment(@Param("equipment") Equipment equipment);
 
@@ -41,4 +72,54 @@ public interface DevicePortRepository extends JpaRepository<DevicePort, Long> {
 
     // Найти все подключения к определенному устройству
     List<DevicePort> findByConnectedToEquipment(Equipment equipment);
+
+    // Текущие статусы портов для сверки телеметрии, без загрузки сущностей
+    @Query("SELECT p.id AS id, p.status AS status FROM DevicePort p WHERE p.id IN :ids")
+    List<PortStatus> findStatusByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Массовая смена статуса (приём телеметрии); контекст очищается, загруженные порты становятся detached
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DevicePort p SET p.status = :status, p.version = p.version + 1 WHERE p.id IN :ids")
+    int updateStatusByIdIn(@Param("status") String status, @Param("ids") Collection<Long> ids);
+
+    // Ёмкость портов по узлам расположения внутри поддерева (индексный диапазон по location_path)
+    @Query("SELECT e.locationPath AS locationPath, COUNT(p) AS totalPorts, " +
+            "SUM(CASE WHEN p.connectedToEquipment IS NULL THEN 1 ELSE 0 END) AS freePorts " +
+            "FROM DevicePort p JOIN p.equipment e " +
+            "WHERE e.locationPath LIKE CONCAT(:prefix, '%') GROUP BY e.locationPath")
+    List<LocationPortCapacity> countPortCapacityByLocationPath(@Param("prefix") String prefix);
+
+    // Версии документа порта для ETag: порт, его устройство и подключённые устройство и порт
+    @Query("SELECT p.version AS version, e.version AS equipmentVersion, " +
+            "ce.version AS connectedEquipmentVersion, cp.version AS connectedPortVersion " +
+            "FROM DevicePort p JOIN p.equipment e LEFT JOIN p.connectedToEquipment ce " +
+            "LEFT JOIN p.connectedToPort cp WHERE p.id = :id")
+    Optional<PortVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Проекция: ёмкость портов оборудования одного узла расположения
+     */
+    interface LocationPortCapacity {
+        String getLocationPath();
+        Long getTotalPorts();
+        Long getFreePorts();
+    }
+
+    /**
+     * Проекция: текущий статус порта
+     */
+    interface PortStatus {
+        Long getId();
+        String getStatus();
+    }
+
+    /**
+     * Проекция: версии документа порта
+     */
+    interface PortVersion {
+        Long getVersion();
+        Long getEquipmentVersion();
+        Long getConnectedEquipmentVersion();
+        Long getConnectedPortVersion();
+    }
 }
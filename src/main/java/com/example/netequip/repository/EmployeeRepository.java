@@ -1,7 +1,10 @@
 package com.example.netequip.repository;
 
 import com.example.netequip.entity.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,7 +16,8 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     // Поиск по имени
     List<Employee> findByFullNameContainingIgnoreCase(String name);
 
-    // Поиск по email
+    // Поиск по email (кэш запросов)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Employee> findByEmail(String email);
 
     // Поиск по должности
@@ -3,12 +3,15 @@ package com.example.netequip.repository;
 import com.example.netequip.entity.Equipment;
 import com.example.netequip.entity.EquipmentType;
 import com.example.netequip.entity.Employee;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,36 +19,46 @@ import java.util.Optional;
 public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
 
     // Поиск по серийному номеру
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     Optional<Equipment> findBySerialNumber(String serialNumber);
 
-    // Поиск по MAC-адресу
-    Optional<Equipment> findByMacAddress(String macAddress);
+    // Поиск по числовому ключу MAC-адреса (см. MacAddressUtils)
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
+    Optional<Equipment> findByMacKey(Long macKey);
 
     // Поиск по IP-адресу
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     Optional<Equipment> findByIpAddress(String ipAddress);
 
     // Получить все устройства определенного типа
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     List<Equipment> findByType(EquipmentType type);
 
     // Получить все устройства определенного сотрудника
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     List<Equipment> findByEmployee(Employee employee);
 
     // Поиск по статусу
     List<Equipment> findByStatus(String status);
 
     // Поиск по адресу (частичное совпадение)
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     List<Equipment> findByAddressContainingIgnoreCase(String address);
 
     // Поиск по названию (частичное совпадение)
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     List<Equipment> findByNameContainingIgnoreCase(String name);
 
     // Получить оборудование по типу и статусу
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     List<Equipment> findByTypeAndStatus(EquipmentType type, String status);
 
     // Получить оборудование добавленное после определенной даты
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     List<Equipment> findByDateAddedAfter(LocalDate date);
 
     // Получить оборудование требующее обслуживания (не обслуживалось долго)
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     @Query("SELECT e FROM Equipment e WHERE e.dateUpdated < :date OR e.dateUpdated IS NULL")
     List<Equipment> findEquipmentNeedingMaintenance(@Param("date") LocalDate date);
 
@@ -58,9 +71,116 @@ public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
     // Проверка существования серийного номера
     boolean existsBySerialNumber(String serialNumber);
 
-    // Проверка существования MAC-адреса
-    boolean existsByMacAddress(String macAddress);
+    // Проверка существования MAC-адреса по числовому ключу
+    boolean existsByMacKey(Long macKey);
+
+    // Всё оборудование вместе с типами и сотрудниками
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
+    List<Equipment> findAllWithTypeAndEmployeeBy();
+
+    // Оборудование вместе с типом и сотрудником одним запросом
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
+    Optional<Equipment> findWithTypeAndEmployeeById(Long id);
+
+    // Пакетный поиск (тип и сотрудник подгружаются тем же запросом)
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
+    List<Equipment> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
+    List<Equipment> findBySerialNumberIn(Collection<String> serialNumbers);
+
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
+    List<Equipment> findByMacKeyIn(Collection<Long> macKeys);
+
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
+    List<Equipment> findByIpAddressInOrderByIdAsc(Collection<String> ipAddresses);
+
+    // Записи, сохранённые до появления числового ключа MAC
+    List<Equipment> findByMacKeyIsNullAndMacAddressIsNotNull();
+
+    // Оборудование поддерева расположения (индексный диапазон по location_path)
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
+    List<Equipment> findByLocationPathStartingWithOrderByIdAsc(String pathPrefix);
+
+    // Оборудование с адресом, ещё не привязанное к расположению
+    List<Equipment> findByLocationIsNullAndAddressIsNotNull();
+
+    // Все пары MAC-ключ → ID для построения in-memory индекса
+    @Query("SELECT e.macKey AS macKey, e.id AS id FROM Equipment e WHERE e.macKey IS NOT NULL")
+    List<MacKeyId> findAllMacKeys();
 
     // Получить все активное оборудование
+    @EntityGraph(Equipment.WITH_TYPE_AND_EMPLOYEE)
     List<Equipment> findByStatusOrderByNameAsc(String status);
+
+    // Количество закреплённого оборудования по сотрудникам (один запрос на весь список)
+    @Query("SELECT e.employee.id AS employeeId, COUNT(e) AS total FROM Equipment e " +
+            "WHERE e.employee IS NOT NULL GROUP BY e.employee.id")
+    List<EmployeeEquipmentCount> countGroupedByEmployee();
+
+    // Атомарное изменение счётчика портов (в той же транзакции, что и запись порта)
+    // Контекст сбрасывается до и очищается после обновления: загруженное ранее оборудование
+    // иначе осталось бы со старым счётчиком и могло записать его обратно при flush
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Equipment e SET e.portsCount = e.portsCount + :delta WHERE e.id = :id")
+    int adjustPortsCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // Атомарное изменение счётчика IP-адресов
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Equipment e SET e.ipAddressesCount = e.ipAddressesCount + :delta WHERE e.id = :id")
+    int adjustIpAddressesCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // Атомарное изменение счётчика обслуживаний
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Equipment e SET e.maintenanceCount = e.maintenanceCount + :delta WHERE e.id = :id")
+    int adjustMaintenanceCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // Пересчёт счётчиков, разошедшихся с фактическим количеством записей
+    // Возвращает число исправленных строк
+    @Modifying
+    @Query(value = "UPDATE equipment e SET " +
+            "ports_count = (SELECT COUNT(*) FROM device_port p WHERE p.equipment_id = e.id), " +
+            "ip_addresses_count = (SELECT COUNT(*) FROM ip_address i WHERE i.equipment_id = e.id), " +
+            "maintenance_count = (SELECT COUNT(*) FROM maintenance_history m WHERE m.equipment_id = e.id) " +
+            "WHERE ports_count <> (SELECT COUNT(*) FROM device_port p WHERE p.equipment_id = e.id) " +
+            "OR ip_addresses_count <> (SELECT COUNT(*) FROM ip_address i WHERE i.equipment_id = e.id) " +
+            "OR maintenance_count <> (SELECT COUNT(*) FROM maintenance_history m WHERE m.equipment_id = e.id)",
+            nativeQuery = true)
+    int repairCounters();
+
+    // Версии документа оборудования для ETag (без загрузки сущностей)
+    @Query("SELECT e.version AS version, t.version AS typeVersion, m.version AS employeeVersion, " +
+            "e.portsCount AS portsCount, e.ipAddressesCount AS ipAddressesCount, " +
+            "e.maintenanceCount AS maintenanceCount, e.dateUpdated AS dateUpdated " +
+            "FROM Equipment e LEFT JOIN e.type t LEFT JOIN e.employee m WHERE e.id = :id")
+    Optional<EquipmentVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Проекция: MAC-ключ и ID оборудования
+     */
+    interface MacKeyId {
+        Long getMacKey();
+        Long getId();
+    }
+
+    /**
+     * Проекция: количество оборудования сотрудника
+     */
+    interface EmployeeEquipmentCount {
+        Long getEmployeeId();
+        Long getTotal();
+    }
+
+    /**
+     * Проекция: версии документа оборудования
+     */
+    interface EquipmentVersion {
+        Long getVersion();
+        Long getTypeVersion();
+        Long getEmployeeVersion();
+        Integer getPortsCount();
+        Integer getIpAddressesCount();
+        Integer getMaintenanceCount();
+        LocalDate getDateUpdated();
+    }
 }
@@ -1,7 +1,10 @@
 package com.example.netequip.repository;
 
 import com.example.netequip.entity.EquipmentType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,7 +13,8 @@ import java.util.Optional;
 @Repository
 public interface EquipmentTypeRepository extends JpaRepository<EquipmentType, Long> {
 
-    // Поиск по названию типа
+    // Поиск по названию типа (кэш запросов)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<EquipmentType> findByTypeName(String typeName);
 
     // Поиск по производителю
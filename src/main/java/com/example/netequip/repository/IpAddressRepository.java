@@ -2,9 +2,13 @@ package com.example.netequip.repository;
 
 import com.example.netequip.entity.Equipment;
 import com.example.netequip.entity.IpAddress;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,12 +19,29 @@ public interface IpAddressRepository extends JpaRepository<IpAddress, Long> {
     List<IpAddress> findByEquipment(Equipment equipment);
 
     // Найти IP-адрес
+    @EntityGraph(IpAddress.WITH_EQUIPMENT)
     Optional<IpAddress> findByIpAddress(String ipAddress);
 
+    // IP-адрес вместе с оборудованием
+    @EntityGraph(IpAddress.WITH_EQUIPMENT)
+    Optional<IpAddress> findWithEquipmentById(Long id);
+
+    // Все IP-адреса вместе с оборудованием
+    @EntityGraph(IpAddress.WITH_EQUIPMENT)
+    List<IpAddress> findAllWithEquipmentBy();
+
+    // Пакетный поиск (оборудование подгружается тем же запросом)
+    @EntityGraph(IpAddress.WITH_EQUIPMENT)
+    List<IpAddress> findByIpAddressIn(Collection<String> ipAddresses);
+
+    @EntityGraph(IpAddress.WITH_EQUIPMENT)
+    List<IpAddress> findByIdIn(Collection<Long> ids);
+
     // Получить основной IP устройства
     Optional<IpAddress> findByEquipmentAndIsPrimary(Equipment equipment, Boolean isPrimary);
 
     // Получить IP по типу сети
+    @EntityGraph(IpAddress.WITH_EQUIPMENT)
     List<IpAddress> findByNetworkType(String networkType);
 
     // Получить IP устройства по типу сети
@@ -33,5 +54,19 @@ public interface IpAddressRepository extends JpaRepository<IpAddress, Long> {
     long countByEquipment(Equipment equipment);
 
     // Получить все устройства в подсети (по маске)
+    @EntityGraph(IpAddress.WITH_EQUIPMENT)
     List<IpAddress> findBySubnetMask(String subnetMask);
+
+    // Версии документа IP-адреса для ETag: адрес и его устройство
+    @Query("SELECT i.version AS version, e.version AS equipmentVersion " +
+            "FROM IpAddress i JOIN i.equipment e WHERE i.id = :id")
+    Optional<IpAddressVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Проекция: версии документа IP-адреса
+     */
+    interface IpAddressVersion {
+        Long getVersion();
+        Long getEquipmentVersion();
+    }
 }
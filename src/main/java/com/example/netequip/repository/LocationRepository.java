@@ -0,0 +1,50 @@
+package com.example.netequip.repository;
+
+import com.example.netequip.entity.Location;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LocationRepository extends JpaRepository<Location, Long>, LocationRepositoryCustom {
+
+    Optional<Location> findByPath(String path);
+
+    // Узел по пути с блокировкой строки: видит и узел, закоммиченный после начала транзакции
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Location l WHERE l.path = :path")
+    Optional<Location> findLockedByPath(@Param("path") String path);
+
+    // Корневые узлы (площадки)
+    List<Location> findByParentIsNullOrderByNameAsc();
+
+    List<Location> findByParentIdOrderByNameAsc(Long parentId);
+
+    List<Location> findByLevelOrderByPathAsc(Location.Level level);
+
+    // Изменение счётчика оборудования у всех предков узла (пути передаются списком)
+    @Modifying
+    @Query("UPDATE Location l SET l.equipmentCount = l.equipmentCount + :delta WHERE l.path IN :paths")
+    int adjustEquipmentCount(@Param("paths") Collection<String> paths, @Param("delta") int delta);
+
+    /**
+     * Пересчёт счётчиков оборудования по поддеревьям; обновляются только расходящиеся узлы
+     *
+     * @return количество исправленных узлов
+     */
+    @Modifying
+    @Query(value = "UPDATE location l SET equipment_count = " +
+            "(SELECT COUNT(*) FROM equipment e WHERE e.location_path LIKE CONCAT(l.path, '%')) " +
+            "WHERE equipment_count <> " +
+            "(SELECT COUNT(*) FROM equipment e WHERE e.location_path LIKE CONCAT(l.path, '%'))",
+            nativeQuery = true)
+    int repairEquipmentCounts();
+}
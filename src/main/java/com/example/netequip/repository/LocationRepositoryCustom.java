@@ -0,0 +1,14 @@
+package com.example.netequip.repository;
+
+/**
+ * Запросы к иерархии расположения, которые не выражаются методами Spring Data
+ */
+public interface LocationRepositoryCustom {
+
+    /**
+     * Создание узла, если узла с таким путём ещё нет
+     * Совпадение пути с узлом параллельного запроса пропускается без ошибки и не откатывает транзакцию,
+     * прочие нарушения ограничений (внешний ключ, длина значения) приводят к исключению
+     */
+    void insertIfAbsent(Long parentId, String level, String name, String path, int depth);
+}
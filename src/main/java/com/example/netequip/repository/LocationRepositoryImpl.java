@@ -0,0 +1,34 @@
+package com.example.netequip.repository;
+
+import com.example.netequip.entity.Location;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Реализация {@link LocationRepositoryCustom}
+ * Нативная вставка объявляет затрагиваемую таблицу: без этого Hibernate не знает,
+ * что изменилось, и сбрасывает все регионы кэша второго уровня
+ */
+class LocationRepositoryImpl implements LocationRepositoryCustom {
+
+    // Конфликт по уникальному пути превращается в пустое обновление, остальные ошибки не подавляются
+    private static final String INSERT_IF_ABSENT = "INSERT INTO location (parent_id, level, name, path, depth) " +
+            "VALUES (:parentId, :level, :name, :path, :depth) ON DUPLICATE KEY UPDATE id = id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertIfAbsent(Long parentId, String level, String name, String path, int depth) {
+        entityManager.createNativeQuery(INSERT_IF_ABSENT)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Location.class)
+                .setParameter("parentId", parentId)
+                .setParameter("level", level)
+                .setParameter("name", name)
+                .setParameter("path", path)
+                .setParameter("depth", depth)
+                .executeUpdate();
+    }
+}
@@ -3,35 +3,57 @@ package com.example.netequip.repository;
 import com.example.netequip.entity.Equipment;
 import com.example.netequip.entity.Employee;
 import com.example.netequip.entity.MaintenanceHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MaintenanceHistoryRepository extends JpaRepository<MaintenanceHistory, Long> {
 
+    // Запись вместе с оборудованием и исполнителем
+    @EntityGraph(MaintenanceHistory.WITH_EQUIPMENT_AND_PERFORMER)
+    Optional<MaintenanceHistory> findWithEquipmentAndPerformerById(Long id);
+
+    // Все записи вместе с оборудованием и исполнителями
+    @EntityGraph(MaintenanceHistory.WITH_EQUIPMENT_AND_PERFORMER)
+    List<MaintenanceHistory> findAllWithEquipmentAndPerformerBy();
+
     // Получить всю историю обслуживания устройства
+    @EntityGraph(MaintenanceHistory.WITH_PERFORMER)
     List<MaintenanceHistory> findByEquipmentOrderByDateDesc(Equipment equipment);
 
+    // Последние N обслуживаний устройства вместе с исполнителем
+    @EntityGraph(MaintenanceHistory.WITH_PERFORMER)
+    List<MaintenanceHistory> findWithPerformerByEquipmentOrderByDateDesc(Equipment equipment, Limit limit);
+
     // Получить историю обслуживания по типу
+    @EntityGraph(MaintenanceHistory.WITH_PERFORMER)
     List<MaintenanceHistory> findByEquipmentAndType(Equipment equipment, String type);
 
     // Получить обслуживания выполненные сотрудником
+    @EntityGraph(MaintenanceHistory.WITH_EQUIPMENT)
     List<MaintenanceHistory> findByPerformedBy(Employee employee);
 
     // Получить обслуживания за период
+    @EntityGraph(MaintenanceHistory.WITH_EQUIPMENT_AND_PERFORMER)
     List<MaintenanceHistory> findByDateBetween(LocalDateTime start, LocalDateTime end);
 
     // Получить последнее обслуживание устройства
+    @EntityGraph(MaintenanceHistory.WITH_PERFORMER)
     @Query("SELECT m FROM MaintenanceHistory m WHERE m.equipment = :equipment ORDER BY m.date DESC LIMIT 1")
     MaintenanceHistory findLatestByEquipment(@Param("equipment") Equipment equipment);
 
     // Получить устройства требующие обслуживания (nextMaintenanceDate прошла)
+    @EntityGraph(MaintenanceHistory.WITH_EQUIPMENT_AND_PERFORMER)
     @Query("SELECT m FROM MaintenanceHistory m WHERE m.nextMaintenanceDate < :currentDate ORDER BY m.nextMaintenanceDate ASC")
     List<MaintenanceHistory> findOverdueMaintenances(@Param("currentDate") LocalDate currentDate);
 
@@ -42,7 +64,25 @@ public interface MaintenanceHistoryRepository extends JpaRepository<MaintenanceH
     long countByType(String type);
 
     // Получить обслуживания устройства за последние N дней
+    @EntityGraph(MaintenanceHistory.WITH_PERFORMER)
     @Query("SELECT m FROM MaintenanceHistory m WHERE m.equipment = :equipment AND m.date >= :since ORDER BY m.date DESC")
     List<MaintenanceHistory> findRecentMaintenances(@Param("equipment") Equipment equipment,
                                                     @Param("since") LocalDateTime since);
+
+    // Количество и стоимость обслуживаний по сотрудникам за период (один запрос на весь список)
+    @Query("SELECT m.performedBy.id AS employeeId, COUNT(m) AS jobs, COALESCE(SUM(m.cost), 0) AS totalCost " +
+            "FROM MaintenanceHistory m " +
+            "WHERE m.performedBy IS NOT NULL AND m.date >= :start AND m.date < :end " +
+            "GROUP BY m.performedBy.id")
+    List<EmployeeMaintenanceStats> sumGroupedByPerformer(@Param("start") LocalDateTime start,
+                                                         @Param("end") LocalDateTime end);
+
+    /**
+     * Проекция: обслуживания сотрудника за период
+     */
+    interface EmployeeMaintenanceStats {
+        Long getEmployeeId();
+        Long getJobs();
+        BigDecimal getTotalCost();
+    }
 }
@@ -0,0 +1,13 @@
+package com.example.netequip.repository;
+
+import com.example.netequip.entity.PortStatusCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PortStatusCodeRepository extends JpaRepository<PortStatusCode, Integer> {
+
+    Optional<PortStatusCode> findByName(String name);
+}
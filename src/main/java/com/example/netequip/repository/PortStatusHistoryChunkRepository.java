@@ -0,0 +1,36 @@
+package com.example.netequip.repository;
+
+import com.example.netequip.entity.PortStatusHistoryChunk;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PortStatusHistoryChunkRepository extends JpaRepository<PortStatusHistoryChunk, Long> {
+
+    // Открытые блоки портов с блокировкой строк; порядок по порту исключает взаимоблокировки
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM PortStatusHistoryChunk c WHERE c.portId IN :portIds AND c.open = true ORDER BY c.portId")
+    List<PortStatusHistoryChunk> findOpenForUpdate(@Param("portIds") Collection<Long> portIds);
+
+    // Блок, в котором находится состояние порта на момент from
+    Optional<PortStatusHistoryChunk> findFirstByPortIdAndFirstAtLessThanEqualOrderByFirstAtDescIdDesc(
+            Long portId, long from);
+
+    // Блоки, начатые внутри окна
+    List<PortStatusHistoryChunk> findByPortIdAndFirstAtGreaterThanAndFirstAtLessThanOrderByFirstAtAscIdAsc(
+            Long portId, long from, long to);
+
+    // Удаление закрытых блоков старше cutoff
+    @Modifying
+    @Query("DELETE FROM PortStatusHistoryChunk c WHERE c.open = false AND c.lastAt < :cutoff")
+    int deleteClosedBefore(@Param("cutoff") long cutoff);
+}
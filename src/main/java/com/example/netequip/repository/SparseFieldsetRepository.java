@@ -0,0 +1,154 @@
+package com.example.netequip.repository;
+
+import com.example.netequip.exception.InvalidRequestParameterException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * Выборка списков с произвольным набором полей (параметр fields=)
+ * Запрошенные поля компилируются в JPQL-проекцию: в SELECT попадают только нужные колонки,
+ * а JOIN добавляется лишь для полей связанных сущностей
+ */
+@Repository
+public class SparseFieldsetRepository {
+
+    /**
+     * Описание поля проекции
+     *
+     * @param path JPQL-выражение
+     * @param join JOIN, необходимый для выражения (null — колонка основной таблицы)
+     */
+    private record Field(String path, String join) {}
+
+    /**
+     * Набор допустимых полей для сущности
+     */
+    public static final class Projection {
+        private final String from;
+        private final String alias;
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+
+        private Projection(String entity, String alias) {
+            this.from = entity + " " + alias;
+            this.alias = alias;
+        }
+
+        private Projection column(String name) {
+            fields.put(name, new Field(alias + "." + name, null));
+            return this;
+        }
+
+        private Projection path(String name, String path) {
+            fields.put(name, new Field(path, null));
+            return this;
+        }
+
+        private Projection joined(String name, String path, String join) {
+            fields.put(name, new Field(path, join));
+            return this;
+        }
+
+        public Set<String> fieldNames() {
+            return Collections.unmodifiableSet(fields.keySet());
+        }
+    }
+
+    // Поля совпадают с именами полей EquipmentListDTO
+    public static final Projection EQUIPMENT = new Projection("Equipment", "e")
+            .column("id").column("name").column("serialNumber").column("ipAddress").column("macAddress")
+            .column("address").column("status").column("dateAdded").column("portsCount")
+            .path("typeId", "e.type.id")
+            .joined("typeName", "t.typeName", "LEFT JOIN e.type t")
+            .joined("manufacturer", "t.manufacturer", "LEFT JOIN e.type t")
+            .joined("model", "t.model", "LEFT JOIN e.type t")
+            .path("employeeId", "e.employee.id")
+            .joined("employeeFullName", "emp.fullName", "LEFT JOIN e.employee emp");
+
+    // Поля совпадают с именами полей DevicePortResponseDTO
+    public static final Projection DEVICE_PORT = new Projection("DevicePort", "p")
+            .column("id").column("portNumber").column("portType").column("status").column("speed")
+            .column("description")
+            .path("equipmentId", "p.equipment.id")
+            .joined("equipmentName", "eq.name", "LEFT JOIN p.equipment eq")
+            .path("connectedToEquipmentId", "p.connectedToEquipment.id")
+            .joined("connectedToEquipmentName", "ce.name", "LEFT JOIN p.connectedToEquipment ce")
+            .path("connectedToPortId", "p.connectedToPort.id")
+            .joined("connectedToPortNumber", "cp.portNumber", "LEFT JOIN p.connectedToPort cp");
+
+    // Поля совпадают с именами полей IpAddressResponseDTO
+    public static final Projection IP_ADDRESS = new Projection("IpAddress", "i")
+            .column("id").column("ipAddress").column("subnetMask").column("gateway").column("networkType")
+            .column("isPrimary").column("assignedDate")
+            .path("equipmentId", "i.equipment.id")
+            .joined("equipmentName", "eq.name", "LEFT JOIN i.equipment eq");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Все записи сущности с выбранными полями, по возрастанию ID
+     *
+     * @param projection набор допустимых полей
+     * @param requested имена полей (допускаются значения через запятую)
+     * @return строки в виде "поле → значение" в порядке запроса полей
+     * @throws InvalidRequestParameterException если поле неизвестно или список пуст
+     */
+    public List<Map<String, Object>> findAll(Projection projection, List<String> requested) {
+        List<String> names = parse(projection, requested);
+
+        StringBuilder select = new StringBuilder();
+        Set<String> joins = new LinkedHashSet<>();
+        for (String name : names) {
+            Field field = projection.fields.get(name);
+            if (!select.isEmpty()) {
+                select.append(", ");
+            }
+            select.append(field.path());
+            if (field.join() != null) {
+                joins.add(field.join());
+            }
+        }
+
+        String jpql = "SELECT " + select + " FROM " + projection.from
+                + (joins.isEmpty() ? "" : " " + String.join(" ", joins))
+                + " ORDER BY " + projection.alias + ".id";
+
+        List<Tuple> rows = entityManager.createQuery(jpql, Tuple.class).getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                values.put(names.get(i), row.get(i));
+            }
+            result.add(values);
+        }
+        return result;
+    }
+
+    private static List<String> parse(Projection projection, List<String> requested) {
+        Set<String> names = new LinkedHashSet<>();
+        if (requested != null) {
+            for (String value : requested) {
+                for (String part : value.split(",")) {
+                    String name = part.trim();
+                    if (name.isEmpty()) {
+                        continue;
+                    }
+                    if (!projection.fields.containsKey(name)) {
+                        throw new InvalidRequestParameterException(
+                                "Неизвестное поле '" + name + "', допустимо: " + projection.fieldNames());
+                    }
+                    names.add(name);
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            throw new InvalidRequestParameterException("Параметр fields не должен быть пустым");
+        }
+        return new ArrayList<>(names);
+    }
+}
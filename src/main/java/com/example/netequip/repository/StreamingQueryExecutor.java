@@ -0,0 +1,57 @@
+package com.example.netequip.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Построчное чтение больших выборок без материализации списка
+ * Запрос выполняется курсором только вперёд с заданным fetch size, сущности загружаются
+ * в режиме только для чтения и отсоединяются сразу после обработки
+ * Вызывать внутри транзакции (readOnly = true)
+ */
+@Repository
+public class StreamingQueryExecutor {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int fetchSize;
+
+    public StreamingQueryExecutor(@Value("${netequip.streaming.fetch-size:500}") int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Обработка каждой строки результата JPQL-запроса
+     *
+     * @param jpql запрос (связи, нужные для маппинга, следует подгружать через JOIN FETCH)
+     * @param type класс сущности
+     * @param action обработчик строки
+     * @return количество обработанных строк
+     */
+    public <T> long forEach(String jpql, Class<T> type, Consumer<T> action) {
+        long count = 0;
+        try (Stream<T> rows = entityManager.createQuery(jpql, type)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            var iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T entity = iterator.next();
+                action.accept(entity);
+                entityManager.detach(entity);
+                // Связанные сущности (тип, сотрудник и т.п.) не отсоединяются каскадно — сбрасываем контекст пачками
+                if (++count % fetchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.netequip.repository;
+
+import com.example.netequip.entity.DevicePort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Массовое чтение и запись подключений портов для сверки топологии
+ * Подключения читаются и пишутся напрямую через JDBC (без загрузки сущностей),
+ * запись — пакетами; при rewriteBatchedStatements=true MySQL получает один запрос на пакет
+ */
+@Repository
+public class TopologyRepository {
+
+    private static final String SELECT_PORTS =
+            "SELECT id, equipment_id, port_number, connected_to_port_id FROM device_port";
+
+    /**
+     * Порт и его текущее подключение
+     *
+     * @param id ID порта
+     * @param equipmentId ID оборудования
+     * @param portNumber номер порта
+     * @param peerId ID подключённого порта (null — свободен)
+     */
+    public record PortLink(long id, long equipmentId, int portNumber, Long peerId) {}
+
+    /**
+     * Новое подключение порта
+     *
+     * @param portId ID порта
+     * @param peerEquipmentId ID оборудования подключаемого порта
+     * @param peerPortId ID подключаемого порта
+     */
+    public record Connection(long portId, long peerEquipmentId, long peerPortId) {}
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public TopologyRepository(DataSource dataSource,
+                              @Value("${netequip.topology.batch-size:1000}") int batchSize,
+                              @Value("${netequip.streaming.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Все порты
+     */
+    public void forEachPort(Consumer<PortLink> action) {
+        jdbcTemplate.query(SELECT_PORTS, rowHandler(action));
+    }
+
+    /**
+     * Порты оборудования, а также порты, подключённые к этому оборудованию
+     */
+    public void forEachPortOfEquipment(Collection<Long> equipmentIds, Consumer<PortLink> action) {
+        for (List<Long> chunk : chunks(equipmentIds)) {
+            String in = placeholders(chunk.size());
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i] = chunk.get(i);
+                args[chunk.size() + i] = chunk.get(i);
+            }
+            jdbcTemplate.query(SELECT_PORTS + " WHERE equipment_id IN (" + in + ")" +
+                    " OR connected_to_equipment_id IN (" + in + ")", rowHandler(action), args);
+        }
+    }
+
+    /**
+     * Порты по ID
+     */
+    public void forEachPortById(Collection<Long> ids, Consumer<PortLink> action) {
+        for (List<Long> chunk : chunks(ids)) {
+            jdbcTemplate.query(SELECT_PORTS + " WHERE id IN (" + placeholders(chunk.size()) + ")",
+                    rowHandler(action), chunk.toArray());
+        }
+    }
+
+    /**
+     * Отключение портов
+     */
+    public void clearConnections(Collection<Long> portIds) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE device_port SET connected_to_equipment_id = NULL, connected_to_port_id = NULL, " +
+                        "version = version + 1 WHERE id = ?",
+                portIds, batchSize, (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * Установка подключений портов
+     */
+    public void setConnections(Collection<Connection> connections) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE device_port SET connected_to_equipment_id = ?, connected_to_port_id = ?, " +
+                        "version = version + 1 WHERE id = ?",
+                connections, batchSize, (ps, c) -> {
+                    ps.setLong(1, c.peerEquipmentId());
+                    ps.setLong(2, c.peerPortId());
+                    ps.setLong(3, c.portId());
+                });
+    }
+
+    /**
+     * Обработка портов с подключениями порциями; контекст очищается после каждой порции
+     */
+    public void forEachPortEntity(Collection<Long> ids, Consumer<DevicePort> action) {
+        for (List<Long> chunk : chunks(ids)) {
+            entityManager.createQuery("SELECT p FROM DevicePort p JOIN FETCH p.equipment " +
+                            "LEFT JOIN FETCH p.connectedToEquipment LEFT JOIN FETCH p.connectedToPort " +
+                            "WHERE p.id IN :ids", DevicePort.class)
+                    .setParameter("ids", chunk)
+                    .getResultList()
+                    .forEach(action);
+            entityManager.clear();
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static RowCallbackHandler rowHandler(Consumer<PortLink> action) {
+        return rs -> action.accept(toPortLink(rs));
+    }
+
+    private static PortLink toPortLink(ResultSet rs) throws SQLException {
+        // wasNull относится к последнему прочитанному столбцу — проверяем сразу после чтения соседа
+        long peerId = rs.getLong("connected_to_port_id");
+        Long peer = rs.wasNull() ? null : peerId;
+        return new PortLink(rs.getLong("id"), rs.getLong("equipment_id"), rs.getInt("port_number"), peer);
+    }
+
+    private List<List<Long>> chunks(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> result = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += batchSize) {
+            result.add(all.subList(from, Math.min(from + batchSize, all.size())));
+        }
+        return result;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.batch.BatchResolveResultDTO;
+import com.example.netequip.exception.BatchLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Общие операции пакетного поиска: ограничение числа ключей и сборка результата
+ */
+@Component
+public class BatchResolveSupport {
+
+    private final int maxKeys;
+
+    public BatchResolveSupport(@Value("${netequip.batch.max-keys:1000}") int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Проверка суммарного количества ключей в запросе
+     *
+     * @param keyLists списки ключей (null допускается)
+     * @throws BatchLimitExceededException если ключей больше допустимого
+     */
+    public void checkLimit(Collection<?>... keyLists) {
+        int total = 0;
+        for (Collection<?> keys : keyLists) {
+            if (keys != null) {
+                total += keys.size();
+            }
+        }
+        if (total > maxKeys) {
+            throw new BatchLimitExceededException(total, maxKeys);
+        }
+    }
+
+    /**
+     * Уникальные ключи без null, в исходном порядке
+     */
+    public static <K> Set<K> distinct(Collection<K> keys) {
+        Set<K> result = new LinkedHashSet<>();
+        for (K key : keys) {
+            if (key != null) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Сборка результата: найденные значения в порядке запроса и список промахов
+     *
+     * @param keys запрошенные ключи
+     * @param entities найденные сущности
+     * @param keyOf извлечение ключа из сущности
+     * @param mapper конвертация сущности в DTO
+     */
+    public static <K, E, V> BatchResolveResultDTO<K, V> collect(Collection<K> keys, List<E> entities,
+                                                             Function<E, K> keyOf, Function<E, V> mapper) {
+        return collect(keys, entities, keyOf, mapper, Function.identity());
+    }
+
+    /**
+     * Сборка результата с сопоставлением ключей после нормализации
+     * Нужна, когда БД сравнивает ключи иначе, чем equals (например, без учёта регистра):
+     * в ответе остаётся ключ в том виде, в каком он пришёл в запросе
+     *
+     * @param normalize приведение ключа к виду, в котором его сравнивает БД
+     */
+    public static <K, E, V> BatchResolveResultDTO<K, V> collect(Collection<K> keys, List<E> entities,
+                                                             Function<E, K> keyOf, Function<E, V> mapper,
+                                                             Function<K, K> normalize) {
+        Map<K, E> byKey = new HashMap<>();
+        for (E entity : entities) {
+            // При неуникальном ключе берём первую запись
+            byKey.putIfAbsent(normalize.apply(keyOf.apply(entity)), entity);
+        }
+
+        Map<K, V> found = new LinkedHashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            E entity = byKey.get(normalize.apply(key));
+            if (entity != null) {
+                found.put(key, mapper.apply(entity));
+            } else {
+                missing.add(key);
+            }
+        }
+        return new BatchResolveResultDTO<>(found, missing);
+    }
+
+    /**
+     * Ключ в виде, в котором его сравнивает регистронезависимая collation MySQL
+     */
+    public static String ignoreCase(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+}
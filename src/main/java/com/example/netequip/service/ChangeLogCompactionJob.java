@@ -0,0 +1,58 @@
+package com.example.netequip.service;
+
+import com.example.netequip.entity.ChangeLogCompaction;
+import com.example.netequip.entity.ChangeLogEntry;
+import com.example.netequip.repository.ChangeLogCompactionRepository;
+import com.example.netequip.repository.ChangeLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фоновое сжатие журнала изменений
+ * Записи старше compact-after-hours, у которых есть более поздняя запись той же сущности,
+ * удаляются (клиент всё равно получит актуальное состояние); записи об удалении хранятся
+ * tombstone-retention-days, после чего удаляются с фиксацией границы полной синхронизации
+ */
+@Slf4j
+@Component
+public class ChangeLogCompactionJob {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLogCompactionRepository compactionRepository;
+    private final long compactAfterHours;
+    private final long tombstoneRetentionDays;
+
+    public ChangeLogCompactionJob(ChangeLogRepository changeLogRepository,
+                                  ChangeLogCompactionRepository compactionRepository,
+                                  @Value("${netequip.changes.compact-after-hours:24}") long compactAfterHours,
+                                  @Value("${netequip.changes.tombstone-retention-days:30}") long tombstoneRetentionDays) {
+        this.changeLogRepository = changeLogRepository;
+        this.compactionRepository = compactionRepository;
+        this.compactAfterHours = compactAfterHours;
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
+    }
+
+    @Transactional
+    @Scheduled(cron = "${netequip.changes.compaction-cron:0 15 * * * *}")
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        int superseded = changeLogRepository.deleteSuperseded(now.minusHours(compactAfterHours));
+
+        LocalDateTime tombstoneCutoff = now.minusDays(tombstoneRetentionDays);
+        Long purgedUpTo = changeLogRepository.findMaxIdByOperationBefore(ChangeLogEntry.DELETED, tombstoneCutoff);
+        int tombstones = purgedUpTo == null ? 0
+                : changeLogRepository.deleteByOperationBefore(ChangeLogEntry.DELETED, tombstoneCutoff, purgedUpTo);
+
+        if (superseded > 0 || tombstones > 0) {
+            compactionRepository.save(new ChangeLogCompaction(null, now, superseded, tombstones,
+                    tombstones > 0 ? purgedUpTo : null));
+        }
+        log.info("Сжатие журнала изменений: удалено устаревших записей {}, записей об удалении {}",
+                superseded, tombstones);
+    }
+}
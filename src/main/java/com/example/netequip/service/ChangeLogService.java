@@ -0,0 +1,168 @@
+package com.example.netequip.service;
+
+import com.example.netequip.datasource.ReplicaRoutingDataSource;
+import com.example.netequip.dto.changelog.ChangeDTO;
+import com.example.netequip.dto.changelog.ChangeFeedDTO;
+import com.example.netequip.entity.ChangeLogEntry;
+import com.example.netequip.repository.ChangeLogCompactionRepository;
+import com.example.netequip.repository.ChangeLogRepository;
+import com.example.netequip.repository.ChangeLogWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Журнал изменений (transactional outbox) и лента /api/changes
+ * Записи добавляются сервисами в той же транзакции, что и само изменение,
+ * поэтому откат изменения откатывает и запись журнала. Записи транзакции копятся
+ * и вставляются перед её коммитом с токенами в порядке коммитов
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ChangeLogService {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLogCompactionRepository compactionRepository;
+    private final ChangeLogWriter changeLogWriter;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Запись о создании сущности
+     */
+    @Transactional
+    public void recordCreated(String entityType, Long entityId, Object snapshot) {
+        record(entityType, entityId, ChangeLogEntry.CREATED, snapshot);
+    }
+
+    /**
+     * Запись об изменении сущности
+     */
+    @Transactional
+    public void recordUpdated(String entityType, Long entityId, Object snapshot) {
+        record(entityType, entityId, ChangeLogEntry.UPDATED, snapshot);
+    }
+
+    /**
+     * Запись о смене статуса сущности
+     */
+    @Transactional
+    public void recordStatusChanged(String entityType, Long entityId, Object snapshot) {
+        record(entityType, entityId, ChangeLogEntry.STATUS_CHANGED, snapshot);
+    }
+
+    /**
+     * Запись об удалении сущности
+     */
+    @Transactional
+    public void recordDeleted(String entityType, Long entityId) {
+        record(entityType, entityId, ChangeLogEntry.DELETED, null);
+    }
+
+    /**
+     * Изменения после токена
+     * Токены выдаются при коммите по порядку, поэтому запись с меньшим токеном не может
+     * появиться после уже прочитанной. Лента читается с основной БД: реплика может отставать
+     *
+     * @param since последний полученный токен (0 — с начала журнала)
+     * @param limit максимальное количество изменений
+     * @return порция ленты
+     */
+    public ChangeFeedDTO getChanges(long since, int limit) {
+        return ReplicaRoutingDataSource.onPrimary(() -> readChanges(since, limit));
+    }
+
+    /**
+     * Текущий последний токен журнала
+     * Клиент может запомнить его перед полной выгрузкой и затем читать ленту с него
+     */
+    public long getHeadToken() {
+        return ReplicaRoutingDataSource.onPrimary(changeLogRepository::findHeadToken);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private ChangeFeedDTO readChanges(long since, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_LIMIT);
+
+        List<ChangeLogEntry> entries = changeLogRepository.findByIdGreaterThanOrderByIdAsc(
+                since, Limit.of(pageSize + 1));
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+
+        List<ChangeDTO> changes = entries.stream()
+                .map(e -> new ChangeDTO(e.getId(), e.getEntityType(), e.getEntityId(),
+                        e.getOperation(), e.getChangedAt(), e.getPayload()))
+                .toList();
+        long nextToken = entries.isEmpty() ? since : entries.getLast().getId();
+        boolean resyncRequired = since > 0 && since < compactionRepository.findPurgeHorizon();
+
+        log.debug("Лента изменений после токена {}: {} записей", since, changes.size());
+        return new ChangeFeedDTO(changes, nextToken, hasMore, resyncRequired);
+    }
+
+    private void record(String entityType, Long entityId, String operation, Object snapshot) {
+        String payload = snapshot != null ? jsonMapper.writeValueAsString(snapshot) : null;
+        pendingEntries().add(new ChangeLogEntry(null, entityType, entityId, operation,
+                LocalDateTime.now(), payload));
+    }
+
+    // Записи текущей транзакции. Синхронизация находится через ресурс транзакции: перебор
+    // getSynchronizations() сортирует все синхронизации (в том числе по одной на каждое
+    // событие после коммита) и делает массовые изменения квадратичными. Ресурс снимается
+    // и возвращается вместе с синхронизацией, поэтому REQUIRES_NEW получает свои записи
+    private List<ChangeLogEntry> pendingEntries() {
+        PendingEntries pending = (PendingEntries) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEntries();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+            TransactionSynchronizationManager.bindResource(this, pending);
+        }
+        return pending.entries;
+    }
+
+    private final class PendingEntries implements TransactionSynchronization {
+        private final List<ChangeLogEntry> entries = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(ChangeLogService.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(ChangeLogService.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLogService.this);
+        }
+
+        // Последней: записи других синхронизаций перед коммитом попадают в пакет
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            changeLogWriter.append(entries);
+        }
+    }
+}
@@ -1,21 +1,34 @@
 package com.example.netequip.service;
 
+import com.example.netequip.dto.batch.BatchResolveResultDTO;
 import com.example.netequip.dto.deviceport.CreateDevicePortDTO;
+import com.example.netequip.dto.deviceport.DevicePortBatchResolveRequestDTO;
+import com.example.netequip.dto.deviceport.DevicePortBatchResolveResponseDTO;
 import com.example.netequip.dto.deviceport.DevicePortResponseDTO;
 import com.example.netequip.dto.deviceport.UpdateDevicePortDTO;
+import com.example.netequip.dto.versioning.VersionedDTO;
+import com.example.netequip.entity.ChangeLogEntry;
 import com.example.netequip.entity.DevicePort;
 import com.example.netequip.entity.Equipment;
+import com.example.netequip.event.StatusChangeEvent;
+import com.example.netequip.exception.PreconditionFailedException;
 import com.example.netequip.exception.deviceport.*;
 import com.example.netequip.exception.equiptype.EquipmentTypeNotFoundException;
 import com.example.netequip.mapper.DevicePortMapper;
 import com.example.netequip.repository.DevicePortRepository;
+import com.example.netequip.repository.DevicePortRepository.PortVersion;
 import com.example.netequip.repository.EquipmentRepository;
+import com.example.netequip.repository.SparseFieldsetRepository;
+import com.example.netequip.repository.StreamingQueryExecutor;
+import com.example.netequip.util.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +44,12 @@ public class DevicePortService {
     private final DevicePortRepository devicePortRepository;
     private final EquipmentRepository equipmentRepository;
     private final DevicePortMapper devicePortMapper;
+    private final BatchResolveSupport batchResolveSupport;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+    private final StreamingQueryExecutor streamingQueryExecutor;
+    private final ChangeLogService changeLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PortStatusHistoryService portStatusHistoryService;
 
     /**
      * Создание нового порта устройства
@@ -53,14 +72,8 @@ public class DevicePortService {
                     return new EquipmentTypeNotFoundException(dto.getEquipmentId());
                 });
 
-        // Проверка уникальности номера порта на устройстве
-        if (devicePortRepository.findByEquipmentAndPortNumber(equipment, dto.getPortNumber()).isPresent()) {
-            log.warn("Порт №{} уже существует на устройстве ID: {}",
-                    dto.getPortNumber(), dto.getEquipmentId());
-            throw new DuplicateDevicePortException(dto.getEquipmentId(), dto.getPortNumber());
-        }
-
         // Конвертация DTO → Entity
+        // Уникальность номера порта на устройстве гарантируется индексом БД
         DevicePort entity = devicePortMapper.toEntity(dto);
         entity.setEquipment(equipment);
 
@@ -69,9 +82,14 @@ public class DevicePortService {
 
         // Сохранение
         DevicePort savedEntity = devicePortRepository.save(entity);
+        // DTO строится до изменения счётчика: после него контекст очищается
+        DevicePortResponseDTO result = devicePortMapper.toResponseDTO(savedEntity);
+        equipmentRepository.adjustPortsCount(equipment.getId(), 1);
         log.info("Порт успешно создан с ID: {}", savedEntity.getId());
 
-        return devicePortMapper.toResponseDTO(savedEntity);
+        changeLogService.recordCreated(ChangeLogEntry.DEVICE_PORT, result.getId(), result);
+        portStatusHistoryService.record(result.getId(), result.getStatus());
+        return result;
     }
 
     /**
@@ -84,7 +102,7 @@ public class DevicePortService {
     public DevicePortResponseDTO getById(Long id) {
         log.debug("Получение порта по ID: {}", id);
 
-        DevicePort entity = devicePortRepository.findById(id)
+        DevicePort entity = devicePortRepository.findWithEquipmentAndPeerById(id)
                 .orElseThrow(() -> {
                     log.warn("Порт с ID {} не найден", id);
                     return new DevicePortNotFoundException(id);
@@ -93,6 +111,31 @@ public class DevicePortService {
         return devicePortMapper.toResponseDTO(entity);
     }
 
+    /**
+     * Получение порта по ID вместе с ETag
+     *
+     * @param id идентификатор порта
+     * @throws DevicePortNotFoundException если порт не найден
+     */
+    public VersionedDTO<DevicePortResponseDTO> getVersionedById(Long id) {
+        DevicePort entity = devicePortRepository.findWithEquipmentAndPeerById(id)
+                .orElseThrow(() -> new DevicePortNotFoundException(id));
+        return new VersionedDTO<>(devicePortMapper.toResponseDTO(entity), eTag(entity), null);
+    }
+
+    /**
+     * Текущий ETag порта: один запрос версий без загрузки сущностей
+     *
+     * @param id идентификатор порта
+     * @throws DevicePortNotFoundException если порт не найден
+     */
+    public String getETag(Long id) {
+        PortVersion version = devicePortRepository.findVersionById(id)
+                .orElseThrow(() -> new DevicePortNotFoundException(id));
+        return ETags.of(version.getVersion(), version.getEquipmentVersion(),
+                version.getConnectedEquipmentVersion(), version.getConnectedPortVersion());
+    }
+
     /**
      * Получение всех портов
      *
@@ -101,7 +144,7 @@ public class DevicePortService {
     public List<DevicePortResponseDTO> getAll() {
         log.debug("Получение всех портов");
 
-        List<DevicePort> entities = devicePortRepository.findAll();
+        List<DevicePort> entities = devicePortRepository.findAllWithEquipmentAndPeerBy();
         log.info("Найдено портов: {}", entities.size());
 
         return entities.stream()
@@ -109,6 +152,35 @@ public class DevicePortService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Потоковая выгрузка всех портов
+     * Строки читаются курсором, каждая сразу конвертируется и передаётся получателю,
+     * поэтому полный список в памяти не строится
+     *
+     * @param sink получатель DTO
+     */
+    public void streamAll(Consumer<DevicePortResponseDTO> sink) {
+        log.debug("Потоковая выгрузка всех портов");
+
+        long count = streamingQueryExecutor.forEach(
+                "SELECT p FROM DevicePort p JOIN FETCH p.equipment LEFT JOIN FETCH p.connectedToEquipment LEFT JOIN FETCH p.connectedToPort ORDER BY p.id",
+                DevicePort.class,
+                entity -> sink.accept(devicePortMapper.toResponseDTO(entity)));
+        log.info("Выгружено портов: {}", count);
+    }
+
+    /**
+     * Получение всех портов только с выбранными полями
+     * Выбираются лишь нужные колонки, JOIN выполняется только для полей связанных сущностей
+     *
+     * @param fields имена полей
+     * @return список записей "поле → значение"
+     */
+    public List<Map<String, Object>> getAll(List<String> fields) {
+        log.debug("Получение всех портов с полями: {}", fields);
+        return sparseFieldsetRepository.findAll(SparseFieldsetRepository.DEVICE_PORT, fields);
+    }
+
     /**
      * Обновление существующего порта
      *
@@ -120,6 +192,22 @@ public class DevicePortService {
      */
     @Transactional
     public DevicePortResponseDTO update(Long id, UpdateDevicePortDTO dto) {
+        return update(id, dto, null).body();
+    }
+
+    /**
+     * Обновление порта с проверкой версии
+     *
+     * @param id идентификатор порта
+     * @param dto новые данные
+     * @param ifMatch ожидаемый ETag (null — без проверки)
+     * @return обновленный порт и его новый ETag
+     * @throws DevicePortNotFoundException если порт не найден
+     * @throws PreconditionFailedException если порт изменён после получения ETag
+     * @throws DuplicateDevicePortException если новый номер порта уже занят
+     */
+    @Transactional
+    public VersionedDTO<DevicePortResponseDTO> update(Long id, UpdateDevicePortDTO dto, String ifMatch) {
         log.info("Обновление порта с ID: {}", id);
 
         // Поиск существующего порта
@@ -128,6 +216,7 @@ public class DevicePortService {
                     log.warn("Попытка обновить несуществующий порт с ID: {}", id);
                     return new DevicePortNotFoundException(id);
                 });
+        ETags.requireMatch(ifMatch, () -> eTag(existingEntity));
 
         // Поиск нового оборудования (если изменилось)
         Equipment newEquipment = equipmentRepository.findById(dto.getEquipmentId())
@@ -136,16 +225,7 @@ public class DevicePortService {
                     return new EquipmentTypeNotFoundException(dto.getEquipmentId());
                 });
 
-        // Проверка уникальности номера порта (если изменился или изменилось оборудование)
-        if (!existingEntity.getEquipment().getId().equals(dto.getEquipmentId()) ||
-                !existingEntity.getPortNumber().equals(dto.getPortNumber())) {
-
-            if (devicePortRepository.findByEquipmentAndPortNumber(newEquipment, dto.getPortNumber()).isPresent()) {
-                log.warn("Порт №{} уже существует на устройстве ID: {}",
-                        dto.getPortNumber(), dto.getEquipmentId());
-                throw new DuplicateDevicePortException(dto.getEquipmentId(), dto.getPortNumber());
-            }
-        }
+        Long oldEquipmentId = existingEntity.getEquipment().getId();
 
         // Обновление базовых полей
         devicePortMapper.updateEntityFromDTO(dto, existingEntity);
@@ -154,11 +234,20 @@ public class DevicePortService {
         // Обновление подключений
         setPortConnections(existingEntity, dto.getConnectedToEquipmentId(), dto.getConnectedToPortId());
 
-        // Сохранение
-        DevicePort updatedEntity = devicePortRepository.save(existingEntity);
+        // Сохранение (flush сразу, чтобы нарушение уникальности номера порта проявилось здесь)
+        DevicePort updatedEntity = devicePortRepository.saveAndFlush(existingEntity);
+        DevicePortResponseDTO result = devicePortMapper.toResponseDTO(updatedEntity);
+
+        // Перенос порта на другое устройство
+        if (!oldEquipmentId.equals(newEquipment.getId())) {
+            equipmentRepository.adjustPortsCount(oldEquipmentId, -1);
+            equipmentRepository.adjustPortsCount(newEquipment.getId(), 1);
+        }
         log.info("Порт с ID {} успешно обновлен", id);
 
-        return devicePortMapper.toResponseDTO(updatedEntity);
+        changeLogService.recordUpdated(ChangeLogEntry.DEVICE_PORT, result.getId(), result);
+        portStatusHistoryService.record(result.getId(), result.getStatus());
+        return new VersionedDTO<>(result, eTag(updatedEntity), null);
     }
 
     /**
@@ -171,16 +260,60 @@ public class DevicePortService {
     public void delete(Long id) {
         log.info("Удаление порта с ID: {}", id);
 
-        // Проверка существования
-        if (!devicePortRepository.existsById(id)) {
-            log.warn("Попытка удалить несуществующий порт с ID: {}", id);
-            throw new DevicePortNotFoundException(id);
-        }
+        DevicePort port = devicePortRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Попытка удалить несуществующий порт с ID: {}", id);
+                    return new DevicePortNotFoundException(id);
+                });
 
-        devicePortRepository.deleteById(id);
+        devicePortRepository.delete(port);
+        equipmentRepository.adjustPortsCount(port.getEquipment().getId(), -1);
+        changeLogService.recordDeleted(ChangeLogEntry.DEVICE_PORT, id);
         log.info("Порт с ID {} успешно удален", id);
     }
 
+    /**
+     * Пакетный поиск портов по ID и по оборудованию (один IN-запрос на тип ключа)
+     *
+     * @param request списки ключей
+     * @return найденные порты и промахи по каждому типу ключа
+     * @throws com.example.netequip.exception.BatchLimitExceededException если ключей слишком много
+     */
+    public DevicePortBatchResolveResponseDTO resolve(DevicePortBatchResolveRequestDTO request) {
+        batchResolveSupport.checkLimit(request.getIds(), request.getEquipmentIds());
+
+        DevicePortBatchResolveResponseDTO response = new DevicePortBatchResolveResponseDTO();
+        if (request.getIds() != null) {
+            Set<Long> ids = BatchResolveSupport.distinct(request.getIds());
+            response.setById(BatchResolveSupport.collect(ids,
+                    ids.isEmpty() ? List.of() : devicePortRepository.findByIdIn(ids),
+                    DevicePort::getId, devicePortMapper::toResponseDTO));
+        }
+        if (request.getEquipmentIds() != null) {
+            Set<Long> equipmentIds = BatchResolveSupport.distinct(request.getEquipmentIds());
+            Map<Long, List<DevicePortResponseDTO>> grouped = new HashMap<>();
+            if (!equipmentIds.isEmpty()) {
+                for (DevicePort port : devicePortRepository.findByEquipmentIdInOrderByPortNumberAsc(equipmentIds)) {
+                    grouped.computeIfAbsent(port.getEquipment().getId(), k -> new ArrayList<>())
+                            .add(devicePortMapper.toResponseDTO(port));
+                }
+            }
+
+            Map<Long, List<DevicePortResponseDTO>> found = new LinkedHashMap<>();
+            List<Long> missing = new ArrayList<>();
+            for (Long equipmentId : equipmentIds) {
+                List<DevicePortResponseDTO> ports = grouped.get(equipmentId);
+                if (ports != null) {
+                    found.put(equipmentId, ports);
+                } else {
+                    missing.add(equipmentId);
+                }
+            }
+            response.setByEquipmentId(new BatchResolveResultDTO<>(found, missing));
+        }
+        return response;
+    }
+
     /**
      * Получение всех портов устройства (с сортировкой по номеру)
      *
@@ -297,7 +430,7 @@ public class DevicePortService {
         Equipment equipment = equipmentRepository.findById(equipmentId)
                 .orElseThrow(() -> new EquipmentTypeNotFoundException(equipmentId));
 
-        List<DevicePort> entities = devicePortRepository.findByConnectedToEquipment(equipment);
+        List<DevicePort> entities = devicePortRepository.findWithOwnerByConnectedToEquipment(equipment);
         log.info("Найдено подключений к устройству ID {}: {}", equipmentId, entities.size());
 
         return entities.stream()
@@ -314,7 +447,7 @@ public class DevicePortService {
     public List<DevicePortResponseDTO> getByStatus(String status) {
         log.debug("Получение всех портов со статусом: {}", status);
 
-        List<DevicePort> entities = devicePortRepository.findAll().stream()
+        List<DevicePort> entities = devicePortRepository.findAllWithEquipmentAndPeerBy().stream()
                 .filter(port -> status.equals(port.getStatus()))
                 .collect(Collectors.toList());
         log.info("Найдено портов со статусом '{}': {}", status, entities.size());
@@ -355,7 +488,7 @@ public class DevicePortService {
     public List<DevicePortResponseDTO> getByPortType(String portType) {
         log.debug("Получение всех портов типа: {}", portType);
 
-        List<DevicePort> entities = devicePortRepository.findAll().stream()
+        List<DevicePort> entities = devicePortRepository.findAllWithEquipmentAndPeerBy().stream()
                 .filter(port -> portType.equals(port.getPortType()))
                 .collect(Collectors.toList());
         log.info("Найдено портов типа '{}': {}", portType, entities.size());
@@ -405,14 +538,18 @@ public class DevicePortService {
     public DevicePortResponseDTO changeStatus(Long portId, String newStatus) {
         log.info("Изменение статуса порта ID {} на: {}", portId, newStatus);
 
-        DevicePort port = devicePortRepository.findById(portId)
+        DevicePort port = devicePortRepository.findWithEquipmentAndPeerById(portId)
                 .orElseThrow(() -> new DevicePortNotFoundException(portId));
 
         port.setStatus(newStatus);
         DevicePort savedPort = devicePortRepository.save(port);
         log.info("Статус порта ID {} изменен на '{}'", portId, newStatus);
 
-        return devicePortMapper.toResponseDTO(savedPort);
+        DevicePortResponseDTO result = devicePortMapper.toResponseDTO(savedPort);
+        changeLogService.recordStatusChanged(ChangeLogEntry.DEVICE_PORT, result.getId(), result);
+        portStatusHistoryService.record(result.getId(), result.getStatus());
+        eventPublisher.publishEvent(StatusChangeEvent.of(savedPort, StatusChangeEvent.STATUS_CHANGED));
+        return result;
     }
 
     /**
@@ -426,7 +563,7 @@ public class DevicePortService {
     public DevicePortResponseDTO getConnectedPort(Long portId) {
         log.debug("Получение подключённого порта для порта ID: {}", portId);
 
-        DevicePort port = devicePortRepository.findById(portId)
+        DevicePort port = devicePortRepository.findWithEquipmentAndPeerById(portId)
                 .orElseThrow(() -> new DevicePortNotFoundException(portId));
 
         if (port.getConnectedToPort() == null) {
@@ -494,7 +631,10 @@ public class DevicePortService {
         DevicePort savedPort = devicePortRepository.save(sourcePort);
         log.info("Порты успешно подключены");
 
-        return devicePortMapper.toResponseDTO(savedPort);
+        DevicePortResponseDTO result = devicePortMapper.toResponseDTO(savedPort);
+        changeLogService.recordUpdated(ChangeLogEntry.DEVICE_PORT, result.getId(), result);
+        eventPublisher.publishEvent(StatusChangeEvent.of(savedPort, StatusChangeEvent.CONNECTED));
+        return result;
     }
 
     /**
@@ -516,7 +656,10 @@ public class DevicePortService {
         DevicePort savedPort = devicePortRepository.save(port);
         log.info("Порт ID {} успешно отключен", portId);
 
-        return devicePortMapper.toResponseDTO(savedPort);
+        DevicePortResponseDTO result = devicePortMapper.toResponseDTO(savedPort);
+        changeLogService.recordUpdated(ChangeLogEntry.DEVICE_PORT, result.getId(), result);
+        eventPublisher.publishEvent(StatusChangeEvent.of(savedPort, StatusChangeEvent.DISCONNECTED));
+        return result;
     }
 
     /**
@@ -548,6 +691,15 @@ public class DevicePortService {
 
     // ========== PRIVATE HELPER METHODS ==========
 
+    /**
+     * ETag порта: версии порта, его устройства и подключённых устройства и порта (см. getETag)
+     */
+    private static String eTag(DevicePort entity) {
+        return ETags.of(entity.getVersion(), entity.getEquipment().getVersion(),
+                entity.getConnectedToEquipment() != null ? entity.getConnectedToEquipment().getVersion() : null,
+                entity.getConnectedToPort() != null ? entity.getConnectedToPort().getVersion() : null);
+    }
+
     /**
      * Установка подключений порта к другому оборудованию/порту
      */
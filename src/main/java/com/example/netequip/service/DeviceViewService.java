@@ -0,0 +1,240 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.deviceport.DevicePortResponseDTO;
+import com.example.netequip.dto.equipment.DeviceFullViewDTO;
+import com.example.netequip.dto.ipaddress.IpAddressResponseDTO;
+import com.example.netequip.dto.maintenancehistory.MaintenanceHistoryResponseDTO;
+import com.example.netequip.entity.Equipment;
+import com.example.netequip.exception.InvalidRequestParameterException;
+import com.example.netequip.exception.equipment.EquipmentNotFoundException;
+import com.example.netequip.mapper.DevicePortMapper;
+import com.example.netequip.mapper.IpAddressMapper;
+import com.example.netequip.mapper.MaintenanceHistoryMapper;
+import com.example.netequip.metrics.RequestQueryStats;
+import com.example.netequip.repository.DevicePortRepository;
+import com.example.netequip.repository.EquipmentRepository;
+import com.example.netequip.repository.IpAddressRepository;
+import com.example.netequip.repository.MaintenanceHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Сервис составного представления устройства
+ * Загружает оборудование один раз и собирает все разделы страницы устройства
+ * фиксированным числом запросов (не более пяти) вместо пяти отдельных REST-вызовов.
+ * В параллельном режиме (netequip.device-view.parallel.enabled) разделы читаются одновременно
+ * на виртуальных потоках, каждый в своей транзакции только для чтения со своим соединением;
+ * задержка определяется самым медленным разделом, а не суммой. Разделы, не собранные
+ * за отведённое время, не возвращаются и перечисляются в unavailableSections.
+ * Транзакции открываются явно: в параллельном режиме оборудование читается в короткой
+ * транзакции, которая завершается до запуска разделов, и запрос не держит лишнее соединение
+ */
+@Slf4j
+@Service
+public class DeviceViewService {
+
+    public static final int MAX_MAINTENANCE_LIMIT = 50;
+
+    private final EquipmentRepository equipmentRepository;
+    private final DevicePortRepository devicePortRepository;
+    private final IpAddressRepository ipAddressRepository;
+    private final MaintenanceHistoryRepository maintenanceHistoryRepository;
+    private final EquipmentService equipmentService;
+    private final DevicePortMapper devicePortMapper;
+    private final IpAddressMapper ipAddressMapper;
+    private final MaintenanceHistoryMapper maintenanceHistoryMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean parallel;
+    private final long timeoutMillis;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DeviceViewService(EquipmentRepository equipmentRepository,
+                             DevicePortRepository devicePortRepository,
+                             IpAddressRepository ipAddressRepository,
+                             MaintenanceHistoryRepository maintenanceHistoryRepository,
+                             EquipmentService equipmentService,
+                             DevicePortMapper devicePortMapper,
+                             IpAddressMapper ipAddressMapper,
+                             MaintenanceHistoryMapper maintenanceHistoryMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${netequip.device-view.parallel.enabled:false}") boolean parallel,
+                             @Value("${netequip.device-view.parallel.timeout-ms:2000}") long timeoutMillis) {
+        this.equipmentRepository = equipmentRepository;
+        this.devicePortRepository = devicePortRepository;
+        this.ipAddressRepository = ipAddressRepository;
+        this.maintenanceHistoryRepository = maintenanceHistoryRepository;
+        this.equipmentService = equipmentService;
+        this.devicePortMapper = devicePortMapper;
+        this.ipAddressMapper = ipAddressMapper;
+        this.maintenanceHistoryMapper = maintenanceHistoryMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.parallel = parallel;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Разделы полного представления устройства
+     */
+    public enum Section {
+        PORTS, IPS, MAINTENANCE, CONNECTIONS;
+
+        /**
+         * Разбор значения параметра include (через запятую, регистр не важен)
+         * Пустое значение означает все разделы
+         */
+        public static Set<Section> parse(List<String> include) {
+            if (include == null || include.isEmpty()) {
+                return EnumSet.allOf(Section.class);
+            }
+            Set<Section> sections = EnumSet.noneOf(Section.class);
+            for (String value : include) {
+                for (String part : value.split(",")) {
+                    String name = part.trim();
+                    if (name.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        sections.add(Section.valueOf(name.toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        throw new InvalidRequestParameterException(
+                                "Неизвестный раздел '" + name + "', допустимо: ports, ips, maintenance, connections");
+                    }
+                }
+            }
+            return sections;
+        }
+    }
+
+    /**
+     * Полное представление устройства
+     *
+     * @param equipmentId ID оборудования
+     * @param sections запрошенные разделы
+     * @param maintenanceLimit количество последних обслуживаний
+     * @return составной документ
+     * @throws EquipmentNotFoundException если оборудование не найдено
+     */
+    public DeviceFullViewDTO getFullView(Long equipmentId, Set<Section> sections, int maintenanceLimit) {
+        log.debug("Получение полного представления оборудования ID: {}, разделы: {}", equipmentId, sections);
+
+        DeviceFullViewDTO view = new DeviceFullViewDTO();
+        int limit = Math.clamp(maintenanceLimit, 1, MAX_MAINTENANCE_LIMIT);
+        if (parallel && sections.size() > 1) {
+            Equipment equipment = readOnlyTransaction.execute(tx -> loadEquipment(view, equipmentId));
+            fillParallel(view, equipment, sections, limit);
+            return view;
+        }
+
+        readOnlyTransaction.executeWithoutResult(tx -> {
+            Equipment equipment = loadEquipment(view, equipmentId);
+            // Владелец портов, IP и обслуживаний уже в контексте персистентности — повторно не загружается
+            for (Section section : sections) {
+                fill(view, section, load(section, equipment, limit));
+            }
+        });
+        return view;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Equipment loadEquipment(DeviceFullViewDTO view, Long equipmentId) {
+        Equipment equipment = equipmentRepository.findWithTypeAndEmployeeById(equipmentId)
+                .orElseThrow(() -> {
+                    log.warn("Оборудование с ID {} не найдено", equipmentId);
+                    return new EquipmentNotFoundException(equipmentId);
+                });
+        view.setEquipment(equipmentService.toResponseDTOWithStats(equipment));
+        return equipment;
+    }
+
+    /**
+     * Разделы читаются одновременно, каждый в своей транзакции: сущности загружаются в отдельном
+     * контексте персистентности, поэтому владелец раздела подгружается в нём заново.
+     * SQL разделов учитывается в счётчиках HTTP-запроса
+     */
+    private void fillParallel(DeviceFullViewDTO view, Equipment equipment, Set<Section> sections, int limit) {
+        Map<Section, Future<List<?>>> futures = new EnumMap<>(Section.class);
+        for (Section section : sections) {
+            futures.put(section, executor.submit(RequestQueryStats.propagate(
+                    () -> readOnlyTransaction.execute(tx -> load(section, equipment, limit)))));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<String> unavailable = new ArrayList<>();
+        for (Map.Entry<Section, Future<List<?>>> entry : futures.entrySet()) {
+            Section section = entry.getKey();
+            Future<List<?>> future = entry.getValue();
+            try {
+                fill(view, section, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                unavailable.add(section.name().toLowerCase(Locale.ROOT));
+                log.warn("Раздел {} оборудования ID {} не получен за {} мс", section, equipment.getId(), timeoutMillis);
+            } catch (ExecutionException e) {
+                unavailable.add(section.name().toLowerCase(Locale.ROOT));
+                log.warn("Раздел {} оборудования ID {} не получен: {}", section, equipment.getId(),
+                        e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Сборка представления устройства прервана", e);
+            }
+        }
+        if (!unavailable.isEmpty()) {
+            view.setUnavailableSections(unavailable);
+        }
+    }
+
+    private List<?> load(Section section, Equipment equipment, int limit) {
+        return switch (section) {
+            case PORTS -> devicePortRepository.findWithPeersByEquipmentOrderByPortNumberAsc(equipment).stream()
+                    .map(devicePortMapper::toResponseDTO)
+                    .toList();
+            case IPS -> ipAddressRepository.findByEquipment(equipment).stream()
+                    .map(ipAddressMapper::toResponseDTO)
+                    .toList();
+            case MAINTENANCE -> maintenanceHistoryRepository
+                    .findWithPerformerByEquipmentOrderByDateDesc(equipment, Limit.of(limit)).stream()
+                    .map(maintenanceHistoryMapper::toResponseDTO)
+                    .toList();
+            case CONNECTIONS -> devicePortRepository.findWithOwnerByConnectedToEquipment(equipment).stream()
+                    .map(devicePortMapper::toResponseDTO)
+                    .toList();
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void fill(DeviceFullViewDTO view, Section section, List<?> values) {
+        switch (section) {
+            case PORTS -> view.setPorts((List<DevicePortResponseDTO>) values);
+            case IPS -> view.setIpAddresses((List<IpAddressResponseDTO>) values);
+            case MAINTENANCE -> view.setLatestMaintenance((List<MaintenanceHistoryResponseDTO>) values);
+            case CONNECTIONS -> view.setIncomingConnections((List<DevicePortResponseDTO>) values);
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.employee.EmployeeResponseDTO;
+import com.example.netequip.entity.Employee;
+import com.example.netequip.mapper.EmployeeMapper;
+import com.example.netequip.repository.EmployeeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory триграммный индекс сотрудников для автодополнения
+ * Индексирует fullName, email и position, поддерживает поиск по префиксу,
+ * подстроке и с опечатками без обращения к БД.
+ * Триграммы строятся по различающимся словам справочника, а не по каждому сотруднику:
+ * фамилии, имена и должности повторяются, поэтому слово оценивается один раз на запрос
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmployeeSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final String PAD = "  ";
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Веса полей при ранжировании
+    private static final double NAME_WEIGHT = 1.0;
+    private static final double EMAIL_WEIGHT = 0.8;
+    private static final double POSITION_WEIGHT = 0.6;
+
+    // Минимальная похожесть слова (коэффициент Дайса по триграммам) для нечёткого совпадения
+    private static final double FUZZY_THRESHOLD = 0.4;
+
+    // Порядок выдачи: по убыванию оценки, при равенстве — по ФИО
+    private static final Comparator<Scored> RANKING = Comparator.comparingDouble(Scored::score).reversed()
+            .thenComparing(s -> s.entry().sortKey());
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeMapper employeeMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Term> terms = new HashMap<>();
+    // Триграмма (и биграмма слова без отступов — для запросов из двух букв) → слова, в которых она встречается
+    private final Map<String, Set<Term>> postings = new HashMap<>();
+    // Изменения, пришедшие во время перестройки; null — перестройка не идёт
+    private List<Runnable> changesDuringRebuild;
+
+    /**
+     * Полная перестройка индекса из БД при старте приложения
+     * Изменения, закоммиченные, пока читался снимок, применяются поверх него повторно:
+     * снимок мог быть прочитан до их коммита
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Employee> employees;
+        try {
+            employees = employeeRepository.findAll();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            terms.clear();
+            postings.clear();
+            employees.forEach(employee -> put(employeeMapper.toResponseDTO(employee)));
+            replayed = changesDuringRebuild.size();
+            changesDuringRebuild.forEach(Runnable::run);
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс сотрудников построен: {} записей, {} слов, повторено изменений: {}",
+                employees.size(), terms.size(), replayed);
+    }
+
+    /**
+     * Индексация сотрудника после успешного коммита текущей транзакции
+     *
+     * @param employee сохранённый сотрудник
+     */
+    public void indexAfterCommit(Employee employee) {
+        // Снимок берём сразу, пока entity привязана к сессии
+        EmployeeResponseDTO snapshot = employeeMapper.toResponseDTO(employee);
+        afterCommit(() -> index(snapshot));
+    }
+
+    /**
+     * Удаление сотрудника из индекса после успешного коммита текущей транзакции
+     *
+     * @param id идентификатор сотрудника
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Добавление или замена записи в индексе
+     */
+    public void index(EmployeeResponseDTO employee) {
+        apply(() -> {
+            removeInternal(employee.getId());
+            put(employee);
+        });
+    }
+
+    /**
+     * Удаление записи из индекса
+     */
+    public void remove(Long id) {
+        apply(() -> removeInternal(id));
+    }
+
+    /**
+     * Ранжированный поиск сотрудников
+     * Каждое слово запроса должно совпасть (точно, по префиксу, подстроке
+     * или нечётко) хотя бы с одним словом сотрудника
+     *
+     * @param query строка запроса
+     * @param limit максимальное количество результатов
+     * @return найденные сотрудники, от наиболее релевантных
+     */
+    public List<EmployeeResponseDTO> search(String query, int limit) {
+        List<QueryToken> tokens = tokenize(query).stream()
+                .map(EmployeeSearchIndex::queryToken)
+                .toList();
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Сумма лучших оценок по словам запроса; запись без совпадения хотя бы по одному слову отбрасывается
+            Map<Long, Double> totals = bestMatches(tokens.getFirst(), null);
+            for (QueryToken token : tokens.subList(1, tokens.size())) {
+                if (totals.isEmpty()) {
+                    break;
+                }
+                Map<Long, Double> previous = totals;
+                totals = bestMatches(token, previous);
+                totals.replaceAll((id, score) -> score + previous.get(id));
+            }
+
+            // Отбираем limit лучших, не сортируя все совпадения: в вершине кучи — худший из отобранных
+            PriorityQueue<Scored> top = new PriorityQueue<>(Math.min(limit, totals.size()) + 1, RANKING.reversed());
+            totals.forEach((id, total) -> {
+                Scored candidate = new Scored(entries.get(id), total / tokens.size());
+                // Кандидат не лучше худшего из отобранных (в том числе при равной оценке) кучу не трогает
+                if (top.size() == limit && RANKING.compare(candidate, top.peek()) >= 0) {
+                    return;
+                }
+                top.add(candidate);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            });
+            List<Scored> scored = new ArrayList<>(top);
+            scored.sort(RANKING);
+            return scored.stream()
+                    .map(s -> copy(s.entry().employee()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Количество сотрудников в индексе
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(EmployeeResponseDTO employee) {
+        Map<Term, Double> weights = new HashMap<>();
+        addTerms(weights, employee.getFullName(), NAME_WEIGHT);
+        addTerms(weights, employee.getEmail(), EMAIL_WEIGHT);
+        addTerms(weights, employee.getPosition(), POSITION_WEIGHT);
+        weights.forEach((term, weight) -> term.occurrences().put(employee.getId(), weight));
+
+        entries.put(employee.getId(), new Entry(copy(employee), weights.keySet(),
+                employee.getFullName() == null ? "" : employee.getFullName().toLowerCase(Locale.ROOT)));
+    }
+
+    private void removeInternal(Long id) {
+        Entry existing = entries.remove(id);
+        if (existing == null) {
+            return;
+        }
+        for (Term term : existing.terms()) {
+            term.occurrences().remove(id);
+            if (term.occurrences().isEmpty()) {
+                terms.remove(term.text());
+                for (String gram : term.keys()) {
+                    Set<Term> indexed = postings.get(gram);
+                    if (indexed != null) {
+                        indexed.remove(term);
+                        if (indexed.isEmpty()) {
+                            postings.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Слово встречается у сотрудника с весом лучшего из полей, где оно есть
+    private void addTerms(Map<Term, Double> weights, String value, double weight) {
+        for (String token : tokenize(value)) {
+            weights.merge(term(token), weight, Math::max);
+        }
+    }
+
+    private Term term(String text) {
+        Term term = terms.get(text);
+        if (term == null) {
+            term = new Term(text, grams(PAD + text + " ", GRAM), grams(text, GRAM - 1));
+            terms.put(text, term);
+            for (String gram : term.keys()) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+            }
+        }
+        return term;
+    }
+
+    /**
+     * Лучшая оценка каждой записи по одному слову запроса с учётом веса поля
+     * Общие триграммы считаются по спискам вхождений, поэтому оцениваются только слова,
+     * разделяющие с запросом хотя бы одну триграмму (или биграмму — для запроса из двух букв)
+     *
+     * @param within записи, совпавшие с предыдущими словами запроса (null — без ограничения)
+     */
+    private Map<Long, Double> bestMatches(QueryToken token, Map<Long, Double> within) {
+        Map<Term, Integer> common = new HashMap<>();
+        for (String gram : token.lookupGrams()) {
+            Set<Term> indexed = postings.get(gram);
+            if (indexed != null) {
+                for (Term term : indexed) {
+                    common.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+        if (token.bigram() != null) {
+            // Биграмма в подсчёт общих триграмм не входит — она лишь добавляет кандидатов с запросом внутри слова
+            Set<Term> indexed = postings.get(token.bigram());
+            if (indexed != null) {
+                indexed.forEach(term -> common.putIfAbsent(term, 0));
+            }
+        }
+
+        Map<Long, Double> best = new HashMap<>();
+        common.forEach((term, lookupCommon) -> {
+            double score = match(token, term, lookupCommon);
+            if (score <= 0) {
+                return;
+            }
+            term.occurrences().forEach((employeeId, weight) -> {
+                if (within == null || within.containsKey(employeeId)) {
+                    best.merge(employeeId, weight * score, Math::max);
+                }
+            });
+        });
+        return best;
+    }
+
+    /**
+     * @param lookupCommon сколько триграмм выбора кандидатов встречается в слове
+     */
+    private static double match(QueryToken token, Term term, int lookupCommon) {
+        // Слово, содержащее запрос, содержит и все его внутренние триграммы
+        if (lookupCommon >= token.innerGrams()) {
+            if (term.text().equals(token.text())) {
+                return 1.0;
+            }
+            if (term.text().startsWith(token.text())) {
+                return 0.9;
+            }
+            if (term.text().contains(token.text())) {
+                return 0.7;
+            }
+        }
+
+        int common = lookupCommon;
+        for (String gram : token.edgeGrams()) {
+            if (term.grams().contains(gram)) {
+                common++;
+            }
+        }
+        double dice = 2.0 * common / (token.gramCount() + term.grams().size());
+        return dice >= FUZZY_THRESHOLD ? 0.6 * dice : 0;
+    }
+
+    /**
+     * Слово запроса с триграммами, посчитанными один раз на запрос
+     * Для сравнения берутся те же триграммы, что и у слов индекса.
+     * Для выбора кандидатов — без правого отступа (незаконченное слово не должно требовать
+     * совпадения окончания) и без триграммы из двух пробелов и первой буквы: ей соответствует
+     * каждое слово на эту букву. Остаётся она только у однобуквенного запроса — он ищется лишь
+     * по началу слов. У запроса из двух букв внутренних триграмм нет, поэтому слова, содержащие
+     * его не с начала, находятся по биграмме.
+     */
+    private static QueryToken queryToken(String token) {
+        Set<String> lookupGrams = grams(PAD + token, GRAM);
+        if (token.length() > 1) {
+            lookupGrams.remove(PAD + token.charAt(0));
+        }
+        Set<String> grams = grams(PAD + token + " ", GRAM);
+        Set<String> edgeGrams = new HashSet<>(grams);
+        edgeGrams.removeAll(lookupGrams);
+        return new QueryToken(token, grams.size(), lookupGrams, edgeGrams, grams(token, GRAM).size(),
+                token.length() == GRAM - 1 ? token : null);
+    }
+
+    private static Set<String> grams(String value, int size) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + size <= value.length(); i++) {
+            result.add(value.substring(i, i + size));
+        }
+        return result;
+    }
+
+    private static List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String part : SEPARATORS.split(value.toLowerCase(Locale.ROOT))) {
+            if (!part.isEmpty()) {
+                tokens.add(part);
+            }
+        }
+        return tokens;
+    }
+
+    private static EmployeeResponseDTO copy(EmployeeResponseDTO source) {
+        return new EmployeeResponseDTO(source.getId(), source.getFullName(),
+                source.getPosition(), source.getEmail());
+    }
+
+    // Обычный класс, а не record: в списках вхождений слова различаются по ссылке,
+    // без хеширования набора триграмм
+    private static final class Term {
+        private final String text;
+        private final Set<String> grams;
+        private final Set<String> bigrams;
+        // Сотрудник → вес поля, в котором встречается слово
+        private final Map<Long, Double> occurrences = new HashMap<>();
+
+        private Term(String text, Set<String> grams, Set<String> bigrams) {
+            this.text = text;
+            this.grams = grams;
+            this.bigrams = bigrams;
+        }
+
+        private String text() {
+            return text;
+        }
+
+        private Set<String> grams() {
+            return grams;
+        }
+
+        private Map<Long, Double> occurrences() {
+            return occurrences;
+        }
+
+        // Ключи списков вхождений: триграммы и биграммы
+        private List<String> keys() {
+            List<String> keys = new ArrayList<>(grams);
+            keys.addAll(bigrams);
+            return keys;
+        }
+    }
+
+    /**
+     * @param gramCount число триграмм слова с отступами, как у слов индекса
+     * @param lookupGrams триграммы выбора кандидатов
+     * @param edgeGrams остальные триграммы слова
+     * @param innerGrams число триграмм без отступов; столько совпадений нужно, чтобы слово могло содержать запрос
+     * @param bigram запрос из двух букв для поиска внутри слов (null — для остальных длин)
+     */
+    private record QueryToken(String text, int gramCount, Set<String> lookupGrams,
+                              Set<String> edgeGrams, int innerGrams, String bigram) {}
+
+    private record Entry(EmployeeResponseDTO employee, Set<Term> terms, String sortKey) {}
+
+    private record Scored(Entry entry, double score) {}
+}
@@ -2,18 +2,29 @@ package com.example.netequip.service;
 
 import com.example.netequip.dto.employee.CreateEmployeeDTO;
 import com.example.netequip.dto.employee.EmployeeResponseDTO;
+import com.example.netequip.dto.employee.EmployeeWorkloadDTO;
 import com.example.netequip.dto.employee.UpdateEmployeeDTO;
+import com.example.netequip.entity.ChangeLogEntry;
 import com.example.netequip.entity.Employee;
 import com.example.netequip.exception.employee.DuplicateEmployeeEmailException;
 import com.example.netequip.exception.employee.EmployeeNotFoundException;
 import com.example.netequip.mapper.EmployeeMapper;
 import com.example.netequip.repository.EmployeeRepository;
+import com.example.netequip.repository.EquipmentRepository;
+import com.example.netequip.repository.MaintenanceHistoryRepository;
+import com.example.netequip.repository.StreamingQueryExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -27,7 +38,12 @@ import java.util.stream.Collectors;
 public class EmployeeService {
 
     private final EmployeeRepository employeeRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final MaintenanceHistoryRepository maintenanceHistoryRepository;
     private final EmployeeMapper employeeMapper;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final StreamingQueryExecutor streamingQueryExecutor;
+    private final ChangeLogService changeLogService;
 
     /**
      * Создание нового сотрудника
@@ -40,23 +56,20 @@ public class EmployeeService {
     public EmployeeResponseDTO create(CreateEmployeeDTO dto) {
         log.info("Создание нового сотрудника: {}", dto.getFullName());
 
-        // Проверка уникальности email (если указан)
-        if (dto.getEmail() != null && !dto.getEmail().isBlank()) {
-            if (employeeRepository.existsByEmail(dto.getEmail())) {
-                log.warn("Попытка создать сотрудника с существующим email: {}", dto.getEmail());
-                throw new DuplicateEmployeeEmailException(dto.getEmail());
-            }
-        }
-
         // Конвертация DTO → Entity
+        // Уникальность email гарантируется индексом БД
         Employee entity = employeeMapper.toEntity(dto);
+        normalizeEmail(entity);
 
         // Сохранение в БД
         Employee savedEntity = employeeRepository.save(entity);
+        employeeSearchIndex.indexAfterCommit(savedEntity);
         log.info("Сотрудник успешно создан с ID: {}", savedEntity.getId());
 
         // Возврат Response DTO
-        return employeeMapper.toResponseDTO(savedEntity);
+        EmployeeResponseDTO result = employeeMapper.toResponseDTO(savedEntity);
+        changeLogService.recordCreated(ChangeLogEntry.EMPLOYEE, result.getId(), result);
+        return result;
     }
 
     /**
@@ -94,6 +107,23 @@ public class EmployeeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Потоковая выгрузка всех сотрудников
+     * Строки читаются курсором, каждая сразу конвертируется и передаётся получателю,
+     * поэтому полный список в памяти не строится
+     *
+     * @param sink получатель DTO
+     */
+    public void streamAll(Consumer<EmployeeResponseDTO> sink) {
+        log.debug("Потоковая выгрузка всех сотрудников");
+
+        long count = streamingQueryExecutor.forEach(
+                "SELECT e FROM Employee e ORDER BY e.id",
+                Employee.class,
+                entity -> sink.accept(employeeMapper.toResponseDTO(entity)));
+        log.info("Выгружено сотрудников: {}", count);
+    }
+
     /**
      * Обновление существующего сотрудника
      *
@@ -114,23 +144,18 @@ public class EmployeeService {
                     return new EmployeeNotFoundException(id);
                 });
 
-        // Проверка уникальности email (если email изменился и не пустой)
-        if (dto.getEmail() != null && !dto.getEmail().isBlank()) {
-            if (!dto.getEmail().equals(existingEntity.getEmail()) &&
-                    employeeRepository.existsByEmail(dto.getEmail())) {
-                log.warn("Попытка изменить email на уже существующий: {}", dto.getEmail());
-                throw new DuplicateEmployeeEmailException(dto.getEmail());
-            }
-        }
-
         // Обновление полей через Mapper
         employeeMapper.updateEntityFromDTO(dto, existingEntity);
+        normalizeEmail(existingEntity);
 
-        // Сохранение изменений
-        Employee updatedEntity = employeeRepository.save(existingEntity);
+        // Сохранение изменений (flush сразу, чтобы нарушение уникальности email проявилось здесь)
+        Employee updatedEntity = employeeRepository.saveAndFlush(existingEntity);
+        employeeSearchIndex.indexAfterCommit(updatedEntity);
         log.info("Сотрудник с ID {} успешно обновлен", id);
 
-        return employeeMapper.toResponseDTO(updatedEntity);
+        EmployeeResponseDTO result = employeeMapper.toResponseDTO(updatedEntity);
+        changeLogService.recordUpdated(ChangeLogEntry.EMPLOYEE, result.getId(), result);
+        return result;
     }
 
     /**
@@ -155,24 +180,26 @@ public class EmployeeService {
         // }
 
         employeeRepository.deleteById(id);
+        employeeSearchIndex.removeAfterCommit(id);
+        changeLogService.recordDeleted(ChangeLogEntry.EMPLOYEE, id);
         log.info("Сотрудник с ID {} успешно удален", id);
     }
 
     /**
-     * Поиск сотрудников по части имени (без учёта регистра)
+     * Ранжированный поиск сотрудников по имени, email и должности
+     * Выполняется по in-memory триграммному индексу (префикс, подстрока, опечатки)
      *
-     * @param name часть имени для поиска
-     * @return список найденных сотрудников
+     * @param query строка поиска
+     * @param limit максимальное количество результатов
+     * @return список найденных сотрудников, от наиболее релевантных
      */
-    public List<EmployeeResponseDTO> searchByName(String name) {
-        log.debug("Поиск сотрудников по имени: {}", name);
+    public List<EmployeeResponseDTO> search(String query, int limit) {
+        log.debug("Поиск сотрудников по запросу: {}", query);
 
-        List<Employee> entities = employeeRepository.findByFullNameContainingIgnoreCase(name);
-        log.info("Найдено сотрудников по запросу '{}': {}", name, entities.size());
+        List<EmployeeResponseDTO> result = employeeSearchIndex.search(query, limit);
+        log.debug("Найдено сотрудников по запросу '{}': {}", query, result.size());
 
-        return entities.stream()
-                .map(employeeMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return result;
     }
 
     /**
@@ -256,4 +283,55 @@ public class EmployeeService {
     public long count() {
         return employeeRepository.count();
     }
+
+    /**
+     * Пустой email храним как NULL, чтобы не конфликтовать по уникальному индексу
+     */
+    private void normalizeEmail(Employee entity) {
+        if (entity.getEmail() != null && entity.getEmail().isBlank()) {
+            entity.setEmail(null);
+        }
+    }
+
+    /**
+     * Нагрузка всех сотрудников: закреплённое оборудование, обслуживания и их стоимость за период
+     * Считается тремя запросами (список сотрудников + два GROUP BY) независимо от размера штата
+     *
+     * @param start начало периода (включительно)
+     * @param end конец периода (не включительно)
+     * @return нагрузка по каждому сотруднику, отсортированная по имени
+     */
+    public List<EmployeeWorkloadDTO> getWorkload(LocalDateTime start, LocalDateTime end) {
+        log.debug("Получение нагрузки сотрудников за период: {} - {}", start, end);
+
+        Map<Long, Long> equipmentCounts = equipmentRepository.countGroupedByEmployee().stream()
+                .collect(Collectors.toMap(
+                        EquipmentRepository.EmployeeEquipmentCount::getEmployeeId,
+                        EquipmentRepository.EmployeeEquipmentCount::getTotal));
+
+        Map<Long, MaintenanceHistoryRepository.EmployeeMaintenanceStats> maintenanceStats =
+                maintenanceHistoryRepository.sumGroupedByPerformer(start, end).stream()
+                        .collect(Collectors.toMap(
+                                MaintenanceHistoryRepository.EmployeeMaintenanceStats::getEmployeeId,
+                                Function.identity()));
+
+        List<EmployeeWorkloadDTO> result = employeeRepository.findAll().stream()
+                .map(employee -> {
+                    MaintenanceHistoryRepository.EmployeeMaintenanceStats stats =
+                            maintenanceStats.get(employee.getId());
+                    return new EmployeeWorkloadDTO(
+                            employee.getId(),
+                            employee.getFullName(),
+                            employee.getPosition(),
+                            equipmentCounts.getOrDefault(employee.getId(), 0L),
+                            stats != null ? stats.getJobs() : 0L,
+                            stats != null ? stats.getTotalCost() : BigDecimal.ZERO);
+                })
+                .sorted(Comparator.comparing(EmployeeWorkloadDTO::getFullName,
+                        Comparator.nullsLast(String::compareToIgnoreCase)))
+                .collect(Collectors.toList());
+        log.info("Рассчитана нагрузка для {} сотрудников", result.size());
+
+        return result;
+    }
 }
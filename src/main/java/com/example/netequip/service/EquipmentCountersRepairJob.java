@@ -0,0 +1,56 @@
+package com.example.netequip.service;
+
+import com.example.netequip.repository.EquipmentRepository;
+import com.example.netequip.repository.LocationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Сверка денормализованных счётчиков оборудования и узлов расположения с фактическими данными
+ * Счётчики поддерживаются сервисами портов, IP-адресов, обслуживаний и расположений при записи;
+ * задача исправляет расхождения после ручных правок БД или сбоев
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EquipmentCountersRepairJob {
+
+    private final EquipmentRepository equipmentRepository;
+    private final LocationRepository locationRepository;
+
+    /**
+     * Сверка при старте (в т.ч. заполнение счётчиков после добавления колонок)
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void repairOnStartup() {
+        repair();
+    }
+
+    /**
+     * Периодическая сверка, по умолчанию ночью
+     *
+     * @return количество исправленных записей оборудования
+     */
+    @Transactional
+    @Scheduled(cron = "${netequip.counters.repair-cron:0 30 3 * * *}")
+    public int repair() {
+        int repaired = equipmentRepository.repairCounters();
+        if (repaired > 0) {
+            log.warn("Исправлены расходящиеся счётчики у {} единиц оборудования", repaired);
+        } else {
+            log.info("Счётчики оборудования согласованы");
+        }
+
+        int locations = locationRepository.repairEquipmentCounts();
+        if (locations > 0) {
+            log.warn("Исправлены расходящиеся счётчики у {} узлов расположения", locations);
+        }
+        return repaired;
+    }
+}
@@ -1,29 +1,50 @@
 package com.example.netequip.service;
 
+import com.example.netequip.dto.batch.BatchResolveResultDTO;
 import com.example.netequip.dto.equipment.CreateEquipmentDTO;
+import com.example.netequip.dto.equipment.EquipmentBatchResolveRequestDTO;
+import com.example.netequip.dto.equipment.EquipmentBatchResolveResponseDTO;
 import com.example.netequip.dto.equipment.EquipmentListDTO;
 import com.example.netequip.dto.equipment.EquipmentResponseDTO;
+import com.example.netequip.dto.equipment.MacResolveResponseDTO;
 import com.example.netequip.dto.equipment.UpdateEquipmentDTO;
+import com.example.netequip.dto.versioning.VersionedDTO;
+import com.example.netequip.entity.ChangeLogEntry;
 import com.example.netequip.entity.Employee;
 import com.example.netequip.entity.Equipment;
 import com.example.netequip.entity.EquipmentType;
+import com.example.netequip.event.StatusChangeEvent;
+import com.example.netequip.exception.PreconditionFailedException;
 import com.example.netequip.exception.employee.EmployeeNotFoundException;
 import com.example.netequip.exception.equipment.DuplicateEquipmentException;
 import com.example.netequip.exception.equipment.EquipmentNotFoundException;
+import com.example.netequip.exception.equipment.InvalidMacAddressException;
 import com.example.netequip.exception.equiptype.EquipmentTypeNotFoundException;
+import com.example.netequip.exception.location.LocationNotFoundException;
 import com.example.netequip.mapper.EquipmentMapper;
 import com.example.netequip.repository.*;
+import com.example.netequip.repository.EquipmentRepository.EquipmentVersion;
+import com.example.netequip.util.ETags;
+import com.example.netequip.util.MacAddressUtils;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -39,10 +60,14 @@ public class EquipmentService {
     private final EquipmentRepository equipmentRepository;
     private final EquipmentTypeRepository equipmentTypeRepository;
     private final EmployeeRepository employeeRepository;
-    private final DevicePortRepository devicePortRepository;
-    private final IpAddressRepository ipAddressRepository;
-    private final MaintenanceHistoryRepository maintenanceHistoryRepository;
     private final EquipmentMapper equipmentMapper;
+    private final MacAddressIndex macAddressIndex;
+    private final BatchResolveSupport batchResolveSupport;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+    private final StreamingQueryExecutor streamingQueryExecutor;
+    private final ChangeLogService changeLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LocationService locationService;
     private final ObjectMapper objectMapper = new ObjectMapper();  // ✅ ДОБАВИТЬ
 
     /**
@@ -65,12 +90,11 @@ public class EquipmentService {
                     return new EquipmentTypeNotFoundException(dto.getTypeId());
                 });
 
-        // Проверка уникальности полей
-        validateUniqueFields(null, dto.getSerialNumber(), dto.getMacAddress());
-
         // Конвертация DTO → Entity
+        // Уникальность серийного номера и MAC гарантируется индексами БД
         Equipment entity = equipmentMapper.toEntity(dto);
         entity.setType(type);
+        normalizeUniqueFields(entity);
 
         // ✅ Конвертация technicalParams: Map → JSON String
         if (dto.getTechnicalParams() != null && !dto.getTechnicalParams().isEmpty()) {
@@ -103,11 +127,16 @@ public class EquipmentService {
             entity.setStatus("Active");
         }
 
+        locationService.assign(entity);
+
         // Сохранение
         Equipment savedEntity = equipmentRepository.save(entity);
+        macAddressIndex.replaceAfterCommit(null, savedEntity.getMacKey(), savedEntity.getId());
         log.info("Оборудование успешно создано с ID: {}", savedEntity.getId());
 
-        return toResponseDTOWithStats(savedEntity);
+        EquipmentResponseDTO result = toResponseDTOWithStats(savedEntity);
+        changeLogService.recordCreated(ChangeLogEntry.EQUIPMENT, result.getId(), result);
+        return result;
     }
 
 
@@ -121,7 +150,7 @@ public class EquipmentService {
     public EquipmentResponseDTO getById(Long id) {
         log.debug("Получение оборудования по ID: {}", id);
 
-        Equipment entity = equipmentRepository.findById(id)
+        Equipment entity = equipmentRepository.findWithTypeAndEmployeeById(id)
                 .orElseThrow(() -> {
                     log.warn("Оборудование с ID {} не найдено", id);
                     return new EquipmentNotFoundException(id);
@@ -130,6 +159,32 @@ public class EquipmentService {
         return toResponseDTOWithStats(entity);
     }
 
+    /**
+     * Получение оборудования по ID вместе с ETag и временем изменения
+     *
+     * @param id идентификатор оборудования
+     * @throws EquipmentNotFoundException если оборудование не найдено
+     */
+    public VersionedDTO<EquipmentResponseDTO> getVersionedById(Long id) {
+        Equipment entity = equipmentRepository.findWithTypeAndEmployeeById(id)
+                .orElseThrow(() -> new EquipmentNotFoundException(id));
+        return versioned(entity, toResponseDTOWithStats(entity));
+    }
+
+    /**
+     * Текущий ETag оборудования: один запрос версий без загрузки сущностей
+     * Используется для ответа 304 на условный GET
+     *
+     * @param id идентификатор оборудования
+     * @throws EquipmentNotFoundException если оборудование не найдено
+     */
+    public String getETag(Long id) {
+        EquipmentVersion version = equipmentRepository.findVersionById(id)
+                .orElseThrow(() -> new EquipmentNotFoundException(id));
+        return ETags.of(version.getVersion(), version.getTypeVersion(), version.getEmployeeVersion(),
+                version.getPortsCount(), version.getIpAddressesCount(), version.getMaintenanceCount());
+    }
+
     /**
      * Получение всего оборудования (краткий список)
      *
@@ -138,7 +193,7 @@ public class EquipmentService {
     public List<EquipmentListDTO> getAll() {
         log.debug("Получение всего оборудования");
 
-        List<Equipment> entities = equipmentRepository.findAll();
+        List<Equipment> entities = equipmentRepository.findAllWithTypeAndEmployeeBy();
         log.info("Найдено оборудования: {}", entities.size());
 
         return entities.stream()
@@ -146,6 +201,35 @@ public class EquipmentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Потоковая выгрузка всего оборудования
+     * Строки читаются курсором, каждая сразу конвертируется и передаётся получателю,
+     * поэтому полный список в памяти не строится
+     *
+     * @param sink получатель DTO
+     */
+    public void streamAll(Consumer<EquipmentListDTO> sink) {
+        log.debug("Потоковая выгрузка всего оборудования");
+
+        long count = streamingQueryExecutor.forEach(
+                "SELECT e FROM Equipment e LEFT JOIN FETCH e.type LEFT JOIN FETCH e.employee ORDER BY e.id",
+                Equipment.class,
+                entity -> sink.accept(toListDTOWithStats(entity)));
+        log.info("Выгружено оборудования: {}", count);
+    }
+
+    /**
+     * Получение всех оборудования только с выбранными полями
+     * Выбираются лишь нужные колонки, JOIN выполняется только для полей связанных сущностей
+     *
+     * @param fields имена полей
+     * @return список записей "поле → значение"
+     */
+    public List<Map<String, Object>> getAll(List<String> fields) {
+        log.debug("Получение всех оборудования с полями: {}", fields);
+        return sparseFieldsetRepository.findAll(SparseFieldsetRepository.EQUIPMENT, fields);
+    }
+
     /**
      * Обновление существующего оборудования
      *
@@ -157,6 +241,22 @@ public class EquipmentService {
      */
     @Transactional
     public EquipmentResponseDTO update(Long id, UpdateEquipmentDTO dto) {
+        return update(id, dto, null).body();
+    }
+
+    /**
+     * Обновление оборудования с проверкой версии
+     *
+     * @param id идентификатор оборудования
+     * @param dto новые данные
+     * @param ifMatch ожидаемый ETag (null — без проверки)
+     * @return обновленное оборудование и его новый ETag
+     * @throws EquipmentNotFoundException если оборудование не найдено
+     * @throws PreconditionFailedException если оборудование изменено после получения ETag
+     * @throws DuplicateEquipmentException если уникальные поля заняты
+     */
+    @Transactional
+    public VersionedDTO<EquipmentResponseDTO> update(Long id, UpdateEquipmentDTO dto, String ifMatch) {
         log.info("Обновление оборудования с ID: {}", id);
 
         // Поиск существующего оборудования
@@ -165,6 +265,8 @@ public class EquipmentService {
                     log.warn("Попытка обновить несуществующее оборудование с ID: {}", id);
                     return new EquipmentNotFoundException(id);
                 });
+        // Версия сверяется с загруженной сущностью; параллельное изменение до коммита отсечёт @Version
+        ETags.requireMatch(ifMatch, () -> eTag(existingEntity));
 
         // Поиск нового типа
         EquipmentType newType = equipmentTypeRepository.findById(dto.getTypeId())
@@ -173,12 +275,12 @@ public class EquipmentService {
                     return new EquipmentTypeNotFoundException(dto.getTypeId());
                 });
 
-        // Проверка уникальности полей
-        validateUniqueFields(id, dto.getSerialNumber(), dto.getMacAddress());
+        Long oldMacKey = existingEntity.getMacKey();
 
         // Обновление полей
         equipmentMapper.updateEntityFromDTO(dto, existingEntity);
         existingEntity.setType(newType);
+        normalizeUniqueFields(existingEntity);
 
         // ✅ Обновление technicalParams: Map → JSON String
         if (dto.getTechnicalParams() != null) {
@@ -209,12 +311,16 @@ public class EquipmentService {
 
         // Установка даты обновления
         existingEntity.setDateUpdated(LocalDate.now());
+        locationService.assign(existingEntity);
 
-        // Сохранение
-        Equipment updatedEntity = equipmentRepository.save(existingEntity);
+        // Сохранение (flush сразу, чтобы нарушение уникальности проявилось здесь, а не при коммите)
+        Equipment updatedEntity = equipmentRepository.saveAndFlush(existingEntity);
+        macAddressIndex.replaceAfterCommit(oldMacKey, updatedEntity.getMacKey(), id);
         log.info("Оборудование с ID {} успешно обновлено", id);
 
-        return toResponseDTOWithStats(updatedEntity);
+        EquipmentResponseDTO result = toResponseDTOWithStats(updatedEntity);
+        changeLogService.recordUpdated(ChangeLogEntry.EQUIPMENT, result.getId(), result);
+        return versioned(updatedEntity, result);
     }
 
     /**
@@ -227,18 +333,21 @@ public class EquipmentService {
     public void delete(Long id) {
         log.info("Удаление оборудования с ID: {}", id);
 
-        // Проверка существования
-        if (!equipmentRepository.existsById(id)) {
-            log.warn("Попытка удалить несуществующее оборудование с ID: {}", id);
-            throw new EquipmentNotFoundException(id);
-        }
+        Equipment entity = equipmentRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Попытка удалить несуществующее оборудование с ID: {}", id);
+                    return new EquipmentNotFoundException(id);
+                });
 
         // TODO: Добавить каскадное удаление или проверку связанных данных
         // - DevicePort
         // - IpAddress
         // - MaintenanceHistory
 
-        equipmentRepository.deleteById(id);
+        equipmentRepository.delete(entity);
+        locationService.release(entity);
+        macAddressIndex.replaceAfterCommit(entity.getMacKey(), null, id);
+        changeLogService.recordDeleted(ChangeLogEntry.EQUIPMENT, id);
         log.info("Оборудование с ID {} успешно удалено", id);
     }
 
@@ -264,15 +373,16 @@ public class EquipmentService {
     }
 
     /**
-     * Поиск оборудования по MAC-адресу
+     * Поиск оборудования по MAC-адресу (в любом формате записи)
      *
      * @param macAddress MAC-адрес
      * @return найденное оборудование
+     * @throws InvalidMacAddressException если строка не является MAC-адресом
      */
     public EquipmentResponseDTO getByMacAddress(String macAddress) {
         log.debug("Поиск оборудования по MAC-адресу: {}", macAddress);
 
-        Equipment entity = equipmentRepository.findByMacAddress(macAddress)
+        Equipment entity = equipmentRepository.findByMacKey(parseMac(macAddress))
                 .orElseThrow(() -> {
                     log.warn("Оборудование с MAC-адресом {} не найдено", macAddress);
                     return new EquipmentNotFoundException(
@@ -395,6 +505,22 @@ public class EquipmentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Оборудование в поддереве расположения
+     *
+     * @param locationId ID узла расположения
+     * @return оборудование узла и всех вложенных узлов
+     * @throws LocationNotFoundException если узел не найден
+     */
+    public List<EquipmentListDTO> getByLocation(Long locationId) {
+        log.debug("Получение оборудования расположения ID: {}", locationId);
+
+        String path = locationService.getPath(locationId);
+        return equipmentRepository.findByLocationPathStartingWithOrderByIdAsc(path).stream()
+                .map(this::toListDTOWithStats)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Получение оборудования по типу и статусу
      *
@@ -486,7 +612,7 @@ public class EquipmentService {
     public EquipmentResponseDTO changeStatus(Long id, String newStatus) {
         log.info("Изменение статуса оборудования ID {} на: {}", id, newStatus);
 
-        Equipment equipment = equipmentRepository.findById(id)
+        Equipment equipment = equipmentRepository.findWithTypeAndEmployeeById(id)
                 .orElseThrow(() -> new EquipmentNotFoundException(id));
 
         equipment.setStatus(newStatus);
@@ -495,40 +621,153 @@ public class EquipmentService {
         Equipment savedEntity = equipmentRepository.save(equipment);
         log.info("Статус оборудования ID {} изменен на '{}'", id, newStatus);
 
-        return toResponseDTOWithStats(savedEntity);
+        EquipmentResponseDTO result = toResponseDTOWithStats(savedEntity);
+        changeLogService.recordStatusChanged(ChangeLogEntry.EQUIPMENT, result.getId(), result);
+        eventPublisher.publishEvent(StatusChangeEvent.of(savedEntity, StatusChangeEvent.STATUS_CHANGED));
+        return result;
+    }
+
+    /**
+     * Сопоставление MAC-адресов с ID оборудования без обращения к БД
+     * Используется для сверки ARP/CAM-таблиц
+     *
+     * @param macAddresses MAC-адреса в любом формате записи
+     * @return найденные ID (ключ — исходная строка) и списки ненайденных и некорректных адресов
+     */
+    public MacResolveResponseDTO resolveMacAddresses(List<String> macAddresses) {
+        List<String> valid = new ArrayList<>(macAddresses.size());
+        List<String> invalid = new ArrayList<>();
+        long[] keys = new long[macAddresses.size()];
+        for (String macAddress : macAddresses) {
+            try {
+                keys[valid.size()] = MacAddressUtils.parse(macAddress);
+                valid.add(macAddress);
+            } catch (IllegalArgumentException e) {
+                invalid.add(macAddress);
+            }
+        }
+
+        long[] ids = macAddressIndex.getAll(Arrays.copyOf(keys, valid.size()));
+        Map<String, Long> resolved = new LinkedHashMap<>();
+        List<String> unresolved = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] >= 0) {
+                resolved.put(valid.get(i), ids[i]);
+            } else {
+                unresolved.add(valid.get(i));
+            }
+        }
+        log.debug("Сопоставление MAC-адресов: {} найдено, {} не найдено, {} некорректных",
+                resolved.size(), unresolved.size(), invalid.size());
+
+        return new MacResolveResponseDTO(resolved, unresolved, invalid);
+    }
+
+    /**
+     * Пакетный поиск оборудования по ID, серийным номерам, MAC- и IP-адресам
+     * Один IN-запрос на каждый тип ключа; статистика берётся из счётчиков в строке
+     *
+     * @param request списки ключей
+     * @return найденное оборудование и промахи по каждому типу ключа
+     * @throws com.example.netequip.exception.BatchLimitExceededException если ключей слишком много
+     */
+    public EquipmentBatchResolveResponseDTO resolve(EquipmentBatchResolveRequestDTO request) {
+        batchResolveSupport.checkLimit(request.getIds(), request.getSerialNumbers(),
+                request.getMacAddresses(), request.getIpAddresses());
+
+        EquipmentBatchResolveResponseDTO response = new EquipmentBatchResolveResponseDTO();
+        if (request.getIds() != null) {
+            Set<Long> ids = BatchResolveSupport.distinct(request.getIds());
+            response.setById(BatchResolveSupport.collect(ids,
+                    ids.isEmpty() ? List.of() : equipmentRepository.findByIdIn(ids),
+                    Equipment::getId, this::toResponseDTOWithStats));
+        }
+        if (request.getSerialNumbers() != null) {
+            Set<String> serials = BatchResolveSupport.distinct(request.getSerialNumbers());
+            response.setBySerialNumber(BatchResolveSupport.collect(serials,
+                    serials.isEmpty() ? List.of() : equipmentRepository.findBySerialNumberIn(serials),
+                    Equipment::getSerialNumber, this::toResponseDTOWithStats, BatchResolveSupport::ignoreCase));
+        }
+        if (request.getIpAddresses() != null) {
+            Set<String> ips = BatchResolveSupport.distinct(request.getIpAddresses());
+            response.setByIpAddress(BatchResolveSupport.collect(ips,
+                    ips.isEmpty() ? List.of() : equipmentRepository.findByIpAddressInOrderByIdAsc(ips),
+                    Equipment::getIpAddress, this::toResponseDTOWithStats, BatchResolveSupport::ignoreCase));
+        }
+        if (request.getMacAddresses() != null) {
+            response.setByMacAddress(resolveByMac(BatchResolveSupport.distinct(request.getMacAddresses())));
+        }
+        return response;
     }
 
     // ========== PRIVATE HELPER METHODS ==========
 
     /**
-     * Валидация уникальности полей
+     * Пустые значения уникальных полей храним как NULL,
+     * иначе несколько устройств без серийного номера конфликтовали бы по уникальному индексу
+     * MAC-адрес приводится к каноническому виду, рядом сохраняется его числовой ключ
      */
-    private void validateUniqueFields(Long excludeId, String serialNumber, String macAddress) {
-        // Проверка серийного номера
-        if (serialNumber != null && !serialNumber.isBlank()) {
-            equipmentRepository.findBySerialNumber(serialNumber).ifPresent(existing -> {
-                if (excludeId == null || !existing.getId().equals(excludeId)) {
-                    log.warn("Попытка использовать занятый серийный номер: {}", serialNumber);
-                    throw new DuplicateEquipmentException("серийным номером", serialNumber);
-                }
-            });
+    private void normalizeUniqueFields(Equipment entity) {
+        if (entity.getSerialNumber() != null && entity.getSerialNumber().isBlank()) {
+            entity.setSerialNumber(null);
+        }
+        if (entity.getMacAddress() == null || entity.getMacAddress().isBlank()) {
+            entity.setMacAddress(null);
+            entity.setMacKey(null);
+        } else {
+            long key = parseMac(entity.getMacAddress());
+            entity.setMacKey(key);
+            entity.setMacAddress(MacAddressUtils.format(key));
         }
+    }
 
-        // Проверка MAC-адреса
-        if (macAddress != null && !macAddress.isBlank()) {
-            equipmentRepository.findByMacAddress(macAddress).ifPresent(existing -> {
-                if (excludeId == null || !existing.getId().equals(excludeId)) {
-                    log.warn("Попытка использовать занятый MAC-адрес: {}", macAddress);
-                    throw new DuplicateEquipmentException("MAC-адресом", macAddress);
-                }
-            });
+    /**
+     * Пакетный поиск по MAC: ключом результата остаётся исходная строка,
+     * некорректные адреса попадают в промахи
+     */
+    private BatchResolveResultDTO<String, EquipmentResponseDTO> resolveByMac(Set<String> macAddresses) {
+        Map<String, Long> keys = new LinkedHashMap<>();
+        for (String macAddress : macAddresses) {
+            try {
+                keys.put(macAddress, MacAddressUtils.parse(macAddress));
+            } catch (IllegalArgumentException e) {
+                log.debug("Пропущен некорректный MAC-адрес: {}", macAddress);
+            }
+        }
+
+        Map<Long, Equipment> byKey = new HashMap<>();
+        if (!keys.isEmpty()) {
+            equipmentRepository.findByMacKeyIn(keys.values()).forEach(e -> byKey.put(e.getMacKey(), e));
+        }
+
+        Map<String, EquipmentResponseDTO> found = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String macAddress : macAddresses) {
+            Long key = keys.get(macAddress);
+            Equipment entity = key != null ? byKey.get(key) : null;
+            if (entity != null) {
+                found.put(macAddress, toResponseDTOWithStats(entity));
+            } else {
+                missing.add(macAddress);
+            }
+        }
+        return new BatchResolveResultDTO<>(found, missing);
+    }
+
+    private long parseMac(String macAddress) {
+        try {
+            return MacAddressUtils.parse(macAddress);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMacAddressException(macAddress);
         }
     }
 
     /**
      * Конвертация Entity → Response DTO со статистикой
+     * Доступна сервисам пакета, которые сами загружают оборудование
      */
-    private EquipmentResponseDTO toResponseDTOWithStats(Equipment entity) {
+    EquipmentResponseDTO toResponseDTOWithStats(Equipment entity) {
+        // Статистика (portsCount, ipAddressesCount, maintenanceCount) приходит из счётчиков в строке
         EquipmentResponseDTO dto = equipmentMapper.toResponseDTO(entity);
 
         // ✅ Конвертация technicalParams: JSON String → Map
@@ -546,23 +785,30 @@ public class EquipmentService {
             }
         }
 
-        // Добавление статистики
-        dto.setPortsCount((int) devicePortRepository.countByEquipment(entity));
-        dto.setIpAddressesCount((int) ipAddressRepository.countByEquipment(entity));
-        dto.setMaintenanceCount((int) maintenanceHistoryRepository.countByEquipment(entity));
-
         return dto;
     }
 
     /**
-     * Конвертация Entity → List DTO со статистикой
+     * ETag оборудования: версии оборудования, типа и сотрудника и счётчики (см. getETag)
      */
-    private EquipmentListDTO toListDTOWithStats(Equipment entity) {
-        EquipmentListDTO dto = equipmentMapper.toListDTO(entity);
+    private static String eTag(Equipment entity) {
+        return ETags.of(entity.getVersion(),
+                entity.getType() != null ? entity.getType().getVersion() : null,
+                entity.getEmployee() != null ? entity.getEmployee().getVersion() : null,
+                entity.getPortsCount(), entity.getIpAddressesCount(), entity.getMaintenanceCount());
+    }
 
-        // Добавление счетчика портов
-        dto.setPortsCount((int) devicePortRepository.countByEquipment(entity));
+    private static VersionedDTO<EquipmentResponseDTO> versioned(Equipment entity, EquipmentResponseDTO dto) {
+        LocalDate modified = entity.getDateUpdated() != null ? entity.getDateUpdated() : entity.getDateAdded();
+        return new VersionedDTO<>(dto, eTag(entity),
+                modified != null ? modified.atStartOfDay(ZoneId.systemDefault()).toInstant() : null);
+    }
 
-        return dto;
+    /**
+     * Конвертация Entity → List DTO со статистикой
+     */
+    private EquipmentListDTO toListDTOWithStats(Equipment entity) {
+        // Счётчики хранятся в строке оборудования, дополнительных запросов не требуется
+        return equipmentMapper.toListDTO(entity);
     }
 }
@@ -3,17 +3,20 @@ package com.example.netequip.service;
 import com.example.netequip.dto.equipmenttype.CreateEquipmentTypeDTO;
 import com.example.netequip.dto.equipmenttype.EquipmentTypeResponseDTO;
 import com.example.netequip.dto.equipmenttype.UpdateEquipmentTypeDTO;
+import com.example.netequip.entity.ChangeLogEntry;
 import com.example.netequip.entity.EquipmentType;
 import com.example.netequip.exception.equiptype.DuplicateEquipmentTypeException;
 import com.example.netequip.exception.equiptype.EquipmentTypeNotFoundException;
 import com.example.netequip.mapper.EquipmentTypeMapper;
 import com.example.netequip.repository.EquipmentTypeRepository;
+import com.example.netequip.repository.StreamingQueryExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +31,8 @@ public class EquipmentTypeService {
 
     private final EquipmentTypeRepository repository;
     private final EquipmentTypeMapper mapper;
+    private final StreamingQueryExecutor streamingQueryExecutor;
+    private final ChangeLogService changeLogService;
 
     /**
      * Создание нового типа оборудования
@@ -40,13 +45,8 @@ public class EquipmentTypeService {
     public EquipmentTypeResponseDTO create(CreateEquipmentTypeDTO dto) {
         log.info("Создание нового типа оборудования: {}", dto.getTypeName());
 
-        // Проверка на существование типа с таким названием
-        if (repository.existsByTypeName(dto.getTypeName())) {
-            log.warn("Попытка создать дубликат типа оборудования: {}", dto.getTypeName());
-            throw new DuplicateEquipmentTypeException(dto.getTypeName());
-        }
-
         // Конвертация DTO в Entity
+        // Уникальность названия типа гарантируется индексом БД
         EquipmentType entity = mapper.toEntity(dto);
 
         // Сохранение в базу данных
@@ -54,7 +54,9 @@ public class EquipmentTypeService {
         log.info("Тип оборудования успешно создан с ID: {}", savedEntity.getId());
 
         // Возврат Response DTO
-        return mapper.toResponseDTO(savedEntity);
+        EquipmentTypeResponseDTO result = mapper.toResponseDTO(savedEntity);
+        changeLogService.recordCreated(ChangeLogEntry.EQUIPMENT_TYPE, result.getId(), result);
+        return result;
     }
 
     /**
@@ -92,6 +94,23 @@ public class EquipmentTypeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Потоковая выгрузка всех типов оборудования
+     * Строки читаются курсором, каждая сразу конвертируется и передаётся получателю,
+     * поэтому полный список в памяти не строится
+     *
+     * @param sink получатель DTO
+     */
+    public void streamAll(Consumer<EquipmentTypeResponseDTO> sink) {
+        log.debug("Потоковая выгрузка всех типов оборудования");
+
+        long count = streamingQueryExecutor.forEach(
+                "SELECT t FROM EquipmentType t ORDER BY t.id",
+                EquipmentType.class,
+                entity -> sink.accept(mapper.toResponseDTO(entity)));
+        log.info("Выгружено типов оборудования: {}", count);
+    }
+
     /**
      * Обновление существующего типа оборудования
      *
@@ -111,21 +130,16 @@ public class EquipmentTypeService {
                     return new EquipmentTypeNotFoundException(id);
                 });
 
-        // Проверка на дубликат названия (если название изменилось)
-        if (!existingEntity.getTypeName().equals(dto.getTypeName()) &&
-                repository.existsByTypeName(dto.getTypeName())) {
-            log.warn("Попытка изменить название на уже существующее: {}", dto.getTypeName());
-            throw new DuplicateEquipmentTypeException(dto.getTypeName());
-        }
-
         // Обновление полей существующего Entity
         mapper.updateEntityFromDTO(dto, existingEntity);
 
-        // Сохранение изменений
-        EquipmentType updatedEntity = repository.save(existingEntity);
+        // Сохранение изменений (flush сразу, чтобы нарушение уникальности названия проявилось здесь)
+        EquipmentType updatedEntity = repository.saveAndFlush(existingEntity);
         log.info("Тип оборудования с ID {} успешно обновлен", id);
 
-        return mapper.toResponseDTO(updatedEntity);
+        EquipmentTypeResponseDTO result = mapper.toResponseDTO(updatedEntity);
+        changeLogService.recordUpdated(ChangeLogEntry.EQUIPMENT_TYPE, result.getId(), result);
+        return result;
     }
 
     /**
@@ -150,6 +164,7 @@ public class EquipmentTypeService {
         // }
 
         repository.deleteById(id);
+        changeLogService.recordDeleted(ChangeLogEntry.EQUIPMENT_TYPE, id);
         log.info("Тип оборудования с ID {} успешно удален", id);
     }
 
@@ -1,15 +1,24 @@
 package com.example.netequip.service;
 
 import com.example.netequip.dto.ipaddress.CreateIpAddressDTO;
+import com.example.netequip.dto.ipaddress.IpAddressBatchResolveRequestDTO;
+import com.example.netequip.dto.ipaddress.IpAddressBatchResolveResponseDTO;
 import com.example.netequip.dto.ipaddress.IpAddressResponseDTO;
 import com.example.netequip.dto.ipaddress.UpdateIpAddressDTO;
+import com.example.netequip.dto.versioning.VersionedDTO;
+import com.example.netequip.entity.ChangeLogEntry;
 import com.example.netequip.entity.Equipment;
 import com.example.netequip.entity.IpAddress;
+import com.example.netequip.exception.PreconditionFailedException;
 import com.example.netequip.exception.equiptype.EquipmentTypeNotFoundException;
 import com.example.netequip.exception.ipaddress.*;
 import com.example.netequip.mapper.IpAddressMapper;
 import com.example.netequip.repository.EquipmentRepository;
 import com.example.netequip.repository.IpAddressRepository;
+import com.example.netequip.repository.IpAddressRepository.IpAddressVersion;
+import com.example.netequip.repository.SparseFieldsetRepository;
+import com.example.netequip.repository.StreamingQueryExecutor;
+import com.example.netequip.util.ETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,7 +26,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +45,10 @@ public class IpAddressService {
     private final IpAddressRepository ipAddressRepository;
     private final EquipmentRepository equipmentRepository;
     private final IpAddressMapper ipAddressMapper;
+    private final BatchResolveSupport batchResolveSupport;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+    private final StreamingQueryExecutor streamingQueryExecutor;
+    private final ChangeLogService changeLogService;
 
     /**
      * Создание нового IP-адреса
@@ -55,18 +71,13 @@ public class IpAddressService {
                     return new EquipmentTypeNotFoundException(dto.getEquipmentId());
                 });
 
-        // Проверка уникальности IP-адреса
-        if (ipAddressRepository.existsByIpAddress(dto.getIpAddress())) {
-            log.warn("Попытка создать дубликат IP-адреса: {}", dto.getIpAddress());
-            throw new DuplicateIpAddressException(dto.getIpAddress());
-        }
-
         // Проверка флага isPrimary
         if (Boolean.TRUE.equals(dto.getIsPrimary())) {
             validatePrimaryIp(equipment, null);
         }
 
         // Конвертация DTO → Entity
+        // Уникальность IP-адреса гарантируется индексом БД
         IpAddress entity = ipAddressMapper.toEntity(dto);
         entity.setEquipment(equipment);
 
@@ -77,9 +88,13 @@ public class IpAddressService {
 
         // Сохранение
         IpAddress savedEntity = ipAddressRepository.save(entity);
+        // DTO строится до изменения счётчика: после него контекст очищается
+        IpAddressResponseDTO result = ipAddressMapper.toResponseDTO(savedEntity);
+        equipmentRepository.adjustIpAddressesCount(equipment.getId(), 1);
         log.info("IP-адрес успешно создан с ID: {}", savedEntity.getId());
 
-        return ipAddressMapper.toResponseDTO(savedEntity);
+        changeLogService.recordCreated(ChangeLogEntry.IP_ADDRESS, result.getId(), result);
+        return result;
     }
 
     /**
@@ -92,7 +107,7 @@ public class IpAddressService {
     public IpAddressResponseDTO getById(Long id) {
         log.debug("Получение IP-адреса по ID: {}", id);
 
-        IpAddress entity = ipAddressRepository.findById(id)
+        IpAddress entity = ipAddressRepository.findWithEquipmentById(id)
                 .orElseThrow(() -> {
                     log.warn("IP-адрес с ID {} не найден", id);
                     return new IpAddressNotFoundException(id);
@@ -101,6 +116,30 @@ public class IpAddressService {
         return ipAddressMapper.toResponseDTO(entity);
     }
 
+    /**
+     * Получение IP-адреса по ID вместе с ETag
+     *
+     * @param id идентификатор IP-адреса
+     * @throws IpAddressNotFoundException если IP-адрес не найден
+     */
+    public VersionedDTO<IpAddressResponseDTO> getVersionedById(Long id) {
+        IpAddress entity = ipAddressRepository.findWithEquipmentById(id)
+                .orElseThrow(() -> new IpAddressNotFoundException(id));
+        return new VersionedDTO<>(ipAddressMapper.toResponseDTO(entity), eTag(entity), null);
+    }
+
+    /**
+     * Текущий ETag IP-адреса: один запрос версий без загрузки сущностей
+     *
+     * @param id идентификатор IP-адреса
+     * @throws IpAddressNotFoundException если IP-адрес не найден
+     */
+    public String getETag(Long id) {
+        IpAddressVersion version = ipAddressRepository.findVersionById(id)
+                .orElseThrow(() -> new IpAddressNotFoundException(id));
+        return ETags.of(version.getVersion(), version.getEquipmentVersion());
+    }
+
     /**
      * Получение всех IP-адресов
      *
@@ -109,7 +148,7 @@ public class IpAddressService {
     public List<IpAddressResponseDTO> getAll() {
         log.debug("Получение всех IP-адресов");
 
-        List<IpAddress> entities = ipAddressRepository.findAll();
+        List<IpAddress> entities = ipAddressRepository.findAllWithEquipmentBy();
         log.info("Найдено IP-адресов: {}", entities.size());
 
         return entities.stream()
@@ -117,6 +156,35 @@ public class IpAddressService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Потоковая выгрузка всех IP-адресов
+     * Строки читаются курсором, каждая сразу конвертируется и передаётся получателю,
+     * поэтому полный список в памяти не строится
+     *
+     * @param sink получатель DTO
+     */
+    public void streamAll(Consumer<IpAddressResponseDTO> sink) {
+        log.debug("Потоковая выгрузка всех IP-адресов");
+
+        long count = streamingQueryExecutor.forEach(
+                "SELECT i FROM IpAddress i JOIN FETCH i.equipment ORDER BY i.id",
+                IpAddress.class,
+                entity -> sink.accept(ipAddressMapper.toResponseDTO(entity)));
+        log.info("Выгружено IP-адресов: {}", count);
+    }
+
+    /**
+     * Получение всех IP-адресов только с выбранными полями
+     * Выбираются лишь нужные колонки, JOIN выполняется только для полей связанных сущностей
+     *
+     * @param fields имена полей
+     * @return список записей "поле → значение"
+     */
+    public List<Map<String, Object>> getAll(List<String> fields) {
+        log.debug("Получение всех IP-адресов с полями: {}", fields);
+        return sparseFieldsetRepository.findAll(SparseFieldsetRepository.IP_ADDRESS, fields);
+    }
+
     /**
      * Обновление существующего IP-адреса
      *
@@ -129,6 +197,23 @@ public class IpAddressService {
      */
     @Transactional
     public IpAddressResponseDTO update(Long id, UpdateIpAddressDTO dto) {
+        return update(id, dto, null).body();
+    }
+
+    /**
+     * Обновление IP-адреса с проверкой версии
+     *
+     * @param id идентификатор IP-адреса
+     * @param dto новые данные
+     * @param ifMatch ожидаемый ETag (null — без проверки)
+     * @return обновленный IP-адрес и его новый ETag
+     * @throws IpAddressNotFoundException если IP-адрес не найден
+     * @throws PreconditionFailedException если адрес изменён после получения ETag
+     * @throws DuplicateIpAddressException если новый IP уже используется
+     * @throws PrimaryIpAddressConflictException если конфликт основных IP
+     */
+    @Transactional
+    public VersionedDTO<IpAddressResponseDTO> update(Long id, UpdateIpAddressDTO dto, String ifMatch) {
         log.info("Обновление IP-адреса с ID: {}", id);
 
         // Поиск существующего IP-адреса
@@ -137,6 +222,7 @@ public class IpAddressService {
                     log.warn("Попытка обновить несуществующий IP-адрес с ID: {}", id);
                     return new IpAddressNotFoundException(id);
                 });
+        ETags.requireMatch(ifMatch, () -> eTag(existingEntity));
 
         // Поиск нового оборудования (если изменилось)
         Equipment newEquipment = equipmentRepository.findById(dto.getEquipmentId())
@@ -145,14 +231,6 @@ public class IpAddressService {
                     return new EquipmentTypeNotFoundException(dto.getEquipmentId());
                 });
 
-        // Проверка уникальности IP (если изменился)
-        if (!existingEntity.getIpAddress().equals(dto.getIpAddress())) {
-            if (ipAddressRepository.existsByIpAddress(dto.getIpAddress())) {
-                log.warn("Попытка изменить IP на уже существующий: {}", dto.getIpAddress());
-                throw new DuplicateIpAddressException(dto.getIpAddress());
-            }
-        }
-
         // Проверка флага isPrimary (если устанавливается или изменяется оборудование)
         if (Boolean.TRUE.equals(dto.getIsPrimary())) {
             // Если оборудование изменилось или флаг меняется с false на true
@@ -162,15 +240,25 @@ public class IpAddressService {
             }
         }
 
+        Long oldEquipmentId = existingEntity.getEquipment().getId();
+
         // Обновление полей
         ipAddressMapper.updateEntityFromDTO(dto, existingEntity);
         existingEntity.setEquipment(newEquipment);
 
-        // Сохранение
-        IpAddress updatedEntity = ipAddressRepository.save(existingEntity);
+        // Сохранение (flush сразу, чтобы нарушение уникальности IP проявилось здесь)
+        IpAddress updatedEntity = ipAddressRepository.saveAndFlush(existingEntity);
+        IpAddressResponseDTO result = ipAddressMapper.toResponseDTO(updatedEntity);
+
+        // Перенос адреса на другое устройство
+        if (!oldEquipmentId.equals(newEquipment.getId())) {
+            equipmentRepository.adjustIpAddressesCount(oldEquipmentId, -1);
+            equipmentRepository.adjustIpAddressesCount(newEquipment.getId(), 1);
+        }
         log.info("IP-адрес с ID {} успешно обновлен", id);
 
-        return ipAddressMapper.toResponseDTO(updatedEntity);
+        changeLogService.recordUpdated(ChangeLogEntry.IP_ADDRESS, result.getId(), result);
+        return new VersionedDTO<>(result, eTag(updatedEntity), null);
     }
 
     /**
@@ -183,13 +271,15 @@ public class IpAddressService {
     public void delete(Long id) {
         log.info("Удаление IP-адреса с ID: {}", id);
 
-        // Проверка существования
-        if (!ipAddressRepository.existsById(id)) {
-            log.warn("Попытка удалить несуществующий IP-адрес с ID: {}", id);
-            throw new IpAddressNotFoundException(id);
-        }
+        IpAddress ipAddress = ipAddressRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Попытка удалить несуществующий IP-адрес с ID: {}", id);
+                    return new IpAddressNotFoundException(id);
+                });
 
-        ipAddressRepository.deleteById(id);
+        ipAddressRepository.delete(ipAddress);
+        equipmentRepository.adjustIpAddressesCount(ipAddress.getEquipment().getId(), -1);
+        changeLogService.recordDeleted(ChangeLogEntry.IP_ADDRESS, id);
         log.info("IP-адрес с ID {} успешно удален", id);
     }
 
@@ -256,6 +346,32 @@ public class IpAddressService {
         return ipAddressMapper.toResponseDTO(entity);
     }
 
+    /**
+     * Пакетный поиск IP-адресов по ID и значениям (один IN-запрос на тип ключа)
+     *
+     * @param request списки ключей
+     * @return найденные IP-адреса и промахи по каждому типу ключа
+     * @throws com.example.netequip.exception.BatchLimitExceededException если ключей слишком много
+     */
+    public IpAddressBatchResolveResponseDTO resolve(IpAddressBatchResolveRequestDTO request) {
+        batchResolveSupport.checkLimit(request.getIds(), request.getIpAddresses());
+
+        IpAddressBatchResolveResponseDTO response = new IpAddressBatchResolveResponseDTO();
+        if (request.getIds() != null) {
+            Set<Long> ids = BatchResolveSupport.distinct(request.getIds());
+            response.setById(BatchResolveSupport.collect(ids,
+                    ids.isEmpty() ? List.of() : ipAddressRepository.findByIdIn(ids),
+                    IpAddress::getId, ipAddressMapper::toResponseDTO));
+        }
+        if (request.getIpAddresses() != null) {
+            Set<String> ips = BatchResolveSupport.distinct(request.getIpAddresses());
+            response.setByIpAddress(BatchResolveSupport.collect(ips,
+                    ips.isEmpty() ? List.of() : ipAddressRepository.findByIpAddressIn(ips),
+                    IpAddress::getIpAddress, ipAddressMapper::toResponseDTO, BatchResolveSupport::ignoreCase));
+        }
+        return response;
+    }
+
     /**
      * Получение IP-адресов по типу сети
      *
@@ -324,7 +440,7 @@ public class IpAddressService {
     public IpAddressResponseDTO setPrimaryIp(Long id) {
         log.info("Установка IP-адреса ID {} как основного", id);
 
-        IpAddress ipAddress = ipAddressRepository.findById(id)
+        IpAddress ipAddress = ipAddressRepository.findWithEquipmentById(id)
                 .orElseThrow(() -> new IpAddressNotFoundException(id));
 
         // Проверка, что у устройства нет другого основного IP
@@ -334,7 +450,9 @@ public class IpAddressService {
         IpAddress savedEntity = ipAddressRepository.save(ipAddress);
         log.info("IP-адрес ID {} установлен как основной", id);
 
-        return ipAddressMapper.toResponseDTO(savedEntity);
+        IpAddressResponseDTO result = ipAddressMapper.toResponseDTO(savedEntity);
+        changeLogService.recordUpdated(ChangeLogEntry.IP_ADDRESS, result.getId(), result);
+        return result;
     }
 
     /**
@@ -348,14 +466,16 @@ public class IpAddressService {
     public IpAddressResponseDTO unsetPrimaryIp(Long id) {
         log.info("Снятие флага основного IP с адреса ID {}", id);
 
-        IpAddress ipAddress = ipAddressRepository.findById(id)
+        IpAddress ipAddress = ipAddressRepository.findWithEquipmentById(id)
                 .orElseThrow(() -> new IpAddressNotFoundException(id));
 
         ipAddress.setIsPrimary(false);
         IpAddress savedEntity = ipAddressRepository.save(ipAddress);
         log.info("Флаг основного IP снят с адреса ID {}", id);
 
-        return ipAddressMapper.toResponseDTO(savedEntity);
+        IpAddressResponseDTO result = ipAddressMapper.toResponseDTO(savedEntity);
+        changeLogService.recordUpdated(ChangeLogEntry.IP_ADDRESS, result.getId(), result);
+        return result;
     }
 
     /**
@@ -383,6 +503,13 @@ public class IpAddressService {
 
     // ========== PRIVATE HELPER METHODS ==========
 
+    /**
+     * ETag IP-адреса: версии адреса и его устройства (см. getETag)
+     */
+    private static String eTag(IpAddress entity) {
+        return ETags.of(entity.getVersion(), entity.getEquipment().getVersion());
+    }
+
     /**
      * Проверка возможности установки основного IP для устройства
      *
@@ -0,0 +1,229 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.location.LocationDTO;
+import com.example.netequip.dto.location.LocationPortCapacityDTO;
+import com.example.netequip.entity.Equipment;
+import com.example.netequip.entity.Location;
+import com.example.netequip.exception.location.LocationNotFoundException;
+import com.example.netequip.repository.DevicePortRepository;
+import com.example.netequip.repository.DevicePortRepository.LocationPortCapacity;
+import com.example.netequip.repository.EquipmentRepository;
+import com.example.netequip.repository.LocationRepository;
+import com.example.netequip.util.LocationParser;
+import com.example.netequip.util.LocationParser.Segment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Иерархия расположения оборудования
+ * Адрес оборудования разбирается в путь площадка/корпус/этаж/помещение/стойка, недостающие
+ * узлы создаются. Счётчик оборудования поддерживается у всех предков узла атомарными UPDATE,
+ * выборки поддерева идут по индексу на материализованном пути
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class LocationService {
+
+    private final LocationRepository locationRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final DevicePortRepository devicePortRepository;
+
+    public LocationService(LocationRepository locationRepository,
+                           EquipmentRepository equipmentRepository,
+                           DevicePortRepository devicePortRepository) {
+        this.locationRepository = locationRepository;
+        this.equipmentRepository = equipmentRepository;
+        this.devicePortRepository = devicePortRepository;
+    }
+
+    /**
+     * Привязка оборудования к расположению по его адресу
+     * Вызывается перед сохранением оборудования в той же транзакции
+     *
+     * @param equipment новое или изменённое оборудование
+     */
+    @Transactional
+    public void assign(Equipment equipment) {
+        String oldPath = equipment.getLocationPath();
+        List<Segment> segments = LocationParser.parse(equipment.getAddress());
+        String newPath = segments.isEmpty() ? null : LocationParser.path(segments, segments.size());
+        Location location = newPath != null ? resolve(segments, newPath) : null;
+
+        equipment.setLocation(location);
+        equipment.setLocationPath(newPath);
+        if (!Objects.equals(oldPath, newPath)) {
+            adjust(oldPath, -1);
+            adjust(newPath, 1);
+        }
+    }
+
+    /**
+     * Отвязка удаляемого оборудования
+     *
+     * @param equipment удаляемое оборудование
+     */
+    @Transactional
+    public void release(Equipment equipment) {
+        adjust(equipment.getLocationPath(), -1);
+    }
+
+    /**
+     * Привязка оборудования, добавленного до появления иерархии
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Equipment> pending = equipmentRepository.findByLocationIsNullAndAddressIsNotNull();
+        pending.forEach(this::assign);
+        if (!pending.isEmpty()) {
+            log.info("Привязано к расположению оборудования: {}", pending.size());
+        }
+    }
+
+    /**
+     * Корневые узлы (площадки)
+     */
+    public List<LocationDTO> getRoots() {
+        return locationRepository.findByParentIsNullOrderByNameAsc().stream()
+                .map(LocationService::toDTO)
+                .toList();
+    }
+
+    /**
+     * Узел по ID
+     *
+     * @throws LocationNotFoundException если узел не найден
+     */
+    public LocationDTO getById(Long id) {
+        return toDTO(findLocation(id));
+    }
+
+    /**
+     * Дочерние узлы
+     *
+     * @throws LocationNotFoundException если узел не найден
+     */
+    public List<LocationDTO> getChildren(Long id) {
+        findLocation(id);
+        return locationRepository.findByParentIdOrderByNameAsc(id).stream()
+                .map(LocationService::toDTO)
+                .toList();
+    }
+
+    /**
+     * Узлы одного уровня
+     */
+    public List<LocationDTO> getByLevel(Location.Level level) {
+        return locationRepository.findByLevelOrderByPathAsc(level).stream()
+                .map(LocationService::toDTO)
+                .toList();
+    }
+
+    /**
+     * Путь узла для выборки поддерева
+     *
+     * @throws LocationNotFoundException если узел не найден
+     */
+    public String getPath(Long id) {
+        return findLocation(id).getPath();
+    }
+
+    /**
+     * Ёмкость портов узла (или всей сети) с разбивкой по дочерним узлам
+     * Один агрегирующий запрос по поддереву, разбивка собирается в памяти
+     *
+     * @param id ID узла (null — вся сеть, разбивка по площадкам)
+     * @throws LocationNotFoundException если узел не найден
+     */
+    public LocationPortCapacityDTO getPortCapacity(Long id) {
+        Location node = id != null ? findLocation(id) : null;
+        List<Location> children = node != null
+                ? locationRepository.findByParentIdOrderByNameAsc(node.getId())
+                : locationRepository.findByParentIsNullOrderByNameAsc();
+        List<LocationPortCapacity> rows =
+                devicePortRepository.countPortCapacityByLocationPath(node != null ? node.getPath() : "/");
+
+        List<LocationPortCapacityDTO> childCapacity = new ArrayList<>();
+        for (Location child : children) {
+            childCapacity.add(capacity(toDTO(child), rows, child.getPath(), null));
+        }
+        return capacity(node != null ? toDTO(node) : null, rows, null, childCapacity);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Location findLocation(Long id) {
+        return locationRepository.findById(id)
+                .orElseThrow(() -> new LocationNotFoundException(id));
+    }
+
+    private Location resolve(List<Segment> segments, String leafPath) {
+        return locationRepository.findByPath(leafPath).orElseGet(() -> createPath(segments));
+    }
+
+    /**
+     * Недостающие узлы создаются в транзакции вызывающего, без второго соединения из пула.
+     * Узел, созданный параллельным запросом, вставка пропускает, а блокирующее чтение находит,
+     * даже если он закоммичен после начала текущей транзакции
+     */
+    private Location createPath(List<Segment> segments) {
+        Location parent = null;
+        for (int depth = 1; depth <= segments.size(); depth++) {
+            Segment segment = segments.get(depth - 1);
+            String path = LocationParser.path(segments, depth);
+            Location node = locationRepository.findByPath(path).orElse(null);
+            if (node == null) {
+                locationRepository.insertIfAbsent(parent != null ? parent.getId() : null, segment.level().name(),
+                        segment.name(), path, depth);
+                node = locationRepository.findLockedByPath(path).orElseThrow();
+            }
+            parent = node;
+        }
+        return parent;
+    }
+
+    private void adjust(String path, int delta) {
+        if (path == null) {
+            return;
+        }
+        // Пути всех предков: /a/, /a/b/, /a/b/c/
+        List<String> paths = new ArrayList<>();
+        for (int i = path.indexOf('/', 1); i > 0; i = path.indexOf('/', i + 1)) {
+            paths.add(path.substring(0, i + 1));
+        }
+        locationRepository.adjustEquipmentCount(paths, delta);
+    }
+
+    private static LocationPortCapacityDTO capacity(LocationDTO location, List<LocationPortCapacity> rows,
+                                                    String prefix, List<LocationPortCapacityDTO> children) {
+        long total = 0;
+        long free = 0;
+        for (LocationPortCapacity row : rows) {
+            if (prefix == null || row.getLocationPath().startsWith(prefix)) {
+                total += row.getTotalPorts();
+                free += row.getFreePorts() != null ? row.getFreePorts() : 0;
+            }
+        }
+        return new LocationPortCapacityDTO(location, total, free, children);
+    }
+
+    private static LocationDTO toDTO(Location location) {
+        return new LocationDTO(
+                location.getId(),
+                location.getParent() != null ? location.getParent().getId() : null,
+                location.getLevel().name(),
+                location.getName(),
+                location.getPath(),
+                location.getDepth(),
+                location.getEquipmentCount()
+        );
+    }
+}
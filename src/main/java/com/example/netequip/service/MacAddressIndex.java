@@ -0,0 +1,278 @@
+package com.example.netequip.service;
+
+import com.example.netequip.entity.Equipment;
+import com.example.netequip.repository.EquipmentRepository;
+import com.example.netequip.util.MacAddressUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory индекс MAC-ключ → ID оборудования
+ * Открытая адресация на примитивных массивах long: без boxing и без обращения к БД,
+ * рассчитан на массовую сверку ARP/CAM-таблиц
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MacAddressIndex {
+
+    // Ключи MAC занимают 48 бит, поэтому -1 никогда не является ключом
+    private static final long EMPTY = -1L;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final EquipmentRepository equipmentRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] keys = newKeys(MIN_CAPACITY);
+    private long[] values = new long[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * Полная перестройка индекса из БД при старте приложения
+     * Перед построением заполняет ключи у записей, сохранённых до их появления
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        backfillMacKeys();
+        List<EquipmentRepository.MacKeyId> rows = equipmentRepository.findAllMacKeys();
+
+        lock.writeLock().lock();
+        try {
+            int capacity = capacityFor(rows.size());
+            keys = newKeys(capacity);
+            values = new long[capacity];
+            size = 0;
+            for (EquipmentRepository.MacKeyId row : rows) {
+                putInternal(row.getMacKey(), row.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс MAC-адресов построен: {} записей", rows.size());
+    }
+
+    /**
+     * Обновление индекса после успешного коммита текущей транзакции
+     *
+     * @param oldKey прежний MAC-ключ (null, если не было)
+     * @param newKey новый MAC-ключ (null, если удалён)
+     * @param equipmentId ID оборудования
+     */
+    public void replaceAfterCommit(Long oldKey, Long newKey, Long equipmentId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                // Прежний ключ мог уже перейти к другому оборудованию, если его коммит применён раньше
+                if (oldKey != null) {
+                    removeInternal(oldKey, equipmentId);
+                }
+                if (newKey != null) {
+                    putInternal(newKey, equipmentId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Поиск ID оборудования по MAC-ключу
+     *
+     * @param macKey MAC-ключ
+     * @return ID оборудования или -1, если не найдено
+     */
+    public long get(long macKey) {
+        lock.readLock().lock();
+        try {
+            int slot = find(macKey);
+            return slot >= 0 ? values[slot] : -1L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Пакетный поиск под одной блокировкой
+     *
+     * @param macKeys MAC-ключи
+     * @return ID оборудования в том же порядке, -1 для ненайденных
+     */
+    public long[] getAll(long[] macKeys) {
+        long[] result = new long[macKeys.length];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < macKeys.length; i++) {
+                int slot = find(macKeys[i]);
+                result[i] = slot >= 0 ? values[slot] : -1L;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Количество записей в индексе
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void backfillMacKeys() {
+        List<Equipment> legacy = equipmentRepository.findByMacKeyIsNullAndMacAddressIsNotNull();
+        if (legacy.isEmpty()) {
+            return;
+        }
+        Set<Long> taken = new HashSet<>();
+        equipmentRepository.findAllMacKeys().forEach(row -> taken.add(row.getMacKey()));
+
+        int filled = 0;
+        for (Equipment equipment : legacy) {
+            long key;
+            try {
+                key = MacAddressUtils.parse(equipment.getMacAddress());
+            } catch (IllegalArgumentException e) {
+                log.warn("Оборудование ID {}: некорректный MAC-адрес '{}', ключ не заполнен",
+                        equipment.getId(), equipment.getMacAddress());
+                continue;
+            }
+            if (!taken.add(key)) {
+                log.warn("Оборудование ID {}: MAC-адрес {} уже используется другим устройством, ключ не заполнен",
+                        equipment.getId(), MacAddressUtils.format(key));
+                continue;
+            }
+            equipment.setMacKey(key);
+            equipment.setMacAddress(MacAddressUtils.format(key));
+            filled++;
+        }
+        equipmentRepository.flush();
+        log.info("Заполнены MAC-ключи у {} из {} записей оборудования", filled, legacy.size());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void putInternal(long key, long value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Удаление со сдвигом последующих элементов цепочки (без "надгробий")
+     * Ключ удаляется, только если он всё ещё указывает на value
+     */
+    private void removeInternal(long key, long value) {
+        int slot = find(key);
+        if (slot < 0 || values[slot] != value) {
+            return;
+        }
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            // Элемент можно перенести в дыру, если его домашний слот не лежит между дырой и текущей позицией
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = newKeys(capacity);
+        values = new long[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                putInternal(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static long[] newKeys(int capacity) {
+        long[] array = new long[capacity];
+        Arrays.fill(array, EMPTY);
+        return array;
+    }
+
+    private static int hash(long key) {
+        // Финализатор MurmurHash3: младшие байты MAC (номер устройства у вендора) распределяются равномерно
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
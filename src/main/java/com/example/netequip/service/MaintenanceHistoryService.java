@@ -3,6 +3,7 @@ package com.example.netequip.service;
 import com.example.netequip.dto.maintenancehistory.CreateMaintenanceHistoryDTO;
 import com.example.netequip.dto.maintenancehistory.MaintenanceHistoryResponseDTO;
 import com.example.netequip.dto.maintenancehistory.UpdateMaintenanceHistoryDTO;
+import com.example.netequip.entity.ChangeLogEntry;
 import com.example.netequip.entity.Employee;
 import com.example.netequip.entity.Equipment;
 import com.example.netequip.entity.MaintenanceHistory;
@@ -13,6 +14,7 @@ import com.example.netequip.mapper.MaintenanceHistoryMapper;
 import com.example.netequip.repository.EmployeeRepository;
 import com.example.netequip.repository.EquipmentRepository;
 import com.example.netequip.repository.MaintenanceHistoryRepository;
+import com.example.netequip.repository.StreamingQueryExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +40,8 @@ public class MaintenanceHistoryService {
     private final EquipmentRepository equipmentRepository;
     private final EmployeeRepository employeeRepository;
     private final MaintenanceHistoryMapper maintenanceHistoryMapper;
+    private final StreamingQueryExecutor streamingQueryExecutor;
+    private final ChangeLogService changeLogService;
 
     /**
      * Создание новой записи об обслуживании
@@ -78,9 +83,13 @@ public class MaintenanceHistoryService {
 
         // Сохранение
         MaintenanceHistory savedEntity = maintenanceHistoryRepository.save(entity);
+        // DTO строится до изменения счётчика: после него контекст очищается
+        MaintenanceHistoryResponseDTO result = maintenanceHistoryMapper.toResponseDTO(savedEntity);
+        equipmentRepository.adjustMaintenanceCount(equipment.getId(), 1);
         log.info("Запись об обслуживании успешно создана с ID: {}", savedEntity.getId());
 
-        return maintenanceHistoryMapper.toResponseDTO(savedEntity);
+        changeLogService.recordCreated(ChangeLogEntry.MAINTENANCE_HISTORY, result.getId(), result);
+        return result;
     }
 
     /**
@@ -93,7 +102,7 @@ public class MaintenanceHistoryService {
     public MaintenanceHistoryResponseDTO getById(Long id) {
         log.debug("Получение записи об обслуживании по ID: {}", id);
 
-        MaintenanceHistory entity = maintenanceHistoryRepository.findById(id)
+        MaintenanceHistory entity = maintenanceHistoryRepository.findWithEquipmentAndPerformerById(id)
                 .orElseThrow(() -> {
                     log.warn("Запись об обслуживании с ID {} не найдена", id);
                     return new MaintenanceHistoryNotFoundException(id);
@@ -110,7 +119,7 @@ public class MaintenanceHistoryService {
     public List<MaintenanceHistoryResponseDTO> getAll() {
         log.debug("Получение всех записей об обслуживании");
 
-        List<MaintenanceHistory> entities = maintenanceHistoryRepository.findAll();
+        List<MaintenanceHistory> entities = maintenanceHistoryRepository.findAllWithEquipmentAndPerformerBy();
         log.info("Найдено записей об обслуживании: {}", entities.size());
 
         return entities.stream()
@@ -118,6 +127,23 @@ public class MaintenanceHistoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Потоковая выгрузка всех записей об обслуживании
+     * Строки читаются курсором, каждая сразу конвертируется и передаётся получателю,
+     * поэтому полный список в памяти не строится
+     *
+     * @param sink получатель DTO
+     */
+    public void streamAll(Consumer<MaintenanceHistoryResponseDTO> sink) {
+        log.debug("Потоковая выгрузка всех записей об обслуживании");
+
+        long count = streamingQueryExecutor.forEach(
+                "SELECT m FROM MaintenanceHistory m JOIN FETCH m.equipment LEFT JOIN FETCH m.performedBy ORDER BY m.id",
+                MaintenanceHistory.class,
+                entity -> sink.accept(maintenanceHistoryMapper.toResponseDTO(entity)));
+        log.info("Выгружено записей об обслуживании: {}", count);
+    }
+
     /**
      * Обновление существующей записи об обслуживании
      *
@@ -144,6 +170,8 @@ public class MaintenanceHistoryService {
                     return new EquipmentTypeNotFoundException(dto.getEquipmentId());
                 });
 
+        Long oldEquipmentId = existingEntity.getEquipment().getId();
+
         // Обновление базовых полей
         maintenanceHistoryMapper.updateEntityFromDTO(dto, existingEntity);
         existingEntity.setEquipment(newEquipment);
@@ -162,9 +190,17 @@ public class MaintenanceHistoryService {
 
         // Сохранение
         MaintenanceHistory updatedEntity = maintenanceHistoryRepository.save(existingEntity);
+        MaintenanceHistoryResponseDTO result = maintenanceHistoryMapper.toResponseDTO(updatedEntity);
+
+        // Перенос записи на другое устройство
+        if (!oldEquipmentId.equals(newEquipment.getId())) {
+            equipmentRepository.adjustMaintenanceCount(oldEquipmentId, -1);
+            equipmentRepository.adjustMaintenanceCount(newEquipment.getId(), 1);
+        }
         log.info("Запись об обслуживании с ID {} успешно обновлена", id);
 
-        return maintenanceHistoryMapper.toResponseDTO(updatedEntity);
+        changeLogService.recordUpdated(ChangeLogEntry.MAINTENANCE_HISTORY, result.getId(), result);
+        return result;
     }
 
     /**
@@ -177,13 +213,15 @@ public class MaintenanceHistoryService {
     public void delete(Long id) {
         log.info("Удаление записи об обслуживании с ID: {}", id);
 
-        // Проверка существования
-        if (!maintenanceHistoryRepository.existsById(id)) {
-            log.warn("Попытка удалить несуществующую запись об обслуживании с ID: {}", id);
-            throw new MaintenanceHistoryNotFoundException(id);
-        }
+        MaintenanceHistory entity = maintenanceHistoryRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Попытка удалить несуществующую запись об обслуживании с ID: {}", id);
+                    return new MaintenanceHistoryNotFoundException(id);
+                });
 
-        maintenanceHistoryRepository.deleteById(id);
+        maintenanceHistoryRepository.delete(entity);
+        equipmentRepository.adjustMaintenanceCount(entity.getEquipment().getId(), -1);
+        changeLogService.recordDeleted(ChangeLogEntry.MAINTENANCE_HISTORY, id);
         log.info("Запись об обслуживании с ID {} успешно удалена", id);
     }
 
@@ -347,7 +385,7 @@ public class MaintenanceHistoryService {
     public List<MaintenanceHistoryResponseDTO> getByType(String type) {
         log.debug("Получение всех обслуживаний типа: {}", type);
 
-        List<MaintenanceHistory> entities = maintenanceHistoryRepository.findAll().stream()
+        List<MaintenanceHistory> entities = maintenanceHistoryRepository.findAllWithEquipmentAndPerformerBy().stream()
                 .filter(m -> type.equals(m.getType()))
                 .collect(Collectors.toList());
         log.info("Найдено обслуживаний типа '{}': {}", type, entities.size());
@@ -408,6 +446,8 @@ public class MaintenanceHistoryService {
         MaintenanceHistory savedEntity = maintenanceHistoryRepository.save(latestMaintenance);
         log.info("Дата следующего обслуживания установлена: {}", nextDate);
 
-        return maintenanceHistoryMapper.toResponseDTO(savedEntity);
+        MaintenanceHistoryResponseDTO result = maintenanceHistoryMapper.toResponseDTO(savedEntity);
+        changeLogService.recordUpdated(ChangeLogEntry.MAINTENANCE_HISTORY, result.getId(), result);
+        return result;
     }
 }
@@ -0,0 +1,268 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.deviceport.PortStatusHistoryDTO;
+import com.example.netequip.dto.deviceport.PortTimeInStateDTO;
+import com.example.netequip.entity.PortStatusCode;
+import com.example.netequip.entity.PortStatusHistoryChunk;
+import com.example.netequip.exception.InvalidRequestParameterException;
+import com.example.netequip.repository.PortStatusCodeRepository;
+import com.example.netequip.repository.PortStatusHistoryChunkRepository;
+import com.example.netequip.util.StatusHistoryCodec;
+import com.example.netequip.util.StatusHistoryCodec.Transition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * История статусов портов
+ * Хранится блоками на порт: переходы кодируются интервалом и кодом статуса (2–4 байта),
+ * поэтому месяцы истории миллионов портов занимают единицы гигабайт, а в памяти держится
+ * только словарь кодов. Повторная запись того же статуса переходом не считается
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class PortStatusHistoryService {
+
+    private final PortStatusHistoryChunkRepository chunkRepository;
+    private final PortStatusCodeRepository codeRepository;
+    private final TransactionTemplate codeTransaction;
+    private final int chunkMaxBytes;
+    private final long retentionDays;
+
+    private final Map<String, Integer> codesByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesByCode = new ConcurrentHashMap<>();
+
+    public PortStatusHistoryService(PortStatusHistoryChunkRepository chunkRepository,
+                                    PortStatusCodeRepository codeRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${netequip.port-history.chunk-max-bytes:1024}") int chunkMaxBytes,
+                                    @Value("${netequip.port-history.retention-days:180}") long retentionDays) {
+        this.chunkRepository = chunkRepository;
+        this.codeRepository = codeRepository;
+        this.codeTransaction = new TransactionTemplate(transactionManager);
+        this.codeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkMaxBytes = Math.min(chunkMaxBytes, PortStatusHistoryChunk.MAX_DATA_BYTES);
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Запись статуса порта в историю
+     * Выполняется в транзакции изменения порта
+     *
+     * @param portId ID порта
+     * @param status текущий статус (null не записывается)
+     */
+    @Transactional
+    public void record(Long portId, String status) {
+        if (status != null) {
+            recordAll(Map.of(portId, status));
+        }
+    }
+
+    /**
+     * Пакетная запись статусов портов: один запрос открытых блоков на пакет
+     *
+     * @param statuses ID порта → текущий статус
+     */
+    @Transactional
+    public void recordAll(Map<Long, String> statuses) {
+        long now = Instant.now().getEpochSecond();
+        Map<Long, Integer> codes = new TreeMap<>();
+        statuses.forEach((portId, status) -> {
+            if (portId != null && status != null) {
+                codes.put(portId, resolveCode(status));
+            }
+        });
+        if (codes.isEmpty()) {
+            return;
+        }
+
+        Map<Long, PortStatusHistoryChunk> openChunks = new HashMap<>();
+        for (PortStatusHistoryChunk chunk : chunkRepository.findOpenForUpdate(codes.keySet())) {
+            openChunks.putIfAbsent(chunk.getPortId(), chunk);
+        }
+
+        List<PortStatusHistoryChunk> touched = new ArrayList<>();
+        codes.forEach((portId, code) -> {
+            PortStatusHistoryChunk chunk = openChunks.get(portId);
+            if (chunk != null && chunk.getLastCode() == code) {
+                return;
+            }
+            if (chunk == null || chunk.getData().length + StatusHistoryCodec.MAX_ENTRY_BYTES > chunkMaxBytes) {
+                if (chunk != null) {
+                    chunk.setOpen(false);
+                    touched.add(chunk);
+                }
+                chunk = new PortStatusHistoryChunk(null, portId, now, now, code, 0, true, new byte[0]);
+            }
+            long delta = Math.max(0, now - chunk.getLastAt());
+            chunk.setData(StatusHistoryCodec.append(chunk.getData(), delta, code));
+            chunk.setLastAt(chunk.getLastAt() + delta);
+            chunk.setLastCode(code);
+            chunk.setTransitions(chunk.getTransitions() + 1);
+            touched.add(chunk);
+        });
+        chunkRepository.saveAll(touched);
+    }
+
+    /**
+     * Переходы статуса порта за период
+     *
+     * @param portId ID порта
+     * @param from начало периода
+     * @param to конец периода
+     * @return статус на начало периода и переходы внутри периода
+     */
+    public PortStatusHistoryDTO getTransitions(Long portId, LocalDateTime from, LocalDateTime to) {
+        Window window = window(from, to);
+        History history = load(portId, window);
+
+        List<PortStatusHistoryDTO.Transition> transitions = history.inWindow.stream()
+                .map(t -> new PortStatusHistoryDTO.Transition(toDateTime(t.epochSecond()), nameOf(t.code())))
+                .toList();
+        return new PortStatusHistoryDTO(portId, toDateTime(window.from), toDateTime(window.to),
+                history.initial != null ? nameOf(history.initial.code()) : null,
+                transitions.size(), transitions);
+    }
+
+    /**
+     * Время пребывания порта в каждом статусе за период
+     *
+     * @param portId ID порта
+     * @param from начало периода
+     * @param to конец периода
+     * @return статус → секунды
+     */
+    public PortTimeInStateDTO getTimeInState(Long portId, LocalDateTime from, LocalDateTime to) {
+        Window window = window(from, to);
+        History history = load(portId, window);
+
+        Map<String, Long> secondsByStatus = new LinkedHashMap<>();
+        long unknown = 0;
+        Integer state = history.initial != null ? history.initial.code() : null;
+        long cursor = window.from;
+        for (Transition transition : history.inWindow) {
+            long span = transition.epochSecond() - cursor;
+            if (state == null) {
+                unknown += span;
+            } else {
+                secondsByStatus.merge(nameOf(state), span, Long::sum);
+            }
+            state = transition.code();
+            cursor = transition.epochSecond();
+        }
+        long tail = window.to - cursor;
+        if (state == null) {
+            unknown += tail;
+        } else {
+            secondsByStatus.merge(nameOf(state), tail, Long::sum);
+        }
+
+        return new PortTimeInStateDTO(portId, toDateTime(window.from), toDateTime(window.to),
+                secondsByStatus, unknown, history.inWindow.size());
+    }
+
+    /**
+     * Удаление закрытых блоков старше срока хранения
+     * Открытые блоки не удаляются: в них текущий статус порта
+     */
+    @Transactional
+    @Scheduled(cron = "${netequip.port-history.cleanup-cron:0 45 3 * * *}")
+    public void purgeExpired() {
+        long cutoff = Instant.now().minus(Duration.ofDays(retentionDays)).getEpochSecond();
+        int deleted = chunkRepository.deleteClosedBefore(cutoff);
+        log.info("Очистка истории статусов портов: удалено блоков {}", deleted);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private record Window(long from, long to) {
+    }
+
+    private record History(Transition initial, List<Transition> inWindow) {
+    }
+
+    private Window window(LocalDateTime from, LocalDateTime to) {
+        long now = Instant.now().getEpochSecond();
+        long toSecond = to != null ? Math.min(toEpochSecond(to), now) : now;
+        long fromSecond = from != null ? toEpochSecond(from) : toSecond - Duration.ofDays(7).toSeconds();
+        if (fromSecond >= toSecond) {
+            throw new InvalidRequestParameterException("Начало периода должно быть раньше конца");
+        }
+        return new Window(fromSecond, toSecond);
+    }
+
+    private History load(Long portId, Window window) {
+        List<PortStatusHistoryChunk> chunks = new ArrayList<>();
+        chunkRepository.findFirstByPortIdAndFirstAtLessThanEqualOrderByFirstAtDescIdDesc(portId, window.from)
+                .ifPresent(chunks::add);
+        chunks.addAll(chunkRepository.findByPortIdAndFirstAtGreaterThanAndFirstAtLessThanOrderByFirstAtAscIdAsc(
+                portId, window.from, window.to));
+
+        Transition initial = null;
+        List<Transition> inWindow = new ArrayList<>();
+        for (PortStatusHistoryChunk chunk : chunks) {
+            for (Transition transition : StatusHistoryCodec.decode(chunk.getData(), chunk.getFirstAt())) {
+                if (transition.epochSecond() <= window.from) {
+                    initial = transition;
+                } else if (transition.epochSecond() < window.to) {
+                    inWindow.add(transition);
+                }
+            }
+        }
+        inWindow.sort(Comparator.comparingLong(Transition::epochSecond));
+        return new History(initial, inWindow);
+    }
+
+    private int resolveCode(String status) {
+        Integer code = codesByName.get(status);
+        if (code != null) {
+            return code;
+        }
+        PortStatusCode entity;
+        try {
+            entity = codeTransaction.execute(tx -> codeRepository.findByName(status)
+                    .orElseGet(() -> codeRepository.saveAndFlush(new PortStatusCode(null, status))));
+        } catch (DataIntegrityViolationException e) {
+            // Код уже добавлен параллельной транзакцией
+            entity = codeTransaction.execute(tx -> codeRepository.findByName(status).orElseThrow(() -> e));
+        }
+        cache(entity);
+        return entity.getId();
+    }
+
+    private String nameOf(int code) {
+        String name = namesByCode.get(code);
+        if (name == null) {
+            name = codeRepository.findById(code).map(entity -> {
+                cache(entity);
+                return entity.getName();
+            }).orElse("#" + code);
+        }
+        return name;
+    }
+
+    private void cache(PortStatusCode entity) {
+        codesByName.put(entity.getName(), entity.getId());
+        namesByCode.put(entity.getId(), entity.getName());
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+}
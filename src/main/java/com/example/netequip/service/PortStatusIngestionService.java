@@ -0,0 +1,336 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.deviceport.PortStatusBulkResponseDTO;
+import com.example.netequip.dto.deviceport.PortStatusIngestionStatsDTO;
+import com.example.netequip.dto.deviceport.PortStatusUpdateDTO;
+import com.example.netequip.entity.ChangeLogEntry;
+import com.example.netequip.entity.DevicePort;
+import com.example.netequip.event.StatusChangeEvent;
+import com.example.netequip.exception.BatchLimitExceededException;
+import com.example.netequip.exception.deviceport.PortStatusBacklogFullException;
+import com.example.netequip.mapper.DevicePortMapper;
+import com.example.netequip.repository.DevicePortRepository;
+import com.example.netequip.repository.DevicePortRepository.PortStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Приём телеметрии статусов портов с отложенной записью
+ * Наблюдения складываются в ограниченный буфер portId → последний статус, поэтому
+ * повторные опросы одного порта до выгрузки сливаются. Выгрузка по расписанию
+ * читает текущие статусы порциями (только id и status), отбрасывает совпадающие и применяет
+ * только реальные изменения пакетными UPDATE ... WHERE id IN по каждому статусу;
+ * сущности портов загружаются лишь для изменившихся — ради ленты изменений и событий.
+ * Порция, отклонённая БД из-за данных, делится пополам до виновного порта; временные сбои
+ * повторяются ограниченное число раз, после чего наблюдения отбрасываются
+ */
+@Slf4j
+@Service
+public class PortStatusIngestionService {
+
+    private final DevicePortRepository devicePortRepository;
+    private final DevicePortMapper devicePortMapper;
+    private final ChangeLogService changeLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PortStatusHistoryService portStatusHistoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final int bufferCapacity;
+    private final int maxBatch;
+    private final int flushBatchSize;
+    private final int maxAttempts;
+
+    // Приём берёт read-блокировку (параллельно), выгрузка — write-блокировку на подмену буфера
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private ConcurrentHashMap<Long, String> pending = new ConcurrentHashMap<>();
+    // Занятые и зарезервированные принимаемыми пакетами места буфера; вне приёма равно pending.size()
+    private final AtomicInteger reserved = new AtomicInteger();
+    // Неудачные попытки выгрузки по портам, возвращённым в буфер
+    private final Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder unknownPorts = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder requeueDropped = new LongAdder();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+    private volatile int lastFlushSize;
+    private volatile long lastFlushMillis;
+    private volatile LocalDateTime lastFlushAt;
+
+    public PortStatusIngestionService(DevicePortRepository devicePortRepository,
+                                      DevicePortMapper devicePortMapper,
+                                      ChangeLogService changeLogService,
+                                      ApplicationEventPublisher eventPublisher,
+                                      PortStatusHistoryService portStatusHistoryService,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${netequip.port-status.buffer-capacity:500000}") int bufferCapacity,
+                                      @Value("${netequip.port-status.max-batch:10000}") int maxBatch,
+                                      @Value("${netequip.port-status.flush-batch-size:1000}") int flushBatchSize,
+                                      @Value("${netequip.port-status.max-attempts:5}") int maxAttempts) {
+        this.devicePortRepository = devicePortRepository;
+        this.devicePortMapper = devicePortMapper;
+        this.changeLogService = changeLogService;
+        this.eventPublisher = eventPublisher;
+        this.portStatusHistoryService = portStatusHistoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.bufferCapacity = bufferCapacity;
+        this.maxBatch = maxBatch;
+        this.flushBatchSize = flushBatchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Приём пакета наблюдений статуса
+     *
+     * @param updates наблюдения (portId, status)
+     * @return количество принятых и слитых наблюдений
+     * @throws BatchLimitExceededException если пакет больше допустимого
+     * @throws PortStatusBacklogFullException если буфер не вмещает пакет
+     */
+    public PortStatusBulkResponseDTO submit(List<PortStatusUpdateDTO> updates) {
+        if (updates.size() > maxBatch) {
+            throw new BatchLimitExceededException(updates.size(), maxBatch);
+        }
+
+        int merged = 0;
+        int backlog;
+        swapLock.readLock().lock();
+        try {
+            // Место резервируется по верхней оценке атомарно: параллельные пакеты не превышают ёмкость,
+            // пакет целиком либо принимается, либо отклоняется. Слитые наблюдения место освобождают
+            int after = reserved.addAndGet(updates.size());
+            if (after > bufferCapacity) {
+                reserved.addAndGet(-updates.size());
+                throw new PortStatusBacklogFullException(after - updates.size(), bufferCapacity);
+            }
+            for (PortStatusUpdateDTO update : updates) {
+                if (pending.put(update.getPortId(), update.getStatus()) != null) {
+                    merged++;
+                }
+            }
+            reserved.addAndGet(-merged);
+            backlog = pending.size();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+
+        received.add(updates.size());
+        coalesced.add(merged);
+        log.debug("Принято статусов портов: {}, слито: {}, в буфере: {}", updates.size(), merged, backlog);
+        return new PortStatusBulkResponseDTO(updates.size(), merged, backlog);
+    }
+
+    /**
+     * Выгрузка буфера в БД
+     * Порции выполняются в отдельных транзакциях; при временном сбое порция возвращается
+     * в буфер, если за это время для её портов не пришли более свежие статусы и в буфере есть место
+     */
+    @Scheduled(fixedDelayString = "${netequip.port-status.flush-interval-ms:1000}")
+    public void flush() {
+        Map<Long, String> batch;
+        swapLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ConcurrentHashMap<>();
+            reserved.set(0);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        long started = System.nanoTime();
+        List<Map.Entry<Long, String>> entries = new ArrayList<>(batch.entrySet());
+        for (int from = 0; from < entries.size(); from += flushBatchSize) {
+            Map<Long, String> chunk = new HashMap<>();
+            for (Map.Entry<Long, String> entry : entries.subList(from, Math.min(from + flushBatchSize, entries.size()))) {
+                chunk.put(entry.getKey(), entry.getValue());
+            }
+            flushChunk(chunk);
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        lastFlushSize = entries.size();
+        lastFlushMillis = millis;
+        lastFlushAt = LocalDateTime.now();
+        maxFlushMillis.accumulateAndGet(millis, Math::max);
+        log.debug("Выгрузка статусов портов: {} за {} мс", entries.size(), millis);
+    }
+
+    /**
+     * Текущая статистика приёма
+     */
+    public PortStatusIngestionStatsDTO getStats() {
+        long receivedTotal = received.sum();
+        long coalescedTotal = coalesced.sum();
+        return new PortStatusIngestionStatsDTO(
+                getBacklog(),
+                bufferCapacity,
+                receivedTotal,
+                coalescedTotal,
+                receivedTotal > 0 ? (double) coalescedTotal / receivedTotal : 0.0,
+                applied.sum(),
+                unchanged.sum(),
+                unknownPorts.sum(),
+                failedFlushes.sum(),
+                deadLettered.sum(),
+                requeueDropped.sum(),
+                lastFlushSize,
+                lastFlushMillis,
+                maxFlushMillis.get(),
+                lastFlushAt
+        );
+    }
+
+    /**
+     * Портов в буфере
+     */
+    public int getBacklog() {
+        swapLock.readLock().lock();
+        try {
+            return pending.size();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void flushChunk(Map<Long, String> chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyChunk(chunk));
+            if (!attempts.isEmpty()) {
+                attempts.keySet().removeAll(chunk.keySet());
+            }
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            if (!isTransient(e) && chunk.size() > 1) {
+                // Повтор той же порции упадёт снова: делим пополам, чтобы применить остальные порты
+                log.warn("Порция статусов {} портов отклонена БД, делим пополам: {}", chunk.size(), e.getMessage());
+                List<Long> ids = new ArrayList<>(chunk.keySet());
+                int half = ids.size() / 2;
+                flushChunk(slice(chunk, ids.subList(0, half)));
+                flushChunk(slice(chunk, ids.subList(half, ids.size())));
+                return;
+            }
+            retryOrDrop(chunk, e);
+        }
+    }
+
+    private void retryOrDrop(Map<Long, String> chunk, RuntimeException e) {
+        boolean retryable = isTransient(e);
+        Map<Long, String> retry = new HashMap<>();
+        for (Map.Entry<Long, String> entry : chunk.entrySet()) {
+            if (retryable && attempts.merge(entry.getKey(), 1, Integer::sum) < maxAttempts) {
+                retry.put(entry.getKey(), entry.getValue());
+            } else {
+                attempts.remove(entry.getKey());
+            }
+        }
+
+        int dropped = chunk.size() - retry.size();
+        if (dropped > 0) {
+            deadLettered.add(dropped);
+            log.error("Статусы {} портов отброшены: {}", dropped,
+                    retryable ? "исчерпаны попытки выгрузки" : "отклонены БД " + chunk.keySet(), e);
+        }
+        if (!retry.isEmpty()) {
+            log.warn("Ошибка выгрузки статусов {} портов, порция возвращена в буфер: {}", retry.size(), e.getMessage());
+            requeue(retry);
+        }
+    }
+
+    private void applyChunk(Map<Long, String> chunk) {
+        List<PortStatus> current = devicePortRepository.findStatusByIdIn(chunk.keySet());
+
+        Map<String, List<Long>> idsByStatus = new HashMap<>();
+        Map<Long, String> changedStatuses = new HashMap<>();
+        for (PortStatus port : current) {
+            String newStatus = chunk.get(port.getId());
+            if (newStatus.equals(port.getStatus())) {
+                continue;
+            }
+            idsByStatus.computeIfAbsent(newStatus, s -> new ArrayList<>()).add(port.getId());
+            changedStatuses.put(port.getId(), newStatus);
+        }
+        if (!changedStatuses.isEmpty()) {
+            // Снимки для ленты и события строятся по сущностям, поэтому загружаются только изменившиеся порты
+            List<DevicePort> changed = devicePortRepository.findByIdIn(changedStatuses.keySet());
+            idsByStatus.forEach(devicePortRepository::updateStatusByIdIn);
+
+            // После UPDATE порты отсоединены от контекста — новый статус проставляется только для ленты и событий
+            for (DevicePort port : changed) {
+                port.setStatus(changedStatuses.get(port.getId()));
+                changeLogService.recordStatusChanged(ChangeLogEntry.DEVICE_PORT, port.getId(),
+                        devicePortMapper.toResponseDTO(port));
+                eventPublisher.publishEvent(StatusChangeEvent.of(port, StatusChangeEvent.STATUS_CHANGED));
+            }
+            portStatusHistoryService.recordAll(changedStatuses);
+        }
+
+        applied.add(changedStatuses.size());
+        unchanged.add(current.size() - changedStatuses.size());
+        unknownPorts.add(chunk.size() - current.size());
+    }
+
+    private void requeue(Map<Long, String> chunk) {
+        int overflow = 0;
+        swapLock.readLock().lock();
+        try {
+            for (Map.Entry<Long, String> entry : chunk.entrySet()) {
+                // Место резервируется так же, как при приёме: возврат не выводит буфер за ёмкость
+                if (reserved.incrementAndGet() > bufferCapacity) {
+                    reserved.decrementAndGet();
+                    attempts.remove(entry.getKey());
+                    overflow++;
+                } else if (pending.putIfAbsent(entry.getKey(), entry.getValue()) != null) {
+                    // Пришёл более свежий статус — он выгружается с чистого листа
+                    reserved.decrementAndGet();
+                    attempts.remove(entry.getKey());
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+
+        if (overflow > 0) {
+            requeueDropped.add(overflow);
+            log.error("Буфер статусов портов заполнен, не возвращено наблюдений: {}", overflow);
+        }
+    }
+
+    private static Map<Long, String> slice(Map<Long, String> chunk, List<Long> ids) {
+        Map<Long, String> part = new HashMap<>();
+        for (Long id : ids) {
+            part.put(id, chunk.get(id));
+        }
+        return part;
+    }
+
+    // Сбои, не связанные с содержимым порции: повтор позже может пройти
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+}
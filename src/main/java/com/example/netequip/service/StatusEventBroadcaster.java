@@ -0,0 +1,208 @@
+package com.example.netequip.service;
+
+import com.example.netequip.entity.ChangeLogEntry;
+import com.example.netequip.event.StatusChangeEvent;
+import com.example.netequip.exception.SubscriberLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Рассылка событий статуса подписчикам SSE
+ * События принимаются только после коммита транзакции. У каждого подписчика своя
+ * ограниченная очередь: события одной сущности сливаются, при переполнении вытесняется
+ * самое старое и клиенту отправляется уведомление overflow. Очередь разбирает
+ * отдельный виртуальный поток, поэтому медленный клиент не задерживает остальных,
+ * а тысячи простаивающих подписчиков почти не занимают ресурсов
+ */
+@Slf4j
+@Component
+public class StatusEventBroadcaster {
+
+    private final int bufferSize;
+    private final long heartbeatMillis;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMillis;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public StatusEventBroadcaster(@Value("${netequip.events.buffer-size:256}") int bufferSize,
+                                  @Value("${netequip.events.heartbeat-seconds:25}") long heartbeatSeconds,
+                                  @Value("${netequip.events.max-subscribers:10000}") int maxSubscribers,
+                                  @Value("${netequip.events.emitter-timeout-minutes:60}") long emitterTimeoutMinutes) {
+        this.bufferSize = bufferSize;
+        this.heartbeatMillis = TimeUnit.SECONDS.toMillis(heartbeatSeconds);
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMillis = TimeUnit.MINUTES.toMillis(emitterTimeoutMinutes);
+    }
+
+    /**
+     * Фильтр подписчика; пустой набор означает "без ограничения"
+     *
+     * @param entityTypes equipment и/или device_port
+     * @param statuses статусы
+     * @param typeIds ID типов оборудования
+     * @param equipmentIds ID оборудования
+     */
+    public record Filter(Set<String> entityTypes, Set<String> statuses, Set<Long> typeIds, Set<Long> equipmentIds) {
+
+        boolean matches(StatusChangeEvent event) {
+            return (entityTypes.isEmpty() || entityTypes.contains(event.entityType()))
+                    && (statuses.isEmpty() || statuses.contains(event.status()))
+                    && (typeIds.isEmpty() || typeIds.contains(event.typeId()))
+                    && (equipmentIds.isEmpty() || equipmentIds.contains(event.equipmentId()));
+        }
+    }
+
+    /**
+     * Регистрация нового подписчика
+     *
+     * @param filter фильтр событий
+     * @return emitter для возврата из контроллера
+     * @throws SubscriberLimitExceededException если достигнут лимит подписчиков
+     */
+    public SseEmitter subscribe(Filter filter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new SubscriberLimitExceededException(maxSubscribers);
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+
+        Thread.ofVirtual()
+                .name("sse-status-" + sequence.incrementAndGet())
+                .start(subscriber::drain);
+        log.debug("Новый подписчик событий статуса, всего: {}", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Приём события после успешного коммита и раскладка по очередям подписчиков
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStatusChange(StatusChangeEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter.matches(event)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Количество активных подписчиков
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // ========== SUBSCRIBER ==========
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Filter filter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        // Ключ слияния → последнее событие; порядок — порядок первого появления
+        private final LinkedHashMap<String, StatusChangeEvent> pending = new LinkedHashMap<>();
+        private long dropped;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter, Filter filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+
+        private void offer(StatusChangeEvent event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                String key = event.coalesceKey();
+                if (!pending.containsKey(key) && pending.size() >= bufferSize) {
+                    // Вытесняем самое старое событие
+                    Iterator<String> oldest = pending.keySet().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    dropped++;
+                }
+                pending.put(key, event);
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void close() {
+            lock.lock();
+            try {
+                closed = true;
+                pending.clear();
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    List<StatusChangeEvent> batch;
+                    long overflow;
+                    lock.lock();
+                    try {
+                        if (pending.isEmpty() && !closed) {
+                            changed.await(heartbeatMillis, TimeUnit.MILLISECONDS);
+                        }
+                        if (closed) {
+                            return;
+                        }
+                        batch = new ArrayList<>(pending.values());
+                        pending.clear();
+                        overflow = dropped;
+                        dropped = 0;
+                    } finally {
+                        lock.unlock();
+                    }
+
+                    if (overflow > 0) {
+                        emitter.send(SseEmitter.event().name("overflow").data(Map.of("dropped", overflow)));
+                    }
+                    for (StatusChangeEvent event : batch) {
+                        emitter.send(SseEmitter.event()
+                                .name(ChangeLogEntry.EQUIPMENT.equals(event.entityType()) ? "equipment" : "port")
+                                .data(event));
+                    }
+                    if (batch.isEmpty() && overflow == 0) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Подписчик событий статуса отключился: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } finally {
+                close();
+            }
+        }
+    }
+}
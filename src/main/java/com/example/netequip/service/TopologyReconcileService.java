@@ -0,0 +1,334 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.deviceport.DevicePortResponseDTO;
+import com.example.netequip.dto.topology.DiscoveredLinkDTO;
+import com.example.netequip.dto.topology.TopologyReconcileRequestDTO;
+import com.example.netequip.dto.topology.TopologyReconcileResultDTO;
+import com.example.netequip.dto.topology.TopologyReconcileResultDTO.Link;
+import com.example.netequip.dto.topology.TopologyReconcileResultDTO.Mismatch;
+import com.example.netequip.entity.ChangeLogEntry;
+import com.example.netequip.event.StatusChangeEvent;
+import com.example.netequip.exception.BatchLimitExceededException;
+import com.example.netequip.mapper.DevicePortMapper;
+import com.example.netequip.repository.TopologyRepository;
+import com.example.netequip.repository.TopologyRepository.Connection;
+import com.example.netequip.repository.TopologyRepository.PortLink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Сверка сохранённых подключений портов с обнаруженной топологией (LLDP/CDP)
+ * Все порты области загружаются одним проходом, разница вычисляется в памяти
+ * как разность множеств неориентированных связей и применяется пакетными UPDATE.
+ * Применённые связи записываются в оба порта (connectPorts заполняет только исходный).
+ * Разница применяется порциями по chunk-size портов, каждая в своей транзакции вместе
+ * с записями журнала и событиями: между порциями виден промежуточный результат,
+ * а прерванную сверку достаточно повторить — уже применённые порции дадут «без изменений»
+ */
+@Slf4j
+@Service
+public class TopologyReconcileService {
+
+    private final TopologyRepository topologyRepository;
+    private final DevicePortMapper devicePortMapper;
+    private final ChangeLogService changeLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLinks;
+    private final int detailLimit;
+    private final int chunkSize;
+
+    public TopologyReconcileService(TopologyRepository topologyRepository,
+                                    DevicePortMapper devicePortMapper,
+                                    ChangeLogService changeLogService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${netequip.topology.max-links:500000}") int maxLinks,
+                                    @Value("${netequip.topology.detail-limit:1000}") int detailLimit,
+                                    @Value("${netequip.topology.chunk-size:5000}") int chunkSize) {
+        this.topologyRepository = topologyRepository;
+        this.devicePortMapper = devicePortMapper;
+        this.changeLogService = changeLogService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.maxLinks = maxLinks;
+        this.detailLimit = detailLimit;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Сверка и (если не dryRun) применение разницы
+     *
+     * @param request обнаруженные связи, область сверки и режим
+     * @return счётчики и примеры расхождений
+     * @throws BatchLimitExceededException если связей больше допустимого
+     */
+    public TopologyReconcileResultDTO reconcile(TopologyReconcileRequestDTO request) {
+        List<DiscoveredLinkDTO> links = request.getLinks();
+        if (links.size() > maxLinks) {
+            throw new BatchLimitExceededException(links.size(), maxLinks);
+        }
+        Set<Long> scope = request.getEquipmentIds() != null
+                ? BatchResolveSupport.distinct(request.getEquipmentIds())
+                : null;
+        log.info("Сверка топологии: связей {}, область {}, dryRun={}", links.size(),
+                scope != null ? scope.size() + " ед. оборудования" : "вся сеть", request.isDryRun());
+
+        TopologyReconcileResultDTO result = new TopologyReconcileResultDTO();
+        result.setDryRun(request.isDryRun());
+        result.setAddedLinks(new ArrayList<>());
+        result.setRemovedLinks(new ArrayList<>());
+        result.setMismatches(new ArrayList<>());
+        result.setUnresolvedLinks(new ArrayList<>());
+        result.setRejectedLinks(new ArrayList<>());
+
+        Ports ports = loadPorts(links, scope);
+
+        // Обнаруженные связи → неориентированные пары (a < b)
+        Map<Link, DiscoveredLinkDTO> pairs = new LinkedHashMap<>();
+        Map<Long, Long> firstPeer = new HashMap<>();
+        Set<Long> conflicted = new HashSet<>();
+        for (DiscoveredLinkDTO discovered : links) {
+            Long local = ports.idsByKey.get(key(discovered.getLocalEquipmentId(), discovered.getLocalPortNumber()));
+            Long remote = ports.idsByKey.get(key(discovered.getRemoteEquipmentId(), discovered.getRemotePortNumber()));
+            if (local == null || remote == null) {
+                result.setUnresolved(result.getUnresolved() + 1);
+                addDetail(result.getUnresolvedLinks(), discovered);
+                continue;
+            }
+            if (discovered.getLocalEquipmentId().equals(discovered.getRemoteEquipmentId())) {
+                reject(result, discovered);
+                continue;
+            }
+            Link pair = local < remote ? new Link(local, remote) : new Link(remote, local);
+            if (pairs.putIfAbsent(pair, discovered) == null) {
+                markPeer(firstPeer, conflicted, pair.getPortId(), pair.getPeerPortId());
+                markPeer(firstPeer, conflicted, pair.getPeerPortId(), pair.getPortId());
+            }
+        }
+
+        // Порт не может быть подключён к двум соседям — все связи таких портов отклоняются
+        Map<Long, Long> desired = new HashMap<>();
+        List<Link> accepted = new ArrayList<>();
+        for (Map.Entry<Link, DiscoveredLinkDTO> entry : pairs.entrySet()) {
+            Link pair = entry.getKey();
+            if (conflicted.contains(pair.getPortId()) || conflicted.contains(pair.getPeerPortId())) {
+                reject(result, entry.getValue());
+                continue;
+            }
+            desired.put(pair.getPortId(), pair.getPeerPortId());
+            desired.put(pair.getPeerPortId(), pair.getPortId());
+            accepted.add(pair);
+        }
+        result.setDiscovered(pairs.size());
+
+        // Текущие связи без учёта направления
+        Map<Long, Long> currentPeer = new HashMap<>();
+        for (PortLink port : ports.byId.values()) {
+            if (port.peerId() != null) {
+                currentPeer.putIfAbsent(port.id(), port.peerId());
+                currentPeer.putIfAbsent(port.peerId(), port.id());
+            }
+        }
+
+        classifyDiscovered(result, accepted, desired, currentPeer);
+        classifyStored(result, ports, scope, desired, conflicted);
+
+        // Итоговое состояние каждого загруженного порта
+        List<Long> clears = new ArrayList<>();
+        List<Connection> sets = new ArrayList<>();
+        for (PortLink port : ports.byId.values()) {
+            Long target = targetPeer(port, ports, scope, desired, conflicted);
+            if (Objects.equals(target, port.peerId())) {
+                continue;
+            }
+            if (target == null) {
+                clears.add(port.id());
+            } else {
+                sets.add(new Connection(port.id(), ports.byId.get(target).equipmentId(), target));
+            }
+        }
+        result.setPortsUpdated(clears.size() + sets.size());
+
+        if (!request.isDryRun() && result.getPortsUpdated() > 0) {
+            // Сначала отключения: новые связи не должны встретить порт с ещё не снятой старой
+            for (List<Long> chunk : chunks(clears)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    topologyRepository.clearConnections(chunk);
+                    publishChanges(chunk);
+                });
+            }
+            for (List<Connection> chunk : chunks(sets)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    topologyRepository.setConnections(chunk);
+                    publishChanges(chunk.stream().map(Connection::portId).toList());
+                });
+            }
+        }
+
+        log.info("Сверка топологии завершена: без изменений {}, добавлено {}, удалено {}, расхождений {}, " +
+                        "не распознано {}, отклонено {}, портов {} {}",
+                result.getUnchanged(), result.getAdded(), result.getRemoved(), result.getMismatched(),
+                result.getUnresolved(), result.getRejected(), result.getPortsUpdated(),
+                request.isDryRun() ? "(dry run)" : "изменено");
+        return result;
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static final class Ports {
+        private final Map<Long, PortLink> byId = new HashMap<>();
+        private final Map<Long, Long> idsByKey = new HashMap<>();
+
+        private void add(PortLink port) {
+            byId.put(port.id(), port);
+            idsByKey.put(key(port.equipmentId(), port.portNumber()), port.id());
+        }
+    }
+
+    private Ports loadPorts(List<DiscoveredLinkDTO> links, Set<Long> scope) {
+        Ports ports = new Ports();
+        Consumer<PortLink> collect = ports::add;
+        if (scope == null) {
+            topologyRepository.forEachPort(collect);
+            return ports;
+        }
+
+        Set<Long> equipmentIds = new HashSet<>(scope);
+        for (DiscoveredLinkDTO link : links) {
+            equipmentIds.add(link.getLocalEquipmentId());
+            equipmentIds.add(link.getRemoteEquipmentId());
+        }
+        topologyRepository.forEachPortOfEquipment(equipmentIds, collect);
+
+        Set<Long> missingPeers = new HashSet<>();
+        for (PortLink port : ports.byId.values()) {
+            if (port.peerId() != null && !ports.byId.containsKey(port.peerId())) {
+                missingPeers.add(port.peerId());
+            }
+        }
+        topologyRepository.forEachPortById(missingPeers, collect);
+        return ports;
+    }
+
+    private void classifyDiscovered(TopologyReconcileResultDTO result, List<Link> accepted,
+                                    Map<Long, Long> desired, Map<Long, Long> currentPeer) {
+        for (Link pair : accepted) {
+            Long a = pair.getPortId();
+            Long b = pair.getPeerPortId();
+            if (b.equals(currentPeer.get(a)) || a.equals(currentPeer.get(b))) {
+                result.setUnchanged(result.getUnchanged() + 1);
+            } else if (currentPeer.containsKey(a) || currentPeer.containsKey(b)) {
+                for (Long port : List.of(a, b)) {
+                    Long current = currentPeer.get(port);
+                    if (current != null) {
+                        result.setMismatched(result.getMismatched() + 1);
+                        addDetail(result.getMismatches(), new Mismatch(port, current, desired.get(port)));
+                    }
+                }
+            } else {
+                result.setAdded(result.getAdded() + 1);
+                addDetail(result.getAddedLinks(), pair);
+            }
+        }
+    }
+
+    private void classifyStored(TopologyReconcileResultDTO result, Ports ports, Set<Long> scope,
+                                Map<Long, Long> desired, Set<Long> conflicted) {
+        Set<Link> seen = new HashSet<>();
+        for (PortLink port : ports.byId.values()) {
+            Long peer = port.peerId();
+            if (peer == null) {
+                continue;
+            }
+            Link pair = port.id() < peer ? new Link(port.id(), peer) : new Link(peer, port.id());
+            if (!seen.add(pair)) {
+                continue;
+            }
+            PortLink peerPort = ports.byId.get(peer);
+            boolean inScope = isManaged(port, scope) || (peerPort != null && isManaged(peerPort, scope));
+            if (inScope
+                    && !desired.containsKey(port.id()) && !desired.containsKey(peer)
+                    && !conflicted.contains(port.id()) && !conflicted.contains(peer)) {
+                result.setRemoved(result.getRemoved() + 1);
+                addDetail(result.getRemovedLinks(), pair);
+            }
+        }
+    }
+
+    private Long targetPeer(PortLink port, Ports ports, Set<Long> scope,
+                            Map<Long, Long> desired, Set<Long> conflicted) {
+        if (desired.containsKey(port.id())) {
+            return desired.get(port.id());
+        }
+        Long current = port.peerId();
+        if (current == null) {
+            return null;
+        }
+        if (!conflicted.contains(port.id()) && isManaged(port, scope)) {
+            return null;
+        }
+        // Порт вне области сохраняет связь, только если сосед остаётся подключён к нему
+        PortLink peer = ports.byId.get(current);
+        if (peer == null) {
+            return current;
+        }
+        boolean peerReassigned = desired.containsKey(current) && !desired.get(current).equals(port.id());
+        boolean peerCleared = !desired.containsKey(current) && !conflicted.contains(current) && isManaged(peer, scope);
+        return peerReassigned || peerCleared ? null : current;
+    }
+
+    private void publishChanges(List<Long> changed) {
+        topologyRepository.forEachPortEntity(changed, port -> {
+            DevicePortResponseDTO dto = devicePortMapper.toResponseDTO(port);
+            changeLogService.recordUpdated(ChangeLogEntry.DEVICE_PORT, dto.getId(), dto);
+            eventPublisher.publishEvent(StatusChangeEvent.of(port, port.getConnectedToPort() != null
+                    ? StatusChangeEvent.CONNECTED
+                    : StatusChangeEvent.DISCONNECTED));
+        });
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> result = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            result.add(items.subList(from, Math.min(from + chunkSize, items.size())));
+        }
+        return result;
+    }
+
+    private static void markPeer(Map<Long, Long> firstPeer, Set<Long> conflicted, Long port, Long peer) {
+        Long existing = firstPeer.putIfAbsent(port, peer);
+        if (existing != null && !existing.equals(peer)) {
+            conflicted.add(port);
+        }
+    }
+
+    private void reject(TopologyReconcileResultDTO result, DiscoveredLinkDTO link) {
+        result.setRejected(result.getRejected() + 1);
+        addDetail(result.getRejectedLinks(), link);
+    }
+
+    private <T> void addDetail(List<T> details, T item) {
+        if (details.size() < detailLimit) {
+            details.add(item);
+        }
+    }
+
+    private static boolean isManaged(PortLink port, Set<Long> scope) {
+        return scope == null || scope.contains(port.equipmentId());
+    }
+
+    /**
+     * Ключ порта (оборудование, номер): номер занимает младшие 32 бита целиком,
+     * поэтому разные номера одного оборудования не совпадают
+     */
+    private static long key(long equipmentId, int portNumber) {
+        return (equipmentId << 32) | (portNumber & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.netequip.util;
+
+import com.example.netequip.exception.PreconditionFailedException;
+
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Сильные ETag по версиям сущностей
+ * ETag документа составляется из версии самой сущности, версий сущностей, чьи поля
+ * попадают в документ (название типа, имя сотрудника и т.п.), и денормализованных счётчиков,
+ * поэтому меняется при изменении любой из этих частей. Отсутствующая связь даёт 0
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * ETag из версий
+     *
+     * @param versions версии документа и связанных сущностей, счётчики (null — связи нет)
+     * @return значение в кавычках, например "3.1.0"
+     */
+    public static String of(Number... versions) {
+        StringJoiner tag = new StringJoiner(".", "\"", "\"");
+        for (Number version : versions) {
+            tag.add(String.valueOf(version != null ? version : 0));
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Проверка заголовка If-Match (сильное сравнение; "*" совпадает с любой версией)
+     *
+     * @param ifMatch значение заголовка (null — проверка не требуется)
+     * @param currentTag текущий ETag ресурса; вычисляется, только если заголовок передан
+     * @throws PreconditionFailedException если ни одно значение не совпало
+     */
+    public static void requireMatch(String ifMatch, Supplier<String> currentTag) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+        String current = currentTag.get();
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(current)) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException("Ресурс изменён: текущая версия " + current + ", ожидалась " + ifMatch);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.netequip.util;
+
+import com.example.netequip.entity.Location;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Разбор свободного адреса оборудования в иерархию расположения
+ * Адрес делится на части по запятым и ';'. Части с ключевым словом уровня
+ * (корпус, этаж, помещение, стойка и их сокращения) становятся узлами этих уровней,
+ * всё, что стоит до первой такой части, — площадкой (город, улица, дом).
+ * Пример: "г. Москва, ул. Ленина, д. 5, корп. B, эт. 3, стойка 12" →
+ * /г.-москва,ул.-ленина,д.-5/корпус-b/этаж-3/стойка-12/
+ */
+public final class LocationParser {
+
+    // Предельная длина ключа одного уровня в пути; имя уровня ограничено длиной колонки
+    private static final int MAX_SLUG_LENGTH = 100;
+
+    private static final Map<String, Location.Level> KEYWORDS = Map.ofEntries(
+            Map.entry("корпус", Location.Level.BUILDING),
+            Map.entry("корп", Location.Level.BUILDING),
+            Map.entry("здание", Location.Level.BUILDING),
+            Map.entry("строение", Location.Level.BUILDING),
+            Map.entry("стр", Location.Level.BUILDING),
+            Map.entry("building", Location.Level.BUILDING),
+            Map.entry("bldg", Location.Level.BUILDING),
+            Map.entry("этаж", Location.Level.FLOOR),
+            Map.entry("эт", Location.Level.FLOOR),
+            Map.entry("floor", Location.Level.FLOOR),
+            Map.entry("fl", Location.Level.FLOOR),
+            Map.entry("помещение", Location.Level.ROOM),
+            Map.entry("пом", Location.Level.ROOM),
+            Map.entry("кабинет", Location.Level.ROOM),
+            Map.entry("каб", Location.Level.ROOM),
+            Map.entry("комната", Location.Level.ROOM),
+            Map.entry("комн", Location.Level.ROOM),
+            Map.entry("серверная", Location.Level.ROOM),
+            Map.entry("room", Location.Level.ROOM),
+            Map.entry("стойка", Location.Level.RACK),
+            Map.entry("шкаф", Location.Level.RACK),
+            Map.entry("rack", Location.Level.RACK)
+    );
+
+    private static final Map<Location.Level, String> LABELS = Map.of(
+            Location.Level.BUILDING, "Корпус",
+            Location.Level.FLOOR, "Этаж",
+            Location.Level.ROOM, "Помещение",
+            Location.Level.RACK, "Стойка"
+    );
+
+    private LocationParser() {
+    }
+
+    /**
+     * Уровень расположения
+     *
+     * @param level уровень иерархии
+     * @param name отображаемое имя
+     * @param slug нормализованный ключ для пути
+     */
+    public record Segment(Location.Level level, String name, String slug) {
+    }
+
+    /**
+     * Разбор адреса
+     *
+     * @param address свободный адрес
+     * @return уровни от площадки вглубь; пустой список для пустого адреса.
+     * Уровни идут строго вглубь: повтор или возврат к более высокому уровню отбрасывается
+     */
+    public static List<Segment> parse(String address) {
+        List<Segment> segments = new ArrayList<>();
+        if (address == null || address.isBlank()) {
+            return segments;
+        }
+
+        List<String> siteParts = new ArrayList<>();
+        Location.Level deepest = null;
+        for (String raw : address.split("[,;]")) {
+            String part = raw.trim().replaceAll("\\s+", " ");
+            if (part.isEmpty()) {
+                continue;
+            }
+            Location.Level level = levelOf(part);
+            if (level == null) {
+                if (deepest == null) {
+                    siteParts.add(part);
+                }
+                continue;
+            }
+            if (deepest == null && !siteParts.isEmpty()) {
+                segments.add(site(siteParts));
+            }
+            if (deepest != null && level.ordinal() <= deepest.ordinal()) {
+                continue;
+            }
+            String value = valueOf(part);
+            if (value.isEmpty()) {
+                continue;
+            }
+            String name = LABELS.get(level) + " " + value;
+            segments.add(new Segment(level, cap(name, Location.MAX_NAME_LENGTH), slug(name)));
+            deepest = level;
+        }
+
+        if (deepest == null && !siteParts.isEmpty()) {
+            segments.add(site(siteParts));
+        }
+        return segments;
+    }
+
+    /**
+     * Материализованный путь узла по его уровням
+     *
+     * @param segments уровни от корня
+     * @param depth сколько уровней включить
+     * @return путь вида /a/b/
+     */
+    public static String path(List<Segment> segments, int depth) {
+        StringBuilder path = new StringBuilder("/");
+        for (int i = 0; i < depth; i++) {
+            path.append(segments.get(i).slug()).append('/');
+        }
+        return path.toString();
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static Segment site(List<String> siteParts) {
+        return new Segment(Location.Level.SITE, cap(String.join(", ", siteParts), Location.MAX_NAME_LENGTH),
+                slug(String.join(",", siteParts)));
+    }
+
+    private static Location.Level levelOf(String part) {
+        String lower = part.toLowerCase(Locale.ROOT);
+        int end = 0;
+        while (end < lower.length() && Character.isLetter(lower.charAt(end))) {
+            end++;
+        }
+        // Ключевое слово должно отделяться от значения точкой, пробелом, '№' или цифрой
+        if (end == 0 || (end < lower.length() && Character.isLetter(lower.charAt(end)))) {
+            return null;
+        }
+        return KEYWORDS.get(lower.substring(0, end));
+    }
+
+    private static String valueOf(String part) {
+        int start = 0;
+        while (start < part.length() && Character.isLetter(part.charAt(start))) {
+            start++;
+        }
+        while (start < part.length() && ".:№# ".indexOf(part.charAt(start)) >= 0) {
+            start++;
+        }
+        return part.substring(start).trim();
+    }
+
+    private static String slug(String text) {
+        String slug = text.toLowerCase(Locale.ROOT)
+                .replaceAll("[/\\\\%_]", "-")
+                .replaceAll("\\s*,\\s*", ",")
+                .replaceAll("\\s+", "-");
+        return cap(slug, MAX_SLUG_LENGTH);
+    }
+
+    private static String cap(String text, int maxLength) {
+        return text.length() > maxLength ? text.substring(0, maxLength) : text;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.netequip.util;
+
+/**
+ * Преобразование MAC-адресов между строковым видом и 48-битным числовым ключом
+ * Принимаются разделители ':', '-', '.' или их отсутствие, регистр не важен
+ * (00:1a:2b:3c:4d:5e, 00-1A-2B-3C-4D-5E, 001a.2b3c.4d5e, 001A2B3C4D5E)
+ */
+public final class MacAddressUtils {
+
+    private static final int HEX_DIGITS = 12;
+
+    private MacAddressUtils() {
+    }
+
+    /**
+     * Разбор MAC-адреса в числовой ключ
+     *
+     * @param macAddress MAC-адрес в любом поддерживаемом формате
+     * @return ключ в диапазоне [0, 2^48)
+     * @throws IllegalArgumentException если строка не является MAC-адресом
+     */
+    public static long parse(String macAddress) {
+        if (macAddress == null) {
+            throw new IllegalArgumentException("MAC-адрес не указан");
+        }
+        long key = 0;
+        int digits = 0;
+        for (int i = 0; i < macAddress.length(); i++) {
+            char c = macAddress.charAt(i);
+            if (c == ':' || c == '-' || c == '.') {
+                continue;
+            }
+            int value = Character.digit(c, 16);
+            if (value < 0 || ++digits > HEX_DIGITS) {
+                throw new IllegalArgumentException("Некорректный MAC-адрес: " + macAddress);
+            }
+            key = (key << 4) | value;
+        }
+        if (digits != HEX_DIGITS) {
+            throw new IllegalArgumentException("Некорректный MAC-адрес: " + macAddress);
+        }
+        return key;
+    }
+
+    /**
+     * Канонический вид MAC-адреса: AA:BB:CC:DD:EE:FF
+     *
+     * @param key числовой ключ
+     * @return строка MAC-адреса
+     */
+    public static String format(long key) {
+        char[] chars = new char[17];
+        for (int octet = 0; octet < 6; octet++) {
+            int value = (int) (key >>> (40 - octet * 8)) & 0xFF;
+            int pos = octet * 3;
+            chars[pos] = Character.toUpperCase(Character.forDigit(value >>> 4, 16));
+            chars[pos + 1] = Character.toUpperCase(Character.forDigit(value & 0xF, 16));
+            if (octet < 5) {
+                chars[pos + 2] = ':';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Приведение MAC-адреса к каноническому виду
+     *
+     * @param macAddress MAC-адрес в любом поддерживаемом формате
+     * @return канонический вид
+     */
+    public static String normalize(String macAddress) {
+        return format(parse(macAddress));
+    }
+}
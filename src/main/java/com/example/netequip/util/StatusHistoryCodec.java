@@ -0,0 +1,91 @@
+package com.example.netequip.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Компактная кодировка истории статусов
+ * Каждый переход — пара varint: интервал в секундах от предыдущего перехода и код статуса.
+ * Типичный переход занимает 2–4 байта; первый переход блока имеет интервал 0,
+ * его абсолютное время хранится отдельно
+ */
+public final class StatusHistoryCodec {
+
+    // Наибольший размер одного перехода: varint(long) + varint(int)
+    public static final int MAX_ENTRY_BYTES = 10 + 5;
+
+    private StatusHistoryCodec() {
+    }
+
+    /**
+     * Переход в статус
+     *
+     * @param epochSecond время перехода (секунды Unix)
+     * @param code код статуса
+     */
+    public record Transition(long epochSecond, int code) {
+    }
+
+    /**
+     * Дописать переход в конец блока
+     *
+     * @param data текущее содержимое блока
+     * @param deltaSeconds интервал от предыдущего перехода (не отрицательный)
+     * @param code код статуса
+     * @return новое содержимое блока
+     */
+    public static byte[] append(byte[] data, long deltaSeconds, int code) {
+        byte[] buffer = new byte[MAX_ENTRY_BYTES];
+        int length = writeVarint(buffer, 0, deltaSeconds);
+        length = writeVarint(buffer, length, code);
+
+        byte[] result = Arrays.copyOf(data, data.length + length);
+        System.arraycopy(buffer, 0, result, data.length, length);
+        return result;
+    }
+
+    /**
+     * Разбор блока
+     *
+     * @param data содержимое блока
+     * @param firstAt время первого перехода блока
+     * @return переходы в порядке записи
+     * @throws IllegalArgumentException если блок повреждён
+     */
+    public static List<Transition> decode(byte[] data, long firstAt) {
+        List<Transition> result = new ArrayList<>();
+        int[] position = {0};
+        long time = firstAt;
+        while (position[0] < data.length) {
+            time += readVarint(data, position);
+            int code = (int) readVarint(data, position);
+            result.add(new Transition(time, code));
+        }
+        return result;
+    }
+
+    private static int writeVarint(byte[] buffer, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static long readVarint(byte[] data, int[] position) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= data.length) {
+                throw new IllegalArgumentException("Блок истории статусов повреждён");
+            }
+            byte b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Блок истории статусов повреждён");
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.dto.equipment.UpdateEquipmentDTO;
+import com.example.netequip.service.DevicePortService;
+import com.example.netequip.service.EmployeeService;
+import com.example.netequip.service.EquipmentService;
+import com.example.netequip.service.EquipmentTypeService;
+import com.example.netequip.service.IpAddressService;
+import com.example.netequip.service.MaintenanceHistoryService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Условные запросы: ETag по версиям для документа, 304 при совпадении If-None-Match,
+ * 412 при устаревшем If-Match; списки получают ETag по телу ответа
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditional;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConditionalRequestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EquipmentService equipmentService;
+    @Autowired
+    private DevicePortService devicePortService;
+    @Autowired
+    private IpAddressService ipAddressService;
+    @Autowired
+    private MaintenanceHistoryService maintenanceHistoryService;
+
+    private NetworkFixture fixture;
+
+    @BeforeAll
+    void seed() {
+        fixture = new NetworkFixture(equipmentTypeService, employeeService, equipmentService,
+                devicePortService, ipAddressService, maintenanceHistoryService);
+        fixture.grow(2);
+    }
+
+    @Test
+    void equipmentRevalidatesAndRejectsStaleUpdate() throws Exception {
+        String url = "/api/equipment/" + fixture.getCore().getId();
+        String eTag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        String updated = mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(update("CORE-1"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, updated);
+
+        // Устаревший ETag: обновление отклоняется, свежий ответ отдаётся полностью
+        mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(update("CORE-2"))))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, updated));
+    }
+
+    @Test
+    void portChangesWhenConnectedPortChanges() throws Exception {
+        String url = "/api/device-ports/" + fixture.getConnectedPortId();
+        String eTag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        devicePortService.disconnectPort(fixture.getConnectedPortId());
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listRevalidatesByBody() throws Exception {
+        String eTag = mockMvc.perform(get("/api/equipment-types"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/equipment-types").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private UpdateEquipmentDTO update(String name) {
+        UpdateEquipmentDTO dto = new UpdateEquipmentDTO();
+        dto.setTypeId(fixture.getTypeId());
+        dto.setEmployeeId(fixture.getEmployeeId());
+        dto.setName(name);
+        dto.setStatus("Active");
+        return dto;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.dto.equipment.DeviceFullViewDTO;
+import com.example.netequip.mapper.DevicePortMapper;
+import com.example.netequip.mapper.IpAddressMapper;
+import com.example.netequip.mapper.MaintenanceHistoryMapper;
+import com.example.netequip.metrics.RequestQueryMetricsFilter;
+import com.example.netequip.metrics.RequestQueryStats;
+import com.example.netequip.repository.DevicePortRepository;
+import com.example.netequip.repository.EquipmentRepository;
+import com.example.netequip.repository.IpAddressRepository;
+import com.example.netequip.repository.MaintenanceHistoryRepository;
+import com.example.netequip.service.DevicePortService;
+import com.example.netequip.service.DeviceViewService;
+import com.example.netequip.service.DeviceViewService.Section;
+import com.example.netequip.service.EmployeeService;
+import com.example.netequip.service.EquipmentService;
+import com.example.netequip.service.EquipmentTypeService;
+import com.example.netequip.service.IpAddressService;
+import com.example.netequip.service.MaintenanceHistoryService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Параллельная сборка полного представления устройства
+ * Результат должен совпадать с последовательной сборкой; при истечении времени
+ * возвращаются основные данные оборудования, а несобранные разделы перечисляются.
+ * Пул в четыре соединения: четыре раздела собираются, только если запрос не держит
+ * соединение на время их чтения
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:device-view;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "netequip.datasource.admission.timeout-ms=2000",
+        "netequip.device-view.parallel.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DeviceViewParallelTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    @Autowired
+    private DevicePortRepository devicePortRepository;
+    @Autowired
+    private IpAddressRepository ipAddressRepository;
+    @Autowired
+    private MaintenanceHistoryRepository maintenanceHistoryRepository;
+    @Autowired
+    private DevicePortMapper devicePortMapper;
+    @Autowired
+    private IpAddressMapper ipAddressMapper;
+    @Autowired
+    private MaintenanceHistoryMapper maintenanceHistoryMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EquipmentService equipmentService;
+    @Autowired
+    private DevicePortService devicePortService;
+    @Autowired
+    private IpAddressService ipAddressService;
+    @Autowired
+    private MaintenanceHistoryService maintenanceHistoryService;
+
+    private NetworkFixture fixture;
+
+    @BeforeAll
+    void seed() {
+        fixture = new NetworkFixture(equipmentTypeService, employeeService, equipmentService,
+                devicePortService, ipAddressService, maintenanceHistoryService);
+        fixture.grow(5);
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        Long id = fixture.getCore().getId();
+        DeviceFullViewDTO sequential = fullView(service(false, 0), id);
+        DeviceFullViewDTO parallel = fullView(service(true, 60_000), id);
+
+        assertNull(parallel.getUnavailableSections());
+        assertEquals(sequential, parallel);
+        assertEquals(6, parallel.getPorts().size());
+    }
+
+    @Test
+    void timeoutReturnsPartialView() {
+        Long id = fixture.getCore().getId();
+        DeviceFullViewDTO view = fullView(service(true, 0), id);
+
+        // Первый раздел ожидается сразу после запуска задач и заведомо не успевает
+        assertNotNull(view.getEquipment());
+        assertNull(view.getPorts());
+        List<String> unavailable = view.getUnavailableSections();
+        assertTrue(unavailable.contains("ports"));
+        assertEquals(unavailable.contains("ips"), view.getIpAddresses() == null);
+        assertEquals(unavailable.contains("maintenance"), view.getLatestMaintenance() == null);
+        assertEquals(unavailable.contains("connections"), view.getIncomingConnections() == null);
+    }
+
+    @Test
+    void concurrentViewsDoNotExhaustPool() throws Exception {
+        DeviceViewService service = service(true, 60_000);
+        Long id = fixture.getCore().getId();
+        List<Callable<DeviceFullViewDTO>> views = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            views.add(() -> fullView(service, id));
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(views.size())) {
+            for (Future<DeviceFullViewDTO> view : executor.invokeAll(views)) {
+                assertNull(view.get().getUnavailableSections());
+            }
+        }
+    }
+
+    @Test
+    void sectionQueriesCountTowardsRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/equipment/{id}/full", fixture.getCore().getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        RequestQueryStats stats = (RequestQueryStats) result.getRequest()
+                .getAttribute(RequestQueryMetricsFilter.STATS_ATTRIBUTE);
+        // Оборудование и четыре раздела, каждый раздел заново загружает владельца в своём контексте
+        assertEquals(1 + 4 * 2, stats.getStatements());
+        assertEquals(5, stats.getConnections());
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private DeviceViewService service(boolean parallel, long timeoutMillis) {
+        return new DeviceViewService(equipmentRepository, devicePortRepository, ipAddressRepository,
+                maintenanceHistoryRepository, equipmentService, devicePortMapper, ipAddressMapper,
+                maintenanceHistoryMapper, transactionManager, parallel, timeoutMillis);
+    }
+
+    private DeviceFullViewDTO fullView(DeviceViewService service, Long id) {
+        return service.getFullView(id, EnumSet.allOf(Section.class), 5);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.dto.employee.CreateEmployeeDTO;
+import com.example.netequip.dto.employee.EmployeeResponseDTO;
+import com.example.netequip.dto.employee.UpdateEmployeeDTO;
+import com.example.netequip.mapper.EmployeeMapper;
+import com.example.netequip.repository.EmployeeRepository;
+import com.example.netequip.service.EmployeeSearchIndex;
+import com.example.netequip.service.EmployeeService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Поиск сотрудников по индексу: порядок совпадений, запросы из двух букв, устаревший параметр name,
+ * обновление индекса только после коммита и изменения, пришедшие во время перестройки
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:employee-search;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmployeeSearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private EmployeeMapper employeeMapper;
+
+    private Long kuznetsovaId;
+
+    @BeforeAll
+    void seed() {
+        // Добавляем в обратном порядке, чтобы порядок выдачи не совпадал с порядком вставки
+        create("Иаван Сидоров", "Техник", "sidorov@example.com");
+        create("Мариванна Кротова", "Инженер", "krotova@example.com");
+        create("Иванов Олег", "Инженер", "olegi@example.com");
+        create("Иван Смирнов", "Инженер", "smirnov@example.com");
+        kuznetsovaId = create("Ольга Кузнецова", "Инженер", "kuznetsova@example.com").getId();
+    }
+
+    @Test
+    void exactBeatsPrefixBeatsSubstringBeatsFuzzy() throws Exception {
+        assertEquals(List.of("Иван Смирнов", "Иванов Олег", "Мариванна Кротова", "Иаван Сидоров"),
+                search("q=иван"));
+        // Каждое слово запроса должно совпасть
+        assertEquals(List.of("Иванов Олег"), search("q=олег ива"));
+        assertEquals(List.of("Иван Смирнов"), search("q=иван&limit=1"));
+    }
+
+    @Test
+    void twoLetterQueryMatchesInsideWords() throws Exception {
+        assertEquals(List.of("Мариванна Кротова"), search("q=нн"));
+    }
+
+    @Test
+    void nameIsAliasForQ() throws Exception {
+        assertEquals(search("q=кузнец"), search("name=кузнец"));
+        assertEquals(List.of("Ольга Кузнецова"), search("name=кузнец"));
+    }
+
+    @Test
+    void indexFollowsCommittedChanges() throws Exception {
+        EmployeeResponseDTO created = create("Зиновий Тестов", "Монтажник", "zinoviy@example.com");
+        assertEquals(List.of("Зиновий Тестов"), search("q=зиновий"));
+
+        UpdateEmployeeDTO update = new UpdateEmployeeDTO();
+        update.setFullName("Захар Тестов");
+        update.setPosition("Монтажник");
+        update.setEmail("zakhar@example.com");
+        employeeService.update(created.getId(), update);
+        assertEquals(List.of(), search("q=зиновий"));
+        assertEquals(List.of("Захар Тестов"), search("q=захар"));
+
+        employeeService.delete(created.getId());
+        assertEquals(List.of(), search("q=захар"));
+
+        // Откаченное создание в индекс не попадает
+        transactionTemplate.executeWithoutResult(tx -> {
+            create("Аристарх Откатов", "Техник", "aristarkh@example.com");
+            tx.setRollbackOnly();
+        });
+        assertEquals(List.of(), search("q=аристарх"));
+    }
+
+    @Test
+    void rebuildReplaysChangesCommittedDuringSnapshot() {
+        List<EmployeeSearchIndex> holder = new ArrayList<>();
+        // Коммиты, завершившиеся после чтения снимка, но до его применения к индексу
+        EmployeeRepository racing = (EmployeeRepository) Proxy.newProxyInstance(
+                EmployeeRepository.class.getClassLoader(), new Class<?>[]{EmployeeRepository.class},
+                (proxy, method, args) -> {
+                    Object result = method.invoke(employeeRepository, args);
+                    if (method.getName().equals("findAll") && args == null) {
+                        holder.getFirst().index(new EmployeeResponseDTO(-1L, "Поздний Сотрудник", "Техник",
+                                "late@example.com"));
+                        holder.getFirst().remove(kuznetsovaId);
+                    }
+                    return result;
+                });
+        EmployeeSearchIndex index = new EmployeeSearchIndex(racing, employeeMapper);
+        holder.add(index);
+
+        index.rebuild();
+
+        assertEquals(List.of("Поздний Сотрудник"), names(index.search("поздний", 10)));
+        assertEquals(List.of(), names(index.search("кузнецова", 10)));
+        assertEquals(List.of("Иван Смирнов"), names(index.search("иван", 1)));
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private EmployeeResponseDTO create(String fullName, String position, String email) {
+        CreateEmployeeDTO dto = new CreateEmployeeDTO();
+        dto.setFullName(fullName);
+        dto.setPosition(position);
+        dto.setEmail(email);
+        return employeeService.create(dto);
+    }
+
+    private List<String> search(String params) throws Exception {
+        String body = mockMvc.perform(get("/api/employees/search?" + params))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode result = jsonMapper.readTree(body);
+        assertTrue(result.isArray());
+        List<String> names = new ArrayList<>();
+        result.forEach(node -> names.add(node.get("fullName").asString()));
+        return names;
+    }
+
+    private static List<String> names(List<EmployeeResponseDTO> employees) {
+        return employees.stream().map(EmployeeResponseDTO::getFullName).toList();
+    }
+}
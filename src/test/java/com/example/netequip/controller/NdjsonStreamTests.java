@@ -0,0 +1,90 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.service.DevicePortService;
+import com.example.netequip.service.EmployeeService;
+import com.example.netequip.service.EquipmentService;
+import com.example.netequip.service.EquipmentTypeService;
+import com.example.netequip.service.IpAddressService;
+import com.example.netequip.service.MaintenanceHistoryService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Потоковая выгрузка NDJSON: каждая строка — отдельный JSON-объект без разделителей вокруг
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ndjson;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NdjsonStreamTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EquipmentService equipmentService;
+    @Autowired
+    private DevicePortService devicePortService;
+    @Autowired
+    private IpAddressService ipAddressService;
+    @Autowired
+    private MaintenanceHistoryService maintenanceHistoryService;
+
+    @BeforeAll
+    void seed() {
+        new NetworkFixture(equipmentTypeService, employeeService, equipmentService,
+                devicePortService, ipAddressService, maintenanceHistoryService).grow(3);
+    }
+
+    @Test
+    void equipmentStreamWritesOneObjectPerLine() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/equipment/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertTrue(body.endsWith("\n"));
+        List<String> lines = body.lines().toList();
+        assertEquals(equipmentService.getAll().size(), lines.size());
+        Set<Long> ids = new HashSet<>();
+        for (String line : lines) {
+            assertTrue(line.startsWith("{") && line.endsWith("}"), () -> "строка не является объектом: [" + line + "]");
+            JsonNode node = jsonMapper.readTree(line);
+            ids.add(node.get("id").asLong());
+        }
+        assertEquals(lines.size(), ids.size());
+    }
+}
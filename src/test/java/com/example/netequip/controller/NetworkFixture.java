@@ -0,0 +1,195 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.dto.deviceport.CreateDevicePortDTO;
+import com.example.netequip.dto.employee.CreateEmployeeDTO;
+import com.example.netequip.dto.equipment.CreateEquipmentDTO;
+import com.example.netequip.dto.equipment.EquipmentResponseDTO;
+import com.example.netequip.dto.equipmenttype.CreateEquipmentTypeDTO;
+import com.example.netequip.dto.ipaddress.CreateIpAddressDTO;
+import com.example.netequip.dto.maintenancehistory.CreateMaintenanceHistoryDTO;
+import com.example.netequip.service.DevicePortService;
+import com.example.netequip.service.EmployeeService;
+import com.example.netequip.service.EquipmentService;
+import com.example.netequip.service.EquipmentTypeService;
+import com.example.netequip.service.IpAddressService;
+import com.example.netequip.service.MaintenanceHistoryService;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовая сеть: оборудование одного типа и ответственного с портами, IP-адресами
+ * и историей обслуживания; обслуживание нового оборудования выполняет новый сотрудник.
+ * Опорное оборудование ("ядро") получает порты, адреса и записи при каждом наращивании,
+ * к его портам подключаются порты нового оборудования,
+ * поэтому с ростом сети растут и выборки по одному оборудованию
+ */
+@Getter
+class NetworkFixture {
+
+    static final String TYPE_NAME = "Коммутатор";
+    static final String MANUFACTURER = "Cisco";
+    static final String MODEL = "C9300";
+    static final String POSITION = "Engineer";
+    static final String PORT_TYPE = "Ethernet";
+    static final String NETWORK_TYPE = "LAN";
+    static final String SUBNET_MASK = "255.255.255.0";
+    static final String ADDRESS = "г. Москва, ул. Ленина, д. 5, корп. B, эт. 3, стойка ";
+
+    private final EquipmentTypeService equipmentTypeService;
+    private final EmployeeService employeeService;
+    private final EquipmentService equipmentService;
+    private final DevicePortService devicePortService;
+    private final IpAddressService ipAddressService;
+    private final MaintenanceHistoryService maintenanceHistoryService;
+
+    private Long typeId;
+    private Long employeeId;
+    private String employeeEmail;
+    private EquipmentResponseDTO core;
+    private Long corePortId;
+    private Long connectedPortId;
+    private Long coreIpId;
+    private Long maintenanceId;
+
+    private final List<Long> equipmentIds = new ArrayList<>();
+    private final List<String> serialNumbers = new ArrayList<>();
+    private final List<String> macAddresses = new ArrayList<>();
+    private final List<String> ipAddresses = new ArrayList<>();
+    private final List<Long> portIds = new ArrayList<>();
+    private final List<Long> ipIds = new ArrayList<>();
+
+    private int sequence;
+    private int employees;
+    private int corePorts;
+
+    NetworkFixture(EquipmentTypeService equipmentTypeService, EmployeeService employeeService,
+                   EquipmentService equipmentService, DevicePortService devicePortService,
+                   IpAddressService ipAddressService, MaintenanceHistoryService maintenanceHistoryService) {
+        this.equipmentTypeService = equipmentTypeService;
+        this.employeeService = employeeService;
+        this.equipmentService = equipmentService;
+        this.devicePortService = devicePortService;
+        this.ipAddressService = ipAddressService;
+        this.maintenanceHistoryService = maintenanceHistoryService;
+    }
+
+    /**
+     * Наращивание сети
+     *
+     * @param count сколько единиц оборудования добавить
+     */
+    void grow(int count) {
+        if (core == null) {
+            init();
+        }
+        for (int i = 0; i < count; i++) {
+            EquipmentResponseDTO equipment = addEquipment();
+            Long firstPortId = null;
+            for (int port = 1; port <= 4; port++) {
+                Long portId = addPort(equipment.getId(), port);
+                if (firstPortId == null) {
+                    firstPortId = portId;
+                }
+            }
+            addIp(equipment.getId(), true);
+            addMaintenance(equipment.getId(), addEmployee());
+
+            // Каждому новому оборудованию — порт, адрес и запись обслуживания у ядра
+            Long corePort = addPort(core.getId(), ++corePorts);
+            devicePortService.connectPorts(firstPortId, corePort);
+            if (connectedPortId == null) {
+                connectedPortId = firstPortId;
+            }
+            addIp(core.getId(), false);
+            addMaintenance(core.getId(), employeeId);
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void init() {
+        CreateEquipmentTypeDTO type = new CreateEquipmentTypeDTO();
+        type.setTypeName(TYPE_NAME);
+        type.setManufacturer(MANUFACTURER);
+        type.setModel(MODEL);
+        type.setDefaultPortCount(48);
+        typeId = equipmentTypeService.create(type).getId();
+
+        employeeId = addEmployee();
+        employeeEmail = "engineer1@example.com";
+
+        core = addEquipment();
+        corePortId = addPort(core.getId(), ++corePorts);
+        coreIpId = addIp(core.getId(), true);
+        maintenanceId = addMaintenance(core.getId(), employeeId);
+    }
+
+    private Long addEmployee() {
+        int n = ++employees;
+        CreateEmployeeDTO dto = new CreateEmployeeDTO();
+        dto.setFullName("Иванов Иван " + n);
+        dto.setPosition(POSITION);
+        dto.setEmail("engineer" + n + "@example.com");
+        return employeeService.create(dto).getId();
+    }
+
+    private EquipmentResponseDTO addEquipment() {
+        int n = ++sequence;
+        CreateEquipmentDTO dto = new CreateEquipmentDTO();
+        dto.setTypeId(typeId);
+        dto.setEmployeeId(employeeId);
+        dto.setName("SW-" + n);
+        dto.setSerialNumber("SN" + String.format("%06d", n));
+        dto.setMacAddress(String.format("00:1A:2B:3C:%02X:%02X", n / 256, n % 256));
+        dto.setIpAddress("10.0." + n / 256 + "." + n % 256);
+        dto.setAddress(ADDRESS + (n % 3 + 1));
+        dto.setStatus("Active");
+        dto.setDateAdded(LocalDate.now().minusYears(1));
+        EquipmentResponseDTO equipment = equipmentService.create(dto);
+
+        equipmentIds.add(equipment.getId());
+        serialNumbers.add(dto.getSerialNumber());
+        macAddresses.add(dto.getMacAddress());
+        return equipment;
+    }
+
+    private Long addPort(Long equipmentId, int portNumber) {
+        CreateDevicePortDTO dto = new CreateDevicePortDTO();
+        dto.setEquipmentId(equipmentId);
+        dto.setPortNumber(portNumber);
+        dto.setPortType(PORT_TYPE);
+        dto.setSpeed("1G");
+        Long id = devicePortService.create(dto).getId();
+        portIds.add(id);
+        return id;
+    }
+
+    private Long addIp(Long equipmentId, boolean primary) {
+        int n = ipIds.size() + 1;
+        CreateIpAddressDTO dto = new CreateIpAddressDTO();
+        dto.setEquipmentId(equipmentId);
+        dto.setIpAddress("192.168." + n / 256 + "." + n % 256);
+        dto.setSubnetMask(SUBNET_MASK);
+        dto.setNetworkType(NETWORK_TYPE);
+        dto.setIsPrimary(primary);
+        Long id = ipAddressService.create(dto).getId();
+        ipIds.add(id);
+        ipAddresses.add(dto.getIpAddress());
+        return id;
+    }
+
+    private Long addMaintenance(Long equipmentId, Long performedById) {
+        CreateMaintenanceHistoryDTO dto = new CreateMaintenanceHistoryDTO();
+        dto.setEquipmentId(equipmentId);
+        dto.setDate(LocalDateTime.now().minusDays(10));
+        dto.setType("Routine");
+        dto.setDescription("Плановое обслуживание");
+        dto.setPerformedById(performedById);
+        dto.setNextMaintenanceDate(LocalDate.now().minusDays(1));
+        return maintenanceHistoryService.create(dto).getId();
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.netequip.controller;
+
+import com.example.netequip.metrics.RequestQueryMetricsFilter;
+import com.example.netequip.metrics.RequestQueryStats;
+import com.example.netequip.service.DevicePortService;
+import com.example.netequip.service.EmployeeService;
+import com.example.netequip.service.EquipmentService;
+import com.example.netequip.service.EquipmentTypeService;
+import com.example.netequip.service.IpAddressService;
+import com.example.netequip.service.MaintenanceHistoryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Бюджет SQL-запросов на эндпоинт
+ * Каждый эндпоинт вызывается на небольшой сети и на сети в несколько раз больше.
+ * Тест падает, если число запросов превысило заявленный бюджет или выросло вместе
+ * с размером выборки (N+1). Запросы через JdbcTemplate (сверка топологии) не учитываются,
+ * потоковые выгрузки (NDJSON, SSE) выполняются асинхронно и сюда не входят.
+ * Перед каждым вызовом кэш второго уровня очищается: бюджет считается для холодного кэша
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlStatementBudgetTests {
+
+    private static final int SMALL_NETWORK = 3;
+    private static final int GROWTH = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EquipmentService equipmentService;
+    @Autowired
+    private DevicePortService devicePortService;
+    @Autowired
+    private IpAddressService ipAddressService;
+    @Autowired
+    private MaintenanceHistoryService maintenanceHistoryService;
+
+    private NetworkFixture fixture;
+    private final Map<String, Integer> baseline = new HashMap<>();
+
+    /**
+     * Эндпоинт и его бюджет
+     *
+     * @param name имя в отчёте
+     * @param budget допустимое число SQL-запросов
+     * @param request построение запроса по тестовой сети
+     */
+    record Endpoint(String name, int budget, Function<NetworkFixture, MockHttpServletRequestBuilder> request) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @BeforeAll
+    void seed() throws Exception {
+        fixture = new NetworkFixture(equipmentTypeService, employeeService, equipmentService,
+                devicePortService, ipAddressService, maintenanceHistoryService);
+        fixture.grow(SMALL_NETWORK);
+        for (Endpoint endpoint : endpoints().toList()) {
+            baseline.put(endpoint.name(), statements(endpoint));
+        }
+        fixture.grow(GROWTH);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void staysWithinBudget(Endpoint endpoint) throws Exception {
+        int statements = statements(endpoint);
+
+        assertTrue(statements <= endpoint.budget(), () -> endpoint.name() + ": SQL-запросов " + statements
+                + ", бюджет " + endpoint.budget());
+        assertEquals(baseline.get(endpoint.name()), statements, () -> endpoint.name()
+                + ": число SQL-запросов растёт с размером выборки (N+1)");
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private int statements(Endpoint endpoint) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        MvcResult result = mockMvc.perform(endpoint.request().apply(fixture)).andReturn();
+        int status = result.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300, () -> endpoint.name() + ": статус " + status);
+
+        RequestQueryStats stats = (RequestQueryStats) result.getRequest()
+                .getAttribute(RequestQueryMetricsFilter.STATS_ATTRIBUTE);
+        assertNotNull(stats, endpoint.name() + ": счётчики запроса не собраны");
+        return stats.getStatements();
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) {
+        return request.contentType(MediaType.APPLICATION_JSON).content(jsonMapper.writeValueAsString(body));
+    }
+
+    private Stream<Endpoint> endpoints() {
+        String date = LocalDate.now().minusYears(2).toString();
+        String start = LocalDateTime.now().minusMonths(1).withNano(0).toString();
+        String end = LocalDateTime.now().plusDays(1).withNano(0).toString();
+
+        return Stream.of(
+                // Оборудование
+                new Endpoint("equipment list", 1, f -> get("/api/equipment")),
+                new Endpoint("equipment fields", 1, f -> get("/api/equipment").param("fields", "id,name,typeName")),
+                new Endpoint("equipment by id", 1, f -> get("/api/equipment/{id}", f.getCore().getId())),
+                new Endpoint("equipment full", 5, f -> get("/api/equipment/{id}/full", f.getCore().getId())),
+                new Endpoint("equipment by serial", 1, f -> get("/api/equipment/serial/{sn}", f.getSerialNumbers().get(0))),
+                new Endpoint("equipment by mac", 1, f -> get("/api/equipment/mac/{mac}", f.getMacAddresses().get(0))),
+                new Endpoint("equipment by ip", 1, f -> get("/api/equipment/ip/{ip}", f.getCore().getIpAddress())),
+                new Endpoint("equipment resolve", 3, f -> json(post("/api/equipment/resolve"), Map.of(
+                        "ids", f.getEquipmentIds(),
+                        "serialNumbers", f.getSerialNumbers(),
+                        "macAddresses", f.getMacAddresses()))),
+                new Endpoint("equipment mac resolve", 0, f -> json(post("/api/equipment/mac/resolve"),
+                        Map.of("macAddresses", f.getMacAddresses()))),
+                new Endpoint("equipment by type", 2, f -> get("/api/equipment/type/{id}", f.getTypeId())),
+                new Endpoint("equipment by employee", 2, f -> get("/api/equipment/employee/{id}", f.getEmployeeId())),
+                new Endpoint("equipment by status", 1, f -> get("/api/equipment/status/Active")),
+                new Endpoint("equipment search name", 1, f -> get("/api/equipment/search/name").param("name", "SW")),
+                new Endpoint("equipment search address", 1, f -> get("/api/equipment/search/address")
+                        .param("address", "Москва")),
+                new Endpoint("equipment by type and status", 2, f -> get("/api/equipment/type/{id}/status/Active",
+                        f.getTypeId())),
+                new Endpoint("equipment added after", 1, f -> get("/api/equipment/added-after").param("date", date)),
+                new Endpoint("equipment needs maintenance", 1, f -> get("/api/equipment/needs-maintenance")),
+                new Endpoint("equipment count by type", 2, f -> get("/api/equipment/type/{id}/count", f.getTypeId())),
+                new Endpoint("equipment count by status", 1, f -> get("/api/equipment/status/Active/count")),
+
+                // Порты
+                new Endpoint("ports list", 1, f -> get("/api/device-ports")),
+                new Endpoint("ports fields", 1, f -> get("/api/device-ports")
+                        .param("fields", "id,portNumber,equipmentName,connectedToEquipmentName")),
+                new Endpoint("port by id", 1, f -> get("/api/device-ports/{id}", f.getConnectedPortId())),
+                new Endpoint("ports of equipment", 2, f -> get("/api/device-ports/equipment/{id}", f.getCore().getId())),
+                new Endpoint("ports resolve", 2, f -> json(post("/api/device-ports/resolve"), Map.of(
+                        "ids", f.getPortIds(),
+                        "equipmentIds", f.getEquipmentIds()))),
+                new Endpoint("port ingestion stats", 0, f -> get("/api/device-ports/status/bulk/stats")),
+                new Endpoint("port status history", 2, f -> get("/api/device-ports/{id}/status-history",
+                        f.getCorePortId())),
+                new Endpoint("port time in state", 2, f -> get("/api/device-ports/{id}/status-history/time-in-state",
+                        f.getCorePortId())),
+                new Endpoint("port by number", 2, f -> get("/api/device-ports/equipment/{id}/port/1", f.getCore().getId())),
+                new Endpoint("ports by status", 1, f -> get("/api/device-ports/status/Active")),
+                new Endpoint("active ports of equipment", 2, f -> get("/api/device-ports/equipment/{id}/active",
+                        f.getCore().getId())),
+                new Endpoint("available ports of equipment", 2, f -> get("/api/device-ports/equipment/{id}/available",
+                        f.getCore().getId())),
+                new Endpoint("ports by type", 1, f -> get("/api/device-ports/type/{type}", NetworkFixture.PORT_TYPE)),
+                new Endpoint("ports by equipment, type and status", 2, f -> get(
+                        "/api/device-ports/equipment/{id}/type/{type}/status/Active",
+                        f.getCore().getId(), NetworkFixture.PORT_TYPE)),
+                new Endpoint("connected port", 1, f -> get("/api/device-ports/{id}/connected", f.getConnectedPortId())),
+                new Endpoint("port is connected", 1, f -> get("/api/device-ports/{id}/is-connected",
+                        f.getConnectedPortId())),
+                new Endpoint("port count", 2, f -> get("/api/device-ports/equipment/{id}/count", f.getCore().getId())),
+                new Endpoint("active port count", 2, f -> get("/api/device-ports/equipment/{id}/count-active",
+                        f.getCore().getId())),
+
+                // Сотрудники
+                new Endpoint("employees list", 1, f -> get("/api/employees")),
+                new Endpoint("employee by id", 1, f -> get("/api/employees/{id}", f.getEmployeeId())),
+                new Endpoint("employee search", 0, f -> get("/api/employees/search").param("q", "Иван")),
+                new Endpoint("employee by email", 1, f -> get("/api/employees/by-email/{email}", f.getEmployeeEmail())),
+                new Endpoint("employees by position", 1, f -> get("/api/employees/position/{p}", NetworkFixture.POSITION)),
+                new Endpoint("employees by position sorted", 1, f -> get("/api/employees/position/{p}/sorted",
+                        NetworkFixture.POSITION)),
+                new Endpoint("employee email exists", 1, f -> get("/api/employees/exists/email")
+                        .param("email", f.getEmployeeEmail())),
+                new Endpoint("employee count", 1, f -> get("/api/employees/count")),
+                new Endpoint("employee workload", 3, f -> get("/api/employees/workload")),
+
+                // Типы оборудования
+                new Endpoint("types list", 1, f -> get("/api/equipment-types")),
+                new Endpoint("type by id", 1, f -> get("/api/equipment-types/{id}", f.getTypeId())),
+                new Endpoint("types by manufacturer", 1, f -> get("/api/equipment-types/manufacturer/{m}",
+                        NetworkFixture.MANUFACTURER)),
+                new Endpoint("types by manufacturer sorted", 1, f -> get("/api/equipment-types/manufacturer/{m}/sorted",
+                        NetworkFixture.MANUFACTURER)),
+                new Endpoint("type search", 1, f -> get("/api/equipment-types/search")
+                        .param("manufacturer", NetworkFixture.MANUFACTURER).param("model", NetworkFixture.MODEL)),
+                new Endpoint("type by name", 1, f -> get("/api/equipment-types/by-name/{name}", NetworkFixture.TYPE_NAME)),
+                new Endpoint("type exists", 1, f -> get("/api/equipment-types/exists")
+                        .param("typeName", NetworkFixture.TYPE_NAME)),
+
+                // IP-адреса
+                new Endpoint("ip list", 1, f -> get("/api/ip-addresses")),
+                new Endpoint("ip fields", 1, f -> get("/api/ip-addresses").param("fields", "id,ipAddress,equipmentName")),
+                new Endpoint("ip by id", 1, f -> get("/api/ip-addresses/{id}", f.getCoreIpId())),
+                new Endpoint("ips of equipment", 2, f -> get("/api/ip-addresses/equipment/{id}", f.getCore().getId())),
+                new Endpoint("primary ip of equipment", 2, f -> get("/api/ip-addresses/equipment/{id}/primary",
+                        f.getCore().getId())),
+                new Endpoint("ip search", 1, f -> get("/api/ip-addresses/search").param("ip", f.getIpAddresses().get(0))),
+                new Endpoint("ip resolve", 2, f -> json(post("/api/ip-addresses/resolve"), Map.of(
+                        "ids", f.getIpIds(),
+                        "ipAddresses", f.getIpAddresses()))),
+                new Endpoint("ips by network type", 1, f -> get("/api/ip-addresses/network-type/{t}",
+                        NetworkFixture.NETWORK_TYPE)),
+                new Endpoint("ips of equipment by network type", 2, f -> get(
+                        "/api/ip-addresses/equipment/{id}/network-type/{t}",
+                        f.getCore().getId(), NetworkFixture.NETWORK_TYPE)),
+                new Endpoint("ips by subnet mask", 1, f -> get("/api/ip-addresses/subnet-mask/{m}",
+                        NetworkFixture.SUBNET_MASK)),
+                new Endpoint("ip exists", 1, f -> get("/api/ip-addresses/exists").param("ip", f.getIpAddresses().get(0))),
+                new Endpoint("ip count", 2, f -> get("/api/ip-addresses/equipment/{id}/count", f.getCore().getId())),
+
+                // История обслуживания
+                new Endpoint("maintenance list", 1, f -> get("/api/maintenance-history")),
+                new Endpoint("maintenance by id", 1, f -> get("/api/maintenance-history/{id}", f.getMaintenanceId())),
+                new Endpoint("maintenance of equipment", 2, f -> get("/api/maintenance-history/equipment/{id}",
+                        f.getCore().getId())),
+                new Endpoint("latest maintenance", 2, f -> get("/api/maintenance-history/equipment/{id}/latest",
+                        f.getCore().getId())),
+                new Endpoint("maintenance of equipment by type", 2, f -> get(
+                        "/api/maintenance-history/equipment/{id}/type/Routine", f.getCore().getId())),
+                new Endpoint("maintenance by employee", 2, f -> get("/api/maintenance-history/employee/{id}",
+                        f.getEmployeeId())),
+                new Endpoint("maintenance date range", 1, f -> get("/api/maintenance-history/date-range")
+                        .param("start", start).param("end", end)),
+                new Endpoint("recent maintenance", 2, f -> get("/api/maintenance-history/equipment/{id}/recent",
+                        f.getCore().getId())),
+                new Endpoint("maintenance by type", 1, f -> get("/api/maintenance-history/type/Routine")),
+                new Endpoint("overdue maintenance", 1, f -> get("/api/maintenance-history/overdue")),
+                new Endpoint("maintenance count", 2, f -> get("/api/maintenance-history/equipment/{id}/count",
+                        f.getCore().getId())),
+                new Endpoint("maintenance count by type", 1, f -> get("/api/maintenance-history/type/Routine/count")),
+
+                // Расположение
+                new Endpoint("location roots", 1, f -> get("/api/locations")),
+                new Endpoint("locations by level", 1, f -> get("/api/locations").param("level", "RACK")),
+                new Endpoint("location by id", 1, f -> get("/api/locations/{id}", f.getCore().getLocationId())),
+                new Endpoint("location children", 2, f -> get("/api/locations/{id}/children",
+                        f.getCore().getLocationId())),
+                new Endpoint("location equipment", 2, f -> get("/api/locations/{id}/equipment",
+                        f.getCore().getLocationId())),
+                new Endpoint("network port capacity", 2, f -> get("/api/locations/port-capacity")),
+                new Endpoint("location port capacity", 3, f -> get("/api/locations/{id}/port-capacity",
+                        f.getCore().getLocationId())),
+
+                // Лента изменений
+                new Endpoint("changes", 1, f -> get("/api/changes").param("since", "0")),
+                new Endpoint("changes head", 1, f -> get("/api/changes/head"))
+        );
+    }
+}
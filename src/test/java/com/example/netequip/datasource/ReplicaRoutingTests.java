@@ -0,0 +1,168 @@
+package com.example.netequip.datasource;
+
+import com.example.netequip.dto.equipment.CreateEquipmentDTO;
+import com.example.netequip.dto.equipmenttype.CreateEquipmentTypeDTO;
+import com.example.netequip.service.EquipmentService;
+import com.example.netequip.service.EquipmentTypeService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Чтение с реплики на двух экземплярах H2
+ * Репликация имитируется копией основной БД в реплику (SCRIPT/RUNSCRIPT), поэтому
+ * записанное после копии видно только на основной БД: по ответу 404/200 видно, куда ушло чтение
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "netequip.datasource.replica.enabled=true",
+        "netequip.datasource.replica.url=jdbc:h2:mem:rw-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "netequip.datasource.replica.max-lag-ms=500",
+        "netequip.datasource.replica.heartbeat-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EquipmentService equipmentService;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @TempDir
+    private Path tempDir;
+
+    private Long typeId;
+    private int sequence;
+
+    @BeforeAll
+    void seed() {
+        CreateEquipmentTypeDTO type = new CreateEquipmentTypeDTO();
+        type.setTypeName("Маршрутизатор");
+        type.setManufacturer("Juniper");
+        type.setModel("MX204");
+        typeId = equipmentTypeService.create(type).getId();
+    }
+
+    @BeforeEach
+    void replicate() {
+        Path script = tempDir.resolve("snapshot-" + System.nanoTime() + ".sql");
+        lagMonitor.refresh();
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + script + "'");
+        lagMonitor.refresh();
+        assertTrue(lagMonitor.isUsable(), () -> "отставание " + lagMonitor.getLagMillis() + " мс");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() throws Exception {
+        Long replicated = createEquipment();
+        replicate();
+        Long notReplicated = createEquipment();
+
+        mockMvc.perform(get("/api/equipment/" + replicated)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/equipment/" + notReplicated)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void clientReadsItsOwnWrites() throws Exception {
+        CreateEquipmentDTO dto = new CreateEquipmentDTO();
+        dto.setTypeId(typeId);
+        dto.setName("RW-" + ++sequence);
+        var response = mockMvc.perform(post("/api/equipment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        Cookie lastWrite = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(lastWrite);
+        Long id = jsonMapper.readTree(response.getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/equipment/" + id).cookie(lastWrite)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/equipment/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws Exception {
+        Long notReplicated = createEquipment();
+
+        Thread.sleep(lagMonitor.getMaxLagMillis() + 200);
+        lagMonitor.refresh();
+        assertFalse(lagMonitor.isUsable());
+
+        mockMvc.perform(get("/api/equipment/" + notReplicated)).andExpect(status().isOk());
+    }
+
+    @Test
+    void changeFeedIgnoresUsableReplica() throws Exception {
+        long head = headToken();
+        Long notReplicated = createEquipment();
+
+        // Реплика считается пригодной, но изменения на ней нет
+        assertTrue(lagMonitor.isUsable());
+
+        assertTrue(headToken() > head);
+        var feed = jsonMapper.readTree(mockMvc.perform(get("/api/changes").param("since", String.valueOf(head)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(1, feed.get("changes").size());
+        assertEquals(notReplicated, feed.get("changes").get(0).get("entityId").asLong());
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private long headToken() throws Exception {
+        return jsonMapper.readTree(mockMvc.perform(get("/api/changes/head"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("token").asLong();
+    }
+
+    private Long createEquipment() {
+        CreateEquipmentDTO dto = new CreateEquipmentDTO();
+        dto.setTypeId(typeId);
+        dto.setName("RW-" + ++sequence);
+        return equipmentService.create(dto).getId();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.netequip.load;
+
+import com.example.netequip.NetequipApplication;
+import com.example.netequip.datasource.AdmissionControlDataSource;
+import com.example.netequip.load.LoadRunner.Result;
+import com.example.netequip.load.SyntheticNetworkGenerator.Network;
+import com.example.netequip.load.SyntheticNetworkGenerator.Settings;
+import com.example.netequip.service.EmployeeSearchIndex;
+import com.example.netequip.service.EquipmentCountersRepairJob;
+import com.example.netequip.service.LocationService;
+import com.example.netequip.service.MacAddressIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение исполнения запросов на потоках платформы и на виртуальных потоках
+ * при тысячах одновременных клиентов (mvn test -Pload -Dtest=ConcurrencyLoadTests).
+ * Приложение поднимается дважды, с spring.threads.virtual.enabled=false и true, каждое на своей
+ * встроенной БД с одинаковой синтетической сетью; смешанная нагрузка чтения идёт от
+ * netequip.load.concurrent-clients клиентов. Результаты — в журнал и target/concurrency-report.csv,
+ * рядом — ожидание в очереди допуска к пулу за замеряемый интервал. Ошибок и отказов очереди
+ * быть не должно ни в одном режиме: ожидание соединения ограничено допуском перед пулом
+ */
+@Slf4j
+@Tag("load")
+class ConcurrencyLoadTests {
+
+    /**
+     * Очередь допуска к пулу за замеряемый интервал
+     *
+     * @param permits разрешений (соединений) допуска
+     * @param admitted выдано соединений
+     * @param averageWait среднее ожидание разрешения, мкс
+     * @param rejected отказов по тайм-ауту очереди
+     */
+    private record PoolWait(String name, int permits, long admitted, double averageWait, long rejected) {
+    }
+
+    private record Mode(Result result, PoolWait poolWait) {
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<Mode> modes = List.of(run(false), run(true));
+        List<Result> results = modes.stream().map(Mode::result).toList();
+        log.info("Потоки платформы и виртуальные потоки{}{}", LoadRunner.table(results),
+                table(modes.stream().map(Mode::poolWait).toList()));
+        LoadRunner.writeCsv("concurrency-report.csv", results);
+
+        for (Mode mode : modes) {
+            assertEquals(0, mode.result().errors(), mode.result().name() + ": ошибочные ответы");
+            assertEquals(0, mode.poolWait().rejected(), mode.result().name() + ": отказы очереди допуска");
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Mode run(boolean virtualThreads) throws Exception {
+        String name = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(NetequipApplication.class)
+                .profiles("test", "load")
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:concurrency-" + name
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .run()) {
+            Environment env = context.getEnvironment();
+            Network network = new SyntheticNetworkGenerator(context.getBean(DataSource.class),
+                    context.getBean(EquipmentCountersRepairJob.class), context.getBean(LocationService.class),
+                    context.getBean(MacAddressIndex.class), context.getBean(EmployeeSearchIndex.class))
+                    .generate(new Settings(
+                            property(env, "netequip.load.types"),
+                            property(env, "netequip.load.employees"),
+                            property(env, "netequip.load.concurrent-equipment"),
+                            property(env, "netequip.load.sites"),
+                            property(env, "netequip.load.ports-per-equipment"),
+                            property(env, "netequip.load.maintenance-years"),
+                            property(env, "netequip.load.maintenance-per-year"),
+                            property(env, "netequip.load.seed"),
+                            1000));
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadRunner runner = new LoadRunner(context.getBean(JsonMapper.class), port);
+            Function<Random, HttpRequest> requests = random -> switch (random.nextInt(4)) {
+                case 0 -> runner.get("/api/equipment/" + pick(random, network.equipmentIds()));
+                case 1 -> runner.get("/api/device-ports/equipment/" + pick(random, network.equipmentIds()));
+                case 2 -> runner.get("/api/ip-addresses/equipment/" + pick(random, network.equipmentIds()));
+                default -> runner.get("/api/maintenance-history/equipment/"
+                        + pick(random, network.equipmentIds()) + "/latest");
+            };
+
+            int clients = property(env, "netequip.load.concurrent-clients");
+            long seed = property(env, "netequip.load.seed");
+            runner.run(name, requests, clients, property(env, "netequip.load.warmup-seconds"), seed);
+
+            AdmissionControlDataSource admission = context.getBean(DataSource.class)
+                    .unwrap(AdmissionControlDataSource.class);
+            long admitted = admission.getAdmitted();
+            double waitSeconds = admission.getWaitSeconds();
+            long rejected = admission.getRejected();
+            Result result = runner.run(name, requests, clients,
+                    property(env, "netequip.load.concurrent-duration-seconds"), seed);
+            long measured = admission.getAdmitted() - admitted;
+            return new Mode(result, new PoolWait(name, admission.getMaxConcurrency(), measured,
+                    measured > 0 ? (admission.getWaitSeconds() - waitSeconds) * 1e6 / measured : 0,
+                    admission.getRejected() - rejected));
+        }
+    }
+
+    private static String table(List<PoolWait> waits) {
+        StringBuilder table = new StringBuilder(String.format("%n%-20s %10s %10s %14s %10s%n",
+                "name", "permits", "admitted", "avg wait us", "rejected"));
+        for (PoolWait w : waits) {
+            table.append(String.format(Locale.ROOT, "%-20s %10d %10d %14.1f %10d%n",
+                    w.name(), w.permits(), w.admitted(), w.averageWait(), w.rejected()));
+        }
+        return table.toString();
+    }
+
+    private static int property(Environment env, String key) {
+        return env.getRequiredProperty(key, Integer.class);
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
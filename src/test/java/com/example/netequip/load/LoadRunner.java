@@ -0,0 +1,159 @@
+package com.example.netequip.load;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Клиенты нагрузки на виртуальных потоках: каждый в цикле шлёт случайный запрос из набора
+ * до истечения времени; задержки собираются без синхронизации и сортируются в конце
+ */
+@Slf4j
+class LoadRunner {
+
+    /**
+     * Итог прогона
+     */
+    record Result(String name, long requests, long errors, double throughput, double p50, double p99, double max) {
+    }
+
+    private final HttpClient httpClient;
+    private final JsonMapper jsonMapper;
+    private final String baseUrl;
+
+    LoadRunner(JsonMapper jsonMapper, int port) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        this.jsonMapper = jsonMapper;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    HttpRequest post(String path, Object body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Прогон набора запросов
+     *
+     * @param name имя в отчёте
+     * @param requests построение случайного запроса
+     * @param clients одновременных клиентов
+     * @param seconds длительность
+     * @param seed начальное значение генераторов клиентов
+     */
+    Result run(String name, Function<Random, HttpRequest> requests, int clients, int seconds, long seed)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        AtomicLong errors = new AtomicLong();
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                latencies[c] = new long[256];
+                int client = c;
+                executor.submit(() -> {
+                    Random random = new Random(seed + client);
+                    long[] buffer = latencies[client];
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = requests.apply(random);
+                        long begin = System.nanoTime();
+                        try {
+                            int status = send(request).statusCode();
+                            if (status >= 400) {
+                                errors.incrementAndGet();
+                                log.warn("{} {}: {}", request.method(), request.uri(), status);
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            errors.incrementAndGet();
+                            log.warn("{} {}: {}", request.method(), request.uri(), e.toString());
+                        }
+                        if (counts[client] == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                            latencies[client] = buffer;
+                        }
+                        buffer[counts[client]++] = System.nanoTime() - begin;
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(name, total, errors.get(), total / (elapsed / 1e9),
+                percentile(all, 0.50), percentile(all, 0.99), total > 0 ? all[total - 1] / 1e6 : 0);
+    }
+
+    /**
+     * Таблица результатов для журнала
+     */
+    static String table(List<Result> results) {
+        StringBuilder table = new StringBuilder(String.format("%n%-20s %10s %8s %10s %10s %10s %10s%n",
+                "name", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        for (Result r : results) {
+            table.append(String.format(Locale.ROOT, "%-20s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    r.name(), r.requests(), r.errors(), r.throughput(), r.p50(), r.p99(), r.max()));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Результаты в CSV (target/<file>)
+     */
+    static void writeCsv(String file, List<Result> results) throws IOException {
+        StringBuilder csv = new StringBuilder("name,requests,errors,throughput,p50_ms,p99_ms,max_ms\n");
+        for (Result r : results) {
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f%n",
+                    r.name(), r.requests(), r.errors(), r.throughput(), r.p50(), r.p99(), r.max()));
+        }
+        Files.writeString(Path.of("target", file), csv);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.netequip.load;
+
+import com.example.netequip.load.LoadRunner.Result;
+import com.example.netequip.load.SyntheticNetworkGenerator.Network;
+import com.example.netequip.load.SyntheticNetworkGenerator.Settings;
+import com.example.netequip.service.EmployeeSearchIndex;
+import com.example.netequip.service.EquipmentCountersRepairJob;
+import com.example.netequip.service.LocationService;
+import com.example.netequip.service.MacAddressIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный прогон по семействам эндпоинтов на синтетической сети
+ * Запускается отдельно: mvn test -Pload (встроенная БД) или с -Dspring.datasource.url=... для локальной MySQL.
+ * Для каждого семейства клиенты (LoadRunner) в течение заданного времени шлют
+ * случайные запросы семейства; в отчёт (журнал и target/load-report.csv) попадают
+ * пропускная способность, p50 и p99. Генератор случайных чисел фиксирован, поэтому
+ * последовательность запросов повторяется от прогона к прогону
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "load"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoadTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EquipmentCountersRepairJob countersRepairJob;
+    @Autowired
+    private LocationService locationService;
+    @Autowired
+    private MacAddressIndex macAddressIndex;
+    @Autowired
+    private EmployeeSearchIndex employeeSearchIndex;
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${netequip.load.types}")
+    private int types;
+    @Value("${netequip.load.employees}")
+    private int employees;
+    @Value("${netequip.load.equipment}")
+    private int equipment;
+    @Value("${netequip.load.sites}")
+    private int sites;
+    @Value("${netequip.load.ports-per-equipment}")
+    private int portsPerEquipment;
+    @Value("${netequip.load.maintenance-years}")
+    private int maintenanceYears;
+    @Value("${netequip.load.maintenance-per-year}")
+    private int maintenancePerYear;
+    @Value("${netequip.load.seed}")
+    private long seed;
+    @Value("${netequip.load.clients}")
+    private int clients;
+    @Value("${netequip.load.warmup-seconds}")
+    private int warmupSeconds;
+    @Value("${netequip.load.duration-seconds}")
+    private int durationSeconds;
+
+    private LoadRunner runner;
+    private Network network;
+    private List<Long> locationIds;
+
+    @BeforeAll
+    void generate() throws Exception {
+        runner = new LoadRunner(jsonMapper, port);
+        network = new SyntheticNetworkGenerator(dataSource, countersRepairJob, locationService, macAddressIndex,
+                employeeSearchIndex).generate(new Settings(types, employees, equipment, sites, portsPerEquipment,
+                maintenanceYears, maintenancePerYear, seed, 1000));
+
+        locationIds = new ArrayList<>();
+        JsonNode buildings = jsonMapper.readTree(runner.send(get("/api/locations?level=BUILDING")).body());
+        buildings.forEach(node -> locationIds.add(node.get("id").asLong()));
+        assertTrue(!locationIds.isEmpty(), "Иерархия расположения не построена");
+    }
+
+    @Test
+    void endpointFamilies() throws Exception {
+        Map<String, Function<Random, HttpRequest>> families = new LinkedHashMap<>();
+        families.put("equipment", random -> switch (random.nextInt(6)) {
+            case 0 -> get("/api/equipment/" + pick(random, network.equipmentIds()));
+            case 1 -> get("/api/equipment/serial/" + pick(random, network.serialNumbers()));
+            case 2 -> get("/api/equipment/mac/" + pick(random, network.macAddresses()));
+            case 3 -> get("/api/equipment/ip/" + pick(random, network.ipAddresses()));
+            case 4 -> get("/api/equipment/" + pick(random, network.equipmentIds()) + "/full");
+            default -> post("/api/equipment/resolve", Map.of("ids", sample(random, network.equipmentIds(), 50)));
+        });
+        families.put("device-ports", random -> switch (random.nextInt(4)) {
+            case 0 -> get("/api/device-ports/" + pick(random, network.portIds()));
+            case 1 -> get("/api/device-ports/equipment/" + pick(random, network.equipmentIds()));
+            case 2 -> get("/api/device-ports/equipment/" + pick(random, network.equipmentIds()) + "/available");
+            default -> post("/api/device-ports/resolve",
+                    Map.of("equipmentIds", sample(random, network.equipmentIds(), 10)));
+        });
+        families.put("ip-addresses", random -> switch (random.nextInt(4)) {
+            case 0 -> get("/api/ip-addresses/" + pick(random, network.ipIds()));
+            case 1 -> get("/api/ip-addresses/equipment/" + pick(random, network.equipmentIds()));
+            case 2 -> get("/api/ip-addresses/search?ip=" + pick(random, network.ipAddresses()));
+            default -> post("/api/ip-addresses/resolve", Map.of("ipAddresses", sample(random, network.ipAddresses(), 50)));
+        });
+        families.put("maintenance-history", random -> switch (random.nextInt(4)) {
+            case 0 -> get("/api/maintenance-history/equipment/" + pick(random, network.equipmentIds()));
+            case 1 -> get("/api/maintenance-history/equipment/" + pick(random, network.equipmentIds()) + "/latest");
+            case 2 -> get("/api/maintenance-history/equipment/" + pick(random, network.equipmentIds()) + "/recent?days=365");
+            default -> get("/api/maintenance-history/equipment/" + pick(random, network.equipmentIds()) + "/count");
+        });
+        families.put("employees", random -> switch (random.nextInt(3)) {
+            case 0 -> get("/api/employees/" + pick(random, network.employeeIds()));
+            case 1 -> get("/api/employees/search?q=" + URLEncoder.encode("Иванов", StandardCharsets.UTF_8) + "&limit=20");
+            default -> get("/api/employees/by-email/gen.employee" + (random.nextInt(employees) + 1) + "@example.com");
+        });
+        families.put("equipment-types", random -> random.nextBoolean()
+                ? get("/api/equipment-types/" + pick(random, network.typeIds()))
+                : get("/api/equipment/type/" + pick(random, network.typeIds()) + "/count"));
+        families.put("locations", random -> switch (random.nextInt(3)) {
+            case 0 -> get("/api/locations/" + pick(random, locationIds));
+            case 1 -> get("/api/locations/" + pick(random, locationIds) + "/children");
+            default -> get("/api/locations/" + pick(random, locationIds) + "/port-capacity");
+        });
+        families.put("changes", random -> random.nextBoolean()
+                ? get("/api/changes/head")
+                : get("/api/changes?since=0&limit=100"));
+
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, Function<Random, HttpRequest>> family : families.entrySet()) {
+            runner.run(family.getKey(), family.getValue(), clients, warmupSeconds, seed);
+            results.add(runner.run(family.getKey(), family.getValue(), clients, durationSeconds, seed));
+        }
+        log.info("Нагрузочный прогон: оборудования {}, клиентов {}, {} с на семейство{}",
+                equipment, clients, durationSeconds, LoadRunner.table(results));
+        LoadRunner.writeCsv("load-report.csv", results);
+
+        for (Result result : results) {
+            assertEquals(0, result.errors(), result.name() + ": ошибочные ответы");
+        }
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private HttpRequest get(String path) {
+        return runner.get(path);
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return runner.post(path, body);
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static <T> List<T> sample(Random random, List<T> values, int size) {
+        List<T> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(pick(random, values));
+        }
+        return result;
+    }
+}
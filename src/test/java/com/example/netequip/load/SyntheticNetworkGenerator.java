@@ -0,0 +1,334 @@
+package com.example.netequip.load;
+
+import com.example.netequip.service.EmployeeSearchIndex;
+import com.example.netequip.service.EquipmentCountersRepairJob;
+import com.example.netequip.service.LocationService;
+import com.example.netequip.service.MacAddressIndex;
+import com.example.netequip.util.MacAddressUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Генератор согласованной синтетической сети пакетными INSERT через JDBC
+ * Оборудование распределяется по площадкам; на каждой два ядра, коммутаторы распределения
+ * (по два аплинка в ядра) и коммутаторы доступа (аплинк в распределение). Подключения
+ * записываются с обеих сторон. У оборудования адрес управления и адрес LAN в подсетях
+ * площадки, история обслуживания за несколько лет. После вставки пересчитываются
+ * счётчики, иерархия расположения и индексы в памяти — как после обычной работы приложения.
+ * Генерация детерминирована: одинаковые параметры дают одинаковую сеть
+ */
+@Slf4j
+class SyntheticNetworkGenerator {
+
+    private static final String MAINTENANCE_INSERT = "INSERT INTO maintenance_history (equipment_id, date, type, " +
+            "description, performed_by_employee_id, cost, next_maintenance_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] TYPES = {"Коммутатор ядра", "Коммутатор распределения", "Коммутатор доступа",
+            "Маршрутизатор", "Межсетевой экран", "Точка доступа"};
+    private static final String[] MANUFACTURERS = {"Cisco", "Juniper", "Huawei", "Eltex", "MikroTik"};
+    private static final String[] LAST_NAMES = {"Иванов", "Петров", "Смирнов", "Кузнецов", "Попов", "Соколов",
+            "Лебедев", "Козлов", "Новиков", "Морозов"};
+    private static final String[] FIRST_NAMES = {"Александр", "Дмитрий", "Максим", "Сергей", "Андрей", "Алексей",
+            "Иван", "Михаил"};
+    private static final String[] POSITIONS = {"Инженер", "Ведущий инженер", "Сетевой администратор",
+            "Техник", "Руководитель группы"};
+    private static final String[] CITIES = {"Москва", "Санкт-Петербург", "Новосибирск", "Екатеринбург",
+            "Казань", "Нижний Новгород", "Самара", "Омск"};
+    private static final String[] MAINTENANCE_TYPES = {"Routine", "Routine", "Preventive", "Preventive",
+            "Upgrade", "Repair", "Emergency"};
+
+    /**
+     * Параметры генерации
+     *
+     * @param types типов оборудования
+     * @param employees сотрудников
+     * @param equipment единиц оборудования
+     * @param sites площадок
+     * @param portsPerEquipment портов у каждого оборудования
+     * @param maintenanceYears лет истории обслуживания
+     * @param maintenancePerYear обслуживаний в год
+     * @param seed начальное значение генератора случайных чисел
+     * @param batchSize строк в одном пакете INSERT
+     */
+    record Settings(int types, int employees, int equipment, int sites, int portsPerEquipment,
+                    int maintenanceYears, int maintenancePerYear, long seed, int batchSize) {
+    }
+
+    /**
+     * ID сгенерированных записей для построения запросов нагрузки
+     */
+    record Network(List<Long> typeIds, List<Long> employeeIds, List<Long> equipmentIds, List<String> serialNumbers,
+                   List<String> macAddresses, List<String> ipAddresses, List<Long> portIds, List<Long> ipIds) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EquipmentCountersRepairJob countersRepairJob;
+    private final LocationService locationService;
+    private final MacAddressIndex macAddressIndex;
+    private final EmployeeSearchIndex employeeSearchIndex;
+
+    SyntheticNetworkGenerator(DataSource dataSource, EquipmentCountersRepairJob countersRepairJob,
+                              LocationService locationService, MacAddressIndex macAddressIndex,
+                              EmployeeSearchIndex employeeSearchIndex) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.countersRepairJob = countersRepairJob;
+        this.locationService = locationService;
+        this.macAddressIndex = macAddressIndex;
+        this.employeeSearchIndex = employeeSearchIndex;
+    }
+
+    /**
+     * Генерация сети
+     */
+    Network generate(Settings settings) {
+        long started = System.nanoTime();
+        Random random = new Random(settings.seed());
+
+        List<Long> typeIds = insertTypes(settings);
+        List<Long> employeeIds = insertEmployees(settings);
+
+        List<String> serialNumbers = new ArrayList<>();
+        List<String> macAddresses = new ArrayList<>();
+        List<String> ipAddresses = new ArrayList<>();
+        List<Long> equipmentIds = insertEquipment(settings, random, typeIds, employeeIds,
+                serialNumbers, macAddresses, ipAddresses);
+
+        Map<Long, List<Long>> portsByEquipment = insertPorts(settings, random, equipmentIds);
+        linkTopology(settings, equipmentIds, portsByEquipment);
+        List<Long> ipIds = insertIpAddresses(settings, equipmentIds, ipAddresses);
+        insertMaintenance(settings, random, equipmentIds, employeeIds);
+
+        countersRepairJob.repair();
+        locationService.backfill();
+        macAddressIndex.rebuild();
+        employeeSearchIndex.rebuild();
+
+        List<Long> portIds = new ArrayList<>();
+        portsByEquipment.values().forEach(portIds::addAll);
+        log.info("Синтетическая сеть: оборудования {}, портов {}, IP-адресов {} за {} мс",
+                equipmentIds.size(), portIds.size(), ipIds.size(), (System.nanoTime() - started) / 1_000_000);
+        return new Network(typeIds, employeeIds, equipmentIds, serialNumbers, macAddresses,
+                ipAddresses.subList(0, equipmentIds.size()), portIds, ipIds);
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private List<Long> insertTypes(Settings settings) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < settings.types(); i++) {
+            String manufacturer = MANUFACTURERS[i % MANUFACTURERS.length];
+            rows.add(new Object[]{"GEN " + TYPES[i % TYPES.length] + " " + (i + 1), manufacturer,
+                    manufacturer.toUpperCase() + "-" + (1000 + i), settings.portsPerEquipment(), "Ethernet",
+                    i % 2 == 0 ? "L2" : "L3"});
+        }
+        batch("INSERT INTO equipment_type (type_name, manufacturer, model, default_port_count, connection_type, " +
+                "osi_level) VALUES (?, ?, ?, ?, ?, ?)", rows, settings);
+        return jdbcTemplate.queryForList("SELECT id FROM equipment_type WHERE type_name LIKE 'GEN %' ORDER BY id",
+                Long.class);
+    }
+
+    private List<Long> insertEmployees(Settings settings) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < settings.employees(); i++) {
+            String fullName = LAST_NAMES[i % LAST_NAMES.length] + " " + FIRST_NAMES[(i / LAST_NAMES.length)
+                    % FIRST_NAMES.length] + " " + (i + 1);
+            rows.add(new Object[]{fullName, POSITIONS[i % POSITIONS.length], "gen.employee" + (i + 1) + "@example.com"});
+        }
+        batch("INSERT INTO employee (full_name, position, email) VALUES (?, ?, ?)", rows, settings);
+        return jdbcTemplate.queryForList("SELECT id FROM employee WHERE email LIKE 'gen.employee%' ORDER BY id",
+                Long.class);
+    }
+
+    private List<Long> insertEquipment(Settings settings, Random random, List<Long> typeIds, List<Long> employeeIds,
+                                       List<String> serialNumbers, List<String> macAddresses,
+                                       List<String> ipAddresses) {
+        List<Object[]> rows = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < settings.equipment(); i++) {
+            int site = i % settings.sites();
+            int index = i / settings.sites();
+            String serial = String.format("GEN%09d", i + 1);
+            long macKey = 0x02_00_00_00_00_00L + i;
+            String ip = managementIp(site, index);
+            String status = random.nextInt(100) < 90 ? "Active" : (random.nextBoolean() ? "Maintenance" : "Inactive");
+            serialNumbers.add(serial);
+            macAddresses.add(MacAddressUtils.format(macKey));
+            ipAddresses.add(ip);
+            rows.add(new Object[]{
+                    typeIds.get(i % typeIds.size()),
+                    employeeIds.get(random.nextInt(employeeIds.size())),
+                    role(settings, index) + "-" + (site + 1) + "-" + (index + 1),
+                    serial,
+                    MacAddressUtils.format(macKey),
+                    macKey,
+                    ip,
+                    address(site, index),
+                    status,
+                    Date.valueOf(today.minusDays(random.nextInt(365 * Math.max(1, settings.maintenanceYears()))))
+            });
+        }
+        batch("INSERT INTO equipment (type_id, employee_id, name, serial_number, mac_address, mac_key, ip_address, " +
+                "address, status, date_added) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows, settings);
+        return jdbcTemplate.queryForList("SELECT id FROM equipment WHERE serial_number LIKE 'GEN%' ORDER BY serial_number",
+                Long.class);
+    }
+
+    private Map<Long, List<Long>> insertPorts(Settings settings, Random random, List<Long> equipmentIds) {
+        List<Object[]> rows = new ArrayList<>();
+        int ports = settings.portsPerEquipment();
+        for (Long equipmentId : equipmentIds) {
+            for (int port = 1; port <= ports; port++) {
+                boolean uplink = port > ports - 2;
+                rows.add(new Object[]{equipmentId, port, uplink ? "SFP+" : "Ethernet",
+                        random.nextInt(100) < 75 ? "Active" : "Inactive", uplink ? "10G" : "1G",
+                        (uplink ? "Te1/1/" : "Gi1/0/") + port});
+            }
+        }
+        batch("INSERT INTO device_port (equipment_id, port_number, port_type, status, speed, description) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows, settings);
+
+        Map<Long, List<Long>> result = new HashMap<>();
+        jdbcTemplate.query("SELECT id, equipment_id FROM device_port WHERE equipment_id BETWEEN ? AND ? " +
+                        "ORDER BY equipment_id, port_number",
+                rs -> {
+                    result.computeIfAbsent(rs.getLong("equipment_id"), k -> new ArrayList<>()).add(rs.getLong("id"));
+                },
+                equipmentIds.stream().mapToLong(Long::longValue).min().orElse(0),
+                equipmentIds.stream().mapToLong(Long::longValue).max().orElse(0));
+        return result;
+    }
+
+    private void linkTopology(Settings settings, List<Long> equipmentIds, Map<Long, List<Long>> portsByEquipment) {
+        int ports = settings.portsPerEquipment();
+        int distribution = distributionCount(settings);
+        // Следующий свободный порт даунлинка у ядра и распределения
+        Map<Long, Integer> nextDownlink = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int i = 0; i < equipmentIds.size(); i++) {
+            int site = i % settings.sites();
+            int index = i / settings.sites();
+            Long equipmentId = equipmentIds.get(i);
+            if (index < 2) {
+                continue;
+            }
+            List<Long> uplinkTargets = new ArrayList<>();
+            if (index < 2 + distribution) {
+                // Распределение — в оба ядра
+                uplinkTargets.add(equipmentAt(equipmentIds, settings, site, 0));
+                uplinkTargets.add(equipmentAt(equipmentIds, settings, site, 1));
+            } else {
+                uplinkTargets.add(equipmentAt(equipmentIds, settings, site, 2 + (index - 2 - distribution) % distribution));
+            }
+            for (int u = 0; u < uplinkTargets.size(); u++) {
+                Long peerId = uplinkTargets.get(u);
+                if (peerId == null) {
+                    continue;
+                }
+                int peerPort = nextDownlink.merge(peerId, 1, Integer::sum);
+                if (peerPort > ports - 2) {
+                    continue;
+                }
+                Long portId = portsByEquipment.get(equipmentId).get(ports - 1 - u);
+                Long peerPortId = portsByEquipment.get(peerId).get(peerPort - 1);
+                rows.add(new Object[]{peerId, peerPortId, portId});
+                rows.add(new Object[]{equipmentId, portId, peerPortId});
+            }
+        }
+        batch("UPDATE device_port SET connected_to_equipment_id = ?, connected_to_port_id = ?, status = 'Active' " +
+                "WHERE id = ?", rows, settings);
+    }
+
+    private List<Long> insertIpAddresses(Settings settings, List<Long> equipmentIds, List<String> ipAddresses) {
+        List<Object[]> rows = new ArrayList<>();
+        LocalDate assigned = LocalDate.now().minusYears(1);
+        for (int i = 0; i < equipmentIds.size(); i++) {
+            int site = i % settings.sites();
+            int index = i / settings.sites();
+            String lan = "172." + (16 + site % 16) + "." + (index / 254 + (site / 16) * 64) + "." + (index % 254 + 1);
+            rows.add(new Object[]{equipmentIds.get(i), ipAddresses.get(i), "255.255.255.0",
+                    "10." + site + "." + index / 254 + ".254", "Management", true, Date.valueOf(assigned)});
+            rows.add(new Object[]{equipmentIds.get(i), lan, "255.255.255.0",
+                    "172." + (16 + site % 16) + ".0.1", "LAN", false, Date.valueOf(assigned)});
+            ipAddresses.add(lan);
+        }
+        batch("INSERT INTO ip_address (equipment_id, ip_address, subnet_mask, gateway, network_type, is_primary, " +
+                "assigned_date) VALUES (?, ?, ?, ?, ?, ?, ?)", rows, settings);
+        return jdbcTemplate.queryForList("SELECT id FROM ip_address WHERE equipment_id BETWEEN ? AND ? ORDER BY id",
+                Long.class, equipmentIds.getFirst(), equipmentIds.getLast());
+    }
+
+    private void insertMaintenance(Settings settings, Random random, List<Long> equipmentIds, List<Long> employeeIds) {
+        int records = settings.maintenanceYears() * settings.maintenancePerYear();
+        if (records == 0) {
+            return;
+        }
+        long intervalDays = 365L / settings.maintenancePerYear();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Object[]> rows = new ArrayList<>();
+        for (Long equipmentId : equipmentIds) {
+            for (int r = records; r >= 1; r--) {
+                LocalDateTime date = now.minusDays(r * intervalDays - random.nextInt((int) Math.max(1, intervalDays / 2)));
+                String type = MAINTENANCE_TYPES[random.nextInt(MAINTENANCE_TYPES.length)];
+                rows.add(new Object[]{equipmentId, Timestamp.valueOf(date), type, "Синтетическое обслуживание: " + type,
+                        employeeIds.get(random.nextInt(employeeIds.size())),
+                        BigDecimal.valueOf(500 + random.nextInt(50_000), 2),
+                        Date.valueOf(date.toLocalDate().plusDays(intervalDays))});
+                if (rows.size() >= settings.batchSize()) {
+                    batch(MAINTENANCE_INSERT, rows, settings);
+                    rows.clear();
+                }
+            }
+        }
+        batch(MAINTENANCE_INSERT, rows, settings);
+    }
+
+    private void batch(String sql, List<Object[]> rows, Settings settings) {
+        for (int from = 0; from < rows.size(); from += settings.batchSize()) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + settings.batchSize(), rows.size())));
+        }
+    }
+
+    private static int distributionCount(Settings settings) {
+        // Каждый коммутатор распределения принимает ports - 2 коммутаторов доступа
+        int perSite = (settings.equipment() + settings.sites() - 1) / settings.sites();
+        return Math.max(1, (perSite - 2 + settings.portsPerEquipment() - 2) / (settings.portsPerEquipment() - 1));
+    }
+
+    private static Long equipmentAt(List<Long> equipmentIds, Settings settings, int site, int index) {
+        int i = index * settings.sites() + site;
+        return i < equipmentIds.size() ? equipmentIds.get(i) : null;
+    }
+
+    private static String role(Settings settings, int index) {
+        if (index < 2) {
+            return "CORE";
+        }
+        return index < 2 + distributionCount(settings) ? "DIST" : "ACC";
+    }
+
+    private static String managementIp(int site, int index) {
+        return "10." + site + "." + index / 254 + "." + (index % 254 + 1);
+    }
+
+    private static String address(int site, int index) {
+        String city = CITIES[site % CITIES.length];
+        int building = index % 3 + 1;
+        int floor = index / 3 % 5 + 1;
+        int rack = index / 15 % 20 + 1;
+        return "г. " + city + ", ул. Промышленная, д. " + (site / CITIES.length + 1) +
+                ", корп. " + building + ", эт. " + floor + ", стойка " + rack;
+    }
+}
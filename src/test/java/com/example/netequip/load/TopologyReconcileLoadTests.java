@@ -0,0 +1,138 @@
+package com.example.netequip.load;
+
+import com.example.netequip.dto.topology.DiscoveredLinkDTO;
+import com.example.netequip.dto.topology.TopologyReconcileRequestDTO;
+import com.example.netequip.dto.topology.TopologyReconcileResultDTO;
+import com.example.netequip.service.TopologyReconcileService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сверка топологии на netequip.load.topology-links обнаруженных связей
+ * (mvn test -Pload -Dtest=TopologyReconcileLoadTests): предпросмотр, применение порциями
+ * и повторная сверка того же набора. Оборудование соединено попарно порт в порт;
+ * время каждого шага — в журнал
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:topology-load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "netequip.topology.max-links=${netequip.load.topology-links}"})
+@ActiveProfiles({"test", "load"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TopologyReconcileLoadTests {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private TopologyReconcileService topologyReconcileService;
+
+    @Value("${netequip.load.topology-links}")
+    private int links;
+    @Value("${netequip.load.topology-ports-per-equipment}")
+    private int portsPerEquipment;
+
+    private JdbcTemplate jdbcTemplate;
+    private List<Long> equipmentIds;
+
+    @BeforeAll
+    void seed() {
+        long started = System.nanoTime();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO equipment_type (type_name, manufacturer, model, default_port_count) " +
+                "VALUES ('Коммутатор доступа', 'Eltex', 'MES2348', ?)", portsPerEquipment);
+        Long typeId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM equipment_type", Long.class);
+
+        int equipment = 2 * ((links + portsPerEquipment - 1) / portsPerEquipment);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < equipment; i++) {
+            rows.add(new Object[]{typeId, "TOPO-" + (i + 1), String.format("TOPO%09d", i + 1), "Active",
+                    Date.valueOf(LocalDate.now())});
+        }
+        batch("INSERT INTO equipment (type_id, name, serial_number, status, date_added) VALUES (?, ?, ?, ?, ?)", rows);
+        equipmentIds = jdbcTemplate.queryForList("SELECT id FROM equipment WHERE serial_number LIKE 'TOPO%' " +
+                "ORDER BY serial_number", Long.class);
+
+        rows.clear();
+        for (Long equipmentId : equipmentIds) {
+            for (int port = 1; port <= portsPerEquipment; port++) {
+                rows.add(new Object[]{equipmentId, port, "Ethernet", "Inactive", "1G"});
+                if (rows.size() >= BATCH_SIZE * 100) {
+                    batch("INSERT INTO device_port (equipment_id, port_number, port_type, status, speed) " +
+                            "VALUES (?, ?, ?, ?, ?)", rows);
+                    rows.clear();
+                }
+            }
+        }
+        batch("INSERT INTO device_port (equipment_id, port_number, port_type, status, speed) " +
+                "VALUES (?, ?, ?, ?, ?)", rows);
+        log.info("Сверка топологии: оборудования {}, портов {} за {} мс", equipmentIds.size(),
+                equipmentIds.size() * portsPerEquipment, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Test
+    void reconcileAppliesInChunksAndRepeatsAsNoOp() {
+        List<DiscoveredLinkDTO> discovered = new ArrayList<>(links);
+        for (int pair = 0; discovered.size() < links; pair++) {
+            Long local = equipmentIds.get(2 * pair);
+            Long remote = equipmentIds.get(2 * pair + 1);
+            for (int port = 1; port <= portsPerEquipment && discovered.size() < links; port++) {
+                discovered.add(new DiscoveredLinkDTO(local, port, remote, port));
+            }
+        }
+
+        TopologyReconcileResultDTO preview = timed("предпросмотр", () ->
+                topologyReconcileService.reconcile(new TopologyReconcileRequestDTO(discovered, null, true)));
+        assertEquals(links, preview.getAdded());
+        assertEquals(2 * links, preview.getPortsUpdated());
+
+        TopologyReconcileResultDTO applied = timed("применение", () ->
+                topologyReconcileService.reconcile(new TopologyReconcileRequestDTO(discovered, null, false)));
+        assertEquals(links, applied.getAdded());
+        assertEquals(2 * links, applied.getPortsUpdated());
+        assertEquals(2L * links, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM device_port WHERE connected_to_port_id IS NOT NULL", Long.class));
+        assertEquals(2L * links, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM change_log WHERE entity_type = 'device_port'", Long.class));
+
+        TopologyReconcileResultDTO repeated = timed("повторная сверка", () ->
+                topologyReconcileService.reconcile(new TopologyReconcileRequestDTO(discovered, null, false)));
+        assertEquals(links, repeated.getUnchanged());
+        assertEquals(0, repeated.getPortsUpdated());
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private TopologyReconcileResultDTO timed(String step, Supplier<TopologyReconcileResultDTO> action) {
+        long started = System.nanoTime();
+        TopologyReconcileResultDTO result = action.get();
+        log.info("Сверка топологии, {}: связей {}, портов изменено {} за {} мс", step, result.getDiscovered(),
+                result.getPortsUpdated(), (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
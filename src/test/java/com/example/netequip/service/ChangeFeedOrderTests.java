@@ -0,0 +1,113 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.changelog.ChangeDTO;
+import com.example.netequip.dto.changelog.ChangeFeedDTO;
+import com.example.netequip.entity.ChangeLogEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Лента изменений: токены выдаются в порядке коммитов, поэтому запись медленной транзакции
+ * не оказывается позади уже прочитанного токена; вложенная транзакция REQUIRES_NEW
+ * коммитит и откатывает только свои записи
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:change-feed-order;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChangeFeedOrderTests {
+
+    @Autowired
+    private ChangeLogService changeLogService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void slowTransactionCommittedLaterIsNotSkipped() throws Exception {
+        long head = changeLogService.getHeadToken();
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ChangeFeedDTO first;
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            // Медленная транзакция записывает изменение первой, а коммитится последней
+            Future<?> slow = executor.submit(() -> transactionTemplate.executeWithoutResult(tx -> {
+                changeLogService.recordUpdated(ChangeLogEntry.EQUIPMENT, 1L, Map.of("name", "SLOW"));
+                recorded.countDown();
+                await(release);
+            }));
+            assertTrue(recorded.await(10, TimeUnit.SECONDS));
+            changeLogService.recordUpdated(ChangeLogEntry.EQUIPMENT, 2L, Map.of("name", "FAST"));
+
+            first = changeLogService.getChanges(head, 100);
+            assertEquals(List.of(2L), entityIds(first));
+
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+        }
+
+        ChangeFeedDTO second = changeLogService.getChanges(first.getNextToken(), 100);
+        assertEquals(List.of(1L), entityIds(second));
+        assertTrue(second.getNextToken() > first.getNextToken());
+        JsonNode payload = jsonMapper.readTree(second.getChanges().getFirst().getPayload());
+        assertEquals("SLOW", payload.get("name").asString());
+    }
+
+    @Test
+    void requiresNewKeepsItsOwnEntries() {
+        long head = changeLogService.getHeadToken();
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            changeLogService.recordUpdated(ChangeLogEntry.EQUIPMENT, 10L, Map.of("name", "OUTER"));
+            requiresNew.executeWithoutResult(inner ->
+                    changeLogService.recordUpdated(ChangeLogEntry.EQUIPMENT, 11L, Map.of("name", "INNER")));
+            requiresNew.executeWithoutResult(inner -> {
+                changeLogService.recordUpdated(ChangeLogEntry.EQUIPMENT, 12L, Map.of("name", "ROLLED BACK"));
+                inner.setRollbackOnly();
+            });
+            changeLogService.recordUpdated(ChangeLogEntry.EQUIPMENT, 13L, Map.of("name", "OUTER"));
+        });
+
+        // Вложенная транзакция закоммитилась раньше внешней
+        assertEquals(List.of(11L, 10L, 13L), entityIds(changeLogService.getChanges(head, 100)));
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private static List<Long> entityIds(ChangeFeedDTO feed) {
+        return feed.getChanges().stream().map(ChangeDTO::getEntityId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.netequip.service;
+
+import com.example.netequip.entity.ChangeLogEntry;
+import com.example.netequip.repository.ChangeLogCompactionRepository;
+import com.example.netequip.repository.ChangeLogRepository;
+import com.example.netequip.repository.ChangeLogWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сжатие журнала изменений: устаревшие записи и старые записи об удалении
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:change-log-compaction;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChangeLogCompactionTests {
+
+    @Autowired
+    private ChangeLogCompactionJob compactionJob;
+    @Autowired
+    private ChangeLogRepository changeLogRepository;
+    @Autowired
+    private ChangeLogCompactionRepository compactionRepository;
+    @Autowired
+    private ChangeLogWriter changeLogWriter;
+
+    @Test
+    void compactKeepsLatestEntryOfEachEntity() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime old = now.minusDays(2);
+        entry(1L, ChangeLogEntry.CREATED, old);
+        entry(1L, ChangeLogEntry.UPDATED, old);
+        Long latest1 = entry(1L, ChangeLogEntry.UPDATED, now);
+        Long latest2 = entry(2L, ChangeLogEntry.CREATED, old);
+        entry(3L, ChangeLogEntry.CREATED, now.minusDays(40));
+        Long tombstone = entry(3L, ChangeLogEntry.DELETED, now.minusDays(35));
+        Long recent4 = entry(4L, ChangeLogEntry.CREATED, now);
+        Long recent4Deleted = entry(4L, ChangeLogEntry.DELETED, now);
+
+        compactionJob.compact();
+
+        List<Long> remaining = changeLogRepository.findAll().stream()
+                .map(ChangeLogEntry::getId)
+                .sorted()
+                .toList();
+        assertEquals(List.of(latest1, latest2, recent4, recent4Deleted), remaining);
+        assertEquals(tombstone, compactionRepository.findPurgeHorizon());
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private Long entry(Long entityId, String operation, LocalDateTime changedAt) {
+        ChangeLogEntry entry = new ChangeLogEntry(null, ChangeLogEntry.EQUIPMENT, entityId, operation, changedAt, null);
+        changeLogWriter.append(List.of(entry));
+        return entry.getId();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.deviceport.CreateDevicePortDTO;
+import com.example.netequip.dto.equipment.CreateEquipmentDTO;
+import com.example.netequip.dto.equipmenttype.CreateEquipmentTypeDTO;
+import com.example.netequip.entity.Equipment;
+import com.example.netequip.repository.EquipmentRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Счётчики в строке оборудования: изменение видно в той же транзакции
+ * и не затирается ранее загруженной сущностью
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:equipment-counters;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EquipmentCountersTests {
+
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EquipmentService equipmentService;
+    @Autowired
+    private DevicePortService devicePortService;
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long equipmentId;
+    private final AtomicInteger portNumber = new AtomicInteger();
+
+    @BeforeAll
+    void seed() {
+        CreateEquipmentTypeDTO type = new CreateEquipmentTypeDTO();
+        type.setTypeName("Коммутатор");
+        type.setManufacturer("Cisco");
+        type.setModel("C9200");
+        CreateEquipmentDTO equipment = new CreateEquipmentDTO();
+        equipment.setTypeId(equipmentTypeService.create(type).getId());
+        equipment.setName("COUNTERS-1");
+        equipmentId = equipmentService.create(equipment).getId();
+    }
+
+    @Test
+    void adjustedCounterIsVisibleInSameTransaction() {
+        int before = transactionTemplate.execute(tx -> {
+            int loaded = equipmentRepository.findById(equipmentId).orElseThrow().getPortsCount();
+            createPort();
+            assertEquals(loaded + 1, equipmentRepository.findById(equipmentId).orElseThrow().getPortsCount());
+            return loaded;
+        });
+
+        assertEquals(before + 1, equipmentRepository.findById(equipmentId).orElseThrow().getPortsCount());
+    }
+
+    @Test
+    void loadedEquipmentDoesNotWriteBackStaleCounter() {
+        int before = equipmentRepository.findById(equipmentId).orElseThrow().getPortsCount();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            Equipment equipment = equipmentRepository.findById(equipmentId).orElseThrow();
+            equipment.setStatus("Maintenance");
+            createPort();
+        });
+
+        Equipment reloaded = equipmentRepository.findById(equipmentId).orElseThrow();
+        assertEquals(before + 1, reloaded.getPortsCount());
+        assertEquals("Maintenance", reloaded.getStatus());
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private void createPort() {
+        CreateDevicePortDTO port = new CreateDevicePortDTO();
+        port.setEquipmentId(equipmentId);
+        port.setPortNumber(portNumber.incrementAndGet());
+        port.setPortType("Ethernet");
+        devicePortService.create(port);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.equipment.CreateEquipmentDTO;
+import com.example.netequip.dto.equipment.EquipmentResponseDTO;
+import com.example.netequip.dto.equipmenttype.CreateEquipmentTypeDTO;
+import com.example.netequip.dto.location.LocationDTO;
+import com.example.netequip.entity.EquipmentType;
+import com.example.netequip.entity.Location;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Привязка оборудования к иерархии расположения: длинные адреса, одновременное создание узла
+ * и сохранность кэша второго уровня при вставке узла
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:locations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LocationServiceTests {
+
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EquipmentService equipmentService;
+    @Autowired
+    private LocationService locationService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long typeId;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @BeforeAll
+    void seed() {
+        CreateEquipmentTypeDTO type = new CreateEquipmentTypeDTO();
+        type.setTypeName("Коммутатор");
+        type.setManufacturer("Cisco");
+        type.setModel("C9300");
+        typeId = equipmentTypeService.create(type).getId();
+    }
+
+    @Test
+    void longAddressIsCappedToColumnLength() {
+        String address = "г. Москва, " + "ул. Очень Длинная Промышленная Улица Имени Кого-то, ".repeat(5);
+        address = address.substring(0, 250 - ", стойка 7".length()) + ", стойка 7";
+        assertEquals(250, address.length());
+
+        EquipmentResponseDTO created = equipmentService.create(equipment(address));
+
+        assertNotNull(created.getLocationPath());
+        LocationDTO site = locationService.getByLevel(Location.Level.SITE).stream()
+                .filter(l -> created.getLocationPath().startsWith(l.getPath()))
+                .findFirst().orElseThrow();
+        assertEquals(Location.MAX_NAME_LENGTH, site.getName().length());
+        assertEquals(1, locationService.getById(created.getLocationId()).getEquipmentCount());
+    }
+
+    @Test
+    void concurrentCreatesShareNewLocation() throws Exception {
+        String address = "г. Казань, ул. Баумана, д. 1, этаж 2, стойка 3";
+        List<Callable<EquipmentResponseDTO>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> equipmentService.create(equipment(address)));
+        }
+
+        List<Long> locationIds = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(tasks.size())) {
+            for (Future<EquipmentResponseDTO> future : executor.invokeAll(tasks)) {
+                locationIds.add(future.get().getLocationId());
+            }
+        }
+
+        assertEquals(1, locationIds.stream().distinct().count(), () -> "разные узлы: " + locationIds);
+        assertEquals(tasks.size(), locationService.getById(locationIds.getFirst()).getEquipmentCount());
+    }
+
+    @Test
+    void newLocationKeepsUnrelatedCacheRegions() {
+        equipmentTypeService.getById(typeId);
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertTrue(cache.contains(EquipmentType.class, typeId));
+
+        equipmentService.create(equipment("г. Самара, ул. Ленина, д. 5, стойка 1"));
+
+        assertTrue(cache.contains(EquipmentType.class, typeId), "вставка узла сбросила чужой регион кэша");
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private CreateEquipmentDTO equipment(String address) {
+        CreateEquipmentDTO dto = new CreateEquipmentDTO();
+        dto.setTypeId(typeId);
+        dto.setName("LOC-" + sequence.incrementAndGet());
+        dto.setAddress(address);
+        return dto;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.deviceport.CreateDevicePortDTO;
+import com.example.netequip.dto.deviceport.PortStatusIngestionStatsDTO;
+import com.example.netequip.dto.deviceport.PortStatusUpdateDTO;
+import com.example.netequip.dto.equipment.CreateEquipmentDTO;
+import com.example.netequip.dto.equipmenttype.CreateEquipmentTypeDTO;
+import com.example.netequip.exception.deviceport.PortStatusBacklogFullException;
+import com.example.netequip.mapper.DevicePortMapper;
+import com.example.netequip.repository.DevicePortRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Приём телеметрии статусов портов: выгрузка применяет только изменения,
+ * параллельные пакеты и возврат порций не превышают ёмкость буфера,
+ * отклонённые и исчерпавшие попытки наблюдения отбрасываются
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:port-status;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PortStatusIngestionTests {
+
+    private static final int CAPACITY = 100;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EquipmentService equipmentService;
+    @Autowired
+    private DevicePortService devicePortService;
+
+    @Autowired
+    private DevicePortRepository devicePortRepository;
+    @Autowired
+    private DevicePortMapper devicePortMapper;
+    @Autowired
+    private ChangeLogService changeLogService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PortStatusHistoryService portStatusHistoryService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> portIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        CreateEquipmentTypeDTO type = new CreateEquipmentTypeDTO();
+        type.setTypeName("Коммутатор");
+        type.setManufacturer("Cisco");
+        type.setModel("C9200");
+        CreateEquipmentDTO equipment = new CreateEquipmentDTO();
+        equipment.setTypeId(equipmentTypeService.create(type).getId());
+        equipment.setName("ACCESS-1");
+        Long equipmentId = equipmentService.create(equipment).getId();
+
+        for (int portNumber = 1; portNumber <= 3; portNumber++) {
+            CreateDevicePortDTO port = new CreateDevicePortDTO();
+            port.setEquipmentId(equipmentId);
+            port.setPortNumber(portNumber);
+            port.setPortType("Ethernet");
+            portIds.add(devicePortService.create(port).getId());
+        }
+    }
+
+    @Test
+    void flushAppliesOnlyChangedPorts() {
+        PortStatusIngestionService service = service();
+        String current = devicePortService.getById(portIds.get(0)).getStatus();
+        String changed = "Active".equals(current) ? "Inactive" : "Active";
+
+        service.submit(List.of(
+                new PortStatusUpdateDTO(portIds.get(0), current),
+                new PortStatusUpdateDTO(portIds.get(1), changed),
+                new PortStatusUpdateDTO(portIds.get(2), changed),
+                new PortStatusUpdateDTO(Long.MAX_VALUE, changed)));
+        service.flush();
+
+        PortStatusIngestionStatsDTO stats = service.getStats();
+        assertEquals(2, stats.getApplied());
+        assertEquals(1, stats.getUnchanged());
+        assertEquals(1, stats.getUnknownPorts());
+        assertEquals(0, stats.getFailedFlushes());
+        assertEquals(current, devicePortService.getById(portIds.get(0)).getStatus());
+        assertEquals(changed, devicePortService.getById(portIds.get(1)).getStatus());
+        assertEquals(changed, devicePortService.getById(portIds.get(2)).getStatus());
+    }
+
+    @Test
+    void concurrentSubmitsStayWithinCapacity() throws Exception {
+        PortStatusIngestionService service = service();
+        int batchSize = 30;
+        List<Callable<Boolean>> submitters = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            List<PortStatusUpdateDTO> batch = new ArrayList<>();
+            for (int j = 0; j < batchSize; j++) {
+                batch.add(new PortStatusUpdateDTO((long) i * batchSize + j + 1, "Active"));
+            }
+            submitters.add(() -> {
+                service.submit(batch);
+                return true;
+            });
+        }
+
+        int accepted = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(submitters.size())) {
+            for (Future<Boolean> result : executor.invokeAll(submitters)) {
+                try {
+                    result.get();
+                    accepted++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(PortStatusBacklogFullException.class, e.getCause());
+                }
+            }
+        }
+
+        assertEquals(CAPACITY / batchSize, accepted);
+        assertEquals(accepted * batchSize, service.getBacklog());
+    }
+
+    @Test
+    void rejectedPortIsIsolatedAndDropped() {
+        PortStatusIngestionService service = service();
+        // Статус длиннее колонки: такую порцию БД не примет ни при каком повторе
+        service.submit(List.of(
+                new PortStatusUpdateDTO(portIds.get(0), "x".repeat(300)),
+                new PortStatusUpdateDTO(portIds.get(1), "Testing"),
+                new PortStatusUpdateDTO(portIds.get(2), "Testing")));
+        service.flush();
+
+        PortStatusIngestionStatsDTO stats = service.getStats();
+        assertEquals(1, stats.getDeadLettered());
+        assertEquals(2, stats.getApplied());
+        assertEquals(0, service.getBacklog());
+        assertEquals("Testing", devicePortService.getById(portIds.get(1)).getStatus());
+        assertEquals("Testing", devicePortService.getById(portIds.get(2)).getStatus());
+    }
+
+    @Test
+    void transientFailureIsRetriedWithinCapacityAndAttempts() {
+        // Соединение не выдаётся; во время первой выгрузки параллельный приём занимает весь буфер
+        List<PortStatusIngestionService> holder = new ArrayList<>();
+        AtomicBoolean fillBuffer = new AtomicBoolean(true);
+        TransactionTemplate unavailable = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                if (fillBuffer.getAndSet(false)) {
+                    List<PortStatusUpdateDTO> burst = new ArrayList<>();
+                    for (long portId = 1; portId < CAPACITY; portId++) {
+                        burst.add(new PortStatusUpdateDTO(10_000 + portId, "Active"));
+                    }
+                    holder.getFirst().submit(burst);
+                }
+                throw new CannotCreateTransactionException("нет соединения");
+            }
+        };
+        PortStatusIngestionService service = service(unavailable);
+        holder.add(service);
+
+        service.submit(List.of(
+                new PortStatusUpdateDTO(portIds.get(0), "Active"),
+                new PortStatusUpdateDTO(portIds.get(1), "Active")));
+        service.flush();
+        // Вернулось только одно наблюдение из двух — на второе места нет
+        assertEquals(1, service.getStats().getRequeueDropped());
+        assertEquals(CAPACITY, service.getBacklog());
+
+        // Попытки считаются по портам: вернувшийся порт исчерпывает их на выгрузку раньше принятых позже
+        for (int attempt = 2; attempt <= MAX_ATTEMPTS; attempt++) {
+            service.flush();
+        }
+        assertEquals(1, service.getStats().getDeadLettered());
+        assertEquals(CAPACITY - 1, service.getBacklog());
+
+        service.flush();
+        assertEquals(CAPACITY, service.getStats().getDeadLettered());
+        assertEquals(0, service.getBacklog());
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private PortStatusIngestionService service() {
+        return service(transactionTemplate);
+    }
+
+    private PortStatusIngestionService service(TransactionTemplate template) {
+        return new PortStatusIngestionService(devicePortRepository, devicePortMapper, changeLogService,
+                eventPublisher, portStatusHistoryService, template, CAPACITY, CAPACITY, 2, MAX_ATTEMPTS);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.netequip.service;
+
+import com.example.netequip.cache.HibernateCacheConfig;
+import com.example.netequip.dto.employee.CreateEmployeeDTO;
+import com.example.netequip.dto.employee.EmployeeResponseDTO;
+import com.example.netequip.dto.employee.UpdateEmployeeDTO;
+import com.example.netequip.dto.equipmenttype.CreateEquipmentTypeDTO;
+import com.example.netequip.dto.equipmenttype.EquipmentTypeResponseDTO;
+import com.example.netequip.dto.equipmenttype.UpdateEquipmentTypeDTO;
+import com.example.netequip.entity.Employee;
+import com.example.netequip.entity.EquipmentType;
+import com.example.netequip.exception.employee.EmployeeNotFoundException;
+import com.example.netequip.exception.equiptype.EquipmentTypeNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Кэш второго уровня справочников: повторные чтения обслуживаются из кэша,
+ * изменения через сервисы сразу видны и по ID, и в кэшированных запросах по ключу
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReferenceCacheTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void statistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void employeeUpdateInvalidatesCachedEntries() {
+        EmployeeResponseDTO created = employeeService.create(employee("cache.before@example.com"));
+        employeeService.getById(created.getId());
+        employeeService.getByEmail("cache.before@example.com");
+
+        long entityHits = hits(Employee.CACHE_REGION);
+        long queryHits = queryHits();
+        employeeService.getById(created.getId());
+        employeeService.getByEmail("cache.before@example.com");
+        assertTrue(hits(Employee.CACHE_REGION) > entityHits, "Сотрудник не прочитан из кэша");
+        assertTrue(queryHits() > queryHits, "Поиск по email не прочитан из кэша");
+
+        UpdateEmployeeDTO update = new UpdateEmployeeDTO("Кэшев Пётр", "Architect", "cache.after@example.com");
+        employeeService.update(created.getId(), update);
+
+        assertEquals("Кэшев Пётр", employeeService.getById(created.getId()).getFullName());
+        assertEquals(created.getId(), employeeService.getByEmail("cache.after@example.com").getId());
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getByEmail("cache.before@example.com"));
+    }
+
+    @Test
+    void equipmentTypeUpdateInvalidatesCachedEntries() {
+        EquipmentTypeResponseDTO created = equipmentTypeService.create(type("Кэш-маршрутизатор"));
+        equipmentTypeService.getById(created.getId());
+        equipmentTypeService.getByTypeName("Кэш-маршрутизатор");
+
+        long entityHits = hits(EquipmentType.CACHE_REGION);
+        long queryHits = queryHits();
+        equipmentTypeService.getById(created.getId());
+        equipmentTypeService.getByTypeName("Кэш-маршрутизатор");
+        assertTrue(hits(EquipmentType.CACHE_REGION) > entityHits, "Тип не прочитан из кэша");
+        assertTrue(queryHits() > queryHits, "Поиск по названию не прочитан из кэша");
+
+        UpdateEquipmentTypeDTO update = new UpdateEquipmentTypeDTO("Кэш-коммутатор", "Juniper", "EX4400",
+                48, "Ethernet", "L2", null);
+        equipmentTypeService.update(created.getId(), update);
+
+        assertEquals("Juniper", equipmentTypeService.getById(created.getId()).getManufacturer());
+        assertEquals(created.getId(), equipmentTypeService.getByTypeName("Кэш-коммутатор").getId());
+        assertThrows(EquipmentTypeNotFoundException.class,
+                () -> equipmentTypeService.getByTypeName("Кэш-маршрутизатор"));
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private long hits(String region) {
+        return statistics.getDomainDataRegionStatistics(region).getHitCount();
+    }
+
+    private long queryHits() {
+        return statistics.getQueryRegionStatistics(HibernateCacheConfig.QUERY_REGION).getHitCount();
+    }
+
+    private static CreateEmployeeDTO employee(String email) {
+        CreateEmployeeDTO dto = new CreateEmployeeDTO();
+        dto.setFullName("Кэшев Иван");
+        dto.setPosition("Engineer");
+        dto.setEmail(email);
+        return dto;
+    }
+
+    private static CreateEquipmentTypeDTO type(String name) {
+        CreateEquipmentTypeDTO dto = new CreateEquipmentTypeDTO();
+        dto.setTypeName(name);
+        dto.setManufacturer("Cisco");
+        dto.setModel("ISR4331");
+        dto.setDefaultPortCount(4);
+        return dto;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.netequip.service;
+
+import com.example.netequip.dto.deviceport.CreateDevicePortDTO;
+import com.example.netequip.dto.equipment.CreateEquipmentDTO;
+import com.example.netequip.dto.equipmenttype.CreateEquipmentTypeDTO;
+import com.example.netequip.dto.topology.DiscoveredLinkDTO;
+import com.example.netequip.dto.topology.TopologyReconcileRequestDTO;
+import com.example.netequip.dto.topology.TopologyReconcileResultDTO;
+import com.example.netequip.repository.TopologyRepository;
+import com.example.netequip.repository.TopologyRepository.Connection;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Сверка топологии: классификация обнаруженных и сохранённых связей,
+ * порты вне области сверки
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:topology-reconcile;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TopologyReconcileTests {
+
+    private static final int PORTS = 4;
+
+    @Autowired
+    private EquipmentTypeService equipmentTypeService;
+    @Autowired
+    private EquipmentService equipmentService;
+    @Autowired
+    private DevicePortService devicePortService;
+    @Autowired
+    private TopologyReconcileService topologyReconcileService;
+    @Autowired
+    private TopologyRepository topologyRepository;
+
+    private Long typeId;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @BeforeAll
+    void seed() {
+        CreateEquipmentTypeDTO type = new CreateEquipmentTypeDTO();
+        type.setTypeName("Коммутатор");
+        type.setManufacturer("Cisco");
+        type.setModel("C9500");
+        typeId = equipmentTypeService.create(type).getId();
+    }
+
+    @Test
+    void classifiesDiscoveredAndStoredLinks() {
+        Device a = device();
+        Device b = device();
+        Device c = device();
+        Device d = device();
+        link(a, 1, b, 1);
+        link(a, 2, b, 2);
+        link(a, 3, c, 3);
+
+        List<DiscoveredLinkDTO> links = List.of(
+                discovered(a, 1, b, 1),
+                discovered(a, 3, d, 3),
+                discovered(c, 1, d, 1),
+                discovered(b, 4, c, 4),
+                discovered(b, 4, d, 4),
+                // 65537 не должен совпасть с портом 1
+                discovered(a, 65537, d, 2));
+        List<Long> scope = List.of(a.id(), b.id(), c.id(), d.id());
+
+        TopologyReconcileResultDTO preview = topologyReconcileService.reconcile(
+                new TopologyReconcileRequestDTO(links, scope, true));
+        assertCounts(preview);
+        assertEquals(c.port(3), peer(a.port(3)));
+        assertEquals(b.port(2), peer(a.port(2)));
+
+        TopologyReconcileResultDTO applied = topologyReconcileService.reconcile(
+                new TopologyReconcileRequestDTO(links, scope, false));
+        assertCounts(applied);
+
+        assertEquals(b.port(1), peer(a.port(1)));
+        assertEquals(a.port(1), peer(b.port(1)));
+        assertNull(peer(a.port(2)));
+        assertNull(peer(b.port(2)));
+        assertEquals(d.port(3), peer(a.port(3)));
+        assertEquals(a.port(3), peer(d.port(3)));
+        assertNull(peer(c.port(3)));
+        assertEquals(d.port(1), peer(c.port(1)));
+        assertEquals(c.port(1), peer(d.port(1)));
+        assertNull(peer(b.port(4)));
+        assertNull(peer(c.port(4)));
+        assertNull(peer(d.port(4)));
+    }
+
+    @Test
+    void outOfScopePortFollowsItsManagedPeer() {
+        Device managed = device();
+        Device outside = device();
+        Device far = device();
+        link(managed, 1, outside, 1);
+        link(managed, 3, outside, 4);
+        link(outside, 2, far, 2);
+
+        TopologyReconcileResultDTO result = topologyReconcileService.reconcile(new TopologyReconcileRequestDTO(
+                List.of(discovered(managed, 2, outside, 3), discovered(managed, 3, far, 3)),
+                List.of(managed.id()), false));
+
+        assertEquals(1, result.getAdded());
+        assertEquals(1, result.getRemoved());
+        assertEquals(1, result.getMismatched());
+        assertEquals(0, result.getRejected());
+
+        // Сосед в области отключён → связь порта вне области снимается
+        assertNull(peer(managed.port(1)));
+        assertNull(peer(outside.port(1)));
+        // Сосед в области переподключён → связь порта вне области снимается
+        assertEquals(far.port(3), peer(managed.port(3)));
+        assertEquals(managed.port(3), peer(far.port(3)));
+        assertNull(peer(outside.port(4)));
+        assertEquals(outside.port(3), peer(managed.port(2)));
+        assertEquals(managed.port(2), peer(outside.port(3)));
+        // Связь целиком вне области не трогается
+        assertEquals(far.port(2), peer(outside.port(2)));
+        assertEquals(outside.port(2), peer(far.port(2)));
+    }
+
+    // ========== PRIVATE HELPER METHODS ==========
+
+    private record Device(Long id, Map<Integer, Long> ports) {
+        private Long port(int number) {
+            return ports.get(number);
+        }
+    }
+
+    private Device device() {
+        CreateEquipmentDTO equipment = new CreateEquipmentDTO();
+        equipment.setTypeId(typeId);
+        equipment.setName("TOPO-" + sequence.incrementAndGet());
+        Long equipmentId = equipmentService.create(equipment).getId();
+
+        Map<Integer, Long> ports = new HashMap<>();
+        for (int portNumber = 1; portNumber <= PORTS; portNumber++) {
+            CreateDevicePortDTO port = new CreateDevicePortDTO();
+            port.setEquipmentId(equipmentId);
+            port.setPortNumber(portNumber);
+            port.setPortType("Ethernet");
+            ports.put(portNumber, devicePortService.create(port).getId());
+        }
+        return new Device(equipmentId, ports);
+    }
+
+    private void link(Device local, int localPort, Device remote, int remotePort) {
+        topologyRepository.setConnections(List.of(
+                new Connection(local.port(localPort), remote.id(), remote.port(remotePort)),
+                new Connection(remote.port(remotePort), local.id(), local.port(localPort))));
+    }
+
+    private Long peer(Long portId) {
+        return devicePortService.getById(portId).getConnectedToPortId();
+    }
+
+    private static DiscoveredLinkDTO discovered(Device local, int localPort, Device remote, int remotePort) {
+        return new DiscoveredLinkDTO(local.id(), localPort, remote.id(), remotePort);
+    }
+
+    private static void assertCounts(TopologyReconcileResultDTO result) {
+        assertEquals(5, result.getDiscovered());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(1, result.getAdded());
+        assertEquals(1, result.getRemoved());
+        assertEquals(1, result.getMismatched());
+        assertEquals(1, result.getUnresolved());
+        assertEquals(2, result.getRejected());
+        assertEquals(7, result.getPortsUpdated());
+    }
+}